@@ -4,7 +4,7 @@ package org.kobe.xbot.JClient.Concurrency;
 import org.kobe.xbot.JClient.BaseHandler;
 import org.kobe.xbot.JClient.XTableContext;
 import org.kobe.xbot.JClient.XTablesClient;
-import org.kobe.xbot.Utilities.CircularBuffer;
+import org.kobe.xbot.Utilities.MpscRingBuffer;
 import org.zeromq.ZMQ;
 
 /**
@@ -21,7 +21,8 @@ import org.zeromq.ZMQ;
  * This is part of the XTABLES project and facilitates subscribing and handling incoming messages from the server.
  */
 public class ConcurrentPushHandler extends BaseHandler {
-    public final CircularBuffer<byte[]> pushBuffer;
+    public final MpscRingBuffer<byte[]> pushBuffer;
+    private volatile long sendFailures = 0;
 
     /**
      * Constructor that initializes the handler with the provided socket and server instance.
@@ -30,7 +31,7 @@ public class ConcurrentPushHandler extends BaseHandler {
      */
     public ConcurrentPushHandler(ZMQ.Socket socket) {
         super("XTABLES-PUSH-HANDLER-DAEMON", true, socket);
-        this.pushBuffer = new CircularBuffer<>(500);
+        this.pushBuffer = new MpscRingBuffer<>(512, MpscRingBuffer.WaitStrategy.PARK);
     }
 
 
@@ -47,8 +48,9 @@ public class ConcurrentPushHandler extends BaseHandler {
             try {
                 while (!Thread.currentThread().isInterrupted()) {
                     byte[] message = this.pushBuffer.readAndBlock();
-                    if (message != null) {
-                        socket.send(message, ZMQ.DONTWAIT);
+                    // A refused message is lost, since the PUSH socket only refuses once its HWM is reached.
+                    if (message != null && !socket.send(message, ZMQ.DONTWAIT)) {
+                        sendFailures++;
                     }
                 }
             } catch (Exception e) {
@@ -56,6 +58,15 @@ public class ConcurrentPushHandler extends BaseHandler {
             }
     }
 
+    /**
+     * Retrieves how many messages the PUSH socket refused.
+     *
+     * @return the number of failed sends
+     */
+    public long getSendFailures() {
+        return sendFailures;
+    }
+
     /**
      * Logs exceptions and handles cleanup when the thread is interrupted.
      * <p>
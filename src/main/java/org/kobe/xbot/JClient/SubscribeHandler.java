@@ -1,16 +1,21 @@
 package org.kobe.xbot.JClient;
 
 import com.google.protobuf.ByteString;
+import org.kobe.xbot.JClient.Concurrency.ConcurrentPushHandler;
 import org.kobe.xbot.Utilities.CircularBuffer;
 import org.kobe.xbot.Utilities.ClientStatistics;
 import org.kobe.xbot.Utilities.Entities.XTableClientStatistics;
 import org.kobe.xbot.Utilities.Entities.XTableProto;
 import org.kobe.xbot.Utilities.Exceptions.XTablesException;
 import org.kobe.xbot.Utilities.Utilities;
+import org.kobe.xbot.Utilities.XTablesTopics;
 import org.zeromq.ZMQ;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
 
@@ -19,7 +24,11 @@ import java.util.function.Consumer;
  * <p>
  * This class handles the reception of messages on a ZeroMQ socket, processes them, and stores the updates in a circular buffer.
  * It also manages a separate consumer thread that handles the subscription consumers and invokes their functions for each new update.
- * The handler supports both UPDATE and PUBLISH message categories.
+ * The handler supports both UPDATE and PUBLISH message categories. BATCH frames, which carry several updates
+ * at once, are unpacked so that each of their updates is handled as if it had arrived on its own. Messages
+ * arrive as a topic frame followed by the update, and only the update is parsed. Current values read when
+ * subscribing are handed to their consumer on the same consumer thread, so no consumer is called from two
+ * threads at once.
  * <p>
  * Author: Kobe Lei
  * Version: 1.0
@@ -32,7 +41,10 @@ public class SubscribeHandler extends BaseHandler {
     private final CircularBuffer<XTableProto.XTableMessage.XTableUpdate> buffer;
     private final Thread consumerHandlingThread;
     private final static int BUFFER_SIZE = 500;
+    // Written to the buffer to wake the consumer thread when current values are waiting to be handed out.
+    private final static XTableProto.XTableMessage.XTableUpdate WAKE_UP = XTableProto.XTableMessage.XTableUpdate.newBuilder().build();
     private final SubscriberManager subscriberManager;
+    private final Queue<Snapshot> snapshots = new ConcurrentLinkedQueue<>();
     /**
      * Constructor that initializes the handler with the provided socket and server instance.
      *
@@ -42,7 +54,8 @@ public class SubscribeHandler extends BaseHandler {
     public SubscribeHandler(ZMQ.Socket socket, XTablesClient instance) {
         super("XTABLES-SUBSCRIBE-HANDLER-DAEMON", true, socket);
         this.instance = instance;
-        this.buffer = new CircularBuffer<>(BUFFER_SIZE, (latest, current) -> current.getKey().equals(latest.getKey()));
+        this.buffer = new CircularBuffer<>(BUFFER_SIZE, (latest, current) ->
+                (latest == WAKE_UP) == (current == WAKE_UP) && current.getKey().equals(latest.getKey()));
         this.consumerHandlingThread = new ConsumerHandlingThread();
         this.consumerHandlingThread.start();
         this.subscriberManager = new SubscriberManager(socket);
@@ -66,6 +79,21 @@ public class SubscribeHandler extends BaseHandler {
     public boolean requestUnsubscription(byte[] topic) {
        return subscriberManager.requestUnsubscription(topic);
     }
+
+    /**
+     * Hands current values to a single consumer on the consumer thread, ahead of the next update it
+     * handles. Unlike updates from the server, they are never overwritten while waiting.
+     *
+     * @param consumer The consumer to give the values to.
+     * @param updates  The values, as UPDATEs.
+     */
+    public void deliver(Consumer<XTableProto.XTableMessage.XTableUpdate> consumer, List<XTableProto.XTableMessage.XTableUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        snapshots.add(new Snapshot(consumer, updates));
+        buffer.write(WAKE_UP);
+    }
     /**
      * The main method for handling incoming messages.
      * <p>
@@ -78,23 +106,36 @@ public class SubscribeHandler extends BaseHandler {
     public void run() {
         try {
             while (!Thread.currentThread().isInterrupted()) {
-                byte[] bytes = socket.recv();
+                byte[] topic = socket.recv();
+                // Updates arrive as a topic frame followed by the update itself.
+                byte[] bytes = socket.hasReceiveMore() ? socket.recv() : topic;
                 try {
                     XTableProto.XTableMessage.XTableUpdate message = XTableProto.XTableMessage.XTableUpdate.parseFrom(bytes);
                     if (message.getCategory().equals(XTableProto.XTableMessage.XTableUpdate.Category.INFORMATION) || message.getCategory().equals(XTableProto.XTableMessage.XTableUpdate.Category.REGISTRY)) {
-                        byte[] info = new ClientStatistics()
+                        ClientStatistics statistics = new ClientStatistics()
                                 .setBufferSize(buffer.size)
                                 .setUUID(XTablesClient.UUID)
                                 .setVersion(instance.getVersion())
                                 .setMaxBufferSize(BUFFER_SIZE)
-                                        .toProtobuf()
-                                                .toByteArray();
+                                .setSubscribeReceived(buffer.getWritten())
+                                .setSubscribeOverwritten(buffer.getOverwritten());
+                        ConcurrentPushHandler pushHandler = instance.getPushHandler();
+                        if (pushHandler != null) {
+                            statistics.setPushEnqueued(pushHandler.pushBuffer.getWritten())
+                                    .setPushOverwritten(pushHandler.pushBuffer.getOverwritten())
+                                    .setPushSendFailed(pushHandler.getSendFailures());
+                        }
+                        byte[] info = statistics.toProtobuf().toByteArray();
 
                         instance.getRegsitrySocket().send(XTableProto.XTableMessage.newBuilder()
                                 .setId(message.getValue())
                                 .setValue(ByteString.copyFrom(info))
                                 .setCommand(message.getCategory().equals(XTableProto.XTableMessage.XTableUpdate.Category.INFORMATION) ? XTableProto.XTableMessage.Command.INFORMATION : XTableProto.XTableMessage.Command.REGISTRY)
                                 .build().toByteArray(), ZMQ.DONTWAIT);
+                    } else if (message.getCategory().equals(XTableProto.XTableMessage.XTableUpdate.Category.BATCH)) {
+                        for (XTableProto.XTableMessage.XTableUpdate update : message.getBatchList()) {
+                            this.buffer.write(update);
+                        }
                     } else this.buffer.write(message);
                 } catch (Exception e) {
                     handleException(e);
@@ -141,6 +182,15 @@ public class SubscribeHandler extends BaseHandler {
             try {
                 while (!Thread.currentThread().isInterrupted()) {
                     XTableProto.XTableMessage.XTableUpdate update = buffer.readLatestAndClearOnFunction();
+                    Snapshot snapshot;
+                    while ((snapshot = snapshots.poll()) != null) {
+                        for (XTableProto.XTableMessage.XTableUpdate value : snapshot.updates()) {
+                            snapshot.consumer().accept(value);
+                        }
+                    }
+                    if (update == WAKE_UP) {
+                        continue;
+                    }
                     if (update.getCategory().equals(XTableProto.XTableMessage.XTableUpdate.Category.UPDATE) || update.getCategory().equals(XTableProto.XTableMessage.XTableUpdate.Category.PUBLISH)) {
                         if (instance.subscriptionConsumers.containsKey(update.getKey())) {
                             List<Consumer<XTableProto.XTableMessage.XTableUpdate>> consumers = instance.subscriptionConsumers.get(update.getKey());
@@ -155,6 +205,13 @@ public class SubscribeHandler extends BaseHandler {
                                 consumer.accept(update);
                             }
                         }
+                        for (Map.Entry<String, List<Consumer<XTableProto.XTableMessage.XTableUpdate>>> entry : instance.treeSubscriptionConsumers.entrySet()) {
+                            if (XTablesTopics.isInTree(update.getKey(), entry.getKey())) {
+                                for (Consumer<XTableProto.XTableMessage.XTableUpdate> consumer : entry.getValue()) {
+                                    consumer.accept(update);
+                                }
+                            }
+                        }
                     } else if (update.getCategory().equals(XTableProto.XTableMessage.XTableUpdate.Category.LOG)) {
                         for (Consumer<XTableProto.XTableMessage.XTableLog> consumer : instance.logConsumers) {
                             consumer.accept(XTableProto.XTableMessage.XTableLog.parseFrom(update.getValue()));
@@ -167,6 +224,10 @@ public class SubscribeHandler extends BaseHandler {
         }
     }
 
+    private record Snapshot(Consumer<XTableProto.XTableMessage.XTableUpdate> consumer,
+                            List<XTableProto.XTableMessage.XTableUpdate> updates) {
+    }
+
     /**
      * SubscriberManager - Manages the ZeroMQ SUB socket subscriptions safely in a single thread.
      */
@@ -2,11 +2,13 @@ package org.kobe.xbot.JClient;
 
 import com.google.protobuf.ByteString;
 import org.kobe.xbot.JClient.Concurrency.ConcurrentPushHandler;
+import org.kobe.xbot.Utilities.Entities.MultiGetResult;
 import org.kobe.xbot.Utilities.Entities.QueuedRequests;
 import org.kobe.xbot.Utilities.Entities.Subscriptions;
 import org.kobe.xbot.Utilities.Entities.XTableProto;
 import org.kobe.xbot.Utilities.Exceptions.XTablesServerNotFound;
 import org.kobe.xbot.Utilities.Logger.XTablesLogger;
+import org.kobe.xbot.Utilities.XTablesTopics;
 import org.zeromq.SocketType;
 import org.zeromq.ZContext;
 import org.zeromq.ZMQ;
@@ -19,6 +21,8 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 /**
@@ -59,6 +63,8 @@ public class XTablesClient extends QueuedRequests implements Subscriptions {
     private final XTablesSocketMonitor socketMonitor;
     public final Map<String, List<Consumer<XTableProto.XTableMessage.XTableUpdate>>> subscriptionConsumers;
     public final List<Consumer<XTableProto.XTableMessage.XTableLog>> logConsumers;
+    // Read by the consumer thread while other threads subscribe, so it must allow concurrent iteration.
+    public final Map<String, List<Consumer<XTableProto.XTableMessage.XTableUpdate>>> treeSubscriptionConsumers = new ConcurrentHashMap<>();
     private final ZContext context;
     private final ZMQ.Socket subSocket;
     private final ZMQ.Socket clientRegistrySocket;
@@ -151,8 +157,10 @@ public class XTablesClient extends QueuedRequests implements Subscriptions {
         this.subSocket.connect("tcp://" + this.ip + ":" + subscribeSocketPort);
         this.subscribeHandler = new SubscribeHandler(this.subSocket, this);
         this.subscribeHandler.start();
-        this.subscribeHandler.requestSubscribe(XTableProto.XTableMessage.XTableUpdate.newBuilder().setCategory(XTableProto.XTableMessage.XTableUpdate.Category.REGISTRY).build().toByteArray());
-        this.subscribeHandler.requestSubscribe(XTableProto.XTableMessage.XTableUpdate.newBuilder().setCategory(XTableProto.XTableMessage.XTableUpdate.Category.INFORMATION).build().toByteArray());
+        this.subscribeHandler.requestSubscribe(XTablesTopics.forCategory(XTableProto.XTableMessage.XTableUpdate.Category.REGISTRY));
+        this.subscribeHandler.requestSubscribe(XTablesTopics.forCategory(XTableProto.XTableMessage.XTableUpdate.Category.INFORMATION));
+        // Batched updates are filtered by key on this side, since a frame holds updates for many keys.
+        this.subscribeHandler.requestSubscribe(XTablesTopics.forCategory(XTableProto.XTableMessage.XTableUpdate.Category.BATCH));
         this.subscriptionConsumers = new HashMap<>();
         this.logConsumers = new ArrayList<>();
         ZMQ.Socket pushSocket = context.createSocket(SocketType.PUSH);
@@ -252,7 +260,7 @@ public class XTablesClient extends QueuedRequests implements Subscriptions {
      */
     @Override
     public boolean subscribeToServerLogs(Consumer<XTableProto.XTableMessage.XTableLog> consumer) {
-        boolean success = this.subscribeHandler.requestSubscribe(XTableProto.XTableMessage.XTableUpdate.newBuilder().setCategory(XTableProto.XTableMessage.XTableUpdate.Category.LOG).build().toByteArray());
+        boolean success = this.subscribeHandler.requestSubscribe(XTablesTopics.forCategory(XTableProto.XTableMessage.XTableUpdate.Category.LOG));
         if (success) {
             return this.logConsumers.add(consumer);
         }
@@ -272,13 +280,16 @@ public class XTablesClient extends QueuedRequests implements Subscriptions {
     public boolean unsubscribeToServerLogs(Consumer<XTableProto.XTableMessage.XTableLog> consumer) {
         boolean success = this.logConsumers.remove(consumer);
         if (this.logConsumers.isEmpty()) {
-            return this.subscribeHandler.requestUnsubscription(XTableProto.XTableMessage.XTableUpdate.newBuilder().setCategory(XTableProto.XTableMessage.XTableUpdate.Category.LOG).build().toByteArray());
+            return this.subscribeHandler.requestUnsubscription(XTablesTopics.forCategory(XTableProto.XTableMessage.XTableUpdate.Category.LOG));
         }
         return success;
     }
 
     /**
      * Subscribes to a specific key and associates a consumer to process updates for that key.
+     * <p>
+     * The subscription reaches the server asynchronously and is not acknowledged, so updates made in
+     * the first few milliseconds after this call may not be received.
      *
      * @param key      The key to subscribe to.
      * @param consumer The consumer function that processes updates for the specified key.
@@ -286,13 +297,65 @@ public class XTablesClient extends QueuedRequests implements Subscriptions {
      */
     @Override
     public boolean subscribe(String key, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer) {
-        boolean success = this.subscribeHandler.requestSubscribe(XTableProto.XTableMessage.XTableUpdate.newBuilder().setKey(key).build().toByteArray());
+        boolean success = this.subscribeHandler.requestSubscribe(XTablesTopics.forKey(key));
         if (success) {
             return this.subscriptionConsumers.computeIfAbsent(key, (k) -> new ArrayList<>()).add(consumer);
         }
         return false;
     }
 
+    /**
+     * Subscribes to a specific key, optionally handing the consumer the key's current value first.
+     * <p>
+     * The current value is read with a MULTI_GET over the request socket after subscribing, and is
+     * given only to this consumer as an UPDATE. It is handed over on the consumer thread like every
+     * other update, so the consumer is never called from two threads at once. An update that arrives
+     * in between may be seen before it, or again after it.
+     *
+     * @param key          The key to subscribe to.
+     * @param consumer     The consumer function that processes updates for the specified key.
+     * @param currentValue true to read the key's current value and pass it to the consumer right away.
+     * @return true if the subscription and consumer addition were successful, false otherwise.
+     */
+    @Override
+    public boolean subscribe(String key, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer, boolean currentValue) {
+        return subscribe(List.of(key), consumer, currentValue);
+    }
+
+    /**
+     * Subscribes one consumer to several keys, optionally handing it their current values first.
+     * <p>
+     * The current values are read with a single MULTI_GET after subscribing, rather than one request per
+     * key, and are handed to this consumer as UPDATEs in the same way as by
+     * {@link #subscribe(String, Consumer, boolean)}. Keys without a value are skipped.
+     *
+     * @param keys          The keys to subscribe to.
+     * @param consumer      The consumer function that processes updates for the specified keys.
+     * @param currentValues true to read the keys' current values and pass them to the consumer right away.
+     * @return true if every subscription and consumer addition was successful, false otherwise.
+     */
+    @Override
+    public boolean subscribe(Collection<String> keys, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer, boolean currentValues) {
+        for (String key : keys) {
+            if (!subscribe(key, consumer)) {
+                return false;
+            }
+        }
+        if (currentValues && !keys.isEmpty()) {
+            MultiGetResult result = getMultiple(List.copyOf(keys));
+            if (result != null) {
+                List<XTableProto.XTableMessage.XTableUpdate> updates = new ArrayList<>();
+                for (String key : result.keys()) {
+                    if (result.hasValue(key)) {
+                        updates.add(toUpdate(result.getMessage(key)));
+                    }
+                }
+                this.subscribeHandler.deliver(consumer, updates);
+            }
+        }
+        return true;
+    }
+
     /**
      * Subscribes to updates for all keys and associates a consumer to process updates for all keys.
      *
@@ -308,6 +371,93 @@ public class XTablesClient extends QueuedRequests implements Subscriptions {
         return false;
     }
 
+    /**
+     * Subscribes to a key and everything below it, and associates a consumer to process their updates.
+     * <p>
+     * The filtering happens inside ZMQ, so updates outside the subtree are never received or parsed.
+     * Subscribing to "SmartDashboard" (or "SmartDashboard.") receives "SmartDashboard" and
+     * "SmartDashboard.Speed", but not "SmartDashboardOld". As with {@link #subscribe(String, Consumer)},
+     * updates made in the first few milliseconds after this call may not be received.
+     *
+     * @param prefix   The key at the root of the subtree.
+     * @param consumer The consumer function that processes updates for keys in the subtree.
+     * @return true if the subscription and consumer addition were successful, false otherwise.
+     */
+    @Override
+    public boolean subscribeTree(String prefix, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer) {
+        String root = XTablesTopics.normalizeTree(prefix);
+        boolean success = this.subscribeHandler.requestSubscribe(XTablesTopics.forTree(root));
+        if (success && !root.isEmpty()) {
+            success = this.subscribeHandler.requestSubscribe(XTablesTopics.forKey(root));
+        }
+        if (success) {
+            return this.treeSubscriptionConsumers.computeIfAbsent(root, (k) -> new CopyOnWriteArrayList<>()).add(consumer);
+        }
+        return false;
+    }
+
+    /**
+     * Subscribes to a key and everything below it, optionally handing the consumer their current values
+     * first.
+     * <p>
+     * The current values are read with a single GET_SUBTREE over the request socket after subscribing,
+     * and are given only to this consumer as UPDATEs on the consumer thread, as with
+     * {@link #subscribe(Collection, Consumer, boolean)}. An update that arrives in between may be seen
+     * before them, or again after them.
+     *
+     * @param prefix        The key at the root of the subtree.
+     * @param consumer      The consumer function that processes updates for keys in the subtree.
+     * @param currentValues true to read the subtree's current values and pass them to the consumer right away.
+     * @return true if the subscription and consumer addition were successful, false otherwise.
+     */
+    @Override
+    public boolean subscribeTree(String prefix, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer, boolean currentValues) {
+        if (!subscribeTree(prefix, consumer)) {
+            return false;
+        }
+        if (currentValues) {
+            List<XTableProto.XTableMessage.XTableUpdate> updates = new ArrayList<>();
+            for (XTableProto.XTableMessage value : getSubtree(XTablesTopics.normalizeTree(prefix))) {
+                updates.add(toUpdate(value));
+            }
+            this.subscribeHandler.deliver(consumer, updates);
+        }
+        return true;
+    }
+
+    private static XTableProto.XTableMessage.XTableUpdate toUpdate(XTableProto.XTableMessage value) {
+        return XTableProto.XTableMessage.XTableUpdate.newBuilder()
+                .setCategory(XTableProto.XTableMessage.XTableUpdate.Category.UPDATE)
+                .setKey(value.getKey())
+                .setValue(value.getValue())
+                .setType(value.getType())
+                .setTimestamp(value.getTimestamp())
+                .build();
+    }
+
+    /**
+     * Unsubscribes a specific consumer from a subtree. If no consumers remain for the subtree,
+     * it unsubscribes the subtree from the subscription socket.
+     *
+     * @param prefix   The key at the root of the subtree.
+     * @param consumer The consumer function to remove from the subtree's subscription.
+     * @return true if the consumer was successfully removed or the subtree was unsubscribed, false otherwise.
+     */
+    @Override
+    public boolean unsubscribeTree(String prefix, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer) {
+        String root = XTablesTopics.normalizeTree(prefix);
+        List<Consumer<XTableProto.XTableMessage.XTableUpdate>> list = this.treeSubscriptionConsumers.get(root);
+        boolean success = list != null && list.remove(consumer);
+        if (list == null || list.isEmpty()) {
+            this.treeSubscriptionConsumers.remove(root);
+            success = this.subscribeHandler.requestUnsubscription(XTablesTopics.forTree(root));
+            if (!root.isEmpty()) {
+                success &= this.subscribeHandler.requestUnsubscription(XTablesTopics.forKey(root));
+            }
+        }
+        return success;
+    }
+
     /**
      * Unsubscribes a specific consumer from a given key. If no consumers remain for the key,
      * it unsubscribes the key from the subscription socket.
@@ -323,11 +473,11 @@ public class XTablesClient extends QueuedRequests implements Subscriptions {
             boolean success = list.remove(consumer);
             if (list.isEmpty()) {
                 this.subscriptionConsumers.remove(key);
-                return this.subscribeHandler.requestUnsubscription(XTableProto.XTableMessage.XTableUpdate.newBuilder().setKey(key).build().toByteArray());
+                return this.subscribeHandler.requestUnsubscription(XTablesTopics.forKey(key));
             }
             return success;
         } else {
-            return this.subscribeHandler.requestUnsubscription(XTableProto.XTableMessage.XTableUpdate.newBuilder().setKey(key).build().toByteArray());
+            return this.subscribeHandler.requestUnsubscription(XTablesTopics.forKey(key));
         }
     }
 
@@ -485,6 +635,10 @@ public class XTablesClient extends QueuedRequests implements Subscriptions {
         return clientRegistrySocket;
     }
 
+    public ConcurrentPushHandler getPushHandler() {
+        return pushHandler;
+    }
+
     /**
      * Retrieves the socket monitor.
      * The socket monitor is responsible for monitoring the state of the sockets,
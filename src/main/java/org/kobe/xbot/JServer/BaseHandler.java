@@ -3,6 +3,8 @@ package org.kobe.xbot.JServer;
 import org.kobe.xbot.Utilities.Logger.XTablesLogger;
 import org.zeromq.ZMQ;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * BaseThread - A general base class for threads with common setup and cleanup functionality.
  * <p>
@@ -15,6 +17,7 @@ import org.zeromq.ZMQ;
 public abstract class BaseHandler extends Thread {
     protected static final XTablesLogger logger = XTablesLogger.getLogger(BaseHandler.class);
     protected final ZMQ.Socket socket;
+    private final AtomicLong sendFailures = new AtomicLong();
 
     /**
      * Constructor to initialize the thread with a custom name, daemon status, and socket.
@@ -29,6 +32,31 @@ public abstract class BaseHandler extends Thread {
         this.socket = socket;
     }
 
+    /**
+     * Sends a frame on the handler's socket, counting it if the socket refuses it, which for a
+     * DONTWAIT send means the socket's high water mark was reached and the frame is lost.
+     *
+     * @param data  The frame to send
+     * @param flags The ZMQ send flags
+     * @return true if the socket accepted the frame
+     */
+    protected boolean send(byte[] data, int flags) {
+        boolean sent = socket.send(data, flags);
+        if (!sent) {
+            sendFailures.incrementAndGet();
+        }
+        return sent;
+    }
+
+    /**
+     * Retrieves how many frames the handler's socket refused.
+     *
+     * @return the number of failed sends
+     */
+    public long getSendFailures() {
+        return sendFailures.get();
+    }
+
     /**
      * Performs cleanup by closing the ZMQ.Socket.
      */
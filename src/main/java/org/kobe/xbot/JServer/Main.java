@@ -40,6 +40,20 @@ public class Main {
      * Parses command-line arguments to configure server settings and initialize the XTablesServer.
      * Accepts three optional arguments for PULL, REQ/REP, and PUB ports and an additional optional flag
      * `--additional_features=true/false` to enable or disable additional server features.
+     * The write-ahead log is enabled with `--wal_directory=path` and tuned with `--wal_segment_mb=N`
+     * and `--wal_sync_ms=N`. Periodic checkpoints are enabled with `--checkpoint_directory=path` and
+     * `--checkpoint_interval_s=N`, and are written to the log's directory when only the log is enabled.
+     * Keys under a prefix keep their recent values with `--history=prefix:capacity[,prefix:capacity]`. Values of at least `--offheap_threshold=bytes`
+     * are kept in an off-heap arena of up to `--offheap_capacity_mb=N`, which is off (0) by default.
+     * PUTs that do not change a value only refresh its timestamp and are not published unless
+     * `--suppress_unchanged=false`, and small numeric changes are treated the same way with
+     * `--deadband=prefix:amount[,prefix:amount]`.
+     * Prefixes are limited with `--quota=prefix:max_keys:max_bytes[:evict][,...]`, where a limit of 0
+     * is no limit and `evict` drops the oldest keys instead of rejecting writes.
+     * Request/reply commands are served by `--reply_workers=N` threads, and PUTs are applied by
+     * `--ingest_workers=N` threads. Updates that queue up are published up to `--publish_batch=N` per
+     * frame, which needs clients that understand BATCH frames. Publishing waits for slow subscribers
+     * and a full publish queue instead of dropping messages with `--publish_backpressure=true`.
      * <p>
      * If no ports are provided, the server defaults to using 1735 for PULL, 1736 for REQ/REP, and 1737 for PUB.
      * The method validates all provided ports to ensure they are within the range of 0 to 65535.
@@ -67,6 +81,7 @@ public class Main {
         int pull = 48800;
         int rep = 48801;
         int pub = 48802;
+        XTablesServerConfig config = new XTablesServerConfig();
 
         try {
             for (int i = 0; i < args.length; i++) {
@@ -78,6 +93,57 @@ public class Main {
                         logger.severe("Invalid format for --additional_features. Expected format: --additional_features=true/false");
                         return;
                     }
+                } else if (args[i].startsWith("--wal_directory=") || args[i].startsWith("--wal-directory=")) {
+                    config.setWalDirectory(args[i].split("=", 2)[1]);
+                } else if (args[i].startsWith("--wal_segment_mb=") || args[i].startsWith("--wal-segment-mb=")) {
+                    config.setWalSegmentSizeMB(Integer.parseInt(args[i].split("=", 2)[1]));
+                } else if (args[i].startsWith("--wal_sync_ms=") || args[i].startsWith("--wal-sync-ms=")) {
+                    config.setWalSyncIntervalMillis(Long.parseLong(args[i].split("=", 2)[1]));
+                } else if (args[i].startsWith("--checkpoint_directory=") || args[i].startsWith("--checkpoint-directory=")) {
+                    config.setCheckpointDirectory(args[i].split("=", 2)[1]);
+                } else if (args[i].startsWith("--checkpoint_interval_s=") || args[i].startsWith("--checkpoint-interval-s=")) {
+                    config.setCheckpointIntervalSeconds(Long.parseLong(args[i].split("=", 2)[1]));
+                } else if (args[i].startsWith("--history=")) {
+                    for (String rule : args[i].split("=", 2)[1].split(",")) {
+                        int split = rule.lastIndexOf(':');
+                        if (split < 0) {
+                            logger.severe("Invalid format for --history. Expected format: --history=prefix:capacity[,prefix:capacity]");
+                            return;
+                        }
+                        config.addHistory(rule.substring(0, split), Integer.parseInt(rule.substring(split + 1)));
+                    }
+                } else if (args[i].startsWith("--offheap_threshold=") || args[i].startsWith("--offheap-threshold=")) {
+                    config.setOffHeapThresholdBytes(Integer.parseInt(args[i].split("=", 2)[1]));
+                } else if (args[i].startsWith("--offheap_capacity_mb=") || args[i].startsWith("--offheap-capacity-mb=")) {
+                    config.setOffHeapCapacityMB(Integer.parseInt(args[i].split("=", 2)[1]));
+                } else if (args[i].startsWith("--suppress_unchanged=") || args[i].startsWith("--suppress-unchanged=")) {
+                    config.setSuppressUnchanged(Boolean.parseBoolean(args[i].split("=", 2)[1]));
+                } else if (args[i].startsWith("--deadband=")) {
+                    for (String rule : args[i].split("=", 2)[1].split(",")) {
+                        int split = rule.lastIndexOf(':');
+                        if (split < 0) {
+                            logger.severe("Invalid format for --deadband. Expected format: --deadband=prefix:amount[,prefix:amount]");
+                            return;
+                        }
+                        config.addDeadband(rule.substring(0, split), Double.parseDouble(rule.substring(split + 1)));
+                    }
+                } else if (args[i].startsWith("--quota=")) {
+                    for (String rule : args[i].split("=", 2)[1].split(",")) {
+                        String[] parts = rule.split(":");
+                        if (parts.length < 3 || parts.length > 4 || (parts.length == 4 && !parts[3].equals("evict"))) {
+                            logger.severe("Invalid format for --quota. Expected format: --quota=prefix:max_keys:max_bytes[:evict][,...]");
+                            return;
+                        }
+                        config.addQuota(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts.length == 4);
+                    }
+                } else if (args[i].startsWith("--ingest_workers=") || args[i].startsWith("--ingest-workers=")) {
+                    config.setIngestWorkers(Integer.parseInt(args[i].split("=", 2)[1]));
+                } else if (args[i].startsWith("--publish_batch=") || args[i].startsWith("--publish-batch=")) {
+                    config.setPublishBatchSize(Integer.parseInt(args[i].split("=", 2)[1]));
+                } else if (args[i].startsWith("--publish_backpressure=") || args[i].startsWith("--publish-backpressure=")) {
+                    config.setPublishBackpressure(Boolean.parseBoolean(args[i].split("=", 2)[1]));
+                } else if (args[i].startsWith("--reply_workers=") || args[i].startsWith("--reply-workers=")) {
+                    config.setReplyWorkers(Integer.parseInt(args[i].split("=", 2)[1]));
                 } else if (i < 3) {
                     switch (i) {
                         case 0 -> pull = Integer.parseInt(args[i]);
@@ -102,6 +168,8 @@ public class Main {
                             "Reply Socket Port: " + rep + "\n" +
                             "Publish Socket Port: " + pub + "\n" +
                             "Additional Features: " + additionalFeatures + "\n" +
+                            "Write-Ahead Log: " + (config.getWalDirectory() == null ? "Disabled" : config.getWalDirectory()) + "\n" +
+                            "Checkpoints: " + (config.getCheckpointDirectory() == null ? "Disabled" : config.getCheckpointDirectory()) + "\n" +
                             "Web Interface: " + "http://" + (ip == null ? "localhost" : ip) + ":4880/" + "\n" +
                             "------------------------------------------------------------");
             logger.info("""
@@ -131,10 +199,12 @@ public class Main {
                     \\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/|\\-/
                     """);
 
-            XTablesServer.initialize(XTABLES_SERVER_VERSION, pull, rep, pub, additionalFeatures);
+            XTablesServer.initialize(XTABLES_SERVER_VERSION, pull, rep, pub, additionalFeatures, config);
 
         } catch (NumberFormatException e) {
-            logger.severe("Error: One or more specified ports are not valid integers.");
+            logger.severe("Error: One or more specified ports or options are not valid integers.");
+        } catch (IllegalArgumentException e) {
+            logger.severe("Error: " + e.getMessage());
         }
     }
 }
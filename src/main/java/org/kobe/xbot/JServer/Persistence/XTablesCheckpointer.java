@@ -0,0 +1,214 @@
+package org.kobe.xbot.JServer.Persistence;
+
+import org.kobe.xbot.Utilities.Logger.XTablesLogger;
+import org.kobe.xbot.Utilities.XTablesData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * XTablesCheckpointer - Periodically writes compact binary checkpoints of the server table.
+ * <p>
+ * A checkpoint is the table serialized as a single {@code XTableMessage.XTablesData} message. It is
+ * written by a background thread from a point-in-time view of the table (see
+ * {@link XTablesData#writeCheckpoint(OutputStream)}), so puts are never blocked while it runs.
+ * Each checkpoint is first written to a temporary file, forced to disk and then atomically renamed,
+ * so a crash mid-checkpoint always leaves the previous checkpoint intact.
+ * <p>
+ * When a write-ahead log is in use, the log is rolled to a new segment right before each checkpoint
+ * and the checkpoint is named after that segment. On startup the newest checkpoint is loaded and only
+ * the log segments from its id onwards are replayed, and after each checkpoint the older segments
+ * are deleted.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.JServer.Persistence
+ * <p>
+ * This is part of the XTABLES project and keeps server recovery time independent of uptime.
+ */
+public class XTablesCheckpointer implements Closeable {
+    private static final XTablesLogger logger = XTablesLogger.getLogger();
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".bin";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+    private final XTablesData table;
+    private final XTablesWriteAheadLog writeAheadLog;
+    private final Supplier<Map<String, Long>> expiries;
+    private final ScheduledExecutorService scheduler;
+    private long lastCheckpointId;
+
+    /**
+     * Creates a checkpointer for the given table.
+     *
+     * @param directory     The directory checkpoint files are kept in
+     * @param table         The table to checkpoint
+     * @param writeAheadLog The write-ahead log to compact after each checkpoint, or null if there is none
+     * @throws IOException If the directory cannot be created or listed
+     */
+    public XTablesCheckpointer(Path directory, XTablesData table, XTablesWriteAheadLog writeAheadLog) throws IOException {
+        this(directory, table, writeAheadLog, Collections::emptyMap);
+    }
+
+    /**
+     * Creates a checkpointer for the given table that also keeps the time each key expires at.
+     *
+     * @param directory     The directory checkpoint files are kept in
+     * @param table         The table to checkpoint
+     * @param writeAheadLog The write-ahead log to compact after each checkpoint, or null if there is none
+     * @param expiries      Supplies the wall-clock time in milliseconds each key that expires expires at
+     * @throws IOException If the directory cannot be created or listed
+     */
+    public XTablesCheckpointer(Path directory, XTablesData table, XTablesWriteAheadLog writeAheadLog,
+                               Supplier<Map<String, Long>> expiries) throws IOException {
+        this.directory = directory;
+        this.table = table;
+        this.writeAheadLog = writeAheadLog;
+        this.expiries = expiries;
+        Files.createDirectories(directory);
+        List<Path> existing = listCheckpoints();
+        this.lastCheckpointId = existing.isEmpty() ? 0 : checkpointId(existing.get(existing.size() - 1));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "XTABLES-CHECKPOINT-DAEMON");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the newest checkpoint into the table, if there is one.
+     *
+     * @return The id of the loaded checkpoint, which is the first write-ahead log segment that still
+     * needs to be replayed, or 0 if no checkpoint was found
+     * @throws IOException If the checkpoint cannot be read
+     */
+    public long load() throws IOException {
+        return load(null);
+    }
+
+    /**
+     * Loads the newest checkpoint into the table, if there is one, along with the time each key in
+     * it expires at.
+     *
+     * @param expiries Receives the wall-clock time in milliseconds each key that expires expires at, or null
+     * @return The id of the loaded checkpoint, see {@link #load()}
+     * @throws IOException If the checkpoint cannot be read
+     */
+    public long load(Map<String, Long> expiries) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path stale : files.filter(path -> path.getFileName().toString().endsWith(TEMPORARY_SUFFIX)).toList()) {
+                Files.deleteIfExists(stale);
+            }
+        }
+        List<Path> checkpoints = listCheckpoints();
+        if (checkpoints.isEmpty()) {
+            return 0;
+        }
+        Path latest = checkpoints.get(checkpoints.size() - 1);
+        long startTime = System.nanoTime();
+        int values;
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(latest), BUFFER_SIZE)) {
+            values = table.readCheckpoint(input, expiries);
+        }
+        logger.info(String.format("Loaded %s values from checkpoint %s in %.2f ms.",
+                NumberFormat.getInstance().format(values), latest.getFileName(), (System.nanoTime() - startTime) / 1_000_000.0));
+        return checkpointId(latest);
+    }
+
+    /**
+     * Starts writing a checkpoint at a fixed interval.
+     *
+     * @param intervalSeconds The time between checkpoints in seconds
+     */
+    public void start(long intervalSeconds) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (Exception e) {
+                logger.severe("Failed to write checkpoint: " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes a checkpoint now, then removes the older checkpoints and the log segments it covers.
+     *
+     * @throws IOException If the checkpoint cannot be written
+     */
+    public synchronized void checkpoint() throws IOException {
+        long startTime = System.nanoTime();
+        long id = writeAheadLog != null ? writeAheadLog.roll() : lastCheckpointId + 1;
+        String name = String.format("%s%020d", CHECKPOINT_PREFIX, id);
+        Path temporary = directory.resolve(name + TEMPORARY_SUFFIX);
+        Path target = directory.resolve(name + CHECKPOINT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            table.writeCheckpoint(output, expiries.get());
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lastCheckpointId = id;
+
+        for (Path checkpoint : listCheckpoints()) {
+            if (checkpointId(checkpoint) < id) {
+                Files.deleteIfExists(checkpoint);
+            }
+        }
+        int segments = writeAheadLog != null ? writeAheadLog.deleteSegmentsBefore(id) : 0;
+        logger.info(String.format("Wrote checkpoint %s (%s bytes) in %.2f ms, removed %d write-ahead log segments.",
+                target.getFileName(), NumberFormat.getInstance().format(Files.size(target)),
+                (System.nanoTime() - startTime) / 1_000_000.0, segments));
+    }
+
+    private List<Path> listCheckpoints() throws IOException {
+        List<Path> checkpoints = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(CHECKPOINT_PREFIX) && name.endsWith(CHECKPOINT_SUFFIX);
+            }).sorted().forEach(checkpoints::add);
+        }
+        return checkpoints;
+    }
+
+    private static long checkpointId(Path checkpoint) {
+        String name = checkpoint.getFileName().toString();
+        return Long.parseLong(name.substring(CHECKPOINT_PREFIX.length(), name.length() - CHECKPOINT_SUFFIX.length()));
+    }
+
+    /**
+     * Stops the periodic checkpoints. A checkpoint that is already being written is allowed to finish.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
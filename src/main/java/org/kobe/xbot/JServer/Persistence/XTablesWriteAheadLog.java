@@ -0,0 +1,383 @@
+package org.kobe.xbot.JServer.Persistence;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import org.kobe.xbot.Utilities.Entities.XTableProto;
+import org.kobe.xbot.Utilities.Logger.XTablesLogger;
+import org.kobe.xbot.Utilities.XTablesData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * XTablesWriteAheadLog - An append-only log of table mutations used to recover the table after a restart.
+ * <p>
+ * Every PUT and DELETE applied to the server table is appended as a record to a memory-mapped segment
+ * file. Appending only copies the record into the mapping, and a background thread forces the mapping
+ * to disk at a fixed interval so that all records written within one interval share a single fsync
+ * (group commit). When a segment is full a new one is started.
+ * <p>
+ * Each record is laid out as a 4-byte length, a 4-byte CRC32 of the payload and the payload itself,
+ * which is a serialized {@link XTableProto.XTableMessage} carrying the command, key, value, type and
+ * timestamp. A PUT of a key that expires also carries the time it expires at, as a ttl counted from
+ * its timestamp, and a PUT without a value only moves the key's expiry. Segments are pre-sized and zero-filled, so a zero length marks the end of the written
+ * records, and a checksum mismatch marks a record torn by a crash.
+ * <p>
+ * Segments are numbered in the order they are written. Once a checkpoint covers everything before
+ * a segment, the older segments are deleted with {@link #deleteSegmentsBefore(long)}.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.JServer.Persistence
+ * <p>
+ * This is part of the XTABLES project and provides crash and restart recovery for the server table.
+ */
+public class XTablesWriteAheadLog implements Closeable {
+    private static final XTablesLogger logger = XTablesLogger.getLogger();
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ScheduledExecutorService flusher;
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private final List<MappedByteBuffer> retired = new ArrayList<>();
+    private long segmentId;
+    private volatile boolean dirty;
+    private boolean closed;
+
+    /**
+     * Opens the log in the given directory and starts a new segment for appends. Segments that
+     * already exist in the directory are left untouched until {@link #replay(XTablesData)} reads them.
+     *
+     * @param directory          The directory segment files are kept in
+     * @param segmentSize        The size in bytes of each segment file
+     * @param syncIntervalMillis How often appended records are forced to disk
+     * @throws IOException If the directory or the first segment cannot be created
+     */
+    public XTablesWriteAheadLog(Path directory, long segmentSize, long syncIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Path> existing = listSegments();
+        this.segmentId = existing.isEmpty() ? 0 : segmentId(existing.get(existing.size() - 1));
+        openSegment(segmentSize);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "XTABLES-WAL-FLUSHER-DAEMON");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends a PUT record.
+     *
+     * @param key       The key that was written
+     * @param value     The value that was written
+     * @param type      The type of the value
+     * @param timestamp The server timestamp the value was written with
+     */
+    public void appendPut(String key, ByteString value, XTableProto.XTableMessage.Type type, long timestamp) {
+        appendPut(key, value, type, timestamp, 0);
+    }
+
+    /**
+     * Appends a PUT record of a key that expires.
+     *
+     * @param key       The key that was written
+     * @param value     The value that was written
+     * @param type      The type of the value
+     * @param timestamp The server timestamp the value was written with
+     * @param expiresAt The wall-clock time in milliseconds the key expires at, or 0 for never
+     */
+    public void appendPut(String key, ByteString value, XTableProto.XTableMessage.Type type, long timestamp, long expiresAt) {
+        XTableProto.XTableMessage.Builder builder = XTableProto.XTableMessage.newBuilder()
+                .setCommand(XTableProto.XTableMessage.Command.PUT)
+                .setKey(key)
+                .setValue(value)
+                .setType(type)
+                .setTimestamp(timestamp);
+        if (expiresAt > 0) {
+            builder.setTtl(Math.max(1, expiresAt - timestamp));
+        }
+        append(builder.build());
+    }
+
+    /**
+     * Appends a record that moves the expiry of a key whose value was rewritten unchanged, without
+     * logging the value again.
+     *
+     * @param key       The key that was written
+     * @param timestamp The server timestamp of the write
+     * @param expiresAt The wall-clock time in milliseconds the key now expires at, or 0 for never
+     */
+    public void appendExpiry(String key, long timestamp, long expiresAt) {
+        XTableProto.XTableMessage.Builder builder = XTableProto.XTableMessage.newBuilder()
+                .setCommand(XTableProto.XTableMessage.Command.PUT)
+                .setKey(key)
+                .setTimestamp(timestamp);
+        if (expiresAt > 0) {
+            builder.setTtl(Math.max(1, expiresAt - timestamp));
+        }
+        append(builder.build());
+    }
+
+    /**
+     * Appends a DELETE record. An empty key deletes the whole table.
+     *
+     * @param key The key that was deleted
+     */
+    public void appendDelete(String key) {
+        XTableProto.XTableMessage.Builder builder = XTableProto.XTableMessage.newBuilder()
+                .setCommand(XTableProto.XTableMessage.Command.DELETE);
+        if (key != null && !key.isEmpty()) {
+            builder.setKey(key);
+        }
+        append(builder.build());
+    }
+
+    private synchronized void append(XTableProto.XTableMessage record) {
+        if (closed) return;
+        int length = record.getSerializedSize();
+        // Always leave room for the zero length that terminates the segment.
+        if (buffer.remaining() < HEADER_SIZE + length + 4) {
+            try {
+                rollSegment(HEADER_SIZE + length + 4);
+            } catch (IOException e) {
+                logger.severe("Failed to roll the write-ahead log segment: " + e.getMessage());
+                return;
+            }
+        }
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(buffer);
+            record.writeTo(output);
+            output.flush();
+        } catch (IOException e) {
+            buffer.position(start);
+            logger.severe("Failed to append to the write-ahead log: " + e.getMessage());
+            return;
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start + HEADER_SIZE).limit(start + HEADER_SIZE + length);
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, length);
+        dirty = true;
+    }
+
+    /**
+     * Forces everything appended so far to disk. Appends are not blocked while the fsync runs.
+     */
+    public void sync() {
+        MappedByteBuffer target;
+        List<MappedByteBuffer> finished;
+        synchronized (this) {
+            if (!dirty || closed) return;
+            dirty = false;
+            target = buffer;
+            finished = retired.isEmpty() ? List.of() : new ArrayList<>(retired);
+            retired.clear();
+        }
+        for (MappedByteBuffer segment : finished) {
+            segment.force();
+        }
+        target.force();
+    }
+
+    /**
+     * Replays every record from the segments that existed when this log was opened into the table.
+     * Replay stops at the end of each segment or at the first torn record.
+     *
+     * @param table The table to apply the records to
+     * @return The number of records applied
+     * @throws IOException If a segment cannot be read
+     */
+    public long replay(XTablesData table) throws IOException {
+        return replay(table, 0);
+    }
+
+    /**
+     * Replays the records from the segments that existed when this log was opened, skipping the
+     * segments older than the given one because a checkpoint already covers them.
+     *
+     * @param table         The table to apply the records to
+     * @param fromSegmentId The first segment to replay
+     * @return The number of records applied
+     * @throws IOException If a segment cannot be read
+     */
+    public long replay(XTablesData table, long fromSegmentId) throws IOException {
+        return replay(table, fromSegmentId, null);
+    }
+
+    /**
+     * Replays the records from the given segment onwards, see {@link #replay(XTablesData, long)}, and
+     * keeps track of the time each key expires at along the way.
+     *
+     * @param table         The table to apply the records to
+     * @param fromSegmentId The first segment to replay
+     * @param expiries      The wall-clock time in milliseconds each key expires at, as of the start of
+     *                      the first segment, updated to the end of the log. Null to ignore expiries.
+     * @return The number of records applied
+     * @throws IOException If a segment cannot be read
+     */
+    public long replay(XTablesData table, long fromSegmentId, Map<String, Long> expiries) throws IOException {
+        long applied = 0;
+        for (Path segment : listSegments()) {
+            long id = segmentId(segment);
+            if (id >= fromSegmentId && id < segmentId) {
+                applied += replaySegment(segment, table, expiries);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Forces the current segment to disk and starts a new one. Every record appended after this
+     * call lands in the new segment.
+     *
+     * @return The id of the new segment
+     * @throws IOException If the new segment cannot be created
+     */
+    public synchronized long roll() throws IOException {
+        if (closed) {
+            throw new IOException("The write-ahead log is closed.");
+        }
+        rollSegment(segmentSize);
+        return segmentId;
+    }
+
+    /**
+     * Deletes the segments older than the given one.
+     *
+     * @param segmentId The first segment to keep
+     * @return The number of segments deleted
+     * @throws IOException If the directory cannot be listed
+     */
+    public int deleteSegmentsBefore(long segmentId) throws IOException {
+        int deleted = 0;
+        for (Path segment : listSegments()) {
+            if (segmentId(segment) < segmentId && Files.deleteIfExists(segment)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private long replaySegment(Path segment, XTablesData table, Map<String, Long> expiries) throws IOException {
+        long applied = 0;
+        CRC32 checksum = new CRC32();
+        try (FileChannel input = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer records = input.map(FileChannel.MapMode.READ_ONLY, 0, input.size());
+            while (records.remaining() >= HEADER_SIZE) {
+                int length = records.getInt();
+                int expected = records.getInt();
+                if (length <= 0 || length > records.remaining()) break;
+                ByteBuffer payload = records.slice(records.position(), length);
+                checksum.reset();
+                checksum.update(payload.duplicate());
+                if ((int) checksum.getValue() != expected) {
+                    logger.warning("Write-ahead log segment " + segment.getFileName() + " ends with a torn record, ignoring the rest of it.");
+                    break;
+                }
+                apply(XTableProto.XTableMessage.parseFrom(payload), table, expiries);
+                records.position(records.position() + length);
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private static void apply(XTableProto.XTableMessage record, XTablesData table, Map<String, Long> expiries) {
+        switch (record.getCommand()) {
+            case PUT -> {
+                if (record.hasValue()) {
+                    table.putWithTimestamp(record.getKey(), record.getValue(), record.getType(), record.getTimestamp());
+                }
+                if (expiries != null && record.getTtl() > 0) {
+                    expiries.put(record.getKey(), record.getTimestamp() + record.getTtl());
+                } else if (expiries != null) {
+                    expiries.remove(record.getKey());
+                }
+            }
+            case DELETE -> {
+                String key = record.hasKey() ? record.getKey() : "";
+                table.delete(key);
+                if (expiries != null && key.isEmpty()) {
+                    expiries.clear();
+                } else if (expiries != null) {
+                    expiries.remove(key);
+                }
+            }
+            default -> logger.warning("Skipping unknown write-ahead log record: " + record.getCommand());
+        }
+    }
+
+    private void rollSegment(long minimumSize) throws IOException {
+        // The mapping stays valid after its channel is closed, so the full segment is left for the
+        // flusher to force instead of stalling appends on an fsync here.
+        retired.add(buffer);
+        channel.close();
+        openSegment(Math.max(segmentSize, minimumSize));
+        dirty = true;
+    }
+
+    private void openSegment(long size) throws IOException {
+        segmentId++;
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentId, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private static long segmentId(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Stops the background flusher and forces any remaining records to disk.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        flusher.shutdown();
+        for (MappedByteBuffer segment : retired) {
+            segment.force();
+        }
+        retired.clear();
+        buffer.force();
+        channel.close();
+    }
+}
@@ -1,17 +1,26 @@
 package org.kobe.xbot.JServer;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.protobuf.WireFormat;
 import org.kobe.xbot.Utilities.Entities.XTableClientStatistics;
 import org.kobe.xbot.Utilities.Entities.XTableProto;
+import org.kobe.xbot.Utilities.SpscQueue;
 import org.zeromq.ZMQ;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 /**
  * PushPullRequestHandler - A handler for processing push-pull messages using JeroMQ.
  * <p>
  * This class handles incoming push-pull requests on a JeroMQ socket. It runs in its own thread
- * and parses messages using Protocol Buffers. If the message is valid, further processing can be
- * implemented inside the `run` method. The thread is set as a daemon, meaning it won't block the
- * JVM from exiting.
+ * and only reads enough of each message to find its key, then hands the message to one of several
+ * ingest workers, which parse and apply it. Messages are assigned to a worker by the hash of their
+ * key, and the entries of a BATCH are assigned one by one, so every write to a key is still applied
+ * in the order it was received while different keys are applied in parallel. The threads are set as
+ * daemons, meaning they won't block the JVM from exiting.
  * <p>
  * Author: Kobe Lei
  * Package: XTABLES
@@ -21,39 +30,44 @@ import org.zeromq.ZMQ;
  * in a multithreaded environment with JeroMQ.
  */
 public class PushPullRequestHandler extends BaseHandler {
+    private static final int INGEST_QUEUE_CAPACITY = 4096;
+    private static final int BATCH_COMMAND = XTableProto.XTableMessage.Command.BATCH.getNumber();
     private final XTablesServer instance;
+    private final IngestWorker[] workers;
+    private int[] batchEntries = new int[64];
 
     /**
      * Constructor that initializes the handler with the provided socket and server instance.
      *
      * @param socket   The ZeroMQ socket to receive messages on
      * @param instance The XTablesServer instance
+     * @param workers  The number of threads that parse and apply messages
      */
-    public PushPullRequestHandler(ZMQ.Socket socket, XTablesServer instance) {
+    public PushPullRequestHandler(ZMQ.Socket socket, XTablesServer instance, int workers) {
         super("XTABLES-PUSH-PULL-HANDLER-DAEMON", true, socket);
         this.instance = instance;
+        this.workers = new IngestWorker[workers];
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = new IngestWorker(i);
+        }
     }
 
     /**
      * The main method for handling incoming messages.
-     * It continuously receives messages from the JeroMQ socket and processes them.
+     * It continuously receives messages from the JeroMQ socket and routes them to the ingest workers.
      */
     @Override
     public void run() {
+        for (IngestWorker worker : workers) {
+            worker.start();
+        }
         try {
             while (!Thread.currentThread().isInterrupted()) {
                 byte[] bytes = socket.recv();
                 instance.pullMessages.incrementAndGet();
                 try {
-                    XTableProto.XTableMessage message = XTableProto.XTableMessage.parseFrom(bytes);
-                    XTableProto.XTableMessage.Command command = message.getCommand();
-                    if (command.equals(XTableProto.XTableMessage.Command.BATCH)) {
-                        for (XTableProto.XTableMessage msg : message.getBatchList()) {
-                            processMessage(msg, msg.getCommand());
-                        }
-                    } else processMessage(message, command);
-
-                } catch (Exception e) {
+                    route(bytes);
+                } catch (IOException e) {
                     handleException(e);
                 }
             }
@@ -62,6 +76,127 @@ public class PushPullRequestHandler extends BaseHandler {
         }
     }
 
+    /**
+     * Hands a message to the worker that owns its key. For a BATCH, each entry is handed to the worker
+     * that owns the entry's key. Only the fields needed for routing are read here.
+     *
+     * @param bytes The received message
+     * @throws IOException          If the message is not a valid XTableMessage
+     * @throws InterruptedException If the thread is interrupted while a worker's queue is full
+     */
+    private void route(byte[] bytes) throws IOException, InterruptedException {
+        CodedInputStream input = CodedInputStream.newInstance(bytes);
+        int command = 0;
+        int keyHash = 0;
+        int entries = 0;
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case XTableProto.XTableMessage.COMMAND_FIELD_NUMBER -> command = input.readEnum();
+                case XTableProto.XTableMessage.KEY_FIELD_NUMBER -> {
+                    int length = input.readRawVarint32();
+                    keyHash = hash(bytes, input.getTotalBytesRead(), length);
+                    input.skipRawBytes(length);
+                }
+                case XTableProto.XTableMessage.BATCH_FIELD_NUMBER -> {
+                    int length = input.readRawVarint32();
+                    if (entries * 2 == batchEntries.length) {
+                        batchEntries = Arrays.copyOf(batchEntries, batchEntries.length * 2);
+                    }
+                    batchEntries[entries * 2] = input.getTotalBytesRead();
+                    batchEntries[entries * 2 + 1] = length;
+                    entries++;
+                    input.skipRawBytes(length);
+                }
+                default -> input.skipField(tag);
+            }
+        }
+        if (command != BATCH_COMMAND) {
+            dispatch(keyHash, UnsafeByteOperations.unsafeWrap(bytes));
+            return;
+        }
+        for (int i = 0; i < entries; i++) {
+            int offset = batchEntries[i * 2];
+            int length = batchEntries[i * 2 + 1];
+            dispatch(keyHash(bytes, offset, length), UnsafeByteOperations.unsafeWrap(bytes, offset, length));
+        }
+    }
+
+    private void dispatch(int keyHash, ByteString message) throws InterruptedException {
+        workers[Math.floorMod(keyHash ^ (keyHash >>> 16), workers.length)].queue.put(message);
+    }
+
+    /**
+     * Hashes the key of a message embedded in a larger buffer.
+     *
+     * @return the hash of the key, or 0 if the message has none
+     */
+    private static int keyHash(byte[] bytes, int offset, int length) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(bytes, offset, length);
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) == XTableProto.XTableMessage.KEY_FIELD_NUMBER) {
+                int keyLength = input.readRawVarint32();
+                return hash(bytes, offset + input.getTotalBytesRead(), keyLength);
+            }
+            input.skipField(tag);
+        }
+        return 0;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            return 0;
+        }
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Stops the ingest workers along with the receiving socket.
+     */
+    @Override
+    protected void cleanUp() {
+        super.cleanUp();
+        for (IngestWorker worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Parses and applies the messages routed to it, in the order they were received.
+     */
+    private class IngestWorker extends Thread {
+        private final SpscQueue<ByteString> queue = new SpscQueue<>(INGEST_QUEUE_CAPACITY);
+
+        private IngestWorker(int index) {
+            setName("XTABLES-INGEST-WORKER-DAEMON-" + index);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    ByteString bytes = queue.take();
+                    try {
+                        // Received buffers are never written to, so values can point into them instead of being copied out.
+                        CodedInputStream input = bytes.newCodedInput();
+                        input.enableAliasing(true);
+                        XTableProto.XTableMessage message = XTableProto.XTableMessage.parseFrom(input);
+                        processMessage(message, message.getCommand());
+                    } catch (Exception e) {
+                        handleException(e);
+                    }
+                }
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
     /**
      * Processes a received message by handling its command.
      *
@@ -73,31 +208,18 @@ public class PushPullRequestHandler extends BaseHandler {
             case PUT -> {
                 if (message.hasKey() && message.hasValue()) {
                     String key = message.getKey();
-                    byte[] value = message.getValue().toByteArray();
+                    ByteString value = message.getValue();
                     long timestamp = System.currentTimeMillis();
-                    if (XTablesServer.table.putWithTimestamp(key, value, message.getType(), timestamp)) {
-                        instance.publishQueue.send(XTableProto.XTableMessage.XTableUpdate.newBuilder()
-                                .setType(message.getType())
-                                .setTimestamp(timestamp)
-                                .setCategory(XTableProto.XTableMessage.XTableUpdate.Category.UPDATE)
-                                .setKey(key)
-                                .setValue(ByteString.copyFrom(value))
-                                .build().toByteArray()
-                        );
-                    }
+                    long expiresAt = XTablesExpiryWheel.expiresAt(timestamp, message.getTtl());
+                    // Logged, published and given its expiry by the table's write listener, in the order it
+                    // was applied. An unchanged value still refreshes its time to live.
+                    XTablesServer.table.putWithTimestamp(key, value, message.getType(), timestamp, expiresAt);
                 }
             }
             case PUBLISH -> {
-                if (message.hasKey() && message.hasValue()) {
-                    instance.publishQueue.send(XTableProto.XTableMessage.XTableUpdate.newBuilder()
-                            .setKey(message.getKey())
-                            .setTimestamp(System.currentTimeMillis())
-                            .setType(message.getType())
-                            .setCategory(XTableProto.XTableMessage.XTableUpdate.Category.PUBLISH)
-                            .setValue(ByteString.copyFrom(message.getValue().toByteArray()))
-                            .build().toByteArray()
-                    );
-
+                if (message.hasKey() && message.hasValue() && instance.publishQueue.isWatched(message.getKey())) {
+                    instance.publishQueue.send(XTablesMessageQueue.encodeUpdate(XTableProto.XTableMessage.XTableUpdate.Category.PUBLISH,
+                            message.getKey(), message.getValue(), message.getType(), System.currentTimeMillis()));
                 }
             }
             case REGISTRY -> {
@@ -3,6 +3,7 @@ package org.kobe.xbot.JServer;
 
 import com.google.gson.Gson;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import org.kobe.xbot.Utilities.*;
 import org.kobe.xbot.Utilities.Entities.XTableClientStatistics;
 import org.kobe.xbot.Utilities.Entities.XTableProto;
@@ -10,6 +11,7 @@ import org.kobe.xbot.Utilities.Entities.XTableValues;
 import org.zeromq.ZMQ;
 
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -33,23 +35,195 @@ import java.util.stream.Collectors;
  */
 public class ReplyRequestHandler extends BaseHandler {
     private static final Gson gson = new Gson();
+    private static final int SUBTREE_CHUNK_LEAVES = 1024;
+    private static final int SUBTREE_CHUNK_BYTES = 512 * 1024;
     private final XTablesServer instance;
     private final byte[] success = new byte[]{(byte) 0x01};
     private final byte[] fail = new byte[]{(byte) 0x00};
     private final ByteString successByte = ByteString.copyFrom(success);
     private final ByteString failByte = ByteString.copyFrom(fail);
+    // The table returns the same string while it is unchanged, so the compressed form is kept with it.
+    private String lastJson;
+    private ByteString lastCompressedJson;
 
     /**
      * Constructor that initializes the handler with the provided socket and server instance.
      *
      * @param socket   The ZeroMQ socket to receive reply requests on
      * @param instance The XTablesServer instance
+     * @param worker   The index of this handler in the reply worker pool, used in its thread name
      */
-    public ReplyRequestHandler(ZMQ.Socket socket, XTablesServer instance) {
-        super("XTABLES-REPLY-REQUEST-HANDLER-DAEMON", true, socket);
+    public ReplyRequestHandler(ZMQ.Socket socket, XTablesServer instance, int worker) {
+        super("XTABLES-REPLY-REQUEST-HANDLER-DAEMON-" + worker, true, socket);
         this.instance = instance;
     }
 
+    /**
+     * Replies with every value under a key as a multipart message. Each frame is an XTableMessage
+     * whose batch holds up to {@value #SUBTREE_CHUNK_LEAVES} values (or about
+     * {@value #SUBTREE_CHUNK_BYTES} bytes), each with its full key, type and timestamp. A frame is
+     * sent as soon as it fills up, so a large subtree never has to be built as one message. The last
+     * frame carries a success byte, or a fail byte if the key does not exist.
+     *
+     * @param key The key to read, or an empty string for the whole table
+     */
+    private void sendSubtree(String key) {
+        List<XTablesData.XTableValue> retained = new ArrayList<>();
+        XTableProto.XTableMessage.Builder[] chunk = {subtreeChunk(key)};
+        int[] chunkBytes = {0};
+        boolean found;
+        try {
+            found = XTablesServer.table.forEachLeaf(key, (leafKey, value) -> {
+                retained.add(value);
+                ByteString bytes = value.toByteString();
+                chunk[0].addBatch(XTableProto.XTableMessage.newBuilder()
+                        .setKey(leafKey)
+                        .setValue(bytes)
+                        .setType(value.type())
+                        .setTimestamp(value.timestamp()));
+                chunkBytes[0] += leafKey.length() + bytes.size();
+                if (chunk[0].getBatchCount() >= SUBTREE_CHUNK_LEAVES || chunkBytes[0] >= SUBTREE_CHUNK_BYTES) {
+                    send(chunk[0].build().toByteArray(), ZMQ.SNDMORE | ZMQ.DONTWAIT);
+                    releaseAll(retained);
+                    chunk[0] = subtreeChunk(key);
+                    chunkBytes[0] = 0;
+                }
+            });
+        } catch (RuntimeException e) {
+            // Frames may already be out, so the reply still has to be finished for the REP socket to recover.
+            logger.warning("Failed to read subtree " + key + ": " + e.getMessage());
+            found = false;
+        }
+        try {
+            send(chunk[0].setValue(found ? successByte : failByte).build().toByteArray(), ZMQ.DONTWAIT);
+        } finally {
+            releaseAll(retained);
+        }
+    }
+
+    private static XTableProto.XTableMessage.Builder subtreeChunk(String key) {
+        return XTableProto.XTableMessage.newBuilder()
+                .setCommand(XTableProto.XTableMessage.Command.GET_SUBTREE)
+                .setKey(key);
+    }
+
+    /**
+     * Applies a CAS, INCREMENT or APPEND request to the table as one atomic step and replies with a
+     * success byte if it was applied. The reply's batch holds the value the key was left with, so a
+     * client whose CAS failed learns the value it lost to without another round trip. An applied
+     * change is logged and published exactly like a PUT, including its time to live.
+     *
+     * @param message The request
+     * @param command The request's command
+     */
+    private void applyAtomic(XTableProto.XTableMessage message, XTableProto.XTableMessage.Command command) {
+        XTableProto.XTableMessage.Builder reply = XTableProto.XTableMessage.newBuilder()
+                .setCommand(command);
+        String key = message.getKey();
+        XTablesData.XTableValue[] seen = new XTablesData.XTableValue[1];
+        XTablesData.XTableValue stored = null;
+        if (message.hasKey() && Utilities.validateKey(key, false)) {
+            reply.setKey(key);
+            long timestamp = System.currentTimeMillis();
+            long expiresAt = XTablesExpiryWheel.expiresAt(timestamp, message.getTtl());
+            try {
+                // Logged, published and given its expiry by the table's write listener while the key is still locked.
+                stored = XTablesServer.table.compute(key, current -> {
+                    // Kept for the reply in case nothing is stored; off-heap values are copied here.
+                    seen[0] = current == null ? null
+                            : new XTablesData.XTableValue(current.value(), current.timestamp(), current.type());
+                    return switch (command) {
+                        case CAS -> compareAndSet(message, current, timestamp);
+                        case INCREMENT -> increment(message, current, timestamp);
+                        default -> append(message, current, timestamp);
+                    };
+                }, expiresAt);
+            } catch (RuntimeException e) {
+                // The REP socket must still get its reply.
+                logger.warning("Failed to apply " + command + " to " + key + ": " + e.getMessage());
+            }
+        }
+        XTablesData.XTableValue after = stored != null ? stored : seen[0];
+        if (after != null) {
+            reply.addBatch(XTableProto.XTableMessage.newBuilder()
+                    .setKey(key)
+                    .setValue(UnsafeByteOperations.unsafeWrap(after.value()))
+                    .setType(after.type())
+                    .setTimestamp(after.timestamp()));
+        }
+        send(reply.setValue(stored != null ? successByte : failByte)
+                .build()
+                .toByteArray(), ZMQ.DONTWAIT);
+    }
+
+    /**
+     * Stores the request's value if the key holds exactly the expected bytes, or if no expected
+     * value is given and the key has no value.
+     */
+    private static XTablesData.XTableValue compareAndSet(XTableProto.XTableMessage message, XTablesData.XTableValue current, long timestamp) {
+        if (!message.hasValue()) return null;
+        boolean matches = message.hasExpected()
+                ? current != null && current.toByteString().equals(message.getExpected())
+                : current == null;
+        return matches ? new XTablesData.XTableValue(message.getValue().toByteArray(), timestamp, message.getType()) : null;
+    }
+
+    /**
+     * Adds the request's value to an INT32, INT64 or DOUBLE key, treating a key with no value as 0.
+     * Integers wrap around on overflow.
+     */
+    private static XTablesData.XTableValue increment(XTableProto.XTableMessage message, XTablesData.XTableValue current, long timestamp) {
+        XTableProto.XTableMessage.Type type = message.getType();
+        if (current != null && current.type() != type) return null;
+        ByteBuffer delta = message.getValue().asReadOnlyByteBuffer();
+        ByteBuffer base = current != null ? current.toByteString().asReadOnlyByteBuffer() : null;
+        byte[] value;
+        switch (type) {
+            case INT32 -> {
+                if (delta.remaining() != Integer.BYTES || (base != null && base.remaining() != Integer.BYTES)) return null;
+                value = XTablesByteUtils.fromInteger((base != null ? base.getInt() : 0) + delta.getInt());
+            }
+            case INT64 -> {
+                if (delta.remaining() != Long.BYTES || (base != null && base.remaining() != Long.BYTES)) return null;
+                value = XTablesByteUtils.fromLong((base != null ? base.getLong() : 0L) + delta.getLong());
+            }
+            case DOUBLE -> {
+                if (delta.remaining() != Double.BYTES || (base != null && base.remaining() != Double.BYTES)) return null;
+                value = XTablesByteUtils.fromDouble((base != null ? base.getDouble() : 0.0) + delta.getDouble());
+            }
+            default -> {
+                return null;
+            }
+        }
+        return new XTablesData.XTableValue(value, timestamp, type);
+    }
+
+    /**
+     * Appends the elements of the request's list to a list key, or stores the list if the key has no
+     * value. List values are protobuf messages with a single repeated field, and concatenating two
+     * encodings of the same message type yields the concatenation of their lists.
+     */
+    private static XTablesData.XTableValue append(XTableProto.XTableMessage message, XTablesData.XTableValue current, long timestamp) {
+        XTableProto.XTableMessage.Type type = message.getType();
+        switch (type) {
+            case DOUBLE_LIST, STRING_LIST, FLOAT_LIST, INTEGER_LIST, LONG_LIST, BOOLEAN_LIST, BYTES_LIST -> {
+            }
+            default -> {
+                return null;
+            }
+        }
+        if (!message.hasValue() || (current != null && current.type() != type)) return null;
+        ByteString value = current != null ? current.toByteString().concat(message.getValue()) : message.getValue();
+        return new XTablesData.XTableValue(value.toByteArray(), timestamp, type);
+    }
+
+    private static void releaseAll(List<XTablesData.XTableValue> values) {
+        for (XTablesData.XTableValue value : values) {
+            value.release();
+        }
+        values.clear();
+    }
+
     /**
      * The main method for handling incoming reply requests.
      * It continuously receives messages from the JeroMQ socket and processes them.
@@ -68,32 +242,101 @@ public class ReplyRequestHandler extends BaseHandler {
                         case GET -> {
                             if (message.hasKey()) {
                                 String key = message.getKey();
-                                XTablesData.XTableValue response = XTablesServer.table.getWithTypeAndTimestamp(key);
-                                if (response != null)
-                                    socket.send(XTableProto.XTableMessage.newBuilder()
-                                            .setKey(key)
-                                            .setValue(ByteString.copyFrom(response.value()))
-                                            .setType(response.type())
-                                            .setTimestamp(response.timestamp())
-                                            .build()
-                                            .toByteArray(), ZMQ.DONTWAIT);
-                                else socket.send(XTableProto.XTableMessage.newBuilder()
+                                XTablesData.XTableValue response = XTablesServer.table.acquire(key);
+                                if (response != null) {
+                                    byte[] reply;
+                                    try {
+                                        // The value is wrapped rather than copied, so it is only
+                                        // released once it has been serialized into the reply.
+                                        reply = XTableProto.XTableMessage.newBuilder()
+                                                .setKey(key)
+                                                .setValue(response.toByteString())
+                                                .setType(response.type())
+                                                .setTimestamp(response.timestamp())
+                                                .build()
+                                                .toByteArray();
+                                    } finally {
+                                        response.release();
+                                    }
+                                    send(reply, ZMQ.DONTWAIT);
+                                } else send(XTableProto.XTableMessage.newBuilder()
                                         .setKey(key)
                                         .build()
                                         .toByteArray(), ZMQ.DONTWAIT);
                             }
                         }
-                        case GET_RAW_JSON -> socket.send(XTableProto.XTableMessage.newBuilder()
-                                .setCommand(command)
-                                .setValue(ByteString.copyFrom(DataCompression.compressString(XTablesServer.table.toJSON())))
-                                .build().toByteArray(), ZMQ.DONTWAIT);
+                        case GET_RAW_JSON -> {
+                            String json = XTablesServer.table.toJSON();
+                            if (lastCompressedJson == null || json == null || json != lastJson) {
+                                lastCompressedJson = ByteString.copyFrom(DataCompression.compressString(json));
+                                lastJson = json;
+                            }
+                            send(XTableProto.XTableMessage.newBuilder()
+                                    .setCommand(command)
+                                    .setValue(lastCompressedJson)
+                                    .build().toByteArray(), ZMQ.DONTWAIT);
+                        }
                         case GET_PROTO_DATA -> {
-                            socket.send(XTableProto.XTableMessage.newBuilder()
+                            send(XTableProto.XTableMessage.newBuilder()
                                 .setCommand(command)
-                                .setValue(XTablesServer.table.toProto().toByteString()).build().toByteArray(), ZMQ.DONTWAIT);
+                                .setValue(XTablesServer.table.toProtoBytes()).build().toByteArray(), ZMQ.DONTWAIT);
+                        }
+                        case GET_HISTORY, GET_RANGE -> {
+                            XTableProto.XTableMessage.Builder builder = XTableProto.XTableMessage.newBuilder()
+                                    .setCommand(command);
+                            List<XTablesData.XTableValue> samples = null;
+                            if (message.hasKey()) {
+                                String key = message.getKey();
+                                builder.setKey(key);
+                                samples = command == XTableProto.XTableMessage.Command.GET_HISTORY
+                                        ? XTablesServer.table.getHistory(key, message.getLimit())
+                                        : XTablesServer.table.getHistoryRange(key,
+                                        message.getStartTimestamp(),
+                                        message.hasEndTimestamp() ? message.getEndTimestamp() : Long.MAX_VALUE,
+                                        message.getLimit());
+                            }
+                            if (samples != null) {
+                                for (XTablesData.XTableValue sample : samples) {
+                                    builder.addBatch(XTableProto.XTableMessage.newBuilder()
+                                            .setValue(UnsafeByteOperations.unsafeWrap(sample.value()))
+                                            .setType(sample.type())
+                                            .setTimestamp(sample.timestamp()));
+                                }
+                            }
+                            send(builder.setValue(samples != null ? successByte : failByte)
+                                    .build()
+                                    .toByteArray(), ZMQ.DONTWAIT);
                         }
+                        case GET_SUBTREE -> sendSubtree(message.hasKey() ? message.getKey() : "");
+                        case MULTI_GET -> {
+                            // Answers every key in the request batch in one reply, in the same order.
+                            // Keys without a value, or that are not valid keys, come back with only their key set.
+                            XTableProto.XTableMessage.Builder builder = XTableProto.XTableMessage.newBuilder()
+                                    .setCommand(command);
+                            List<XTablesData.XTableValue> retained = new ArrayList<>(message.getBatchCount());
+                            byte[] reply;
+                            try {
+                                for (XTableProto.XTableMessage request : message.getBatchList()) {
+                                    XTableProto.XTableMessage.Builder entry = builder.addBatchBuilder()
+                                            .setKey(request.getKey());
+                                    XTablesData.XTableValue value = Utilities.validateKey(request.getKey(), false)
+                                            ? XTablesServer.table.acquire(request.getKey()) : null;
+                                    if (value != null) {
+                                        retained.add(value);
+                                        entry.setValue(value.toByteString())
+                                                .setType(value.type())
+                                                .setTimestamp(value.timestamp());
+                                    }
+                                }
+                                reply = builder.build().toByteArray();
+                            } finally {
+                                releaseAll(retained);
+                            }
+                            send(reply, ZMQ.DONTWAIT);
+                        }
+                        case CAS, INCREMENT, APPEND -> applyAtomic(message, command);
                         case REBOOT_SERVER -> {
-                            socket.send(XTableProto.XTableMessage.newBuilder()
+                            send(XTableProto.XTableMessage.newBuilder()
                                     .setValue(successByte)
                                     .build()
                                     .toByteArray(), ZMQ.DONTWAIT);
@@ -123,42 +366,28 @@ public class ReplyRequestHandler extends BaseHandler {
                                             .toByteString());
                                 }
                             }
-                            socket.send(builder.build().toByteArray(), ZMQ.DONTWAIT);
+                            send(builder.build().toByteArray(), ZMQ.DONTWAIT);
 
                         }
                         case DELETE -> {
                             if (message.hasKey()) {
                                 String key = message.getKey();
+                                // Logged, published and taken off the expiry wheel by the table's write listener.
                                 boolean response = XTablesServer.table.delete(key);
 
-                                socket.send(XTableProto.XTableMessage.newBuilder()
+                                send(XTableProto.XTableMessage.newBuilder()
                                         .setCommand(command)
                                         .setValue(response ? successByte : failByte)
                                         .build()
                                         .toByteArray(), ZMQ.DONTWAIT);
-
-                                if (response) {
-                                    instance.publishQueue.send(XTableProto.XTableMessage.XTableUpdate.newBuilder()
-                                            .setCategory(XTableProto.XTableMessage.XTableUpdate.Category.DELETE)
-                                            .setKey(key)
-                                            .build().toByteArray()
-                                    );
-                                }
                             } else {
                                 boolean response = XTablesServer.table.delete("");
 
-                                socket.send(XTableProto.XTableMessage.newBuilder()
+                                send(XTableProto.XTableMessage.newBuilder()
                                         .setCommand(command)
                                         .setValue(response ? successByte : failByte)
                                         .build()
                                         .toByteArray(), ZMQ.DONTWAIT);
-
-                                if (response) {
-                                    instance.publishQueue.send(XTableProto.XTableMessage.XTableUpdate.newBuilder()
-                                            .setCategory(XTableProto.XTableMessage.XTableUpdate.Category.DELETE)
-                                            .build().toByteArray()
-                                    );
-                                }
                             }
                         }
                         case INFORMATION -> {
@@ -177,7 +406,7 @@ public class ReplyRequestHandler extends BaseHandler {
                             } catch (Exception ignored) {
                             }
                             byte[] serialized = XTablesByteUtils.fromObject(systemStatistics);
-                            socket.send(XTableProto.XTableMessage.newBuilder()
+                            send(XTableProto.XTableMessage.newBuilder()
                                     .setCommand(command)
                                     .setValue(ByteString.copyFrom(serialized))
                                     .build().toByteArray(), ZMQ.DONTWAIT);
@@ -185,24 +414,24 @@ public class ReplyRequestHandler extends BaseHandler {
                         case DEBUG -> {
                             if (message.hasValue()) {
                                 instance.setDebug(message.getValue().equals(successByte));
-                                socket.send(XTableProto.XTableMessage.newBuilder()
+                                send(XTableProto.XTableMessage.newBuilder()
                                         .setValue(successByte)
                                         .build()
                                         .toByteArray(), ZMQ.DONTWAIT);
                             } else {
-                                socket.send(XTableProto.XTableMessage.newBuilder()
+                                send(XTableProto.XTableMessage.newBuilder()
                                         .setValue(failByte)
                                         .build()
                                         .toByteArray(), ZMQ.DONTWAIT);
                             }
                         }
-                        case PING -> socket.send(XTableProto.XTableMessage.newBuilder()
+                        case PING -> send(XTableProto.XTableMessage.newBuilder()
                                 .setValue(successByte)
                                 .build()
                                 .toByteArray(), ZMQ.DONTWAIT);
                         default -> {
                             logger.warning("Unhandled reply command: " + command);
-                            socket.send(XTableProto.XTableMessage.newBuilder()
+                            send(XTableProto.XTableMessage.newBuilder()
                                     .setCommand(XTableProto.XTableMessage.Command.UNKNOWN_COMMAND)
                                     .setValue(failByte).build().toByteArray(), ZMQ.DONTWAIT);
                         }
@@ -0,0 +1,57 @@
+package org.kobe.xbot.JServer;
+
+import org.zeromq.ZMQ;
+
+/**
+ * ReplyRouterHandler - Forwards request/reply traffic between clients and the reply workers.
+ * <p>
+ * Clients connect to a ROUTER socket exactly as they used to connect to the single REP socket, so
+ * existing REQ clients see no difference on the wire. Each request is handed to an inproc DEALER
+ * socket, which spreads requests across the connected {@link ReplyRequestHandler} workers, and
+ * every reply is routed back to the client that sent the request. A slow request such as
+ * GET_PROTO_DATA or INFORMATION therefore only occupies one worker while the others keep serving GETs.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.JServer
+ * <p>
+ * This is part of the XTABLES project and lets the reply path serve several requests at once.
+ */
+public class ReplyRouterHandler extends BaseHandler {
+    public static final String WORKERS_ADDRESS = "inproc://xtables-reply-workers";
+    private final ZMQ.Socket backend;
+
+    /**
+     * Creates the router for the given sockets.
+     *
+     * @param frontend The ROUTER socket clients connect to
+     * @param backend  The DEALER socket bound to {@link #WORKERS_ADDRESS}
+     */
+    public ReplyRouterHandler(ZMQ.Socket frontend, ZMQ.Socket backend) {
+        super("XTABLES-REPLY-ROUTER-DAEMON", true, frontend);
+        this.backend = backend;
+    }
+
+    /**
+     * Forwards messages in both directions until the context is terminated.
+     */
+    @Override
+    public void run() {
+        try {
+            ZMQ.proxy(socket, backend, null);
+        } catch (Exception e) {
+            handleException(e);
+        }
+    }
+
+    /**
+     * Closes both the frontend and the backend socket.
+     */
+    @Override
+    protected void cleanUp() {
+        super.cleanUp();
+        if (backend != null) {
+            backend.close();
+        }
+    }
+}
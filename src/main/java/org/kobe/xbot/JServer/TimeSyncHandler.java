@@ -46,7 +46,7 @@ public class TimeSyncHandler extends BaseHandler {
             while (!Thread.currentThread().isInterrupted()) {
                 socket.recv();
                 try {
-                    socket.send(ByteBuffer.allocate(8).putLong(System.currentTimeMillis()).array(), ZMQ.DONTWAIT);
+                    send(ByteBuffer.allocate(8).putLong(System.currentTimeMillis()).array(), ZMQ.DONTWAIT);
                 } catch (Exception e) {
                     handleException(e);
                 }
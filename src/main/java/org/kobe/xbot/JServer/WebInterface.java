@@ -245,9 +245,9 @@ public class WebInterface {
             protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
                 resp.setContentType("application/json");
                 resp.setCharacterEncoding("UTF-8");
-                String data = server.getTable().toJSON();
                 resp.setStatus(HttpServletResponse.SC_OK);
-                resp.getWriter().println(data);
+                server.getTable().writeJSON(resp.getWriter());
+                resp.getWriter().println();
 
             }
         }), "/api/data");
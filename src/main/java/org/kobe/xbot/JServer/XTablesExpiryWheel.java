@@ -0,0 +1,244 @@
+package org.kobe.xbot.JServer;
+
+import org.kobe.xbot.Utilities.Logger.XTablesLogger;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * XTablesExpiryWheel - Expires keys after a time-to-live using a hashed timing wheel.
+ * <p>
+ * The wheel is a ring of buckets, each covering one tick. A key is placed in the bucket its deadline
+ * falls into, together with the number of full turns of the wheel that must pass first, so scheduling
+ * is constant time no matter how many keys are waiting or how far away their deadlines are. A single
+ * daemon thread advances the wheel once per tick and only looks at the bucket under the hand.
+ * <p>
+ * The current deadline of every key is kept in a map, and the wheel only holds hints about when to
+ * look at a key again. Rewriting a key with a later deadline just updates the map, and the stale
+ * hint moves the key to its new bucket when it comes due, so a key refreshed at a high rate costs
+ * one map write per refresh instead of a bucket insertion and removal.
+ * <p>
+ * Deadlines are given as wall-clock times so that they can be persisted and re-armed after a restart,
+ * and are capped at {@link #MAX_TTL_MILLIS} from now.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.JServer
+ * <p>
+ * This is part of the XTABLES project and removes keys whose writers have stopped refreshing them.
+ */
+public class XTablesExpiryWheel implements Closeable {
+    private static final XTablesLogger logger = XTablesLogger.getLogger();
+    /**
+     * The longest time to live a key is given. Longer ones are cut down to it, so that a deadline
+     * always fits in the wheel's nanosecond clock.
+     */
+    public static final long MAX_TTL_MILLIS = TimeUnit.DAYS.toMillis(365);
+
+    private final long tickNanos;
+    private final List<ArrayDeque<Expiry>> buckets;
+    private final int mask;
+    private final ConcurrentHashMap<String, Deadline> deadlines = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Expiry> incoming = new ConcurrentLinkedQueue<>();
+    private final ObjLongConsumer<String> onExpire;
+    private final Thread worker;
+    private final long startTime;
+    private long tick;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a wheel and starts its thread.
+     *
+     * @param tickMillis The resolution of the wheel in milliseconds
+     * @param wheelSize  The number of buckets, rounded up to a power of two
+     * @param onExpire   Called on the wheel thread with every key whose deadline has passed, along with
+     *                   the timestamp of the write that scheduled it
+     */
+    public XTablesExpiryWheel(long tickMillis, int wheelSize, ObjLongConsumer<String> onExpire) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be greater than 0");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.mask = size - 1;
+        this.onExpire = onExpire;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, "XTABLES-EXPIRY-DAEMON");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Expires a key at the given time, replacing any deadline it already had. The timestamp is handed
+     * back when the key expires, so that a value rewritten after it was scheduled can be told apart.
+     *
+     * @param key        The key to expire
+     * @param expiresAt  The wall-clock time in milliseconds to expire the key at
+     * @param timestamp  The timestamp of the write that set the time to live
+     */
+    public void schedule(String key, long expiresAt, long timestamp) {
+        long remaining = Math.min(expiresAt - System.currentTimeMillis(), MAX_TTL_MILLIS);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remaining);
+        Deadline previous = deadlines.put(key, new Deadline(deadline, timestamp, expiresAt));
+        // A later deadline is picked up by the hint already in the wheel; only an earlier one needs a new hint.
+        if (previous == null || deadline < previous.nanos()) {
+            incoming.add(new Expiry(key, deadline));
+        }
+    }
+
+    /**
+     * Stops a key from expiring.
+     *
+     * @param key The key that was written without a time to live
+     * @return true if the key was going to expire
+     */
+    public boolean cancel(String key) {
+        return !deadlines.isEmpty() && deadlines.remove(key) != null;
+    }
+
+    /**
+     * Retrieves the time every pending key expires at, for a checkpoint to keep.
+     *
+     * @return a copy mapping each key to the wall-clock time in milliseconds it expires at
+     */
+    public Map<String, Long> expiries() {
+        Map<String, Long> expiries = new HashMap<>();
+        deadlines.forEach((key, deadline) -> expiries.put(key, deadline.expiresAt()));
+        return expiries;
+    }
+
+    /**
+     * Works out when a key written with a time to live expires. The time to live is unsigned on the
+     * wire, so a huge one reads as negative here; both are cut down to {@link #MAX_TTL_MILLIS}.
+     *
+     * @param timestamp The timestamp of the write
+     * @param ttlMillis The time to live in milliseconds, or 0 for none
+     * @return the wall-clock time in milliseconds the key expires at, or 0 if it never does
+     */
+    public static long expiresAt(long timestamp, long ttlMillis) {
+        if (ttlMillis == 0) return 0;
+        return timestamp + (ttlMillis < 0 || ttlMillis > MAX_TTL_MILLIS ? MAX_TTL_MILLIS : ttlMillis);
+    }
+
+    /**
+     * Stops every key from expiring, for when the whole table is cleared.
+     */
+    public void clear() {
+        deadlines.clear();
+    }
+
+    /**
+     * Retrieves the number of keys waiting to expire.
+     *
+     * @return the pending key count
+     */
+    public int size() {
+        return deadlines.size();
+    }
+
+    private void run() {
+        long nextTick = startTime + tickNanos;
+        while (running) {
+            long now = System.nanoTime();
+            if (now < nextTick) {
+                LockSupport.parkNanos(nextTick - now);
+                continue;
+            }
+            try {
+                drainIncoming();
+                ArrayDeque<Expiry> bucket = buckets.get((int) (tick & mask));
+                for (int i = bucket.size(); i > 0; i--) {
+                    Expiry expiry = bucket.pollFirst();
+                    if (expiry.rounds > 0) {
+                        expiry.rounds--;
+                        bucket.addLast(expiry);
+                    } else {
+                        process(expiry, now);
+                    }
+                }
+            } catch (Exception e) {
+                logger.severe("Failed to expire keys: " + e.getMessage());
+            }
+            tick++;
+            nextTick += tickNanos;
+        }
+    }
+
+    private void drainIncoming() {
+        Expiry expiry;
+        while ((expiry = incoming.poll()) != null) {
+            place(expiry, tick);
+        }
+    }
+
+    private void process(Expiry expiry, long now) {
+        Deadline current = deadlines.get(expiry.key);
+        if (current == null) {
+            return;
+        }
+        if (current.nanos() > now) {
+            // The key was refreshed since this hint was placed; follow it to its new deadline.
+            place(new Expiry(expiry.key, current.nanos()), tick + 1);
+        } else if (deadlines.remove(expiry.key, current)) {
+            onExpire.accept(expiry.key, current.timestamp());
+        }
+    }
+
+    /**
+     * Puts a hint in the bucket its deadline falls into.
+     *
+     * @param expiry    The hint
+     * @param firstTick The earliest tick whose bucket has not been processed yet. A deadline that has
+     *                  already passed fires on this tick.
+     */
+    private void place(Expiry expiry, long firstTick) {
+        long due = Math.max(firstTick, ceilDiv(expiry.deadline - startTime, tickNanos));
+        expiry.rounds = (due - firstTick) / buckets.size();
+        buckets.get((int) (due & mask)).addLast(expiry);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * Stops the wheel thread. Keys that have not expired yet are kept.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Deadline(long nanos, long timestamp, long expiresAt) {
+    }
+
+    private static final class Expiry {
+        private final String key;
+        private final long deadline;
+        private long rounds;
+
+        private Expiry(String key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -1,18 +1,52 @@
 package org.kobe.xbot.JServer;
 
-import org.kobe.xbot.Utilities.CircularBuffer;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import org.kobe.xbot.Utilities.ConflatingQueue;
+import org.kobe.xbot.Utilities.Entities.XTableProto;
+import org.kobe.xbot.Utilities.MpscRingBuffer;
+import org.kobe.xbot.Utilities.SubscriptionTrie;
+import org.kobe.xbot.Utilities.XTablesTopics;
 import org.zeromq.ZMQ;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 /**
  * XTablesMessageQueue - A handler class for managing JeroMQ-based messaging queues.
  * <p>
  * This class initializes and manages the components required for handling message queues
  * using JeroMQ.
- * It leverages a blocking queue for message buffering and operates in a
- * multithreaded environment.
+ * It leverages a conflating queue for message buffering and operates in a
+ * multithreaded environment. While an update for a key is waiting to be published, a newer update
+ * for the same key replaces it, so only the latest value of each key is sent when the socket falls
+ * behind and a key that changes at a high rate cannot push other keys out of the queue.
+ * Handler threads hand messages over through a lock-free ring, and only the publishing thread
+ * touches the conflating queue, so sending never takes a lock.
+ * <p>
+ * Each message is sent as a topic frame followed by the update, see {@link XTablesTopics}, so that
+ * subscribers can filter by key or by subtree without receiving the updates they do not want.
+ * <p>
+ * With batching enabled, updates that are already waiting when the socket is ready are sent together
+ * as one BATCH frame, up to a count and size limit. A lone update is still sent on its own, so batching
+ * adds no delay and only kicks in when updates arrive faster than they can be sent one by one.
+ * <p>
+ * The socket is an XPUB socket, which passes the subscriptions of connected clients up as messages.
+ * They are kept in a {@link SubscriptionTrie}, so handlers can ask {@link #isWatched(String)} before
+ * building an update and skip keys that no client would receive.
+ * <p>
+ * ZMQ does not acknowledge a subscribe, and a subscription only takes effect here once the publishing
+ * thread has read it from the socket, within {@value #SUBSCRIPTION_POLL_MILLIS} ms of it reaching the
+ * server. Updates made in between are skipped for the new subscriber, on top of the ones any PUB socket
+ * misses before a subscription arrives. A client that must not miss a value reads it again over the
+ * request socket once its subscription is in place, which never holds up the publishing thread.
+ * <p>
+ * Every way a message can be lost is counted: overwritten in the ring, dropped from a full conflating
+ * queue, or refused by the socket. With back pressure enabled, nothing is overwritten or dropped on
+ * the way to the socket: a full queue makes handler threads wait, and sends wait for slow subscribers
+ * up to the socket's send timeout, which needs an XPUB socket that is set not to drop.
  * <p>
  * Author: Kobe Lei
  * Version: 1.0
@@ -22,8 +56,20 @@ import java.util.concurrent.LinkedBlockingQueue;
  * and publication in real-time applications.
  */
 public class XTablesMessageQueue extends BaseHandler {
-    private final CircularBuffer<byte[]> messageQueue;
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int MAX_BATCH_BYTES = 256 * 1024;
+    private static final byte[] BATCH_TOPIC = XTablesTopics.forCategory(XTableProto.XTableMessage.XTableUpdate.Category.BATCH);
+    private static final long SUBSCRIPTION_POLL_MILLIS = 5;
+    private static final byte SUBSCRIBE = 1;
+    private static final byte UNSUBSCRIBE = 0;
+    private final MpscRingBuffer<Outgoing> inbox;
+    private final ConflatingQueue<String, Outgoing> messageQueue;
     private final XTablesServer instance;
+    private final int maxBatchSize;
+    private final boolean backpressure;
+    private final int sendFlags;
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    private final SubscriptionTrie subscriptions = new SubscriptionTrie();
 
     /**
      * Constructor for initializing the XTablesMessageQueue.
@@ -32,31 +78,67 @@ public class XTablesMessageQueue extends BaseHandler {
      * provided JeroMQ socket. It also initializes a blocking queue to buffer messages
      * for asynchronous processing.
      *
-     * @param socket The ZeroMQ socket to receive and send messages
+     * @param socket         The XPUB socket to receive subscriptions from and send messages to
+     * @param maxBatchSize   The most updates sent in one BATCH frame, or 1 to send every update on its own
+     * @param backpressure   Whether a full queue makes senders wait and sends block, instead of dropping messages
      */
-    public XTablesMessageQueue(ZMQ.Socket socket, XTablesServer instance) {
+    public XTablesMessageQueue(ZMQ.Socket socket, XTablesServer instance, int maxBatchSize, boolean backpressure) {
         super("XTABLES-PUBLISH-HANDLER-DAEMON", true, socket);
-        this.messageQueue = new CircularBuffer<>(1000);
+        this.maxBatchSize = maxBatchSize;
+        this.backpressure = backpressure;
+        this.sendFlags = backpressure ? 0 : ZMQ.DONTWAIT;
+        this.inbox = new MpscRingBuffer<>(QUEUE_CAPACITY, MpscRingBuffer.WaitStrategy.PARK,
+                backpressure ? MpscRingBuffer.OverflowPolicy.BLOCK : MpscRingBuffer.OverflowPolicy.OVERWRITE);
+        this.messageQueue = new ConflatingQueue<>(QUEUE_CAPACITY);
         this.instance = instance;
     }
 
     /**
      * Adds a message to the queue for asynchronous processing.
      * <p>
-     * This method places the provided message into the blocking queue.
-     * If the queue is full, the message will be rejected silently.
+     * This method places the provided message into the queue. The message is never replaced by a
+     * later one, and updates sent after it are published after it.
+     * If the queue is full, the oldest message is dropped, or with back pressure this call waits.
      *
      * @param message The byte array message to enqueue for processing
      */
     public void send(byte[] message) {
-       messageQueue.write(message);
+        inbox.write(new Outgoing(null, message));
+    }
+
+    /**
+     * Adds an update for a key to the queue for asynchronous processing.
+     * <p>
+     * If an update for the same key is still waiting to be published, it is replaced in place by this
+     * one, so subscribers receive the latest value without the key losing its place in the queue.
+     *
+     * @param key     The key the update is for
+     * @param message The byte array message to enqueue for processing
+     */
+    public void send(String key, byte[] message) {
+        inbox.write(new Outgoing(key, message));
+    }
+
+    /**
+     * Checks whether any connected client is subscribed to updates for a key, either directly, through
+     * a subtree, or by subscribing to everything.
+     * <p>
+     * Subscriptions are picked up by the publishing thread, at the latest a few milliseconds after they
+     * reach the server, so an update made right after a client subscribes may be skipped.
+     *
+     * @param key The key to check
+     * @return true if an update for the key would reach at least one client
+     */
+    public boolean isWatched(String key) {
+        return subscriptions.matchesKey(key);
     }
 
     /**
      * The main processing loop for handling incoming messages.
      * <p>
-     * This method continuously retrieves messages from the blocking queue and sends them
-     * through the JeroMQ socket.
+     * This method continuously retrieves messages from the queue and sends them
+     * through the JeroMQ socket. While the queue is empty, it wakes up every few milliseconds to
+     * read subscription changes from the socket.
      * The loop runs until the thread is interrupted.
      * Any exception encountered is passed to the handler's exception processor.
      */
@@ -64,14 +146,199 @@ public class XTablesMessageQueue extends BaseHandler {
     public void run() {
         try {
             while (!Thread.currentThread().isInterrupted()) {
-                byte[] message = messageQueue.readAndBlock();
-                instance.publishMessages.incrementAndGet();
-                socket.send(message, ZMQ.DONTWAIT);
+                readSubscriptions();
+                Outgoing outgoing = inbox.readAndBlock(SUBSCRIPTION_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (outgoing == null) {
+                    continue;
+                }
+                messageQueue.offer(outgoing.key(), outgoing);
+                while (true) {
+                    readSubscriptions();
+                    // Everything that arrived is moved over before each send, so it can replace what is still pending.
+                    drainInbox();
+                    Outgoing next = messageQueue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next.key() != null && maxBatchSize > 1 && isKeyedNext()) {
+                        sendBatch(next);
+                    } else {
+                        instance.publishMessages.incrementAndGet();
+                        byte[] topic = next.key() != null ? XTablesTopics.forKey(next.key()) : XTablesTopics.forUpdate(next.message());
+                        sendFrames(topic, next.message());
+                    }
+                }
             }
         } catch (Exception e) {
             handleException(e);
         }
     }
 
+    /**
+     * Sends the given update together with the updates queued right behind it as one BATCH frame. The
+     * frame is an XTableUpdate with the BATCH category, sent under the BATCH topic, with each update
+     * as an entry of its batch field. The updates are copied
+     * in as they were serialized, without being parsed again. Collection stops at the first message
+     * that is not an update, so deletes and other messages keep their place in the stream.
+     *
+     * @param first The first update of the batch
+     */
+    private void sendBatch(Outgoing first) throws IOException {
+        batch.reset();
+        CodedOutputStream output = CodedOutputStream.newInstance(batch);
+        output.writeEnum(XTableProto.XTableMessage.XTableUpdate.CATEGORY_FIELD_NUMBER,
+                XTableProto.XTableMessage.XTableUpdate.Category.BATCH_VALUE);
+        output.writeByteArray(XTableProto.XTableMessage.XTableUpdate.BATCH_FIELD_NUMBER, first.message());
+        int count = 1;
+        int bytes = first.message().length;
+        while (count < maxBatchSize && bytes < MAX_BATCH_BYTES) {
+            drainInbox();
+            if (!isKeyedNext()) {
+                break;
+            }
+            byte[] message = messageQueue.poll().message();
+            output.writeByteArray(XTableProto.XTableMessage.XTableUpdate.BATCH_FIELD_NUMBER, message);
+            count++;
+            bytes += message.length;
+        }
+        output.flush();
+        instance.publishMessages.addAndGet(count);
+        sendFrames(BATCH_TOPIC, batch.toByteArray());
+    }
+
+    private boolean isKeyedNext() {
+        Outgoing next = messageQueue.peek();
+        return next != null && next.key() != null;
+    }
+
+    /**
+     * Applies the subscription changes waiting on the XPUB socket. Each is one frame holding a 1 for a
+     * subscribe or a 0 for an unsubscribe, followed by the topic prefix.
+     */
+    private void readSubscriptions() {
+        byte[] frame;
+        while ((frame = socket.recv(ZMQ.DONTWAIT)) != null) {
+            if (frame.length == 0) {
+                continue;
+            }
+            byte[] prefix = Arrays.copyOfRange(frame, 1, frame.length);
+            if (frame[0] == SUBSCRIBE) {
+                subscriptions.add(prefix);
+            } else if (frame[0] == UNSUBSCRIBE) {
+                subscriptions.remove(prefix);
+            }
+        }
+    }
+
+    /**
+     * Serializes an update straight into an array of its exact size. It produces the same bytes as
+     * building an XTableUpdate and calling toByteArray, but without the builder and message objects,
+     * and the value is copied exactly once, so a value that aliases a received message goes from the
+     * receiving socket into the published frame with a single copy.
+     *
+     * @param category  The category of the update
+     * @param key       The key the update is for
+     * @param value     The value, which is not copied until it is written
+     * @param type      The type of the value
+     * @param timestamp The timestamp of the value
+     * @return the serialized XTableUpdate
+     */
+    static byte[] encodeUpdate(XTableProto.XTableMessage.XTableUpdate.Category category, String key, ByteString value,
+                               XTableProto.XTableMessage.Type type, long timestamp) {
+        int size = CodedOutputStream.computeUInt64Size(XTableProto.XTableMessage.XTableUpdate.TIMESTAMP_FIELD_NUMBER, timestamp);
+        if (!key.isEmpty()) {
+            size += CodedOutputStream.computeStringSize(XTableProto.XTableMessage.XTableUpdate.KEY_FIELD_NUMBER, key);
+        }
+        if (category.getNumber() != 0) {
+            size += CodedOutputStream.computeEnumSize(XTableProto.XTableMessage.XTableUpdate.CATEGORY_FIELD_NUMBER, category.getNumber());
+        }
+        if (!value.isEmpty()) {
+            size += CodedOutputStream.computeBytesSize(XTableProto.XTableMessage.XTableUpdate.VALUE_FIELD_NUMBER, value);
+        }
+        if (type.getNumber() != 0) {
+            size += CodedOutputStream.computeEnumSize(XTableProto.XTableMessage.XTableUpdate.TYPE_FIELD_NUMBER, type.getNumber());
+        }
+        byte[] bytes = new byte[size];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            // Written in field number order and without default values, as the generated code does.
+            if (!key.isEmpty()) {
+                output.writeString(XTableProto.XTableMessage.XTableUpdate.KEY_FIELD_NUMBER, key);
+            }
+            if (category.getNumber() != 0) {
+                output.writeEnum(XTableProto.XTableMessage.XTableUpdate.CATEGORY_FIELD_NUMBER, category.getNumber());
+            }
+            if (!value.isEmpty()) {
+                output.writeBytes(XTableProto.XTableMessage.XTableUpdate.VALUE_FIELD_NUMBER, value);
+            }
+            if (type.getNumber() != 0) {
+                output.writeEnum(XTableProto.XTableMessage.XTableUpdate.TYPE_FIELD_NUMBER, type.getNumber());
+            }
+            output.writeUInt64(XTableProto.XTableMessage.XTableUpdate.TIMESTAMP_FIELD_NUMBER, timestamp);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("Serializing an update to a byte array threw an IOException", e);
+        }
+        return bytes;
+    }
+
+    /**
+     * Sends a topic frame and its message. The message is only sent if the socket took the topic,
+     * so a refused topic never leaves the message to go out on its own as if it were a topic.
+     */
+    private void sendFrames(byte[] topic, byte[] message) {
+        if (send(topic, ZMQ.SNDMORE | sendFlags)) {
+            send(message, sendFlags);
+        }
+    }
+
+    /**
+     * Retrieves how many messages were handed to the queue.
+     *
+     * @return the number of messages
+     */
+    public long getEnqueued() {
+        return inbox.getWritten();
+    }
+
+    /**
+     * Retrieves how many messages were overwritten in the ring before the publishing thread took them.
+     *
+     * @return the number of lost messages
+     */
+    public long getOverwritten() {
+        return inbox.getOverwritten();
+    }
+
+    /**
+     * Retrieves how many updates were replaced by a newer update for the same key before being sent.
+     * These are not lost, since subscribers still receive the newer value.
+     *
+     * @return the number of replaced updates
+     */
+    public long getConflated() {
+        return messageQueue.getConflated();
+    }
+
+    /**
+     * Retrieves how many messages were dropped because the conflating queue was full.
+     *
+     * @return the number of lost messages
+     */
+    public long getDropped() {
+        return messageQueue.getDropped();
+    }
+
+    private void drainInbox() {
+        Outgoing outgoing;
+        // With back pressure, whatever does not fit stays in the ring, where it holds up the handler threads.
+        while ((!backpressure || !messageQueue.isFull()) && (outgoing = inbox.read()) != null) {
+            messageQueue.offer(outgoing.key(), outgoing);
+        }
+    }
+
+    private record Outgoing(String key, byte[] message) {
+    }
+
 
 }
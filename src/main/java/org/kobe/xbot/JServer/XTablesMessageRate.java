@@ -4,22 +4,25 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
 public class XTablesMessageRate {
     private final AtomicInteger lastPullMessages = new AtomicInteger(0);
     private final AtomicInteger lastReplyMessages = new AtomicInteger(0);
     private final AtomicInteger lastPublishMessages = new AtomicInteger(0);
+    private long lastLostMessages = 0;
 
     private volatile double pullRate = 0.0;
     private volatile double replyRate = 0.0;
     private volatile double publishRate = 0.0;
+    private volatile double lostRate = 0.0;
 
     private long lastTime = 0;
     private long currentTime = 0;
 
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 
-    public XTablesMessageRate(AtomicInteger pullMessages, AtomicInteger replyMessages, AtomicInteger publishMessages) {
+    public XTablesMessageRate(AtomicInteger pullMessages, AtomicInteger replyMessages, AtomicInteger publishMessages, LongSupplier lostMessages) {
         // Set the initial time
         lastTime = System.nanoTime();
 
@@ -41,6 +44,11 @@ public class XTablesMessageRate {
             publishRate = (currentPublish - lastPublishMessages.get()) / (timeElapsed / 1_000_000_000.0);  // messages per second
             lastPublishMessages.set(currentPublish);
 
+            // Lost messages are counted since startup rather than per minute
+            long currentLost = lostMessages.getAsLong();
+            lostRate = (currentLost - lastLostMessages) / (timeElapsed / 1_000_000_000.0);  // messages per second
+            lastLostMessages = currentLost;
+
             // Update the last time to current time for the next iteration
             lastTime = currentTime;
         }, 0, 500, TimeUnit.MILLISECONDS);
@@ -59,6 +67,10 @@ public class XTablesMessageRate {
         return publishRate;
     }
 
+    public double getLostMessagesPerSecond() {
+        return lostRate;
+    }
+
     // Shutdown method to stop the scheduler
     public void shutdown() {
         scheduler.shutdown();
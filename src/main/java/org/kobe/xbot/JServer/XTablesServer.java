@@ -2,9 +2,12 @@ package org.kobe.xbot.JServer;
 
 import com.google.gson.Gson;
 import com.google.protobuf.ByteString;
+import org.kobe.xbot.JServer.Persistence.XTablesCheckpointer;
+import org.kobe.xbot.JServer.Persistence.XTablesWriteAheadLog;
 import org.kobe.xbot.Utilities.Entities.XTableProto;
 import org.kobe.xbot.Utilities.Exceptions.XTablesException;
 import org.kobe.xbot.Utilities.Logger.XTablesLogger;
+import org.kobe.xbot.Utilities.Memory.XTablesArena;
 import org.kobe.xbot.Utilities.TableFormatter;
 import org.kobe.xbot.Utilities.Utilities;
 import org.kobe.xbot.Utilities.XTableStatus;
@@ -17,8 +20,11 @@ import javax.jmdns.JmDNS;
 import javax.jmdns.ServiceInfo;
 import java.io.IOException;
 import java.net.InetAddress;
+import java.nio.file.Path;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
@@ -51,6 +57,7 @@ public class XTablesServer {
     // =============================================================
     private static final int SERVICE_PORT = 5353;
     private static final String SERVICE_NAME = "XTablesService";
+    private static final int PUBLISH_SEND_TIMEOUT_MILLIS = 100;
     private static final AtomicReference<XTablesServer> instance = new AtomicReference<>();
     private static final AtomicReference<XTableStatus> status = new AtomicReference<>(XTableStatus.OFFLINE);
     private static final XTablesLogger logger = XTablesLogger.getLogger();
@@ -70,12 +77,16 @@ public class XTablesServer {
     private final String version;
     private final AtomicBoolean debug = new AtomicBoolean(false);
     private final boolean additionalFeatures;
+    private final XTablesServerConfig config;
+    private volatile XTablesWriteAheadLog writeAheadLog;
+    private XTablesCheckpointer checkpointer;
     private ZMQ.Socket pubSocket;
     public ZContext context;
     private JmDNS jmdns;
     private ServiceInfo serviceInfo;
     private PushPullRequestHandler pushPullRequestHandler;
-    private ReplyRequestHandler replyRequestHandler;
+    private ReplyRouterHandler replyRouter;
+    private final List<ReplyRequestHandler> replyRequestHandlers = new ArrayList<>();
 //    private TimeSyncHandler timeSyncHandler;
     private ClientRegistry clientRegistry;
     private WebInterface webInterface;
@@ -85,19 +96,26 @@ public class XTablesServer {
     private final AtomicReference<ByteString> clientRegistrySessionId = new AtomicReference<>();
     private final ScheduledExecutorService scheduler;
     public XTablesMessageQueue publishQueue;
+    private volatile XTablesExpiryWheel expiryWheel;
+    private volatile Map<String, Long> restoredExpiries = Map.of();
     /**
      * Constructor for initializing the server with specified ports.
      *
      * @param pullServerPort Port for the PULL socket
      * @param repServerPort  Port for the REP socket
      * @param pubServerPort  Port for the PUB socket
+     * @param config         Optional server settings
      */
-    private XTablesServer(String version, int pullServerPort, int repServerPort, int pubServerPort, boolean additionalFeatures) {
+    private XTablesServer(String version, int pullServerPort, int repServerPort, int pubServerPort, boolean additionalFeatures, XTablesServerConfig config) {
         this.pullPort = pullServerPort;
         this.repPort = repServerPort;
         this.pubPort = pubServerPort;
         this.version = version;
         this.additionalFeatures = additionalFeatures;
+        this.config = config;
+        if (config.getOffHeapCapacityMB() > 0) {
+            table.setArena(new XTablesArena(config.getOffHeapThresholdBytes(), config.getOffHeapCapacityMB() * 1024L * 1024L));
+        }
         instance.set(this);
         this.scheduler = Executors.newSingleThreadScheduledExecutor();
         this.scheduler.scheduleAtFixedRate(() -> {
@@ -125,11 +143,24 @@ public class XTablesServer {
      * @return The initialized server instance
      */
     public static XTablesServer initialize(String version, int pullSocketPort, int replySocketPort, int publishSocketPort, boolean additionalFeatures) {
+        return initialize(version, pullSocketPort, replySocketPort, publishSocketPort, additionalFeatures, new XTablesServerConfig());
+    }
+
+    /**
+     * Initializes the XTablesServer instance with additional settings and starts the main server thread.
+     *
+     * @param pullSocketPort    Port for the PULL socket
+     * @param replySocketPort   Port for the REP socket
+     * @param publishSocketPort Port for the PUB socket
+     * @param config            Optional server settings such as the write-ahead log directory
+     * @return The initialized server instance
+     */
+    public static XTablesServer initialize(String version, int pullSocketPort, int replySocketPort, int publishSocketPort, boolean additionalFeatures, XTablesServerConfig config) {
         if (instance.get() != null) {
             return instance.get();
         }
         status.set(XTableStatus.STARTING);
-        main = new Thread(() -> new XTablesServer(version, pullSocketPort, replySocketPort, publishSocketPort, additionalFeatures));
+        main = new Thread(() -> new XTablesServer(version, pullSocketPort, replySocketPort, publishSocketPort, additionalFeatures, config));
         main.setName("XTABLES-SERVER");
         main.setDaemon(false);
         main.start();
@@ -184,16 +215,31 @@ public class XTablesServer {
                 System.exit(1);
             }
             Utilities.warmupProtobuf();
+            config.getHistoryCapacities().forEach(table::enableHistory);
+            openPersistence();
+            // Applied after the restore so that replayed writes are not compared against new deadbands.
+            table.setSuppressUnchanged(config.isSuppressUnchanged());
+            config.getDeadbands().forEach(table::setDeadband);
+            config.getQuotas().forEach(quota -> table.setQuota(quota.prefix(), quota.maxKeys(), quota.maxBytes(), quota.evict()));
             this.context = new ZContext(3);
-            this.pubSocket = context.createSocket(SocketType.PUB);
+            // XPUB rather than PUB, so the publish queue learns which keys clients are subscribed to.
+            this.pubSocket = context.createSocket(SocketType.XPUB);
+            if (config.isPublishBackpressure()) {
+                // Wait for slow subscribers instead of dropping their messages, but never for longer than the timeout.
+                this.pubSocket.setXpubNoDrop(true);
+                this.pubSocket.setSendTimeOut(PUBLISH_SEND_TIMEOUT_MILLIS);
+            }
             this.pubSocket.setHWM(500);
             this.pubSocket.bind("tcp://*:" + pubPort);
             ZMQ.Socket pullSocket = context.createSocket(SocketType.PULL);
             pullSocket.setHWM(500);
             pullSocket.bind("tcp://*:" + pullPort);
-            ZMQ.Socket repSocket = context.createSocket(SocketType.REP);
+            ZMQ.Socket repSocket = context.createSocket(SocketType.ROUTER);
             repSocket.setHWM(500);
             repSocket.bind("tcp://*:" + repPort);
+            ZMQ.Socket workerSocket = context.createSocket(SocketType.DEALER);
+            workerSocket.setHWM(500);
+            workerSocket.bind(ReplyRouterHandler.WORKERS_ADDRESS);
 
 //            ZMQ.Socket syncSocket = context.createSocket(SocketType.REP);
 //            syncSocket.setHWM(50);
@@ -202,17 +248,49 @@ public class XTablesServer {
 //            syncSocket.setHeartbeatIvl(1000);
 //            syncSocket.bind("tcp://*:3123");
 
-            this.publishQueue = new XTablesMessageQueue(this.pubSocket, this);
+            this.publishQueue = new XTablesMessageQueue(this.pubSocket, this, config.getPublishBatchSize(), config.isPublishBackpressure());
             this.publishQueue.start();
-            this.pushPullRequestHandler = new PushPullRequestHandler(pullSocket, this);
+            XTablesExpiryWheel wheel = new XTablesExpiryWheel(10, 512, this::expire);
+            restoredExpiries.forEach((key, expiresAt) -> {
+                XTablesData.XTableValue value = table.getWithTypeAndTimestamp(key);
+                if (value != null) {
+                    wheel.schedule(key, expiresAt, value.timestamp());
+                }
+            });
+            this.expiryWheel = wheel;
+            this.restoredExpiries = Map.of();
+            table.setWriteListener(new XTablesData.WriteListener() {
+                @Override
+                public void stored(String key, XTablesData.XTableValue value, long expiresAt) {
+                    XTablesServer.this.stored(key, value, expiresAt);
+                }
+
+                @Override
+                public void refreshed(String key, long timestamp, long expiresAt) {
+                    XTablesServer.this.refreshed(key, timestamp, expiresAt);
+                }
+
+                @Override
+                public void deleted(String key) {
+                    XTablesServer.this.deleted(key);
+                }
+            });
+            this.pushPullRequestHandler = new PushPullRequestHandler(pullSocket, this, config.getIngestWorkers());
             this.pushPullRequestHandler.start();
-            this.replyRequestHandler = new ReplyRequestHandler(repSocket, this);
-            this.replyRequestHandler.start();
+            for (int i = 0; i < config.getReplyWorkers(); i++) {
+                ZMQ.Socket replySocket = context.createSocket(SocketType.REP);
+                replySocket.connect(ReplyRouterHandler.WORKERS_ADDRESS);
+                ReplyRequestHandler replyRequestHandler = new ReplyRequestHandler(replySocket, this, i);
+                replyRequestHandler.start();
+                this.replyRequestHandlers.add(replyRequestHandler);
+            }
+            this.replyRouter = new ReplyRouterHandler(repSocket, workerSocket);
+            this.replyRouter.start();
 //            this.timeSyncHandler = new TimeSyncHandler(syncSocket, this);
 //            this.timeSyncHandler.start();
             initializeMDNSWithRetries(10);
             if (additionalFeatures) {
-                this.rate = new XTablesMessageRate(pullMessages, replyMessages, publishMessages);
+                this.rate = new XTablesMessageRate(pullMessages, replyMessages, publishMessages, this::getLostMessages);
                 this.clientRegistry = new ClientRegistry(this);
                 this.clientRegistry.start();
                 this.socketMonitor = new XTablesSocketMonitor(context) {
@@ -312,9 +390,11 @@ public class XTablesServer {
         if (pushPullRequestHandler != null) {
             pushPullRequestHandler.interrupt();
         }
-        if (replyRequestHandler != null) {
-            replyRequestHandler.interrupt();
+        if (replyRouter != null) {
+            replyRouter.interrupt();
         }
+        replyRequestHandlers.forEach(ReplyRequestHandler::interrupt);
+        replyRequestHandlers.clear();
         if (clientRegistry != null) {
             clientRegistry.interrupt();
         }
@@ -327,6 +407,12 @@ public class XTablesServer {
         if (rate != null) {
             rate.shutdown();
         }
+        if (expiryWheel != null) {
+            expiryWheel.close();
+        }
+        table.setWriteListener(null);
+        closePersistence();
+        this.expiryWheel = null;
         table.delete("");
         pullMessages.set(0);
         replyMessages.set(0);
@@ -334,6 +420,84 @@ public class XTablesServer {
         status.set(XTableStatus.OFFLINE);
     }
 
+    /**
+     * Opens the write-ahead log and the checkpointer if they are configured, then rebuilds the table
+     * from the newest checkpoint followed by the log segments written after it. A write-ahead log
+     * without a checkpoint directory is checkpointed into its own directory, since only a checkpoint
+     * lets old log segments be deleted.
+     * <p>
+     * Keys whose time to live ran out while the server was down are dropped, and the expiries of the
+     * others are kept until the expiry wheel is running.
+     *
+     * @throws IOException If the persisted state cannot be read
+     */
+    private void openPersistence() throws IOException {
+        if (config.getWalDirectory() == null && config.getCheckpointDirectory() == null) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        XTablesWriteAheadLog log = null;
+        if (config.getWalDirectory() != null) {
+            log = new XTablesWriteAheadLog(Path.of(config.getWalDirectory()),
+                    config.getWalSegmentSizeMB() * 1024L * 1024L,
+                    config.getWalSyncIntervalMillis());
+        }
+        String checkpointDirectory = config.getCheckpointDirectory() != null
+                ? config.getCheckpointDirectory()
+                : config.getWalDirectory();
+        XTablesCheckpointer checkpoints = new XTablesCheckpointer(Path.of(checkpointDirectory), table, log, () -> {
+            XTablesExpiryWheel wheel = expiryWheel;
+            // Until the wheel is running, the restored expiries are the ones to keep.
+            return wheel != null ? wheel.expiries() : restoredExpiries;
+        });
+        Map<String, Long> expiries = new HashMap<>();
+        long fromSegment = checkpoints.load(expiries);
+        if (log != null) {
+            long recovered = log.replay(table, fromSegment, expiries);
+            logger.info(String.format("Recovered %s operations from the write-ahead log.",
+                    NumberFormat.getInstance().format(recovered)));
+        }
+        long now = System.currentTimeMillis();
+        expiries.entrySet().removeIf(expiry -> {
+            if (expiry.getValue() > now) return false;
+            XTablesData.XTableValue value = table.getWithTypeAndTimestamp(expiry.getKey());
+            if (value != null) {
+                table.expire(expiry.getKey(), value.timestamp());
+            }
+            return true;
+        });
+        this.restoredExpiries = expiries;
+        // Only keep hold of the log and checkpointer once the table is fully restored, so that a
+        // failed start never checkpoints a partial table over the good state on disk.
+        this.writeAheadLog = log;
+        this.checkpointer = checkpoints;
+        checkpoints.start(config.getCheckpointIntervalSeconds());
+        logger.info(String.format("Restored the table in %.2f ms.", (System.nanoTime() - startTime) / 1_000_000.0));
+    }
+
+    /**
+     * Writes a final checkpoint if checkpoints are enabled, then flushes and closes the write-ahead log.
+     */
+    private void closePersistence() {
+        if (checkpointer != null) {
+            checkpointer.close();
+            try {
+                checkpointer.checkpoint();
+            } catch (IOException e) {
+                logger.severe("Failed to write the final checkpoint: " + e.getMessage());
+            }
+            checkpointer = null;
+        }
+        if (writeAheadLog != null) {
+            try {
+                writeAheadLog.close();
+            } catch (IOException e) {
+                logger.severe("Failed to close the write-ahead log: " + e.getMessage());
+            }
+            writeAheadLog = null;
+        }
+    }
+
     /**
      * Restarts the server by performing a clean shutdown followed by a restart.
      * Updates the server status appropriately and ensures proper resource management.
@@ -453,9 +617,10 @@ public class XTablesServer {
             if (pushPullRequestHandler != null) {
                 pushPullRequestHandler.interrupt();
             }
-            if (replyRequestHandler != null) {
-                replyRequestHandler.interrupt();
+            if (replyRouter != null) {
+                replyRouter.interrupt();
             }
+            replyRequestHandlers.forEach(ReplyRequestHandler::interrupt);
             if (clientRegistry != null) {
                 clientRegistry.interrupt();
             }
@@ -468,6 +633,10 @@ public class XTablesServer {
             if (rate != null) {
                 rate.shutdown();
             }
+            if (expiryWheel != null) {
+                expiryWheel.close();
+            }
+            closePersistence();
             logger.info("Shutting down the server process...");
             System.exit(0);
         } catch (Exception exception) {
@@ -481,6 +650,35 @@ public class XTablesServer {
         return rate;
     }
 
+    /**
+     * Returns how many replies the reply workers' sockets refused.
+     *
+     * @return the number of failed reply sends
+     */
+    public long getReplySendFailures() {
+        long failures = 0;
+        for (ReplyRequestHandler handler : replyRequestHandlers) {
+            failures += handler.getSendFailures();
+        }
+        return failures;
+    }
+
+    /**
+     * Returns how many messages were lost on their way out since the server started: overwritten or
+     * dropped by the publish queue, or refused by the publish and reply sockets. Updates replaced by
+     * a newer value for the same key are not counted, since subscribers still receive the newer value.
+     *
+     * @return the number of lost messages
+     */
+    public long getLostMessages() {
+        XTablesMessageQueue queue = publishQueue;
+        long lost = getReplySendFailures();
+        if (queue != null) {
+            lost += queue.getOverwritten() + queue.getDropped() + queue.getSendFailures();
+        }
+        return lost;
+    }
+
     /**
      * Returns the current data table associated with this instance.
      *
@@ -490,6 +688,118 @@ public class XTablesServer {
         return table;
     }
 
+    /**
+     * Returns the write-ahead log the table mutations are recorded in.
+     *
+     * @return the open write-ahead log, or null if it is disabled
+     */
+    public XTablesWriteAheadLog getWriteAheadLog() {
+        return writeAheadLog;
+    }
+
+    /**
+     * Retrieves the timing wheel that expires keys written with a time to live.
+     *
+     * @return the expiry wheel, or null if the server has not started
+     */
+    public XTablesExpiryWheel getExpiryWheel() {
+        return expiryWheel;
+    }
+
+    /**
+     * Deletes a key whose time to live has run out. It is logged and published like a DELETE request.
+     *
+     * @param key       The expired key
+     * @param timestamp The timestamp of the write that set the time to live; a value written after it is kept
+     */
+    private void expire(String key, long timestamp) {
+        table.expire(key, timestamp);
+    }
+
+    /**
+     * Sets or stops the expiry of a written key. Called by the table while the key is locked, so a
+     * write that lands right after cannot have its deadline replaced by this one.
+     *
+     * @param key       The written key
+     * @param timestamp The timestamp of the write
+     * @param expiresAt The wall-clock time in milliseconds the key expires at, or 0 for never
+     * @return true if the key's expiry was set or stopped, false if it had none and still has none
+     */
+    private boolean schedule(String key, long timestamp, long expiresAt) {
+        XTablesExpiryWheel wheel = expiryWheel;
+        if (wheel == null) return false;
+        if (expiresAt > 0) {
+            wheel.schedule(key, expiresAt, timestamp);
+            return true;
+        }
+        return wheel.cancel(key);
+    }
+
+    /**
+     * Moves the expiry of a key that was rewritten with its stored value. The value is not logged
+     * again, but a changed expiry is, so that it survives a restart.
+     *
+     * @param key       The written key
+     * @param timestamp The timestamp of the write
+     * @param expiresAt The wall-clock time in milliseconds the key expires at, or 0 for never
+     */
+    private void refreshed(String key, long timestamp, long expiresAt) {
+        XTablesWriteAheadLog log = writeAheadLog;
+        if (schedule(key, timestamp, expiresAt) && log != null) {
+            log.appendExpiry(key, timestamp, expiresAt);
+        }
+    }
+
+    /**
+     * Logs and publishes a deleted key and stops its expiry. See {@link #stored}.
+     *
+     * @param key The deleted key, or an empty string if the whole table was cleared
+     */
+    private void deleted(String key) {
+        XTablesWriteAheadLog log = writeAheadLog;
+        if (log != null) {
+            log.appendDelete(key);
+        }
+        XTablesExpiryWheel wheel = expiryWheel;
+        if (wheel != null) {
+            if (key.isEmpty()) {
+                wheel.clear();
+            } else {
+                wheel.cancel(key);
+            }
+        }
+        if (publishQueue.isWatched(key)) {
+            publishQueue.send(XTableProto.XTableMessage.XTableUpdate.newBuilder()
+                    .setCategory(XTableProto.XTableMessage.XTableUpdate.Category.DELETE)
+                    .setKey(key)
+                    .build().toByteArray()
+            );
+        }
+    }
+
+    /**
+     * Logs, publishes and sets the expiry of a stored value. The table calls this in the order its
+     * changes were applied and holds off conflicting changes until it returns, so the write-ahead
+     * log, the subscribers and the expiry wheel never see two changes the other way round.
+     *
+     * @param key       The written key
+     * @param value     The stored value
+     * @param expiresAt The wall-clock time in milliseconds the key expires at, or 0 for never
+     */
+    private void stored(String key, XTablesData.XTableValue value, long expiresAt) {
+        XTablesWriteAheadLog log = writeAheadLog;
+        schedule(key, value.timestamp(), expiresAt);
+        ByteString bytes = value.toByteString();
+        if (log != null) {
+            log.appendPut(key, bytes, value.type(), value.timestamp(), expiresAt);
+        }
+        // Only built when a client is subscribed, since most keys are written without anyone watching.
+        if (publishQueue.isWatched(key)) {
+            publishQueue.send(key, XTablesMessageQueue.encodeUpdate(XTableProto.XTableMessage.XTableUpdate.Category.UPDATE,
+                    key, bytes, value.type(), value.timestamp()));
+        }
+    }
+
     /**
      * Returns the ClientRegistry instance associated with the XTables server.
      * <p>
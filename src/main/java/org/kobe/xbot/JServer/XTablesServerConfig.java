@@ -0,0 +1,344 @@
+package org.kobe.xbot.JServer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * XTablesServerConfig - Optional settings for the XTablesServer beyond its socket ports.
+ * <p>
+ * Most options default to leaving the feature off, so a config created with the no-argument
+ * constructor can be passed anywhere one is required. A few defaults do change how the server behaves
+ * compared to before the option existed:
+ * <ul>
+ *     <li>Unchanged PUTs only refresh the stored timestamp and time to live. They are not published
+ *     and their value is not logged again, see {@link #setSuppressUnchanged(boolean)}.</li>
+ *     <li>Request/reply commands are served by 4 threads and PUTs are applied by 4 threads, see
+ *     {@link #setReplyWorkers(int)} and {@link #setIngestWorkers(int)}. Writes to one key keep their
+ *     order, but writes to different keys may be applied in a different order than they were sent.</li>
+ * </ul>
+ * The off-heap arena is opt-in, since its direct memory can exceed the default limit of a small JVM.
+ * The setters return this instance so options can be chained while parsing command-line arguments.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.JServer
+ * <p>
+ * This is part of the XTABLES project and is read once when the server starts or restarts.
+ */
+public class XTablesServerConfig {
+    private String walDirectory = null;
+    private int walSegmentSizeMB = 64;
+    private long walSyncIntervalMillis = 10;
+    private String checkpointDirectory = null;
+    private long checkpointIntervalSeconds = 60;
+    private final Map<String, Integer> historyCapacities = new LinkedHashMap<>();
+    private int offHeapThresholdBytes = 64 * 1024;
+    private int offHeapCapacityMB = 0;
+    private boolean suppressUnchanged = true;
+    private final Map<String, Double> deadbands = new LinkedHashMap<>();
+    private final List<Quota> quotas = new ArrayList<>();
+    private int replyWorkers = 4;
+    private int ingestWorkers = 4;
+    private int publishBatchSize = 1;
+    private boolean publishBackpressure = false;
+
+    /**
+     * Retrieves the directory the write-ahead log is kept in.
+     *
+     * @return the directory path, or null if the write-ahead log is disabled
+     */
+    public String getWalDirectory() {
+        return walDirectory;
+    }
+
+    /**
+     * Enables the write-ahead log in the given directory. Passing null disables it. Unless a checkpoint
+     * directory is set as well, checkpoints are written to this directory, so that the log segments
+     * they cover can be deleted instead of piling up.
+     *
+     * @param walDirectory the directory to keep log segments in
+     * @return this config
+     */
+    public XTablesServerConfig setWalDirectory(String walDirectory) {
+        this.walDirectory = walDirectory;
+        return this;
+    }
+
+    public int getWalSegmentSizeMB() {
+        return walSegmentSizeMB;
+    }
+
+    public XTablesServerConfig setWalSegmentSizeMB(int walSegmentSizeMB) {
+        if (walSegmentSizeMB <= 0) {
+            throw new IllegalArgumentException("WAL segment size must be greater than 0");
+        }
+        this.walSegmentSizeMB = walSegmentSizeMB;
+        return this;
+    }
+
+    public long getWalSyncIntervalMillis() {
+        return walSyncIntervalMillis;
+    }
+
+    /**
+     * Sets how often appended log records are forced to disk. All records appended within one
+     * interval share a single fsync.
+     *
+     * @param walSyncIntervalMillis the group-commit interval in milliseconds
+     * @return this config
+     */
+    public XTablesServerConfig setWalSyncIntervalMillis(long walSyncIntervalMillis) {
+        if (walSyncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("WAL sync interval must be greater than 0");
+        }
+        this.walSyncIntervalMillis = walSyncIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Retrieves the directory checkpoints are kept in.
+     *
+     * @return the directory path, or null if checkpoints are disabled
+     */
+    public String getCheckpointDirectory() {
+        return checkpointDirectory;
+    }
+
+    /**
+     * Enables periodic checkpoints of the table in the given directory. Passing null disables them,
+     * unless the write-ahead log is enabled, in which case they are kept in its directory.
+     * The directory may be the same one the write-ahead log is kept in.
+     *
+     * @param checkpointDirectory the directory to keep checkpoints in
+     * @return this config
+     */
+    public XTablesServerConfig setCheckpointDirectory(String checkpointDirectory) {
+        this.checkpointDirectory = checkpointDirectory;
+        return this;
+    }
+
+    public long getCheckpointIntervalSeconds() {
+        return checkpointIntervalSeconds;
+    }
+
+    public XTablesServerConfig setCheckpointIntervalSeconds(long checkpointIntervalSeconds) {
+        if (checkpointIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be greater than 0");
+        }
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+        return this;
+    }
+
+    /**
+     * Retrieves the key prefixes that keep a history of their recent values.
+     *
+     * @return a map from key prefix to the number of samples kept per key
+     */
+    public Map<String, Integer> getHistoryCapacities() {
+        return historyCapacities;
+    }
+
+    /**
+     * Keeps a ring of the most recent values for every key under a prefix, readable with
+     * GET_HISTORY and GET_RANGE.
+     *
+     * @param prefix   the key prefix, or an empty string for every key
+     * @param capacity the number of samples kept per key
+     * @return this config
+     */
+    public XTablesServerConfig addHistory(String prefix, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be greater than 0");
+        }
+        historyCapacities.put(prefix, capacity);
+        return this;
+    }
+
+    public int getOffHeapThresholdBytes() {
+        return offHeapThresholdBytes;
+    }
+
+    /**
+     * Sets the smallest value size that is stored in the off-heap arena instead of on the heap.
+     *
+     * @param offHeapThresholdBytes the threshold in bytes
+     * @return this config
+     */
+    public XTablesServerConfig setOffHeapThresholdBytes(int offHeapThresholdBytes) {
+        if (offHeapThresholdBytes <= 0) {
+            throw new IllegalArgumentException("Off-heap threshold must be greater than 0");
+        }
+        this.offHeapThresholdBytes = offHeapThresholdBytes;
+        return this;
+    }
+
+    public int getOffHeapCapacityMB() {
+        return offHeapCapacityMB;
+    }
+
+    /**
+     * Sets how much memory the off-heap arena may reserve. Values that do not fit stay on the heap.
+     * Passing 0, the default, disables the arena. The JVM must allow at least this much direct memory,
+     * see {@code -XX:MaxDirectMemorySize}.
+     *
+     * @param offHeapCapacityMB the capacity in megabytes
+     * @return this config
+     */
+    public XTablesServerConfig setOffHeapCapacityMB(int offHeapCapacityMB) {
+        if (offHeapCapacityMB < 0) {
+            throw new IllegalArgumentException("Off-heap capacity cannot be negative");
+        }
+        this.offHeapCapacityMB = offHeapCapacityMB;
+        return this;
+    }
+
+    public boolean isSuppressUnchanged() {
+        return suppressUnchanged;
+    }
+
+    /**
+     * Sets whether a PUT whose value is identical to the stored one only refreshes the stored
+     * timestamp instead of being logged and published to every subscriber.
+     *
+     * @param suppressUnchanged true to suppress unchanged values, false to publish every PUT
+     * @return this config
+     */
+    public XTablesServerConfig setSuppressUnchanged(boolean suppressUnchanged) {
+        this.suppressUnchanged = suppressUnchanged;
+        return this;
+    }
+
+    /**
+     * Retrieves the numeric deadbands applied to PUTs.
+     *
+     * @return a map from key prefix to the smallest change that is published
+     */
+    public Map<String, Double> getDeadbands() {
+        return deadbands;
+    }
+
+    /**
+     * Keeps PUTs of DOUBLE, INT32 and DOUBLE_LIST values under a prefix that move every number by
+     * less than the deadband from the stored value from being stored and published; they only
+     * refresh the stored timestamp.
+     *
+     * @param prefix   the key prefix, or an empty string for every key
+     * @param deadband the smallest change that is published
+     * @return this config
+     */
+    public XTablesServerConfig addDeadband(String prefix, double deadband) {
+        if (!(deadband > 0)) {
+            throw new IllegalArgumentException("Deadband must be greater than 0");
+        }
+        deadbands.put(prefix, deadband);
+        return this;
+    }
+
+    /**
+     * Retrieves the limits on how much may be stored under key prefixes.
+     *
+     * @return the quotas
+     */
+    public List<Quota> getQuotas() {
+        return quotas;
+    }
+
+    /**
+     * Limits how many values and bytes of value may be stored under a prefix.
+     *
+     * @param prefix   the key prefix, or an empty string for the whole table
+     * @param maxKeys  the maximum number of values, or 0 for no limit on them
+     * @param maxBytes the maximum total size of the values in bytes, or 0 for no limit on them
+     * @param evict    true to evict the least recently written keys once a limit is reached, false to reject writes
+     * @return this config
+     */
+    public XTablesServerConfig addQuota(String prefix, long maxKeys, long maxBytes, boolean evict) {
+        if (maxKeys < 0 || maxBytes < 0 || (maxKeys == 0 && maxBytes == 0)) {
+            throw new IllegalArgumentException("A quota needs a key or byte limit greater than 0");
+        }
+        quotas.removeIf(quota -> quota.prefix().equals(prefix));
+        quotas.add(new Quota(prefix, maxKeys, maxBytes, evict));
+        return this;
+    }
+
+    public int getReplyWorkers() {
+        return replyWorkers;
+    }
+
+    /**
+     * Sets how many threads serve request/reply commands. Requests are spread across the workers, so
+     * a slow request such as GET_PROTO_DATA does not hold up GETs from other clients.
+     *
+     * @param replyWorkers the number of reply workers
+     * @return this config
+     */
+    public XTablesServerConfig setReplyWorkers(int replyWorkers) {
+        if (replyWorkers <= 0) {
+            throw new IllegalArgumentException("Reply worker count must be greater than 0");
+        }
+        this.replyWorkers = replyWorkers;
+        return this;
+    }
+
+    public int getIngestWorkers() {
+        return ingestWorkers;
+    }
+
+    /**
+     * Sets how many threads parse and apply PUTs from the PULL socket. Each key always goes to the
+     * same worker, so writes to one key keep their order.
+     *
+     * @param ingestWorkers the number of ingest workers
+     * @return this config
+     */
+    public XTablesServerConfig setIngestWorkers(int ingestWorkers) {
+        if (ingestWorkers <= 0) {
+            throw new IllegalArgumentException("Ingest worker count must be greater than 0");
+        }
+        this.ingestWorkers = ingestWorkers;
+        return this;
+    }
+
+    public int getPublishBatchSize() {
+        return publishBatchSize;
+    }
+
+    /**
+     * Sets the most updates that are published together in one BATCH frame when the publish queue
+     * backs up. Clients older than BATCH frames only receive updates that are sent on their own, so
+     * batching stays off (a size of 1) unless every subscriber understands it.
+     *
+     * @param publishBatchSize the most updates per frame, or 1 to publish every update on its own
+     * @return this config
+     */
+    public XTablesServerConfig setPublishBatchSize(int publishBatchSize) {
+        if (publishBatchSize <= 0) {
+            throw new IllegalArgumentException("Publish batch size must be greater than 0");
+        }
+        this.publishBatchSize = publishBatchSize;
+        return this;
+    }
+
+    public boolean isPublishBackpressure() {
+        return publishBackpressure;
+    }
+
+    /**
+     * Sets whether publishing applies back pressure instead of dropping messages. With it, a full
+     * publish queue makes the threads that publish wait, and the publish socket waits for a slow
+     * subscriber for a short time before giving up, which also delays every other subscriber.
+     * Without it, messages that do not fit are dropped and counted.
+     *
+     * @param publishBackpressure true to wait instead of dropping
+     * @return this config
+     */
+    public XTablesServerConfig setPublishBackpressure(boolean publishBackpressure) {
+        this.publishBackpressure = publishBackpressure;
+        return this;
+    }
+
+    public record Quota(String prefix, long maxKeys, long maxBytes, boolean evict) {
+    }
+}
@@ -12,6 +12,9 @@ public class CircularBuffer<T> {
     private final ReentrantLock lock = new ReentrantLock();
     private final Condition notEmpty = lock.newCondition();
     private final BiFunction<T, T, Boolean> shouldRemove;
+    // Only changed under the lock, volatile so that they can be read for statistics without it.
+    private volatile long written = 0;
+    private volatile long overwritten = 0;
 
     // Constructor to initialize the buffer with a specific size and removal function
     public CircularBuffer(int capacity, BiFunction<T, T, Boolean> shouldRemove) {
@@ -68,8 +71,11 @@ public class CircularBuffer<T> {
         try {
             buffer[writeIndex] = data;
             writeIndex = (writeIndex + 1) % capacity;
+            written++;
             if (size < capacity) {
                 size++;
+            } else {
+                overwritten++;
             }
             notEmpty.signalAll();
         } finally {
@@ -180,6 +186,16 @@ public class CircularBuffer<T> {
         }
     }
 
+    // Total number of writes, including those that were later overwritten
+    public long getWritten() {
+        return written;
+    }
+
+    // Number of unread elements that were overwritten because the buffer was full
+    public long getOverwritten() {
+        return overwritten;
+    }
+
     // Optional: Get the current size of the buffer
     public int getSize() {
         lock.lock();
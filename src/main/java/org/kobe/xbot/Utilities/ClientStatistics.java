@@ -30,6 +30,11 @@ public class ClientStatistics {
     private String UUID;
     private int bufferSize;
     private int maxBufferSize;
+    private long pushEnqueued;
+    private long pushOverwritten;
+    private long pushSendFailed;
+    private long subscribeReceived;
+    private long subscribeOverwritten;
 
     private static final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
     private static final OperatingSystemMXBean osMXBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
@@ -103,6 +108,11 @@ public class ClientStatistics {
         }
         builder.setBufferSize(this.bufferSize);
         builder.setMaxBufferSize(this.maxBufferSize);
+        builder.setPushEnqueued(this.pushEnqueued);
+        builder.setPushOverwritten(this.pushOverwritten);
+        builder.setPushSendFailed(this.pushSendFailed);
+        builder.setSubscribeReceived(this.subscribeReceived);
+        builder.setSubscribeOverwritten(this.subscribeOverwritten);
 
         return builder.build();
     }
@@ -134,6 +144,11 @@ public class ClientStatistics {
         }
         stats.bufferSize = protobuf.getBufferSize();
         stats.maxBufferSize = protobuf.getMaxBufferSize();
+        stats.pushEnqueued = protobuf.getPushEnqueued();
+        stats.pushOverwritten = protobuf.getPushOverwritten();
+        stats.pushSendFailed = protobuf.getPushSendFailed();
+        stats.subscribeReceived = protobuf.getSubscribeReceived();
+        stats.subscribeOverwritten = protobuf.getSubscribeOverwritten();
 
         return stats;
     }
@@ -158,6 +173,31 @@ public class ClientStatistics {
         return this;
     }
 
+    public ClientStatistics setPushEnqueued(long pushEnqueued) {
+        this.pushEnqueued = pushEnqueued;
+        return this;
+    }
+
+    public ClientStatistics setPushOverwritten(long pushOverwritten) {
+        this.pushOverwritten = pushOverwritten;
+        return this;
+    }
+
+    public ClientStatistics setPushSendFailed(long pushSendFailed) {
+        this.pushSendFailed = pushSendFailed;
+        return this;
+    }
+
+    public ClientStatistics setSubscribeReceived(long subscribeReceived) {
+        this.subscribeReceived = subscribeReceived;
+        return this;
+    }
+
+    public ClientStatistics setSubscribeOverwritten(long subscribeOverwritten) {
+        this.subscribeOverwritten = subscribeOverwritten;
+        return this;
+    }
+
     public enum HealthStatus {
         GOOD, OKAY, STRESSED, OVERLOAD, CRITICAL, UNKNOWN
     }
@@ -180,4 +220,10 @@ public class ClientStatistics {
     public String getUUID() {
         return UUID;
     }
+
+    public long getPushEnqueued() { return pushEnqueued; }
+    public long getPushOverwritten() { return pushOverwritten; }
+    public long getPushSendFailed() { return pushSendFailed; }
+    public long getSubscribeReceived() { return subscribeReceived; }
+    public long getSubscribeOverwritten() { return subscribeOverwritten; }
 }
@@ -0,0 +1,155 @@
+package org.kobe.xbot.Utilities;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ConflatingQueue - A bounded FIFO queue that keeps only the latest pending value per key.
+ * <p>
+ * A keyed value that arrives while an older value for the same key is still waiting replaces it in
+ * place, so a key that changes at a high rate occupies one slot instead of crowding out everything
+ * else, and keys are drained in the order they first became pending. Unkeyed values are never
+ * replaced and act as barriers: a keyed value that arrives after one is queued behind it instead of
+ * replacing a value queued in front of it, so the relative order of every value and barrier holds.
+ * When the queue is full, the oldest entry is dropped. Replaced and dropped values are counted.
+ * <p>
+ * The queue is not thread safe. It is meant to be owned by one consumer thread, which moves values
+ * into it from a {@link MpscRingBuffer} and drains it at its own pace.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.Utilities
+ * <p>
+ * This is part of the XTABLES project and keeps bursts of updates from pushing out rarely changed keys.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ConflatingQueue<K, V> {
+    private final int capacity;
+    private final ArrayDeque<Slot<K, V>> order;
+    private final Map<K, Slot<K, V>> pending = new HashMap<>();
+    // Only changed by the owning thread, volatile so that other threads can read them for statistics.
+    private volatile long conflated;
+    private volatile long dropped;
+
+    /**
+     * Creates a queue that holds up to the given number of entries.
+     *
+     * @param capacity the maximum number of pending entries
+     */
+    public ConflatingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be greater than 0");
+        }
+        this.capacity = capacity;
+        this.order = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * Adds a value, replacing the pending value for the same key if there is one.
+     *
+     * @param key   the key to conflate on, or null for a value that is never replaced
+     * @param value the value to add
+     * @return true if the value replaced a pending one
+     */
+    public boolean offer(K key, V value) {
+        if (key != null) {
+            Slot<K, V> slot = pending.get(key);
+            if (slot != null) {
+                slot.value = value;
+                conflated++;
+                return true;
+            }
+        }
+        Slot<K, V> slot = new Slot<>(key, value);
+        if (key != null) {
+            pending.put(key, slot);
+        } else {
+            pending.clear();
+        }
+        if (order.size() == capacity) {
+            forget(order.pollFirst());
+            dropped++;
+        }
+        order.addLast(slot);
+        return false;
+    }
+
+    /**
+     * Removes the oldest entry.
+     *
+     * @return the entry's latest value, or null if the queue is empty
+     */
+    public V poll() {
+        Slot<K, V> slot = order.pollFirst();
+        if (slot == null) {
+            return null;
+        }
+        forget(slot);
+        return slot.value;
+    }
+
+    /**
+     * Retrieves the oldest entry without removing it.
+     *
+     * @return the entry's latest value, or null if the queue is empty
+     */
+    public V peek() {
+        Slot<K, V> slot = order.peekFirst();
+        return slot != null ? slot.value : null;
+    }
+
+    /**
+     * Retrieves the number of pending entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return order.size();
+    }
+
+    /**
+     * Checks whether the next new entry would drop the oldest one.
+     *
+     * @return true if the queue is full
+     */
+    public boolean isFull() {
+        return order.size() == capacity;
+    }
+
+    /**
+     * Retrieves how many values were replaced by a newer value for the same key before being taken.
+     *
+     * @return the number of replaced values
+     */
+    public long getConflated() {
+        return conflated;
+    }
+
+    /**
+     * Retrieves how many entries were dropped because the queue was full.
+     *
+     * @return the number of dropped entries
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    private void forget(Slot<K, V> slot) {
+        if (slot.key != null) {
+            pending.remove(slot.key, slot);
+        }
+    }
+
+    private static final class Slot<K, V> {
+        private final K key;
+        private V value;
+
+        private Slot(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.kobe.xbot.Utilities.Entities;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import org.kobe.xbot.Utilities.XTablesByteUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.kobe.xbot.JClient.XTablesClient.successByte;
+
+/**
+ * MultiGetResult - The values returned by a single MULTI_GET request.
+ * <p>
+ * The typed getters decode a value the same way the matching {@link Requests} getter does, but read
+ * it from the reply that was already received instead of making a request of their own. A key that
+ * has no value on the server returns null, and a key whose value is of another type throws an
+ * IllegalArgumentException.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.Utilities.Entities
+ * <p>
+ * This is part of the XTABLES project and lets a robot loop read many keys in one round trip.
+ */
+public class MultiGetResult {
+    private final Map<String, XTableProto.XTableMessage> values;
+
+    /**
+     * Creates a result from the batch of a MULTI_GET reply.
+     *
+     * @param batch The entries of the reply, one per requested key
+     */
+    public MultiGetResult(List<XTableProto.XTableMessage> batch) {
+        this.values = new LinkedHashMap<>(batch.size() * 2);
+        for (XTableProto.XTableMessage entry : batch) {
+            values.put(entry.getKey(), entry);
+        }
+    }
+
+    /**
+     * Retrieves the keys that were requested, in request order.
+     *
+     * @return the requested keys
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    /**
+     * Checks whether a key had a value on the server.
+     *
+     * @param key The key to check
+     * @return true if the key was requested and has a value
+     */
+    public boolean hasValue(String key) {
+        XTableProto.XTableMessage message = values.get(key);
+        return message != null && message.hasValue();
+    }
+
+    /**
+     * Retrieves the raw reply entry for a key, with its value, type and server timestamp.
+     *
+     * @param key The key to read
+     * @return the entry, or null if the key was not requested
+     */
+    public XTableProto.XTableMessage getMessage(String key) {
+        return values.get(key);
+    }
+
+    public String getString(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.STRING);
+        return message != null ? message.getValue().toStringUtf8() : null;
+    }
+
+    public Integer getInteger(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.INT32);
+        return message != null ? message.getValue().asReadOnlyByteBuffer().getInt() : null;
+    }
+
+    public Long getLong(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.INT64);
+        return message != null ? message.getValue().asReadOnlyByteBuffer().getLong() : null;
+    }
+
+    public Double getDouble(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.DOUBLE);
+        return message != null ? message.getValue().asReadOnlyByteBuffer().getDouble() : null;
+    }
+
+    public Boolean getBoolean(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.BOOL);
+        return message != null ? message.getValue().equals(successByte) : null;
+    }
+
+    public byte[] getBytes(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.BYTES);
+        return message != null ? message.getValue().toByteArray() : null;
+    }
+
+    public List<Double> getDoubleList(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.DOUBLE_LIST);
+        if (message == null) return null;
+        try {
+            return XTableValues.DoubleList.parseFrom(message.getValue()).getVList();
+        } catch (InvalidProtocolBufferException e) {
+            throw invalidBytes(message.getValue());
+        }
+    }
+
+    public List<Integer> getIntegerList(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.INTEGER_LIST);
+        if (message == null) return null;
+        try {
+            return XTableValues.IntegerList.parseFrom(message.getValue()).getVList();
+        } catch (InvalidProtocolBufferException e) {
+            throw invalidBytes(message.getValue());
+        }
+    }
+
+    public List<Long> getLongList(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.LONG_LIST);
+        if (message == null) return null;
+        try {
+            return XTableValues.LongList.parseFrom(message.getValue()).getVList();
+        } catch (InvalidProtocolBufferException e) {
+            throw invalidBytes(message.getValue());
+        }
+    }
+
+    public List<String> getStringList(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.STRING_LIST);
+        if (message == null) return null;
+        try {
+            return XTableValues.StringList.parseFrom(message.getValue()).getVList();
+        } catch (InvalidProtocolBufferException e) {
+            throw invalidBytes(message.getValue());
+        }
+    }
+
+    public Pose2d getPose2d(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.POSE2D);
+        return message != null ? XTablesByteUtils.unpackPose2d(message.getValue().toByteArray()) : null;
+    }
+
+    public Pose3d getPose3d(String key) {
+        XTableProto.XTableMessage message = valueOf(key, XTableProto.XTableMessage.Type.POSE3D);
+        return message != null ? XTablesByteUtils.unpackPose3d(message.getValue().toByteArray()) : null;
+    }
+
+    /**
+     * Finds the entry for a key and checks its type.
+     *
+     * @return the entry, or null if the key has no value
+     * @throws IllegalArgumentException If the key was not requested or its value is of another type
+     */
+    private XTableProto.XTableMessage valueOf(String key, XTableProto.XTableMessage.Type expected) {
+        XTableProto.XTableMessage message = values.get(key);
+        if (message == null) {
+            throw new IllegalArgumentException("Key was not part of the request: " + key);
+        }
+        if (!message.hasValue() || message.getType() == XTableProto.XTableMessage.Type.UNKNOWN) {
+            return null;
+        }
+        if (message.getType() != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " type, but got: " + message.getType());
+        }
+        return message;
+    }
+
+    private static IllegalArgumentException invalidBytes(ByteString value) {
+        return new IllegalArgumentException("Invalid bytes returned from server: " + Arrays.toString(value.toByteArray()));
+    }
+}
@@ -88,6 +88,38 @@ public abstract class Requests {
         return sendPutMessage(key, value, type);
     }
 
+    /**
+     * Sends a PUT request that expires on the server after a time to live.
+     * <p>
+     * When the time runs out without the key being written again, the server deletes it and notifies
+     * delete subscribers, so values from a writer that stops running do not linger. Writing the key
+     * again, even with the same value, restarts the timer; writing it without a time to live makes it
+     * permanent. A key that has keys under it by then is kept, since deleting it would remove them too.
+     *
+     * @param key       The key associated with the value.
+     * @param value     The byte array value to be sent.
+     * @param type      The type of the value being sent.
+     * @param ttlMillis The time to live in milliseconds.
+     * @return True if the message was sent successfully; otherwise, false.
+     */
+    public boolean putBytes(String key, byte[] value, XTableProto.XTableMessage.Type type, long ttlMillis) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Time to live must be greater than 0");
+        }
+        try {
+            return put.send(XTableProto.XTableMessage.newBuilder()
+                    .setKey(key)
+                    .setCommand(XTableProto.XTableMessage.Command.PUT)
+                    .setValue(ByteString.copyFrom(value))
+                    .setType(type)
+                    .setTtl(ttlMillis)
+                    .build()
+                    .toByteArray(), ZMQ.DONTWAIT);
+        } catch (Exception e) {
+            throw new XTablesException(e);
+        }
+    }
+
     /**
      * Sends a PUT request with a byte array value to the server with an UNKNOWN message type.
      * <p>
@@ -565,6 +597,243 @@ public abstract class Requests {
     }
 
 
+    /**
+     * Retrieves the most recent values written to a key, for keys the server keeps history for.
+     * <p>
+     * Each returned message carries the value, type and server timestamp of one sample.
+     *
+     * @param key   The key to read the history of
+     * @param limit The maximum number of samples, or 0 for every sample the server keeps
+     * @return The samples oldest first, or an empty list if the key keeps no history or the request fails
+     */
+    public List<XTableProto.XTableMessage> getHistory(String key, int limit) {
+        return getHistorySamples(XTableProto.XTableMessage.newBuilder()
+                .setCommand(XTableProto.XTableMessage.Command.GET_HISTORY)
+                .setKey(key)
+                .setLimit(limit)
+                .build());
+    }
+
+    /**
+     * Retrieves the values written to a key within a server timestamp range, for keys the server keeps history for.
+     *
+     * @param key   The key to read the history of
+     * @param start The earliest timestamp in milliseconds, inclusive
+     * @param end   The latest timestamp in milliseconds, inclusive
+     * @param limit The maximum number of samples, or 0 for every matching sample. If more samples match, the most recent are returned.
+     * @return The samples oldest first, or an empty list if the key keeps no history or the request fails
+     */
+    public List<XTableProto.XTableMessage> getHistoryRange(String key, long start, long end, int limit) {
+        return getHistorySamples(XTableProto.XTableMessage.newBuilder()
+                .setCommand(XTableProto.XTableMessage.Command.GET_RANGE)
+                .setKey(key)
+                .setStartTimestamp(start)
+                .setEndTimestamp(end)
+                .setLimit(limit)
+                .build());
+    }
+
+    private List<XTableProto.XTableMessage> getHistorySamples(XTableProto.XTableMessage request) {
+        try {
+            byte[] response = getRawBytes(request.toByteArray());
+            if (response == null) return new ArrayList<>();
+            return XTableProto.XTableMessage.parseFrom(response).getBatchList();
+        } catch (InvalidProtocolBufferException | ZMQException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Retrieves every value under a key in a single request, instead of one GET per child.
+     * <p>
+     * Each returned message carries the full key, value, type and server timestamp of one value.
+     * Large subtrees arrive from the server in several frames, which are joined here.
+     *
+     * @param key The key to read, or an empty string for the whole table
+     * @return The values under the key, or an empty list if the key does not exist or the request fails
+     */
+    public List<XTableProto.XTableMessage> getSubtree(String key) {
+        try {
+            List<byte[]> frames = getRawFrames(XTableProto.XTableMessage.newBuilder()
+                    .setCommand(XTableProto.XTableMessage.Command.GET_SUBTREE)
+                    .setKey(key)
+                    .build()
+                    .toByteArray());
+            if (frames == null) return new ArrayList<>();
+            List<XTableProto.XTableMessage> values = new ArrayList<>();
+            for (byte[] frame : frames) {
+                values.addAll(XTableProto.XTableMessage.parseFrom(frame).getBatchList());
+            }
+            return values;
+        } catch (InvalidProtocolBufferException | ZMQException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Retrieves the values of several keys in a single request, instead of one round trip per key.
+     * <p>
+     * The result offers the same typed getters as this class, reading from the reply it holds.
+     *
+     * @param keys The keys to read
+     * @return The values of the keys, or null if the request fails
+     */
+    public MultiGetResult getMultiple(List<String> keys) {
+        XTableProto.XTableMessage.Builder request = XTableProto.XTableMessage.newBuilder()
+                .setCommand(XTableProto.XTableMessage.Command.MULTI_GET);
+        for (String key : keys) {
+            request.addBatchBuilder().setKey(key);
+        }
+        try {
+            byte[] response = getRawBytes(request.build().toByteArray());
+            if (response == null) return null;
+            return new MultiGetResult(XTableProto.XTableMessage.parseFrom(response).getBatchList());
+        } catch (InvalidProtocolBufferException | ZMQException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the values of several keys in a single request.
+     *
+     * @param keys The keys to read
+     * @return The values of the keys, or null if the request fails
+     * @see #getMultiple(List)
+     */
+    public MultiGetResult getMultiple(String... keys) {
+        return getMultiple(Arrays.asList(keys));
+    }
+
+    /**
+     * Stores a value only if the key currently holds the expected value, checked and applied as one
+     * step on the server, so two clients can never both win.
+     *
+     * @param key      The key to set
+     * @param expected The value the key must hold, or null if the key must have no value
+     * @param value    The value to store
+     * @param type     The type of the value to store
+     * @return true if the value was stored, false if the key held something else or the request fails
+     */
+    public boolean compareAndSet(String key, byte[] expected, byte[] value, XTableProto.XTableMessage.Type type) {
+        XTableProto.XTableMessage.Builder request = XTableProto.XTableMessage.newBuilder()
+                .setCommand(XTableProto.XTableMessage.Command.CAS)
+                .setKey(key)
+                .setValue(ByteString.copyFrom(value))
+                .setType(type);
+        if (expected != null) {
+            request.setExpected(ByteString.copyFrom(expected));
+        }
+        return sendAtomic(request.build()) != null;
+    }
+
+    public boolean compareAndSetString(String key, String expected, String value) {
+        return compareAndSet(key, expected == null ? null : expected.getBytes(StandardCharsets.UTF_8),
+                value.getBytes(StandardCharsets.UTF_8), XTableProto.XTableMessage.Type.STRING);
+    }
+
+    /**
+     * Adds to an INT32 key on the server and returns the result, in one round trip. A key with no
+     * value counts as 0.
+     *
+     * @param key   The key to add to
+     * @param delta The amount to add
+     * @return The new value, or null if the key holds another type or the request fails
+     */
+    public Integer incrementInteger(String key, int delta) {
+        XTableProto.XTableMessage result = sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.INCREMENT, key,
+                XTablesByteUtils.fromInteger(delta), XTableProto.XTableMessage.Type.INT32));
+        return result != null ? result.getValue().asReadOnlyByteBuffer().getInt() : null;
+    }
+
+    public Long incrementLong(String key, long delta) {
+        XTableProto.XTableMessage result = sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.INCREMENT, key,
+                XTablesByteUtils.fromLong(delta), XTableProto.XTableMessage.Type.INT64));
+        return result != null ? result.getValue().asReadOnlyByteBuffer().getLong() : null;
+    }
+
+    public Double incrementDouble(String key, double delta) {
+        XTableProto.XTableMessage result = sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.INCREMENT, key,
+                XTablesByteUtils.fromDouble(delta), XTableProto.XTableMessage.Type.DOUBLE));
+        return result != null ? result.getValue().asReadOnlyByteBuffer().getDouble() : null;
+    }
+
+    /**
+     * Appends to a DOUBLE_LIST key on the server, in one round trip. A key with no value becomes the
+     * given list.
+     *
+     * @param key   The key to append to
+     * @param value The elements to append
+     * @return true if the elements were appended, false if the key holds another type or the request fails
+     */
+    public boolean appendDoubleList(String key, List<Double> value) {
+        return sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.APPEND, key,
+                XTableValues.DoubleList.newBuilder().addAllV(value).build().toByteArray(),
+                XTableProto.XTableMessage.Type.DOUBLE_LIST)) != null;
+    }
+
+    public boolean appendStringList(String key, List<String> value) {
+        return sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.APPEND, key,
+                XTableValues.StringList.newBuilder().addAllV(value).build().toByteArray(),
+                XTableProto.XTableMessage.Type.STRING_LIST)) != null;
+    }
+
+    public boolean appendIntegerList(String key, List<Integer> value) {
+        return sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.APPEND, key,
+                XTableValues.IntegerList.newBuilder().addAllV(value).build().toByteArray(),
+                XTableProto.XTableMessage.Type.INTEGER_LIST)) != null;
+    }
+
+    public boolean appendBytesList(String key, List<ByteString> value) {
+        return sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.APPEND, key,
+                XTableValues.BytesList.newBuilder().addAllV(value).build().toByteArray(),
+                XTableProto.XTableMessage.Type.BYTES_LIST)) != null;
+    }
+
+    public boolean appendLongList(String key, List<Long> value) {
+        return sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.APPEND, key,
+                XTableValues.LongList.newBuilder().addAllV(value).build().toByteArray(),
+                XTableProto.XTableMessage.Type.LONG_LIST)) != null;
+    }
+
+    public boolean appendFloatList(String key, List<Float> value) {
+        return sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.APPEND, key,
+                XTableValues.FloatList.newBuilder().addAllV(value).build().toByteArray(),
+                XTableProto.XTableMessage.Type.FLOAT_LIST)) != null;
+    }
+
+    public boolean appendBooleanList(String key, List<Boolean> value) {
+        return sendAtomic(atomicRequest(XTableProto.XTableMessage.Command.APPEND, key,
+                XTableValues.BoolList.newBuilder().addAllV(value).build().toByteArray(),
+                XTableProto.XTableMessage.Type.BOOLEAN_LIST)) != null;
+    }
+
+    private static XTableProto.XTableMessage atomicRequest(XTableProto.XTableMessage.Command command, String key,
+                                                           byte[] value, XTableProto.XTableMessage.Type type) {
+        return XTableProto.XTableMessage.newBuilder()
+                .setCommand(command)
+                .setKey(key)
+                .setValue(ByteString.copyFrom(value))
+                .setType(type)
+                .build();
+    }
+
+    /**
+     * Sends a CAS, INCREMENT or APPEND request.
+     *
+     * @return The value the key was left with, or null if the server did not apply the request or it fails
+     */
+    private XTableProto.XTableMessage sendAtomic(XTableProto.XTableMessage request) {
+        try {
+            byte[] response = getRawBytes(request.toByteArray());
+            if (response == null) return null;
+            XTableProto.XTableMessage message = XTableProto.XTableMessage.parseFrom(response);
+            if (!message.getValue().equals(successByte) || message.getBatchCount() == 0) return null;
+            return message.getBatch(0);
+        } catch (InvalidProtocolBufferException | ZMQException e) {
+            return null;
+        }
+    }
+
     public XTableProto.XTableMessage.XTablesData _getXTablesDataProto() {
         try {
             byte[] response = getRawBytes(XTableProto.XTableMessage.newBuilder().setCommand(XTableProto.XTableMessage.Command.GET_PROTO_DATA).build().toByteArray());
@@ -617,6 +886,26 @@ public abstract class Requests {
         }
     }
 
+    /**
+     * Sends a request whose reply may span several frames and returns every frame of it.
+     */
+    protected List<byte[]> getRawFrames(byte[] data) {
+        try {
+            get.send(data, ZMQ.DONTWAIT);
+            List<byte[]> frames = new ArrayList<>();
+            do {
+                byte[] frame = get.recv();
+                if (frame == null) return null;
+                frames.add(frame);
+            } while (get.hasReceiveMore());
+            return frames;
+        } catch (ZMQException e) {
+            logger.warning("ZMQ Exception on request socket, reconnecting to clear states.");
+            reconnectRequestSocket();
+            return null;
+        }
+    }
+
     /**
      * Sends a GET request to the server for the specified key and returns the parsed message.
      * <p>
@@ -7,6 +7,7 @@ import org.kobe.xbot.JClient.CachedSubscriber;
 import org.kobe.xbot.Utilities.Exceptions.XTablesException;
 import org.kobe.xbot.Utilities.XTablesByteUtils;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -17,12 +18,22 @@ public interface Subscriptions {
 
     boolean subscribe(String key, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer);
 
+    boolean subscribe(String key, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer, boolean currentValue);
+
+    boolean subscribe(Collection<String> keys, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer, boolean currentValues);
+
     boolean subscribe(Consumer<XTableProto.XTableMessage.XTableUpdate> consumer);
 
     boolean unsubscribe(String key, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer);
 
     boolean unsubscribe(Consumer<XTableProto.XTableMessage.XTableUpdate> consumer);
 
+    boolean subscribeTree(String prefix, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer);
+
+    boolean subscribeTree(String prefix, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer, boolean currentValues);
+
+    boolean unsubscribeTree(String prefix, Consumer<XTableProto.XTableMessage.XTableUpdate> consumer);
+
     CachedSubscriber subscribe(String key);
 
     CachedSubscriber subscribe(String key, int queue);
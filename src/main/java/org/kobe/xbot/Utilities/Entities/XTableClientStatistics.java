@@ -1,19 +1,9 @@
 package org.kobe.xbot.Utilities.Entities;// Generated by the protocol buffer compiler.  DO NOT EDIT!
-// NO CHECKED-IN PROTOBUF GENCODE
 // source: XTableClientStatistics.proto
-// Protobuf Java Version: 4.29.2
 
+// Protobuf Java Version: 3.25.6
 public final class XTableClientStatistics {
   private XTableClientStatistics() {}
-  static {
-    com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
-      com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
-      /* major= */ 4,
-      /* minor= */ 29,
-      /* patch= */ 2,
-      /* suffix= */ "",
-      XTableClientStatistics.class.getName());
-  }
   public static void registerAllExtensions(
       com.google.protobuf.ExtensionRegistryLite registry) {
   }
@@ -59,15 +49,6 @@ public final class XTableClientStatistics {
     UNRECOGNIZED(-1),
     ;
 
-    static {
-      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
-        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
-        /* major= */ 4,
-        /* minor= */ 29,
-        /* patch= */ 2,
-        /* suffix= */ "",
-        HealthStatus.class.getName());
-    }
     /**
      * <code>GOOD = 0;</code>
      */
@@ -393,6 +374,101 @@ public final class XTableClientStatistics {
      * @return The maxBufferSize.
      */
     int getMaxBufferSize();
+
+    /**
+     * <pre>
+     * Message accounting, counted since the client started.
+     * </pre>
+     *
+     * <code>optional int64 push_enqueued = 20;</code>
+     * @return Whether the pushEnqueued field is set.
+     */
+    boolean hasPushEnqueued();
+    /**
+     * <pre>
+     * Message accounting, counted since the client started.
+     * </pre>
+     *
+     * <code>optional int64 push_enqueued = 20;</code>
+     * @return The pushEnqueued.
+     */
+    long getPushEnqueued();
+
+    /**
+     * <pre>
+     * Messages overwritten in the push queue before being sent
+     * </pre>
+     *
+     * <code>optional int64 push_overwritten = 21;</code>
+     * @return Whether the pushOverwritten field is set.
+     */
+    boolean hasPushOverwritten();
+    /**
+     * <pre>
+     * Messages overwritten in the push queue before being sent
+     * </pre>
+     *
+     * <code>optional int64 push_overwritten = 21;</code>
+     * @return The pushOverwritten.
+     */
+    long getPushOverwritten();
+
+    /**
+     * <pre>
+     * Messages the PUSH socket refused because its HWM was reached
+     * </pre>
+     *
+     * <code>optional int64 push_send_failed = 22;</code>
+     * @return Whether the pushSendFailed field is set.
+     */
+    boolean hasPushSendFailed();
+    /**
+     * <pre>
+     * Messages the PUSH socket refused because its HWM was reached
+     * </pre>
+     *
+     * <code>optional int64 push_send_failed = 22;</code>
+     * @return The pushSendFailed.
+     */
+    long getPushSendFailed();
+
+    /**
+     * <pre>
+     * Updates written to the subscribe buffer
+     * </pre>
+     *
+     * <code>optional int64 subscribe_received = 23;</code>
+     * @return Whether the subscribeReceived field is set.
+     */
+    boolean hasSubscribeReceived();
+    /**
+     * <pre>
+     * Updates written to the subscribe buffer
+     * </pre>
+     *
+     * <code>optional int64 subscribe_received = 23;</code>
+     * @return The subscribeReceived.
+     */
+    long getSubscribeReceived();
+
+    /**
+     * <pre>
+     * Updates overwritten in the subscribe buffer before consumers saw them
+     * </pre>
+     *
+     * <code>optional int64 subscribe_overwritten = 24;</code>
+     * @return Whether the subscribeOverwritten field is set.
+     */
+    boolean hasSubscribeOverwritten();
+    /**
+     * <pre>
+     * Updates overwritten in the subscribe buffer before consumers saw them
+     * </pre>
+     *
+     * <code>optional int64 subscribe_overwritten = 24;</code>
+     * @return The subscribeOverwritten.
+     */
+    long getSubscribeOverwritten();
   }
   /**
    * <pre>
@@ -402,21 +478,12 @@ public final class XTableClientStatistics {
    * Protobuf type {@code ClientStatistics}
    */
   public static final class ClientStatistics extends
-      com.google.protobuf.GeneratedMessage implements
+      com.google.protobuf.GeneratedMessageV3 implements
       // @@protoc_insertion_point(message_implements:ClientStatistics)
       ClientStatisticsOrBuilder {
   private static final long serialVersionUID = 0L;
-    static {
-      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
-        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
-        /* major= */ 4,
-        /* minor= */ 29,
-        /* patch= */ 2,
-        /* suffix= */ "",
-        ClientStatistics.class.getName());
-    }
     // Use ClientStatistics.newBuilder() to construct.
-    private ClientStatistics(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+    private ClientStatistics(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
       super(builder);
     }
     private ClientStatistics() {
@@ -432,13 +499,20 @@ public final class XTableClientStatistics {
       uuid_ = "";
     }
 
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new ClientStatistics();
+    }
+
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
       return XTableClientStatistics.internal_static_ClientStatistics_descriptor;
     }
 
     @java.lang.Override
-    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
         internalGetFieldAccessorTable() {
       return XTableClientStatistics.internal_static_ClientStatistics_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
@@ -966,6 +1040,141 @@ public final class XTableClientStatistics {
       return maxBufferSize_;
     }
 
+    public static final int PUSH_ENQUEUED_FIELD_NUMBER = 20;
+    private long pushEnqueued_ = 0L;
+    /**
+     * <pre>
+     * Message accounting, counted since the client started.
+     * </pre>
+     *
+     * <code>optional int64 push_enqueued = 20;</code>
+     * @return Whether the pushEnqueued field is set.
+     */
+    @java.lang.Override
+    public boolean hasPushEnqueued() {
+      return ((bitField0_ & 0x00000020) != 0);
+    }
+    /**
+     * <pre>
+     * Message accounting, counted since the client started.
+     * </pre>
+     *
+     * <code>optional int64 push_enqueued = 20;</code>
+     * @return The pushEnqueued.
+     */
+    @java.lang.Override
+    public long getPushEnqueued() {
+      return pushEnqueued_;
+    }
+
+    public static final int PUSH_OVERWRITTEN_FIELD_NUMBER = 21;
+    private long pushOverwritten_ = 0L;
+    /**
+     * <pre>
+     * Messages overwritten in the push queue before being sent
+     * </pre>
+     *
+     * <code>optional int64 push_overwritten = 21;</code>
+     * @return Whether the pushOverwritten field is set.
+     */
+    @java.lang.Override
+    public boolean hasPushOverwritten() {
+      return ((bitField0_ & 0x00000040) != 0);
+    }
+    /**
+     * <pre>
+     * Messages overwritten in the push queue before being sent
+     * </pre>
+     *
+     * <code>optional int64 push_overwritten = 21;</code>
+     * @return The pushOverwritten.
+     */
+    @java.lang.Override
+    public long getPushOverwritten() {
+      return pushOverwritten_;
+    }
+
+    public static final int PUSH_SEND_FAILED_FIELD_NUMBER = 22;
+    private long pushSendFailed_ = 0L;
+    /**
+     * <pre>
+     * Messages the PUSH socket refused because its HWM was reached
+     * </pre>
+     *
+     * <code>optional int64 push_send_failed = 22;</code>
+     * @return Whether the pushSendFailed field is set.
+     */
+    @java.lang.Override
+    public boolean hasPushSendFailed() {
+      return ((bitField0_ & 0x00000080) != 0);
+    }
+    /**
+     * <pre>
+     * Messages the PUSH socket refused because its HWM was reached
+     * </pre>
+     *
+     * <code>optional int64 push_send_failed = 22;</code>
+     * @return The pushSendFailed.
+     */
+    @java.lang.Override
+    public long getPushSendFailed() {
+      return pushSendFailed_;
+    }
+
+    public static final int SUBSCRIBE_RECEIVED_FIELD_NUMBER = 23;
+    private long subscribeReceived_ = 0L;
+    /**
+     * <pre>
+     * Updates written to the subscribe buffer
+     * </pre>
+     *
+     * <code>optional int64 subscribe_received = 23;</code>
+     * @return Whether the subscribeReceived field is set.
+     */
+    @java.lang.Override
+    public boolean hasSubscribeReceived() {
+      return ((bitField0_ & 0x00000100) != 0);
+    }
+    /**
+     * <pre>
+     * Updates written to the subscribe buffer
+     * </pre>
+     *
+     * <code>optional int64 subscribe_received = 23;</code>
+     * @return The subscribeReceived.
+     */
+    @java.lang.Override
+    public long getSubscribeReceived() {
+      return subscribeReceived_;
+    }
+
+    public static final int SUBSCRIBE_OVERWRITTEN_FIELD_NUMBER = 24;
+    private long subscribeOverwritten_ = 0L;
+    /**
+     * <pre>
+     * Updates overwritten in the subscribe buffer before consumers saw them
+     * </pre>
+     *
+     * <code>optional int64 subscribe_overwritten = 24;</code>
+     * @return Whether the subscribeOverwritten field is set.
+     */
+    @java.lang.Override
+    public boolean hasSubscribeOverwritten() {
+      return ((bitField0_ & 0x00000200) != 0);
+    }
+    /**
+     * <pre>
+     * Updates overwritten in the subscribe buffer before consumers saw them
+     * </pre>
+     *
+     * <code>optional int64 subscribe_overwritten = 24;</code>
+     * @return The subscribeOverwritten.
+     */
+    @java.lang.Override
+    public long getSubscribeOverwritten() {
+      return subscribeOverwritten_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -1001,35 +1210,35 @@ public final class XTableClientStatistics {
       if (totalThreads_ != 0L) {
         output.writeInt64(7, totalThreads_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(ip_)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 8, ip_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(ip_)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 8, ip_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(hostname_)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 9, hostname_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(hostname_)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 9, hostname_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(processId_)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 10, processId_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(processId_)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 10, processId_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(langVersion_)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 11, langVersion_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(langVersion_)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 11, langVersion_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(langVendor_)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 12, langVendor_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(langVendor_)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 12, langVendor_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(jvmName_)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 13, jvmName_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(jvmName_)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 13, jvmName_);
       }
       if (health_ != XTableClientStatistics.HealthStatus.GOOD.getNumber()) {
         output.writeEnum(14, health_);
       }
       if (((bitField0_ & 0x00000001) != 0)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 15, version_);
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 15, version_);
       }
       if (((bitField0_ & 0x00000002) != 0)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 16, type_);
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 16, type_);
       }
       if (((bitField0_ & 0x00000004) != 0)) {
-        com.google.protobuf.GeneratedMessage.writeString(output, 17, uuid_);
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 17, uuid_);
       }
       if (((bitField0_ & 0x00000008) != 0)) {
         output.writeInt32(18, bufferSize_);
@@ -1037,6 +1246,21 @@ public final class XTableClientStatistics {
       if (((bitField0_ & 0x00000010) != 0)) {
         output.writeInt32(19, maxBufferSize_);
       }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        output.writeInt64(20, pushEnqueued_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        output.writeInt64(21, pushOverwritten_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        output.writeInt64(22, pushSendFailed_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        output.writeInt64(23, subscribeReceived_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        output.writeInt64(24, subscribeOverwritten_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -1074,36 +1298,36 @@ public final class XTableClientStatistics {
         size += com.google.protobuf.CodedOutputStream
           .computeInt64Size(7, totalThreads_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(ip_)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(8, ip_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(ip_)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(8, ip_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(hostname_)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(9, hostname_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(hostname_)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(9, hostname_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(processId_)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(10, processId_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(processId_)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(10, processId_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(langVersion_)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(11, langVersion_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(langVersion_)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(11, langVersion_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(langVendor_)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(12, langVendor_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(langVendor_)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(12, langVendor_);
       }
-      if (!com.google.protobuf.GeneratedMessage.isStringEmpty(jvmName_)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(13, jvmName_);
+      if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(jvmName_)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(13, jvmName_);
       }
       if (health_ != XTableClientStatistics.HealthStatus.GOOD.getNumber()) {
         size += com.google.protobuf.CodedOutputStream
           .computeEnumSize(14, health_);
       }
       if (((bitField0_ & 0x00000001) != 0)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(15, version_);
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(15, version_);
       }
       if (((bitField0_ & 0x00000002) != 0)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(16, type_);
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(16, type_);
       }
       if (((bitField0_ & 0x00000004) != 0)) {
-        size += com.google.protobuf.GeneratedMessage.computeStringSize(17, uuid_);
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(17, uuid_);
       }
       if (((bitField0_ & 0x00000008) != 0)) {
         size += com.google.protobuf.CodedOutputStream
@@ -1113,6 +1337,26 @@ public final class XTableClientStatistics {
         size += com.google.protobuf.CodedOutputStream
           .computeInt32Size(19, maxBufferSize_);
       }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(20, pushEnqueued_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(21, pushOverwritten_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(22, pushSendFailed_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(23, subscribeReceived_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(24, subscribeOverwritten_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1181,6 +1425,31 @@ public final class XTableClientStatistics {
         if (getMaxBufferSize()
             != other.getMaxBufferSize()) return false;
       }
+      if (hasPushEnqueued() != other.hasPushEnqueued()) return false;
+      if (hasPushEnqueued()) {
+        if (getPushEnqueued()
+            != other.getPushEnqueued()) return false;
+      }
+      if (hasPushOverwritten() != other.hasPushOverwritten()) return false;
+      if (hasPushOverwritten()) {
+        if (getPushOverwritten()
+            != other.getPushOverwritten()) return false;
+      }
+      if (hasPushSendFailed() != other.hasPushSendFailed()) return false;
+      if (hasPushSendFailed()) {
+        if (getPushSendFailed()
+            != other.getPushSendFailed()) return false;
+      }
+      if (hasSubscribeReceived() != other.hasSubscribeReceived()) return false;
+      if (hasSubscribeReceived()) {
+        if (getSubscribeReceived()
+            != other.getSubscribeReceived()) return false;
+      }
+      if (hasSubscribeOverwritten() != other.hasSubscribeOverwritten()) return false;
+      if (hasSubscribeOverwritten()) {
+        if (getSubscribeOverwritten()
+            != other.getSubscribeOverwritten()) return false;
+      }
       if (!getUnknownFields().equals(other.getUnknownFields())) return false;
       return true;
     }
@@ -1246,6 +1515,31 @@ public final class XTableClientStatistics {
         hash = (37 * hash) + MAX_BUFFER_SIZE_FIELD_NUMBER;
         hash = (53 * hash) + getMaxBufferSize();
       }
+      if (hasPushEnqueued()) {
+        hash = (37 * hash) + PUSH_ENQUEUED_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getPushEnqueued());
+      }
+      if (hasPushOverwritten()) {
+        hash = (37 * hash) + PUSH_OVERWRITTEN_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getPushOverwritten());
+      }
+      if (hasPushSendFailed()) {
+        hash = (37 * hash) + PUSH_SEND_FAILED_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getPushSendFailed());
+      }
+      if (hasSubscribeReceived()) {
+        hash = (37 * hash) + SUBSCRIBE_RECEIVED_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getSubscribeReceived());
+      }
+      if (hasSubscribeOverwritten()) {
+        hash = (37 * hash) + SUBSCRIBE_OVERWRITTEN_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getSubscribeOverwritten());
+      }
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -1285,20 +1579,20 @@ public final class XTableClientStatistics {
     }
     public static XTableClientStatistics.ClientStatistics parseFrom(java.io.InputStream input)
         throws java.io.IOException {
-      return com.google.protobuf.GeneratedMessage
+      return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input);
     }
     public static XTableClientStatistics.ClientStatistics parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
-      return com.google.protobuf.GeneratedMessage
+      return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input, extensionRegistry);
     }
 
     public static XTableClientStatistics.ClientStatistics parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
-      return com.google.protobuf.GeneratedMessage
+      return com.google.protobuf.GeneratedMessageV3
           .parseDelimitedWithIOException(PARSER, input);
     }
 
@@ -1306,20 +1600,20 @@ public final class XTableClientStatistics {
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
-      return com.google.protobuf.GeneratedMessage
+      return com.google.protobuf.GeneratedMessageV3
           .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
     }
     public static XTableClientStatistics.ClientStatistics parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
-      return com.google.protobuf.GeneratedMessage
+      return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input);
     }
     public static XTableClientStatistics.ClientStatistics parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
-      return com.google.protobuf.GeneratedMessage
+      return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input, extensionRegistry);
     }
 
@@ -1339,7 +1633,7 @@ public final class XTableClientStatistics {
 
     @java.lang.Override
     protected Builder newBuilderForType(
-        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
       Builder builder = new Builder(parent);
       return builder;
     }
@@ -1351,7 +1645,7 @@ public final class XTableClientStatistics {
      * Protobuf type {@code ClientStatistics}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
         // @@protoc_insertion_point(builder_implements:ClientStatistics)
         XTableClientStatistics.ClientStatisticsOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
@@ -1360,7 +1654,7 @@ public final class XTableClientStatistics {
       }
 
       @java.lang.Override
-      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
           internalGetFieldAccessorTable() {
         return XTableClientStatistics.internal_static_ClientStatistics_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
@@ -1373,7 +1667,7 @@ public final class XTableClientStatistics {
       }
 
       private Builder(
-          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
         super(parent);
 
       }
@@ -1400,6 +1694,11 @@ public final class XTableClientStatistics {
         uuid_ = "";
         bufferSize_ = 0;
         maxBufferSize_ = 0;
+        pushEnqueued_ = 0L;
+        pushOverwritten_ = 0L;
+        pushSendFailed_ = 0L;
+        subscribeReceived_ = 0L;
+        subscribeOverwritten_ = 0L;
         return this;
       }
 
@@ -1496,9 +1795,61 @@ public final class XTableClientStatistics {
           result.maxBufferSize_ = maxBufferSize_;
           to_bitField0_ |= 0x00000010;
         }
+        if (((from_bitField0_ & 0x00080000) != 0)) {
+          result.pushEnqueued_ = pushEnqueued_;
+          to_bitField0_ |= 0x00000020;
+        }
+        if (((from_bitField0_ & 0x00100000) != 0)) {
+          result.pushOverwritten_ = pushOverwritten_;
+          to_bitField0_ |= 0x00000040;
+        }
+        if (((from_bitField0_ & 0x00200000) != 0)) {
+          result.pushSendFailed_ = pushSendFailed_;
+          to_bitField0_ |= 0x00000080;
+        }
+        if (((from_bitField0_ & 0x00400000) != 0)) {
+          result.subscribeReceived_ = subscribeReceived_;
+          to_bitField0_ |= 0x00000100;
+        }
+        if (((from_bitField0_ & 0x00800000) != 0)) {
+          result.subscribeOverwritten_ = subscribeOverwritten_;
+          to_bitField0_ |= 0x00000200;
+        }
         result.bitField0_ |= to_bitField0_;
       }
 
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
       @java.lang.Override
       public Builder mergeFrom(com.google.protobuf.Message other) {
         if (other instanceof XTableClientStatistics.ClientStatistics) {
@@ -1586,6 +1937,21 @@ public final class XTableClientStatistics {
         if (other.hasMaxBufferSize()) {
           setMaxBufferSize(other.getMaxBufferSize());
         }
+        if (other.hasPushEnqueued()) {
+          setPushEnqueued(other.getPushEnqueued());
+        }
+        if (other.hasPushOverwritten()) {
+          setPushOverwritten(other.getPushOverwritten());
+        }
+        if (other.hasPushSendFailed()) {
+          setPushSendFailed(other.getPushSendFailed());
+        }
+        if (other.hasSubscribeReceived()) {
+          setSubscribeReceived(other.getSubscribeReceived());
+        }
+        if (other.hasSubscribeOverwritten()) {
+          setSubscribeOverwritten(other.getSubscribeOverwritten());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         onChanged();
         return this;
@@ -1707,6 +2073,31 @@ public final class XTableClientStatistics {
                 bitField0_ |= 0x00040000;
                 break;
               } // case 152
+              case 160: {
+                pushEnqueued_ = input.readInt64();
+                bitField0_ |= 0x00080000;
+                break;
+              } // case 160
+              case 168: {
+                pushOverwritten_ = input.readInt64();
+                bitField0_ |= 0x00100000;
+                break;
+              } // case 168
+              case 176: {
+                pushSendFailed_ = input.readInt64();
+                bitField0_ |= 0x00200000;
+                break;
+              } // case 176
+              case 184: {
+                subscribeReceived_ = input.readInt64();
+                bitField0_ |= 0x00400000;
+                break;
+              } // case 184
+              case 192: {
+                subscribeOverwritten_ = input.readInt64();
+                bitField0_ |= 0x00800000;
+                break;
+              } // case 192
               default: {
                 if (!super.parseUnknownField(input, extensionRegistry, tag)) {
                   done = true; // was an endgroup tag
@@ -2774,6 +3165,298 @@ public final class XTableClientStatistics {
         return this;
       }
 
+      private long pushEnqueued_ ;
+      /**
+       * <pre>
+       * Message accounting, counted since the client started.
+       * </pre>
+       *
+       * <code>optional int64 push_enqueued = 20;</code>
+       * @return Whether the pushEnqueued field is set.
+       */
+      @java.lang.Override
+      public boolean hasPushEnqueued() {
+        return ((bitField0_ & 0x00080000) != 0);
+      }
+      /**
+       * <pre>
+       * Message accounting, counted since the client started.
+       * </pre>
+       *
+       * <code>optional int64 push_enqueued = 20;</code>
+       * @return The pushEnqueued.
+       */
+      @java.lang.Override
+      public long getPushEnqueued() {
+        return pushEnqueued_;
+      }
+      /**
+       * <pre>
+       * Message accounting, counted since the client started.
+       * </pre>
+       *
+       * <code>optional int64 push_enqueued = 20;</code>
+       * @param value The pushEnqueued to set.
+       * @return This builder for chaining.
+       */
+      public Builder setPushEnqueued(long value) {
+
+        pushEnqueued_ = value;
+        bitField0_ |= 0x00080000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Message accounting, counted since the client started.
+       * </pre>
+       *
+       * <code>optional int64 push_enqueued = 20;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearPushEnqueued() {
+        bitField0_ = (bitField0_ & ~0x00080000);
+        pushEnqueued_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long pushOverwritten_ ;
+      /**
+       * <pre>
+       * Messages overwritten in the push queue before being sent
+       * </pre>
+       *
+       * <code>optional int64 push_overwritten = 21;</code>
+       * @return Whether the pushOverwritten field is set.
+       */
+      @java.lang.Override
+      public boolean hasPushOverwritten() {
+        return ((bitField0_ & 0x00100000) != 0);
+      }
+      /**
+       * <pre>
+       * Messages overwritten in the push queue before being sent
+       * </pre>
+       *
+       * <code>optional int64 push_overwritten = 21;</code>
+       * @return The pushOverwritten.
+       */
+      @java.lang.Override
+      public long getPushOverwritten() {
+        return pushOverwritten_;
+      }
+      /**
+       * <pre>
+       * Messages overwritten in the push queue before being sent
+       * </pre>
+       *
+       * <code>optional int64 push_overwritten = 21;</code>
+       * @param value The pushOverwritten to set.
+       * @return This builder for chaining.
+       */
+      public Builder setPushOverwritten(long value) {
+
+        pushOverwritten_ = value;
+        bitField0_ |= 0x00100000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Messages overwritten in the push queue before being sent
+       * </pre>
+       *
+       * <code>optional int64 push_overwritten = 21;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearPushOverwritten() {
+        bitField0_ = (bitField0_ & ~0x00100000);
+        pushOverwritten_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long pushSendFailed_ ;
+      /**
+       * <pre>
+       * Messages the PUSH socket refused because its HWM was reached
+       * </pre>
+       *
+       * <code>optional int64 push_send_failed = 22;</code>
+       * @return Whether the pushSendFailed field is set.
+       */
+      @java.lang.Override
+      public boolean hasPushSendFailed() {
+        return ((bitField0_ & 0x00200000) != 0);
+      }
+      /**
+       * <pre>
+       * Messages the PUSH socket refused because its HWM was reached
+       * </pre>
+       *
+       * <code>optional int64 push_send_failed = 22;</code>
+       * @return The pushSendFailed.
+       */
+      @java.lang.Override
+      public long getPushSendFailed() {
+        return pushSendFailed_;
+      }
+      /**
+       * <pre>
+       * Messages the PUSH socket refused because its HWM was reached
+       * </pre>
+       *
+       * <code>optional int64 push_send_failed = 22;</code>
+       * @param value The pushSendFailed to set.
+       * @return This builder for chaining.
+       */
+      public Builder setPushSendFailed(long value) {
+
+        pushSendFailed_ = value;
+        bitField0_ |= 0x00200000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Messages the PUSH socket refused because its HWM was reached
+       * </pre>
+       *
+       * <code>optional int64 push_send_failed = 22;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearPushSendFailed() {
+        bitField0_ = (bitField0_ & ~0x00200000);
+        pushSendFailed_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long subscribeReceived_ ;
+      /**
+       * <pre>
+       * Updates written to the subscribe buffer
+       * </pre>
+       *
+       * <code>optional int64 subscribe_received = 23;</code>
+       * @return Whether the subscribeReceived field is set.
+       */
+      @java.lang.Override
+      public boolean hasSubscribeReceived() {
+        return ((bitField0_ & 0x00400000) != 0);
+      }
+      /**
+       * <pre>
+       * Updates written to the subscribe buffer
+       * </pre>
+       *
+       * <code>optional int64 subscribe_received = 23;</code>
+       * @return The subscribeReceived.
+       */
+      @java.lang.Override
+      public long getSubscribeReceived() {
+        return subscribeReceived_;
+      }
+      /**
+       * <pre>
+       * Updates written to the subscribe buffer
+       * </pre>
+       *
+       * <code>optional int64 subscribe_received = 23;</code>
+       * @param value The subscribeReceived to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSubscribeReceived(long value) {
+
+        subscribeReceived_ = value;
+        bitField0_ |= 0x00400000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Updates written to the subscribe buffer
+       * </pre>
+       *
+       * <code>optional int64 subscribe_received = 23;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearSubscribeReceived() {
+        bitField0_ = (bitField0_ & ~0x00400000);
+        subscribeReceived_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long subscribeOverwritten_ ;
+      /**
+       * <pre>
+       * Updates overwritten in the subscribe buffer before consumers saw them
+       * </pre>
+       *
+       * <code>optional int64 subscribe_overwritten = 24;</code>
+       * @return Whether the subscribeOverwritten field is set.
+       */
+      @java.lang.Override
+      public boolean hasSubscribeOverwritten() {
+        return ((bitField0_ & 0x00800000) != 0);
+      }
+      /**
+       * <pre>
+       * Updates overwritten in the subscribe buffer before consumers saw them
+       * </pre>
+       *
+       * <code>optional int64 subscribe_overwritten = 24;</code>
+       * @return The subscribeOverwritten.
+       */
+      @java.lang.Override
+      public long getSubscribeOverwritten() {
+        return subscribeOverwritten_;
+      }
+      /**
+       * <pre>
+       * Updates overwritten in the subscribe buffer before consumers saw them
+       * </pre>
+       *
+       * <code>optional int64 subscribe_overwritten = 24;</code>
+       * @param value The subscribeOverwritten to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSubscribeOverwritten(long value) {
+
+        subscribeOverwritten_ = value;
+        bitField0_ |= 0x00800000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Updates overwritten in the subscribe buffer before consumers saw them
+       * </pre>
+       *
+       * <code>optional int64 subscribe_overwritten = 24;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearSubscribeOverwritten() {
+        bitField0_ = (bitField0_ & ~0x00800000);
+        subscribeOverwritten_ = 0L;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
       // @@protoc_insertion_point(builder_scope:ClientStatistics)
     }
 
@@ -2828,7 +3511,7 @@ public final class XTableClientStatistics {
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_ClientStatistics_descriptor;
   private static final 
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internal_static_ClientStatistics_fieldAccessorTable;
 
   public static com.google.protobuf.Descriptors.FileDescriptor
@@ -2839,7 +3522,7 @@ public final class XTableClientStatistics {
       descriptor;
   static {
     java.lang.String[] descriptorData = {
-      "\n\034XTableClientStatistics.proto\"\212\004\n\020Clien" +
+      "\n\034XTableClientStatistics.proto\"\226\006\n\020Clien" +
       "tStatistics\022\021\n\tnano_time\030\001 \001(\003\022\025\n\rmax_me" +
       "mory_mb\030\002 \001(\003\022\026\n\016free_memory_mb\030\003 \001(\003\022\026\n" +
       "\016used_memory_mb\030\004 \001(\003\022#\n\033process_cpu_loa" +
@@ -2851,11 +3534,18 @@ public final class XTableClientStatistics {
       ".HealthStatus\022\024\n\007version\030\017 \001(\tH\000\210\001\001\022\021\n\004t" +
       "ype\030\020 \001(\tH\001\210\001\001\022\021\n\004uuid\030\021 \001(\tH\002\210\001\001\022\030\n\013buf" +
       "fer_size\030\022 \001(\005H\003\210\001\001\022\034\n\017max_buffer_size\030\023" +
-      " \001(\005H\004\210\001\001B\n\n\010_versionB\007\n\005_typeB\007\n\005_uuidB" +
-      "\016\n\014_buffer_sizeB\022\n\020_max_buffer_size*Y\n\014H" +
-      "ealthStatus\022\010\n\004GOOD\020\000\022\010\n\004OKAY\020\001\022\014\n\010STRES" +
-      "SED\020\002\022\014\n\010OVERLOAD\020\003\022\014\n\010CRITICAL\020\004\022\013\n\007UNK" +
-      "NOWN\020\005b\006proto3"
+      " \001(\005H\004\210\001\001\022\032\n\rpush_enqueued\030\024 \001(\003H\005\210\001\001\022\035\n" +
+      "\020push_overwritten\030\025 \001(\003H\006\210\001\001\022\035\n\020push_sen" +
+      "d_failed\030\026 \001(\003H\007\210\001\001\022\037\n\022subscribe_receive" +
+      "d\030\027 \001(\003H\010\210\001\001\022\"\n\025subscribe_overwritten\030\030 " +
+      "\001(\003H\t\210\001\001B\n\n\010_versionB\007\n\005_typeB\007\n\005_uuidB\016" +
+      "\n\014_buffer_sizeB\022\n\020_max_buffer_sizeB\020\n\016_p" +
+      "ush_enqueuedB\023\n\021_push_overwrittenB\023\n\021_pu" +
+      "sh_send_failedB\025\n\023_subscribe_receivedB\030\n" +
+      "\026_subscribe_overwritten*Y\n\014HealthStatus\022" +
+      "\010\n\004GOOD\020\000\022\010\n\004OKAY\020\001\022\014\n\010STRESSED\020\002\022\014\n\010OVE" +
+      "RLOAD\020\003\022\014\n\010CRITICAL\020\004\022\013\n\007UNKNOWN\020\005b\006prot" +
+      "o3"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -2864,10 +3554,9 @@ public final class XTableClientStatistics {
     internal_static_ClientStatistics_descriptor =
       getDescriptor().getMessageTypes().get(0);
     internal_static_ClientStatistics_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_ClientStatistics_descriptor,
-        new java.lang.String[] { "NanoTime", "MaxMemoryMb", "FreeMemoryMb", "UsedMemoryMb", "ProcessCpuLoadPercentage", "AvailableProcessors", "TotalThreads", "Ip", "Hostname", "ProcessId", "LangVersion", "LangVendor", "JvmName", "Health", "Version", "Type", "Uuid", "BufferSize", "MaxBufferSize", });
-    descriptor.resolveAllFeaturesImmutable();
+        new java.lang.String[] { "NanoTime", "MaxMemoryMb", "FreeMemoryMb", "UsedMemoryMb", "ProcessCpuLoadPercentage", "AvailableProcessors", "TotalThreads", "Ip", "Hostname", "ProcessId", "LangVersion", "LangVendor", "JvmName", "Health", "Version", "Type", "Uuid", "BufferSize", "MaxBufferSize", "PushEnqueued", "PushOverwritten", "PushSendFailed", "SubscribeReceived", "SubscribeOverwritten", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
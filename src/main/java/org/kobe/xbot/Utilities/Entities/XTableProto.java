@@ -119,6 +119,101 @@ public final class XTableProto {
      * @return The timestamp.
      */
     long getTimestamp();
+
+    /**
+     * <pre>
+     * Maximum number of samples for GET_HISTORY / GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint32 limit = 8;</code>
+     * @return Whether the limit field is set.
+     */
+    boolean hasLimit();
+    /**
+     * <pre>
+     * Maximum number of samples for GET_HISTORY / GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint32 limit = 8;</code>
+     * @return The limit.
+     */
+    int getLimit();
+
+    /**
+     * <pre>
+     * Inclusive lower bound for GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint64 start_timestamp = 9;</code>
+     * @return Whether the startTimestamp field is set.
+     */
+    boolean hasStartTimestamp();
+    /**
+     * <pre>
+     * Inclusive lower bound for GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint64 start_timestamp = 9;</code>
+     * @return The startTimestamp.
+     */
+    long getStartTimestamp();
+
+    /**
+     * <pre>
+     * Inclusive upper bound for GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint64 end_timestamp = 10;</code>
+     * @return Whether the endTimestamp field is set.
+     */
+    boolean hasEndTimestamp();
+    /**
+     * <pre>
+     * Inclusive upper bound for GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint64 end_timestamp = 10;</code>
+     * @return The endTimestamp.
+     */
+    long getEndTimestamp();
+
+    /**
+     * <pre>
+     * Milliseconds until a PUT key expires, unset or 0 for never
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 11;</code>
+     * @return Whether the ttl field is set.
+     */
+    boolean hasTtl();
+    /**
+     * <pre>
+     * Milliseconds until a PUT key expires, unset or 0 for never
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 11;</code>
+     * @return The ttl.
+     */
+    long getTtl();
+
+    /**
+     * <pre>
+     * Value a CAS requires the key to hold, unset for a key that must not exist
+     * </pre>
+     *
+     * <code>optional bytes expected = 12;</code>
+     * @return Whether the expected field is set.
+     */
+    boolean hasExpected();
+    /**
+     * <pre>
+     * Value a CAS requires the key to hold, unset for a key that must not exist
+     * </pre>
+     *
+     * <code>optional bytes expected = 12;</code>
+     * @return The expected.
+     */
+    com.google.protobuf.ByteString getExpected();
   }
   /**
    * Protobuf type {@code org.kobe.xbot.Utilities.Entities.XTableMessage}
@@ -139,6 +234,7 @@ public final class XTableProto {
       type_ = 0;
       id_ = com.google.protobuf.ByteString.EMPTY;
       batch_ = java.util.Collections.emptyList();
+      expected_ = com.google.protobuf.ByteString.EMPTY;
     }
 
     @java.lang.Override
@@ -565,6 +661,34 @@ public final class XTableProto {
        * <code>GET_PROTO_DATA = 20;</code>
        */
       GET_PROTO_DATA(20),
+      /**
+       * <code>GET_HISTORY = 21;</code>
+       */
+      GET_HISTORY(21),
+      /**
+       * <code>GET_RANGE = 22;</code>
+       */
+      GET_RANGE(22),
+      /**
+       * <code>GET_SUBTREE = 23;</code>
+       */
+      GET_SUBTREE(23),
+      /**
+       * <code>MULTI_GET = 24;</code>
+       */
+      MULTI_GET(24),
+      /**
+       * <code>CAS = 25;</code>
+       */
+      CAS(25),
+      /**
+       * <code>INCREMENT = 26;</code>
+       */
+      INCREMENT(26),
+      /**
+       * <code>APPEND = 27;</code>
+       */
+      APPEND(27),
       UNRECOGNIZED(-1),
       ;
 
@@ -652,6 +776,34 @@ public final class XTableProto {
        * <code>GET_PROTO_DATA = 20;</code>
        */
       public static final int GET_PROTO_DATA_VALUE = 20;
+      /**
+       * <code>GET_HISTORY = 21;</code>
+       */
+      public static final int GET_HISTORY_VALUE = 21;
+      /**
+       * <code>GET_RANGE = 22;</code>
+       */
+      public static final int GET_RANGE_VALUE = 22;
+      /**
+       * <code>GET_SUBTREE = 23;</code>
+       */
+      public static final int GET_SUBTREE_VALUE = 23;
+      /**
+       * <code>MULTI_GET = 24;</code>
+       */
+      public static final int MULTI_GET_VALUE = 24;
+      /**
+       * <code>CAS = 25;</code>
+       */
+      public static final int CAS_VALUE = 25;
+      /**
+       * <code>INCREMENT = 26;</code>
+       */
+      public static final int INCREMENT_VALUE = 26;
+      /**
+       * <code>APPEND = 27;</code>
+       */
+      public static final int APPEND_VALUE = 27;
 
 
       public final int getNumber() {
@@ -699,6 +851,13 @@ public final class XTableProto {
           case 18: return REGISTRY;
           case 19: return BATCH;
           case 20: return GET_PROTO_DATA;
+          case 21: return GET_HISTORY;
+          case 22: return GET_RANGE;
+          case 23: return GET_SUBTREE;
+          case 24: return MULTI_GET;
+          case 25: return CAS;
+          case 26: return INCREMENT;
+          case 27: return APPEND;
           default: return null;
         }
       }
@@ -841,6 +1000,16 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
        * @return The type.
        */
       org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.Type getType();
+
+      /**
+       * <pre>
+       * Server timestamp of the value
+       * </pre>
+       *
+       * <code>int64 timestamp = 4;</code>
+       * @return The timestamp.
+       */
+      long getTimestamp();
     }
     /**
      * Protobuf type {@code org.kobe.xbot.Utilities.Entities.XTableMessage.XTablesData}
@@ -1027,6 +1196,21 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         return result == null ? org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.Type.UNRECOGNIZED : result;
       }
 
+      public static final int TIMESTAMP_FIELD_NUMBER = 4;
+      private long timestamp_ = 0L;
+      /**
+       * <pre>
+       * Server timestamp of the value
+       * </pre>
+       *
+       * <code>int64 timestamp = 4;</code>
+       * @return The timestamp.
+       */
+      @java.lang.Override
+      public long getTimestamp() {
+        return timestamp_;
+      }
+
       private byte memoizedIsInitialized = -1;
       @java.lang.Override
       public final boolean isInitialized() {
@@ -1053,6 +1237,9 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         if (type_ != org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.Type.UNKNOWN.getNumber()) {
           output.writeEnum(3, type_);
         }
+        if (timestamp_ != 0L) {
+          output.writeInt64(4, timestamp_);
+        }
         getUnknownFields().writeTo(output);
       }
 
@@ -1080,6 +1267,10 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           size += com.google.protobuf.CodedOutputStream
             .computeEnumSize(3, type_);
         }
+        if (timestamp_ != 0L) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeInt64Size(4, timestamp_);
+        }
         size += getUnknownFields().getSerializedSize();
         memoizedSize = size;
         return size;
@@ -1100,6 +1291,8 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         if (!getValue()
             .equals(other.getValue())) return false;
         if (type_ != other.type_) return false;
+        if (getTimestamp()
+            != other.getTimestamp()) return false;
         if (!getUnknownFields().equals(other.getUnknownFields())) return false;
         return true;
       }
@@ -1119,6 +1312,9 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         hash = (53 * hash) + getValue().hashCode();
         hash = (37 * hash) + TYPE_FIELD_NUMBER;
         hash = (53 * hash) + type_;
+        hash = (37 * hash) + TIMESTAMP_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getTimestamp());
         hash = (29 * hash) + getUnknownFields().hashCode();
         memoizedHashCode = hash;
         return hash;
@@ -1275,6 +1471,7 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           internalGetMutableData().clear();
           value_ = com.google.protobuf.ByteString.EMPTY;
           type_ = 0;
+          timestamp_ = 0L;
           return this;
         }
 
@@ -1317,6 +1514,9 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           if (((from_bitField0_ & 0x00000004) != 0)) {
             result.type_ = type_;
           }
+          if (((from_bitField0_ & 0x00000008) != 0)) {
+            result.timestamp_ = timestamp_;
+          }
         }
 
         @java.lang.Override
@@ -1372,6 +1572,9 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           if (other.type_ != 0) {
             setTypeValue(other.getTypeValue());
           }
+          if (other.getTimestamp() != 0L) {
+            setTimestamp(other.getTimestamp());
+          }
           this.mergeUnknownFields(other.getUnknownFields());
           onChanged();
           return this;
@@ -1417,6 +1620,11 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
                   bitField0_ |= 0x00000004;
                   break;
                 } // case 24
+                case 32: {
+                  timestamp_ = input.readInt64();
+                  bitField0_ |= 0x00000008;
+                  break;
+                } // case 32
                 default: {
                   if (!super.parseUnknownField(input, extensionRegistry, tag)) {
                     done = true; // was an endgroup tag
@@ -1737,6 +1945,50 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           onChanged();
           return this;
         }
+
+        private long timestamp_ ;
+        /**
+         * <pre>
+         * Server timestamp of the value
+         * </pre>
+         *
+         * <code>int64 timestamp = 4;</code>
+         * @return The timestamp.
+         */
+        @java.lang.Override
+        public long getTimestamp() {
+          return timestamp_;
+        }
+        /**
+         * <pre>
+         * Server timestamp of the value
+         * </pre>
+         *
+         * <code>int64 timestamp = 4;</code>
+         * @param value The timestamp to set.
+         * @return This builder for chaining.
+         */
+        public Builder setTimestamp(long value) {
+
+          timestamp_ = value;
+          bitField0_ |= 0x00000008;
+          onChanged();
+          return this;
+        }
+        /**
+         * <pre>
+         * Server timestamp of the value
+         * </pre>
+         *
+         * <code>int64 timestamp = 4;</code>
+         * @return This builder for chaining.
+         */
+        public Builder clearTimestamp() {
+          bitField0_ = (bitField0_ & ~0x00000008);
+          timestamp_ = 0L;
+          onChanged();
+          return this;
+        }
         @java.lang.Override
         public final Builder setUnknownFields(
             final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -2647,6 +2899,50 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
        * @return The timestamp.
        */
       long getTimestamp();
+
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      java.util.List<org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate> 
+          getBatchList();
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate getBatch(int index);
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      int getBatchCount();
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      java.util.List<? extends org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdateOrBuilder> 
+          getBatchOrBuilderList();
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdateOrBuilder getBatchOrBuilder(
+          int index);
     }
     /**
      * Protobuf type {@code org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate}
@@ -2665,6 +2961,7 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         category_ = 0;
         value_ = com.google.protobuf.ByteString.EMPTY;
         type_ = 0;
+        batch_ = java.util.Collections.emptyList();
       }
 
       @java.lang.Override
@@ -2720,6 +3017,10 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
          * <code>LOG = 6;</code>
          */
         LOG(6),
+        /**
+         * <code>BATCH = 7;</code>
+         */
+        BATCH(7),
         UNRECOGNIZED(-1),
         ;
 
@@ -2751,6 +3052,10 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
          * <code>LOG = 6;</code>
          */
         public static final int LOG_VALUE = 6;
+        /**
+         * <code>BATCH = 7;</code>
+         */
+        public static final int BATCH_VALUE = 7;
 
 
         public final int getNumber() {
@@ -2784,6 +3089,7 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
             case 4: return REGISTRY;
             case 5: return INFORMATION;
             case 6: return LOG;
+            case 7: return BATCH;
             default: return null;
           }
         }
@@ -2946,6 +3252,67 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         return timestamp_;
       }
 
+      public static final int BATCH_FIELD_NUMBER = 6;
+      @SuppressWarnings("serial")
+      private java.util.List<org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate> batch_;
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      @java.lang.Override
+      public java.util.List<org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate> getBatchList() {
+        return batch_;
+      }
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      @java.lang.Override
+      public java.util.List<? extends org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdateOrBuilder> 
+          getBatchOrBuilderList() {
+        return batch_;
+      }
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      @java.lang.Override
+      public int getBatchCount() {
+        return batch_.size();
+      }
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      @java.lang.Override
+      public org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate getBatch(int index) {
+        return batch_.get(index);
+      }
+      /**
+       * <pre>
+       * Updates sent together in one BATCH frame
+       * </pre>
+       *
+       * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+       */
+      @java.lang.Override
+      public org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdateOrBuilder getBatchOrBuilder(
+          int index) {
+        return batch_.get(index);
+      }
+
       private byte memoizedIsInitialized = -1;
       @java.lang.Override
       public final boolean isInitialized() {
@@ -2975,6 +3342,9 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         if (((bitField0_ & 0x00000001) != 0)) {
           output.writeUInt64(5, timestamp_);
         }
+        for (int i = 0; i < batch_.size(); i++) {
+          output.writeMessage(6, batch_.get(i));
+        }
         getUnknownFields().writeTo(output);
       }
 
@@ -3003,6 +3373,10 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           size += com.google.protobuf.CodedOutputStream
             .computeUInt64Size(5, timestamp_);
         }
+        for (int i = 0; i < batch_.size(); i++) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeMessageSize(6, batch_.get(i));
+        }
         size += getUnknownFields().getSerializedSize();
         memoizedSize = size;
         return size;
@@ -3029,6 +3403,8 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           if (getTimestamp()
               != other.getTimestamp()) return false;
         }
+        if (!getBatchList()
+            .equals(other.getBatchList())) return false;
         if (!getUnknownFields().equals(other.getUnknownFields())) return false;
         return true;
       }
@@ -3053,6 +3429,10 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
               getTimestamp());
         }
+        if (getBatchCount() > 0) {
+          hash = (37 * hash) + BATCH_FIELD_NUMBER;
+          hash = (53 * hash) + getBatchList().hashCode();
+        }
         hash = (29 * hash) + getUnknownFields().hashCode();
         memoizedHashCode = hash;
         return hash;
@@ -3189,6 +3569,13 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           value_ = com.google.protobuf.ByteString.EMPTY;
           type_ = 0;
           timestamp_ = 0L;
+          if (batchBuilder_ == null) {
+            batch_ = java.util.Collections.emptyList();
+          } else {
+            batch_ = null;
+            batchBuilder_.clear();
+          }
+          bitField0_ = (bitField0_ & ~0x00000020);
           return this;
         }
 
@@ -3215,11 +3602,24 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         @java.lang.Override
         public org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate buildPartial() {
           org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate result = new org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate(this);
+          buildPartialRepeatedFields(result);
           if (bitField0_ != 0) { buildPartial0(result); }
           onBuilt();
           return result;
         }
 
+        private void buildPartialRepeatedFields(org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate result) {
+          if (batchBuilder_ == null) {
+            if (((bitField0_ & 0x00000020) != 0)) {
+              batch_ = java.util.Collections.unmodifiableList(batch_);
+              bitField0_ = (bitField0_ & ~0x00000020);
+            }
+            result.batch_ = batch_;
+          } else {
+            result.batch_ = batchBuilder_.build();
+          }
+        }
+
         private void buildPartial0(org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate result) {
           int from_bitField0_ = bitField0_;
           if (((from_bitField0_ & 0x00000001) != 0)) {
@@ -3303,6 +3703,32 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           if (other.hasTimestamp()) {
             setTimestamp(other.getTimestamp());
           }
+          if (batchBuilder_ == null) {
+            if (!other.batch_.isEmpty()) {
+              if (batch_.isEmpty()) {
+                batch_ = other.batch_;
+                bitField0_ = (bitField0_ & ~0x00000020);
+              } else {
+                ensureBatchIsMutable();
+                batch_.addAll(other.batch_);
+              }
+              onChanged();
+            }
+          } else {
+            if (!other.batch_.isEmpty()) {
+              if (batchBuilder_.isEmpty()) {
+                batchBuilder_.dispose();
+                batchBuilder_ = null;
+                batch_ = other.batch_;
+                bitField0_ = (bitField0_ & ~0x00000020);
+                batchBuilder_ = 
+                  com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                     getBatchFieldBuilder() : null;
+              } else {
+                batchBuilder_.addAllMessages(other.batch_);
+              }
+            }
+          }
           this.mergeUnknownFields(other.getUnknownFields());
           onChanged();
           return this;
@@ -3354,6 +3780,19 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
                   bitField0_ |= 0x00000010;
                   break;
                 } // case 40
+                case 50: {
+                  org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate m =
+                      input.readMessage(
+                          org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.parser(),
+                          extensionRegistry);
+                  if (batchBuilder_ == null) {
+                    ensureBatchIsMutable();
+                    batch_.add(m);
+                  } else {
+                    batchBuilder_.addMessage(m);
+                  }
+                  break;
+                } // case 50
                 default: {
                   if (!super.parseUnknownField(input, extensionRegistry, tag)) {
                     done = true; // was an endgroup tag
@@ -3620,44 +4059,356 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           onChanged();
           return this;
         }
-        @java.lang.Override
-        public final Builder setUnknownFields(
-            final com.google.protobuf.UnknownFieldSet unknownFields) {
-          return super.setUnknownFields(unknownFields);
-        }
 
-        @java.lang.Override
-        public final Builder mergeUnknownFields(
-            final com.google.protobuf.UnknownFieldSet unknownFields) {
-          return super.mergeUnknownFields(unknownFields);
+        private java.util.List<org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate> batch_ =
+          java.util.Collections.emptyList();
+        private void ensureBatchIsMutable() {
+          if (!((bitField0_ & 0x00000020) != 0)) {
+            batch_ = new java.util.ArrayList<org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate>(batch_);
+            bitField0_ |= 0x00000020;
+           }
         }
 
+        private com.google.protobuf.RepeatedFieldBuilderV3<
+            org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdateOrBuilder> batchBuilder_;
 
-        // @@protoc_insertion_point(builder_scope:org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate)
-      }
-
-      // @@protoc_insertion_point(class_scope:org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate)
-      private static final org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate DEFAULT_INSTANCE;
-      static {
-        DEFAULT_INSTANCE = new org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate();
-      }
-
-      public static org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate getDefaultInstance() {
-        return DEFAULT_INSTANCE;
-      }
-
-      private static final com.google.protobuf.Parser<XTableUpdate>
-          PARSER = new com.google.protobuf.AbstractParser<XTableUpdate>() {
-        @java.lang.Override
-        public XTableUpdate parsePartialFrom(
-            com.google.protobuf.CodedInputStream input,
-            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-            throws com.google.protobuf.InvalidProtocolBufferException {
-          Builder builder = newBuilder();
-          try {
-            builder.mergeFrom(input, extensionRegistry);
-          } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-            throw e.setUnfinishedMessage(builder.buildPartial());
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public java.util.List<org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate> getBatchList() {
+          if (batchBuilder_ == null) {
+            return java.util.Collections.unmodifiableList(batch_);
+          } else {
+            return batchBuilder_.getMessageList();
+          }
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public int getBatchCount() {
+          if (batchBuilder_ == null) {
+            return batch_.size();
+          } else {
+            return batchBuilder_.getCount();
+          }
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate getBatch(int index) {
+          if (batchBuilder_ == null) {
+            return batch_.get(index);
+          } else {
+            return batchBuilder_.getMessage(index);
+          }
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public Builder setBatch(
+            int index, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate value) {
+          if (batchBuilder_ == null) {
+            if (value == null) {
+              throw new NullPointerException();
+            }
+            ensureBatchIsMutable();
+            batch_.set(index, value);
+            onChanged();
+          } else {
+            batchBuilder_.setMessage(index, value);
+          }
+          return this;
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public Builder setBatch(
+            int index, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder builderForValue) {
+          if (batchBuilder_ == null) {
+            ensureBatchIsMutable();
+            batch_.set(index, builderForValue.build());
+            onChanged();
+          } else {
+            batchBuilder_.setMessage(index, builderForValue.build());
+          }
+          return this;
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public Builder addBatch(org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate value) {
+          if (batchBuilder_ == null) {
+            if (value == null) {
+              throw new NullPointerException();
+            }
+            ensureBatchIsMutable();
+            batch_.add(value);
+            onChanged();
+          } else {
+            batchBuilder_.addMessage(value);
+          }
+          return this;
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public Builder addBatch(
+            int index, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate value) {
+          if (batchBuilder_ == null) {
+            if (value == null) {
+              throw new NullPointerException();
+            }
+            ensureBatchIsMutable();
+            batch_.add(index, value);
+            onChanged();
+          } else {
+            batchBuilder_.addMessage(index, value);
+          }
+          return this;
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public Builder addBatch(
+            org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder builderForValue) {
+          if (batchBuilder_ == null) {
+            ensureBatchIsMutable();
+            batch_.add(builderForValue.build());
+            onChanged();
+          } else {
+            batchBuilder_.addMessage(builderForValue.build());
+          }
+          return this;
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public Builder addBatch(
+            int index, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder builderForValue) {
+          if (batchBuilder_ == null) {
+            ensureBatchIsMutable();
+            batch_.add(index, builderForValue.build());
+            onChanged();
+          } else {
+            batchBuilder_.addMessage(index, builderForValue.build());
+          }
+          return this;
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public Builder addAllBatch(
+            java.lang.Iterable<? extends org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate> values) {
+          if (batchBuilder_ == null) {
+            ensureBatchIsMutable();
+            com.google.protobuf.AbstractMessageLite.Builder.addAll(
+                values, batch_);
+            onChanged();
+          } else {
+            batchBuilder_.addAllMessages(values);
+          }
+          return this;
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public Builder clearBatch() {
+          if (batchBuilder_ == null) {
+            batch_ = java.util.Collections.emptyList();
+            bitField0_ = (bitField0_ & ~0x00000020);
+            onChanged();
+          } else {
+            batchBuilder_.clear();
+          }
+          return this;
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public Builder removeBatch(int index) {
+          if (batchBuilder_ == null) {
+            ensureBatchIsMutable();
+            batch_.remove(index);
+            onChanged();
+          } else {
+            batchBuilder_.remove(index);
+          }
+          return this;
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder getBatchBuilder(
+            int index) {
+          return getBatchFieldBuilder().getBuilder(index);
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdateOrBuilder getBatchOrBuilder(
+            int index) {
+          if (batchBuilder_ == null) {
+            return batch_.get(index);  } else {
+            return batchBuilder_.getMessageOrBuilder(index);
+          }
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public java.util.List<? extends org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdateOrBuilder> 
+             getBatchOrBuilderList() {
+          if (batchBuilder_ != null) {
+            return batchBuilder_.getMessageOrBuilderList();
+          } else {
+            return java.util.Collections.unmodifiableList(batch_);
+          }
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder addBatchBuilder() {
+          return getBatchFieldBuilder().addBuilder(
+              org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.getDefaultInstance());
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder addBatchBuilder(
+            int index) {
+          return getBatchFieldBuilder().addBuilder(
+              index, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.getDefaultInstance());
+        }
+        /**
+         * <pre>
+         * Updates sent together in one BATCH frame
+         * </pre>
+         *
+         * <code>repeated .org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate batch = 6;</code>
+         */
+        public java.util.List<org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder> 
+             getBatchBuilderList() {
+          return getBatchFieldBuilder().getBuilderList();
+        }
+        private com.google.protobuf.RepeatedFieldBuilderV3<
+            org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdateOrBuilder> 
+            getBatchFieldBuilder() {
+          if (batchBuilder_ == null) {
+            batchBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+                org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate.Builder, org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdateOrBuilder>(
+                    batch_,
+                    ((bitField0_ & 0x00000020) != 0),
+                    getParentForChildren(),
+                    isClean());
+            batch_ = null;
+          }
+          return batchBuilder_;
+        }
+        @java.lang.Override
+        public final Builder setUnknownFields(
+            final com.google.protobuf.UnknownFieldSet unknownFields) {
+          return super.setUnknownFields(unknownFields);
+        }
+
+        @java.lang.Override
+        public final Builder mergeUnknownFields(
+            final com.google.protobuf.UnknownFieldSet unknownFields) {
+          return super.mergeUnknownFields(unknownFields);
+        }
+
+
+        // @@protoc_insertion_point(builder_scope:org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate)
+      }
+
+      // @@protoc_insertion_point(class_scope:org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate)
+      private static final org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate DEFAULT_INSTANCE;
+      static {
+        DEFAULT_INSTANCE = new org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate();
+      }
+
+      public static org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTableUpdate getDefaultInstance() {
+        return DEFAULT_INSTANCE;
+      }
+
+      private static final com.google.protobuf.Parser<XTableUpdate>
+          PARSER = new com.google.protobuf.AbstractParser<XTableUpdate>() {
+        @java.lang.Override
+        public XTableUpdate parsePartialFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws com.google.protobuf.InvalidProtocolBufferException {
+          Builder builder = newBuilder();
+          try {
+            builder.mergeFrom(input, extensionRegistry);
+          } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+            throw e.setUnfinishedMessage(builder.buildPartial());
           } catch (com.google.protobuf.UninitializedMessageException e) {
             throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
           } catch (java.io.IOException e) {
@@ -5162,6 +5913,141 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
       return timestamp_;
     }
 
+    public static final int LIMIT_FIELD_NUMBER = 8;
+    private int limit_ = 0;
+    /**
+     * <pre>
+     * Maximum number of samples for GET_HISTORY / GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint32 limit = 8;</code>
+     * @return Whether the limit field is set.
+     */
+    @java.lang.Override
+    public boolean hasLimit() {
+      return ((bitField0_ & 0x00000020) != 0);
+    }
+    /**
+     * <pre>
+     * Maximum number of samples for GET_HISTORY / GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint32 limit = 8;</code>
+     * @return The limit.
+     */
+    @java.lang.Override
+    public int getLimit() {
+      return limit_;
+    }
+
+    public static final int START_TIMESTAMP_FIELD_NUMBER = 9;
+    private long startTimestamp_ = 0L;
+    /**
+     * <pre>
+     * Inclusive lower bound for GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint64 start_timestamp = 9;</code>
+     * @return Whether the startTimestamp field is set.
+     */
+    @java.lang.Override
+    public boolean hasStartTimestamp() {
+      return ((bitField0_ & 0x00000040) != 0);
+    }
+    /**
+     * <pre>
+     * Inclusive lower bound for GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint64 start_timestamp = 9;</code>
+     * @return The startTimestamp.
+     */
+    @java.lang.Override
+    public long getStartTimestamp() {
+      return startTimestamp_;
+    }
+
+    public static final int END_TIMESTAMP_FIELD_NUMBER = 10;
+    private long endTimestamp_ = 0L;
+    /**
+     * <pre>
+     * Inclusive upper bound for GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint64 end_timestamp = 10;</code>
+     * @return Whether the endTimestamp field is set.
+     */
+    @java.lang.Override
+    public boolean hasEndTimestamp() {
+      return ((bitField0_ & 0x00000080) != 0);
+    }
+    /**
+     * <pre>
+     * Inclusive upper bound for GET_RANGE
+     * </pre>
+     *
+     * <code>optional uint64 end_timestamp = 10;</code>
+     * @return The endTimestamp.
+     */
+    @java.lang.Override
+    public long getEndTimestamp() {
+      return endTimestamp_;
+    }
+
+    public static final int TTL_FIELD_NUMBER = 11;
+    private long ttl_ = 0L;
+    /**
+     * <pre>
+     * Milliseconds until a PUT key expires, unset or 0 for never
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 11;</code>
+     * @return Whether the ttl field is set.
+     */
+    @java.lang.Override
+    public boolean hasTtl() {
+      return ((bitField0_ & 0x00000100) != 0);
+    }
+    /**
+     * <pre>
+     * Milliseconds until a PUT key expires, unset or 0 for never
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 11;</code>
+     * @return The ttl.
+     */
+    @java.lang.Override
+    public long getTtl() {
+      return ttl_;
+    }
+
+    public static final int EXPECTED_FIELD_NUMBER = 12;
+    private com.google.protobuf.ByteString expected_ = com.google.protobuf.ByteString.EMPTY;
+    /**
+     * <pre>
+     * Value a CAS requires the key to hold, unset for a key that must not exist
+     * </pre>
+     *
+     * <code>optional bytes expected = 12;</code>
+     * @return Whether the expected field is set.
+     */
+    @java.lang.Override
+    public boolean hasExpected() {
+      return ((bitField0_ & 0x00000200) != 0);
+    }
+    /**
+     * <pre>
+     * Value a CAS requires the key to hold, unset for a key that must not exist
+     * </pre>
+     *
+     * <code>optional bytes expected = 12;</code>
+     * @return The expected.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString getExpected() {
+      return expected_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -5197,6 +6083,21 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
       if (((bitField0_ & 0x00000010) != 0)) {
         output.writeUInt64(7, timestamp_);
       }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        output.writeUInt32(8, limit_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        output.writeUInt64(9, startTimestamp_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        output.writeUInt64(10, endTimestamp_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        output.writeUInt64(11, ttl_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        output.writeBytes(12, expected_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -5233,6 +6134,26 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         size += com.google.protobuf.CodedOutputStream
           .computeUInt64Size(7, timestamp_);
       }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(8, limit_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(9, startTimestamp_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(10, endTimestamp_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(11, ttl_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(12, expected_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSize = size;
       return size;
@@ -5275,6 +6196,31 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         if (getTimestamp()
             != other.getTimestamp()) return false;
       }
+      if (hasLimit() != other.hasLimit()) return false;
+      if (hasLimit()) {
+        if (getLimit()
+            != other.getLimit()) return false;
+      }
+      if (hasStartTimestamp() != other.hasStartTimestamp()) return false;
+      if (hasStartTimestamp()) {
+        if (getStartTimestamp()
+            != other.getStartTimestamp()) return false;
+      }
+      if (hasEndTimestamp() != other.hasEndTimestamp()) return false;
+      if (hasEndTimestamp()) {
+        if (getEndTimestamp()
+            != other.getEndTimestamp()) return false;
+      }
+      if (hasTtl() != other.hasTtl()) return false;
+      if (hasTtl()) {
+        if (getTtl()
+            != other.getTtl()) return false;
+      }
+      if (hasExpected() != other.hasExpected()) return false;
+      if (hasExpected()) {
+        if (!getExpected()
+            .equals(other.getExpected())) return false;
+      }
       if (!getUnknownFields().equals(other.getUnknownFields())) return false;
       return true;
     }
@@ -5313,6 +6259,29 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
             getTimestamp());
       }
+      if (hasLimit()) {
+        hash = (37 * hash) + LIMIT_FIELD_NUMBER;
+        hash = (53 * hash) + getLimit();
+      }
+      if (hasStartTimestamp()) {
+        hash = (37 * hash) + START_TIMESTAMP_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getStartTimestamp());
+      }
+      if (hasEndTimestamp()) {
+        hash = (37 * hash) + END_TIMESTAMP_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getEndTimestamp());
+      }
+      if (hasTtl()) {
+        hash = (37 * hash) + TTL_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getTtl());
+      }
+      if (hasExpected()) {
+        hash = (37 * hash) + EXPECTED_FIELD_NUMBER;
+        hash = (53 * hash) + getExpected().hashCode();
+      }
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -5457,6 +6426,11 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         }
         bitField0_ = (bitField0_ & ~0x00000020);
         timestamp_ = 0L;
+        limit_ = 0;
+        startTimestamp_ = 0L;
+        endTimestamp_ = 0L;
+        ttl_ = 0L;
+        expected_ = com.google.protobuf.ByteString.EMPTY;
         return this;
       }
 
@@ -5527,6 +6501,26 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
           result.timestamp_ = timestamp_;
           to_bitField0_ |= 0x00000010;
         }
+        if (((from_bitField0_ & 0x00000080) != 0)) {
+          result.limit_ = limit_;
+          to_bitField0_ |= 0x00000020;
+        }
+        if (((from_bitField0_ & 0x00000100) != 0)) {
+          result.startTimestamp_ = startTimestamp_;
+          to_bitField0_ |= 0x00000040;
+        }
+        if (((from_bitField0_ & 0x00000200) != 0)) {
+          result.endTimestamp_ = endTimestamp_;
+          to_bitField0_ |= 0x00000080;
+        }
+        if (((from_bitField0_ & 0x00000400) != 0)) {
+          result.ttl_ = ttl_;
+          to_bitField0_ |= 0x00000100;
+        }
+        if (((from_bitField0_ & 0x00000800) != 0)) {
+          result.expected_ = expected_;
+          to_bitField0_ |= 0x00000200;
+        }
         result.bitField0_ |= to_bitField0_;
       }
 
@@ -5620,6 +6614,21 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         if (other.hasTimestamp()) {
           setTimestamp(other.getTimestamp());
         }
+        if (other.hasLimit()) {
+          setLimit(other.getLimit());
+        }
+        if (other.hasStartTimestamp()) {
+          setStartTimestamp(other.getStartTimestamp());
+        }
+        if (other.hasEndTimestamp()) {
+          setEndTimestamp(other.getEndTimestamp());
+        }
+        if (other.hasTtl()) {
+          setTtl(other.getTtl());
+        }
+        if (other.hasExpected()) {
+          setExpected(other.getExpected());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         onChanged();
         return this;
@@ -5689,6 +6698,31 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
                 bitField0_ |= 0x00000040;
                 break;
               } // case 56
+              case 64: {
+                limit_ = input.readUInt32();
+                bitField0_ |= 0x00000080;
+                break;
+              } // case 64
+              case 72: {
+                startTimestamp_ = input.readUInt64();
+                bitField0_ |= 0x00000100;
+                break;
+              } // case 72
+              case 80: {
+                endTimestamp_ = input.readUInt64();
+                bitField0_ |= 0x00000200;
+                break;
+              } // case 80
+              case 88: {
+                ttl_ = input.readUInt64();
+                bitField0_ |= 0x00000400;
+                break;
+              } // case 88
+              case 98: {
+                expected_ = input.readBytes();
+                bitField0_ |= 0x00000800;
+                break;
+              } // case 98
               default: {
                 if (!super.parseUnknownField(input, extensionRegistry, tag)) {
                   done = true; // was an endgroup tag
@@ -6257,6 +7291,286 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
         onChanged();
         return this;
       }
+
+      private int limit_ ;
+      /**
+       * <pre>
+       * Maximum number of samples for GET_HISTORY / GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint32 limit = 8;</code>
+       * @return Whether the limit field is set.
+       */
+      @java.lang.Override
+      public boolean hasLimit() {
+        return ((bitField0_ & 0x00000080) != 0);
+      }
+      /**
+       * <pre>
+       * Maximum number of samples for GET_HISTORY / GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint32 limit = 8;</code>
+       * @return The limit.
+       */
+      @java.lang.Override
+      public int getLimit() {
+        return limit_;
+      }
+      /**
+       * <pre>
+       * Maximum number of samples for GET_HISTORY / GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint32 limit = 8;</code>
+       * @param value The limit to set.
+       * @return This builder for chaining.
+       */
+      public Builder setLimit(int value) {
+
+        limit_ = value;
+        bitField0_ |= 0x00000080;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Maximum number of samples for GET_HISTORY / GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint32 limit = 8;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearLimit() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        limit_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long startTimestamp_ ;
+      /**
+       * <pre>
+       * Inclusive lower bound for GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint64 start_timestamp = 9;</code>
+       * @return Whether the startTimestamp field is set.
+       */
+      @java.lang.Override
+      public boolean hasStartTimestamp() {
+        return ((bitField0_ & 0x00000100) != 0);
+      }
+      /**
+       * <pre>
+       * Inclusive lower bound for GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint64 start_timestamp = 9;</code>
+       * @return The startTimestamp.
+       */
+      @java.lang.Override
+      public long getStartTimestamp() {
+        return startTimestamp_;
+      }
+      /**
+       * <pre>
+       * Inclusive lower bound for GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint64 start_timestamp = 9;</code>
+       * @param value The startTimestamp to set.
+       * @return This builder for chaining.
+       */
+      public Builder setStartTimestamp(long value) {
+
+        startTimestamp_ = value;
+        bitField0_ |= 0x00000100;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Inclusive lower bound for GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint64 start_timestamp = 9;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearStartTimestamp() {
+        bitField0_ = (bitField0_ & ~0x00000100);
+        startTimestamp_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long endTimestamp_ ;
+      /**
+       * <pre>
+       * Inclusive upper bound for GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint64 end_timestamp = 10;</code>
+       * @return Whether the endTimestamp field is set.
+       */
+      @java.lang.Override
+      public boolean hasEndTimestamp() {
+        return ((bitField0_ & 0x00000200) != 0);
+      }
+      /**
+       * <pre>
+       * Inclusive upper bound for GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint64 end_timestamp = 10;</code>
+       * @return The endTimestamp.
+       */
+      @java.lang.Override
+      public long getEndTimestamp() {
+        return endTimestamp_;
+      }
+      /**
+       * <pre>
+       * Inclusive upper bound for GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint64 end_timestamp = 10;</code>
+       * @param value The endTimestamp to set.
+       * @return This builder for chaining.
+       */
+      public Builder setEndTimestamp(long value) {
+
+        endTimestamp_ = value;
+        bitField0_ |= 0x00000200;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Inclusive upper bound for GET_RANGE
+       * </pre>
+       *
+       * <code>optional uint64 end_timestamp = 10;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearEndTimestamp() {
+        bitField0_ = (bitField0_ & ~0x00000200);
+        endTimestamp_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long ttl_ ;
+      /**
+       * <pre>
+       * Milliseconds until a PUT key expires, unset or 0 for never
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 11;</code>
+       * @return Whether the ttl field is set.
+       */
+      @java.lang.Override
+      public boolean hasTtl() {
+        return ((bitField0_ & 0x00000400) != 0);
+      }
+      /**
+       * <pre>
+       * Milliseconds until a PUT key expires, unset or 0 for never
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 11;</code>
+       * @return The ttl.
+       */
+      @java.lang.Override
+      public long getTtl() {
+        return ttl_;
+      }
+      /**
+       * <pre>
+       * Milliseconds until a PUT key expires, unset or 0 for never
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 11;</code>
+       * @param value The ttl to set.
+       * @return This builder for chaining.
+       */
+      public Builder setTtl(long value) {
+
+        ttl_ = value;
+        bitField0_ |= 0x00000400;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Milliseconds until a PUT key expires, unset or 0 for never
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 11;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearTtl() {
+        bitField0_ = (bitField0_ & ~0x00000400);
+        ttl_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.ByteString expected_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <pre>
+       * Value a CAS requires the key to hold, unset for a key that must not exist
+       * </pre>
+       *
+       * <code>optional bytes expected = 12;</code>
+       * @return Whether the expected field is set.
+       */
+      @java.lang.Override
+      public boolean hasExpected() {
+        return ((bitField0_ & 0x00000800) != 0);
+      }
+      /**
+       * <pre>
+       * Value a CAS requires the key to hold, unset for a key that must not exist
+       * </pre>
+       *
+       * <code>optional bytes expected = 12;</code>
+       * @return The expected.
+       */
+      @java.lang.Override
+      public com.google.protobuf.ByteString getExpected() {
+        return expected_;
+      }
+      /**
+       * <pre>
+       * Value a CAS requires the key to hold, unset for a key that must not exist
+       * </pre>
+       *
+       * <code>optional bytes expected = 12;</code>
+       * @param value The expected to set.
+       * @return This builder for chaining.
+       */
+      public Builder setExpected(com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        expected_ = value;
+        bitField0_ |= 0x00000800;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Value a CAS requires the key to hold, unset for a key that must not exist
+       * </pre>
+       *
+       * <code>optional bytes expected = 12;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearExpected() {
+        bitField0_ = (bitField0_ & ~0x00000800);
+        expected_ = getDefaultInstance().getExpected();
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -6361,7 +7675,7 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
   static {
     java.lang.String[] descriptorData = {
       "\n src/main/proto/XTableProto.proto\022 org." +
-      "kobe.xbot.Utilities.Entities\"\224\020\n\rXTableM" +
+      "kobe.xbot.Utilities.Entities\"\237\023\n\rXTableM" +
       "essage\022H\n\007command\030\001 \001(\01627.org.kobe.xbot." +
       "Utilities.Entities.XTableMessage.Command" +
       "\022\020\n\003key\030\002 \001(\tH\000\210\001\001\022\022\n\005value\030\003 \001(\014H\001\210\001\001\022G" +
@@ -6369,51 +7683,61 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
       "ntities.XTableMessage.TypeH\002\210\001\001\022\017\n\002id\030\005 " +
       "\001(\014H\003\210\001\001\022>\n\005batch\030\006 \003(\0132/.org.kobe.xbot." +
       "Utilities.Entities.XTableMessage\022\026\n\ttime" +
-      "stamp\030\007 \001(\004H\004\210\001\001\032\237\002\n\013XTablesData\022S\n\004data" +
-      "\030\001 \003(\0132E.org.kobe.xbot.Utilities.Entitie" +
-      "s.XTableMessage.XTablesData.DataEntry\022\r\n" +
-      "\005value\030\002 \001(\014\022B\n\004type\030\003 \001(\01624.org.kobe.xb" +
-      "ot.Utilities.Entities.XTableMessage.Type" +
-      "\032h\n\tDataEntry\022\013\n\003key\030\001 \001(\t\022J\n\005value\030\002 \001(" +
-      "\0132;.org.kobe.xbot.Utilities.Entities.XTa" +
-      "bleMessage.XTablesData:\0028\001\032\260\001\n\tXTableLog" +
-      "\022N\n\005level\030\001 \001(\0162?.org.kobe.xbot.Utilitie" +
-      "s.Entities.XTableMessage.XTableLog.Level" +
-      "\022\017\n\007message\030\002 \001(\t\"B\n\005Level\022\013\n\007UNKNOWN\020\000\022" +
-      "\010\n\004INFO\020\001\022\013\n\007WARNING\020\002\022\n\n\006SEVERE\020\003\022\t\n\005FA" +
-      "TAL\020\004\032\323\002\n\014XTableUpdate\022\013\n\003key\030\001 \001(\t\022W\n\010c" +
-      "ategory\030\002 \001(\0162E.org.kobe.xbot.Utilities." +
-      "Entities.XTableMessage.XTableUpdate.Cate" +
-      "gory\022\r\n\005value\030\003 \001(\014\022B\n\004type\030\004 \001(\01624.org." +
+      "stamp\030\007 \001(\004H\004\210\001\001\022\022\n\005limit\030\010 \001(\rH\005\210\001\001\022\034\n\017" +
+      "start_timestamp\030\t \001(\004H\006\210\001\001\022\032\n\rend_timest" +
+      "amp\030\n \001(\004H\007\210\001\001\022\020\n\003ttl\030\013 \001(\004H\010\210\001\001\022\025\n\010expe" +
+      "cted\030\014 \001(\014H\t\210\001\001\032\262\002\n\013XTablesData\022S\n\004data\030" +
+      "\001 \003(\0132E.org.kobe.xbot.Utilities.Entities" +
+      ".XTableMessage.XTablesData.DataEntry\022\r\n\005" +
+      "value\030\002 \001(\014\022B\n\004type\030\003 \001(\01624.org.kobe.xbo" +
+      "t.Utilities.Entities.XTableMessage.Type\022" +
+      "\021\n\ttimestamp\030\004 \001(\003\032h\n\tDataEntry\022\013\n\003key\030\001" +
+      " \001(\t\022J\n\005value\030\002 \001(\0132;.org.kobe.xbot.Util" +
+      "ities.Entities.XTableMessage.XTablesData" +
+      ":\0028\001\032\260\001\n\tXTableLog\022N\n\005level\030\001 \001(\0162?.org." +
       "kobe.xbot.Utilities.Entities.XTableMessa" +
-      "ge.Type\022\026\n\ttimestamp\030\005 \001(\004H\000\210\001\001\"d\n\010Categ" +
-      "ory\022\013\n\007UNKNOWN\020\000\022\n\n\006UPDATE\020\001\022\n\n\006DELETE\020\002" +
-      "\022\013\n\007PUBLISH\020\003\022\014\n\010REGISTRY\020\004\022\017\n\013INFORMATI" +
-      "ON\020\005\022\007\n\003LOG\020\006B\014\n\n_timestamp\032\222\001\n\nClientIn" +
-      "fo\022\022\n\nip_address\030\001 \001(\t\022\020\n\010hostname\030\002 \001(\t" +
-      "\022\030\n\020operating_system\030\003 \001(\t\022\014\n\004port\030\004 \001(\005" +
-      "\022\021\n\tis_active\030\005 \001(\010\022\017\n\007version\030\006 \001(\t\022\022\n\n" +
-      "user_agent\030\007 \001(\t\"\222\003\n\004Type\022\013\n\007UNKNOWN\020\000\022\n" +
-      "\n\006STRING\020\001\022\n\n\006DOUBLE\020\002\022\t\n\005INT32\020\003\022\t\n\005INT" +
-      "64\020\005\022\010\n\004BOOL\020\006\022\t\n\005BYTES\020\007\022\010\n\004ENUM\020\010\022\013\n\007M" +
-      "ESSAGE\020\t\022\017\n\013DOUBLE_LIST\020\n\022\017\n\013STRING_LIST" +
-      "\020\013\022\016\n\nFLOAT_LIST\020\014\022\020\n\014INTEGER_LIST\020\r\022\r\n\t" +
-      "LONG_LIST\020\016\022\020\n\014BOOLEAN_LIST\020\017\022\016\n\nBYTES_L" +
-      "IST\020\020\022\n\n\006OBJECT\020\021\022\n\n\006POSE2D\020\022\022\n\n\006POSE3D\020" +
-      "\023\022\017\n\013COORDINATES\020\024\022\021\n\rBEZIER_CURVES\020\025\022\020\n" +
-      "\014BEZIER_CURVE\020\026\022\026\n\022BEZIER_CURVES_LIST\020\027\022" +
-      "#\n\037ALIGN_TO_REEF_APRIL_TAG_OPTIONS\020\030\022\027\n\023" +
-      "PROBABILITY_MAPPING\020\031\"\333\002\n\007Command\022\023\n\017UNK" +
-      "NOWN_COMMAND\020\000\022\007\n\003PUT\020\001\022\007\n\003GET\020\002\022\t\n\005DEBU" +
-      "G\020\003\022\016\n\nGET_TABLES\020\004\022\016\n\nRUN_SCRIPT\020\005\022\016\n\nU" +
-      "PDATE_KEY\020\006\022\n\n\006DELETE\020\007\022\013\n\007PUBLISH\020\010\022\024\n\020" +
-      "SUBSCRIBE_DELETE\020\t\022\026\n\022UNSUBSCRIBE_DELETE" +
-      "\020\n\022\026\n\022UNSUBSCRIBE_UPDATE\020\013\022\010\n\004PING\020\014\022\020\n\014" +
-      "GET_RAW_JSON\020\r\022\020\n\014DELETE_EVENT\020\016\022\020\n\014UPDA" +
-      "TE_EVENT\020\017\022\017\n\013INFORMATION\020\020\022\021\n\rREBOOT_SE" +
-      "RVER\020\021\022\014\n\010REGISTRY\020\022\022\t\n\005BATCH\020\023\022\022\n\016GET_P" +
-      "ROTO_DATA\020\024B\006\n\004_keyB\010\n\006_valueB\007\n\005_typeB\005" +
-      "\n\003_idB\014\n\n_timestampb\006proto3"
+      "ge.XTableLog.Level\022\017\n\007message\030\002 \001(\t\"B\n\005L" +
+      "evel\022\013\n\007UNKNOWN\020\000\022\010\n\004INFO\020\001\022\013\n\007WARNING\020\002" +
+      "\022\n\n\006SEVERE\020\003\022\t\n\005FATAL\020\004\032\253\003\n\014XTableUpdate" +
+      "\022\013\n\003key\030\001 \001(\t\022W\n\010category\030\002 \001(\0162E.org.ko" +
+      "be.xbot.Utilities.Entities.XTableMessage" +
+      ".XTableUpdate.Category\022\r\n\005value\030\003 \001(\014\022B\n" +
+      "\004type\030\004 \001(\01624.org.kobe.xbot.Utilities.En" +
+      "tities.XTableMessage.Type\022\026\n\ttimestamp\030\005" +
+      " \001(\004H\000\210\001\001\022K\n\005batch\030\006 \003(\0132<.org.kobe.xbot" +
+      ".Utilities.Entities.XTableMessage.XTable" +
+      "Update\"o\n\010Category\022\013\n\007UNKNOWN\020\000\022\n\n\006UPDAT" +
+      "E\020\001\022\n\n\006DELETE\020\002\022\013\n\007PUBLISH\020\003\022\014\n\010REGISTRY" +
+      "\020\004\022\017\n\013INFORMATION\020\005\022\007\n\003LOG\020\006\022\t\n\005BATCH\020\007B" +
+      "\014\n\n_timestamp\032\222\001\n\nClientInfo\022\022\n\nip_addre" +
+      "ss\030\001 \001(\t\022\020\n\010hostname\030\002 \001(\t\022\030\n\020operating_" +
+      "system\030\003 \001(\t\022\014\n\004port\030\004 \001(\005\022\021\n\tis_active\030" +
+      "\005 \001(\010\022\017\n\007version\030\006 \001(\t\022\022\n\nuser_agent\030\007 \001" +
+      "(\t\"\222\003\n\004Type\022\013\n\007UNKNOWN\020\000\022\n\n\006STRING\020\001\022\n\n\006" +
+      "DOUBLE\020\002\022\t\n\005INT32\020\003\022\t\n\005INT64\020\005\022\010\n\004BOOL\020\006" +
+      "\022\t\n\005BYTES\020\007\022\010\n\004ENUM\020\010\022\013\n\007MESSAGE\020\t\022\017\n\013DO" +
+      "UBLE_LIST\020\n\022\017\n\013STRING_LIST\020\013\022\016\n\nFLOAT_LI" +
+      "ST\020\014\022\020\n\014INTEGER_LIST\020\r\022\r\n\tLONG_LIST\020\016\022\020\n" +
+      "\014BOOLEAN_LIST\020\017\022\016\n\nBYTES_LIST\020\020\022\n\n\006OBJEC" +
+      "T\020\021\022\n\n\006POSE2D\020\022\022\n\n\006POSE3D\020\023\022\017\n\013COORDINAT" +
+      "ES\020\024\022\021\n\rBEZIER_CURVES\020\025\022\020\n\014BEZIER_CURVE\020" +
+      "\026\022\026\n\022BEZIER_CURVES_LIST\020\027\022#\n\037ALIGN_TO_RE" +
+      "EF_APRIL_TAG_OPTIONS\020\030\022\027\n\023PROBABILITY_MA" +
+      "PPING\020\031\"\277\003\n\007Command\022\023\n\017UNKNOWN_COMMAND\020\000" +
+      "\022\007\n\003PUT\020\001\022\007\n\003GET\020\002\022\t\n\005DEBUG\020\003\022\016\n\nGET_TAB" +
+      "LES\020\004\022\016\n\nRUN_SCRIPT\020\005\022\016\n\nUPDATE_KEY\020\006\022\n\n" +
+      "\006DELETE\020\007\022\013\n\007PUBLISH\020\010\022\024\n\020SUBSCRIBE_DELE" +
+      "TE\020\t\022\026\n\022UNSUBSCRIBE_DELETE\020\n\022\026\n\022UNSUBSCR" +
+      "IBE_UPDATE\020\013\022\010\n\004PING\020\014\022\020\n\014GET_RAW_JSON\020\r" +
+      "\022\020\n\014DELETE_EVENT\020\016\022\020\n\014UPDATE_EVENT\020\017\022\017\n\013" +
+      "INFORMATION\020\020\022\021\n\rREBOOT_SERVER\020\021\022\014\n\010REGI" +
+      "STRY\020\022\022\t\n\005BATCH\020\023\022\022\n\016GET_PROTO_DATA\020\024\022\017\n" +
+      "\013GET_HISTORY\020\025\022\r\n\tGET_RANGE\020\026\022\017\n\013GET_SUB" +
+      "TREE\020\027\022\r\n\tMULTI_GET\020\030\022\007\n\003CAS\020\031\022\r\n\tINCREM" +
+      "ENT\020\032\022\n\n\006APPEND\020\033B\006\n\004_keyB\010\n\006_valueB\007\n\005_" +
+      "typeB\005\n\003_idB\014\n\n_timestampB\010\n\006_limitB\022\n\020_" +
+      "start_timestampB\020\n\016_end_timestampB\006\n\004_tt" +
+      "lB\013\n\t_expectedb\006proto3"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -6424,13 +7748,13 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
     internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_descriptor,
-        new java.lang.String[] { "Command", "Key", "Value", "Type", "Id", "Batch", "Timestamp", });
+        new java.lang.String[] { "Command", "Key", "Value", "Type", "Id", "Batch", "Timestamp", "Limit", "StartTimestamp", "EndTimestamp", "Ttl", "Expected", });
     internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_XTablesData_descriptor =
       internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_descriptor.getNestedTypes().get(0);
     internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_XTablesData_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_XTablesData_descriptor,
-        new java.lang.String[] { "Data", "Value", "Type", });
+        new java.lang.String[] { "Data", "Value", "Type", "Timestamp", });
     internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_XTablesData_DataEntry_descriptor =
       internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_XTablesData_descriptor.getNestedTypes().get(0);
     internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_XTablesData_DataEntry_fieldAccessorTable = new
@@ -6448,7 +7772,7 @@ org.kobe.xbot.Utilities.Entities.XTableProto.XTableMessage.XTablesData defaultVa
     internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_XTableUpdate_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_XTableUpdate_descriptor,
-        new java.lang.String[] { "Key", "Category", "Value", "Type", "Timestamp", });
+        new java.lang.String[] { "Key", "Category", "Value", "Type", "Timestamp", "Batch", });
     internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_ClientInfo_descriptor =
       internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_descriptor.getNestedTypes().get(3);
     internal_static_org_kobe_xbot_Utilities_Entities_XTableMessage_ClientInfo_fieldAccessorTable = new
@@ -0,0 +1,179 @@
+package org.kobe.xbot.Utilities.Memory;
+
+import com.google.protobuf.ByteString;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * XTablesArena - An off-heap allocator for large table values.
+ * <p>
+ * Memory is reserved from the operating system in direct-buffer slabs and carved into power-of-two
+ * size classes. A freed chunk goes back onto the free list of its class and is handed out again for
+ * the next value of a similar size, so a key that is rewritten at a high rate with same-sized values
+ * (camera frames, vision detections) keeps reusing the same memory and never touches the heap.
+ * Values larger than a slab get a dedicated direct buffer of their own.
+ * <p>
+ * Values are handed out as reference-counted {@link XTablesSlice} instances. When the arena has
+ * reached its capacity, {@link #allocate(ByteString)} returns null and the caller keeps the value
+ * on the heap instead.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.Utilities.Memory
+ * <p>
+ * This is part of the XTABLES project and keeps large values out of the garbage-collected heap.
+ */
+public class XTablesArena {
+    private static final int SLAB_SIZE = 4 * 1024 * 1024;
+
+    private final int threshold;
+    private final int minimumShift;
+    private final long capacity;
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLong inUse = new AtomicLong();
+    private final List<ArrayDeque<Chunk>> freeLists;
+
+    /**
+     * Creates an arena.
+     *
+     * @param threshold The smallest value size, in bytes, that is stored off-heap
+     * @param capacity  The most memory, in bytes, the arena reserves from the operating system
+     */
+    public XTablesArena(int threshold, long capacity) {
+        if (threshold <= 0 || threshold > SLAB_SIZE) {
+            throw new IllegalArgumentException("Off-heap threshold must be between 1 and " + SLAB_SIZE + " bytes");
+        }
+        this.threshold = threshold;
+        this.capacity = capacity;
+        this.minimumShift = 32 - Integer.numberOfLeadingZeros(threshold - 1);
+        int classes = Integer.numberOfTrailingZeros(SLAB_SIZE) - minimumShift + 1;
+        this.freeLists = new ArrayList<>(classes);
+        for (int i = 0; i < classes; i++) {
+            freeLists.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Checks whether a value of the given size belongs off-heap.
+     *
+     * @param size The value size in bytes
+     * @return true if the value is at least the threshold size
+     */
+    public boolean accepts(int size) {
+        return size >= threshold;
+    }
+
+    /**
+     * Copies a value into off-heap memory.
+     *
+     * @param value The value to copy
+     * @return A slice holding the value with a reference count of one, or null if the arena is full
+     */
+    public XTablesSlice allocate(ByteString value) {
+        int size = value.size();
+        Chunk chunk = size > SLAB_SIZE ? allocateDedicated(size) : allocateChunk(sizeClass(size));
+        if (chunk == null) {
+            return null;
+        }
+        ByteBuffer target = chunk.buffer.duplicate();
+        target.clear();
+        value.copyTo(target);
+        inUse.addAndGet(chunk.buffer.capacity());
+        return new XTablesSlice(this, chunk, size);
+    }
+
+    private int sizeClass(int size) {
+        int shift = Math.max(minimumShift, 32 - Integer.numberOfLeadingZeros(size - 1));
+        return shift - minimumShift;
+    }
+
+    private Chunk allocateChunk(int sizeClass) {
+        ArrayDeque<Chunk> free = freeLists.get(sizeClass);
+        synchronized (free) {
+            Chunk chunk = free.pollFirst();
+            if (chunk != null) {
+                return chunk;
+            }
+            if (!reserve(SLAB_SIZE)) {
+                return null;
+            }
+            // Carve a fresh slab into chunks of this class and keep all but the first for later.
+            int chunkSize = 1 << (sizeClass + minimumShift);
+            ByteBuffer slab = ByteBuffer.allocateDirect(SLAB_SIZE);
+            for (int offset = chunkSize; offset < SLAB_SIZE; offset += chunkSize) {
+                free.addLast(new Chunk(slab.slice(offset, chunkSize), sizeClass));
+            }
+            return new Chunk(slab.slice(0, chunkSize), sizeClass);
+        }
+    }
+
+    private Chunk allocateDedicated(int size) {
+        if (!reserve(size)) {
+            return null;
+        }
+        return new Chunk(ByteBuffer.allocateDirect(size), -1);
+    }
+
+    private boolean reserve(long bytes) {
+        while (true) {
+            long current = reserved.get();
+            if (current + bytes > capacity) {
+                return false;
+            }
+            if (reserved.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a chunk whose slice has been released.
+     */
+    void free(Chunk chunk) {
+        inUse.addAndGet(-chunk.buffer.capacity());
+        if (chunk.sizeClass < 0) {
+            // Dedicated buffers are left to the garbage collector.
+            reserved.addAndGet(-chunk.buffer.capacity());
+            return;
+        }
+        ArrayDeque<Chunk> free = freeLists.get(chunk.sizeClass);
+        synchronized (free) {
+            free.addFirst(chunk);
+        }
+    }
+
+    /**
+     * Retrieves the amount of off-heap memory reserved from the operating system.
+     *
+     * @return the reserved bytes
+     */
+    public long getReservedBytes() {
+        return reserved.get();
+    }
+
+    /**
+     * Retrieves the amount of off-heap memory currently holding live values.
+     *
+     * @return the bytes in use, rounded up to each value's size class
+     */
+    public long getUsedBytes() {
+        return inUse.get();
+    }
+
+    /**
+     * A fixed region of off-heap memory that is handed out to one value at a time.
+     */
+    static final class Chunk {
+        final ByteBuffer buffer;
+        final int sizeClass;
+
+        private Chunk(ByteBuffer buffer, int sizeClass) {
+            this.buffer = buffer;
+            this.sizeClass = sizeClass;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.kobe.xbot.Utilities.Memory;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * XTablesSlice - A reference-counted view of a value held in an {@link XTablesArena}.
+ * <p>
+ * A slice starts with one reference, owned by whoever allocated it. Anyone else who wants to read
+ * the value must first {@link #retain()} it and {@link #release()} it when done; once the count drops
+ * to zero the memory goes back to the arena and every later retain fails, which tells the reader the
+ * value has been replaced. A slice that becomes unreachable without being released (for example
+ * because the node holding it was deleted) has its memory returned by a cleaner.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.Utilities.Memory
+ * <p>
+ * This is part of the XTABLES project and lets large values be sent without copying them to the heap.
+ */
+public final class XTablesSlice {
+    private static final Cleaner cleaner = Cleaner.create();
+
+    private final ByteBuffer buffer;
+    private final State state;
+
+    XTablesSlice(XTablesArena arena, XTablesArena.Chunk chunk, int length) {
+        this.buffer = chunk.buffer.slice(0, length).asReadOnlyBuffer();
+        this.state = new State(arena, chunk);
+        cleaner.register(this, state);
+    }
+
+    /**
+     * Takes a reference to the value.
+     *
+     * @return true if the reference was taken, or false if the value has already been released
+     */
+    public boolean retain() {
+        AtomicInteger references = state.references;
+        while (true) {
+            int current = references.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drops a reference to the value, returning its memory to the arena when it was the last one.
+     */
+    public void release() {
+        if (state.references.decrementAndGet() == 0) {
+            state.free();
+        }
+    }
+
+    /**
+     * Wraps the value in a ByteString without copying it. The caller must hold a reference for as
+     * long as the ByteString is in use.
+     *
+     * @return the value as a ByteString
+     */
+    public ByteString toByteString() {
+        return UnsafeByteOperations.unsafeWrap(buffer.duplicate());
+    }
+
+    /**
+     * Copies the value onto the heap.
+     *
+     * @return the value, or null if it has already been released
+     */
+    public byte[] toByteArray() {
+        if (!retain()) {
+            return null;
+        }
+        try {
+            byte[] copy = new byte[buffer.capacity()];
+            buffer.duplicate().get(copy);
+            return copy;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Retrieves the size of the value.
+     *
+     * @return the length in bytes
+     */
+    public int length() {
+        return buffer.capacity();
+    }
+
+    /**
+     * The part of a slice the cleaner can see. It must not refer back to the slice itself.
+     */
+    private static final class State implements Runnable {
+        private final XTablesArena arena;
+        private final XTablesArena.Chunk chunk;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private State(XTablesArena arena, XTablesArena.Chunk chunk) {
+            this.arena = arena;
+            this.chunk = chunk;
+        }
+
+        private void free() {
+            references.set(Integer.MIN_VALUE);
+            arena.free(chunk);
+        }
+
+        @Override
+        public void run() {
+            // Only reached once the slice is unreachable, so nobody can retain it concurrently.
+            if (references.getAndSet(Integer.MIN_VALUE) > 0) {
+                arena.free(chunk);
+            }
+        }
+    }
+}
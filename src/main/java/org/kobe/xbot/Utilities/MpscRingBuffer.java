@@ -0,0 +1,282 @@
+package org.kobe.xbot.Utilities;
+
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * MpscRingBuffer - A lock-free ring buffer for many producer threads and a single consumer thread.
+ * <p>
+ * It keeps the semantics of {@link CircularBuffer}: writes never block, and when the consumer falls
+ * a full ring behind, the oldest unread elements are overwritten. Instead of a lock, each producer
+ * claims a ticket from a shared sequence counter and publishes its element by stamping the slot with
+ * that ticket. The consumer follows its own counter and notices from a slot's stamp whether the slot
+ * is not written yet or has already been overwritten by a later lap. The two counters are kept on
+ * separate cache lines so that producers and the consumer do not invalidate each other's counter.
+ * <p>
+ * An empty ring is waited on according to the {@link WaitStrategy}: SPIN has the lowest latency but
+ * keeps a core busy, YIELD gives the core to other threads between checks, and PARK sleeps until a
+ * producer wakes the consumer.
+ * <p>
+ * With the BLOCK {@link OverflowPolicy}, a full ring makes producers wait for the consumer instead of
+ * overwriting, which passes back pressure on to them. Either way, the ring counts every element
+ * written and every element lost to an overwrite.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.Utilities
+ * <p>
+ * This is part of the XTABLES project and moves messages to the socket threads without locking.
+ *
+ * @param <T> the element type
+ */
+public class MpscRingBuffer<T> {
+    private static final int PAD = 16;
+    private static final int TAIL = PAD;
+    private static final int HEAD = 2 * PAD;
+    private static final int SPINS = 128;
+    // The producer and consumer counters, 128 bytes apart so they never share a cache line.
+    private final AtomicLongArray counters = new AtomicLongArray(3 * PAD);
+    // Twice the ticket that last wrote each slot, plus one while that ticket is still writing it.
+    private final AtomicLongArray stamps;
+    private final AtomicReferenceArray<T> slots;
+    private final int capacity;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicReference<Thread> waitingConsumer = new AtomicReference<>();
+    private volatile long overwritten;
+
+    /**
+     * How the consumer waits for an element while the ring is empty.
+     */
+    public enum WaitStrategy {
+        SPIN,
+        YIELD,
+        PARK
+    }
+
+    /**
+     * What a producer does when the ring is full.
+     */
+    public enum OverflowPolicy {
+        OVERWRITE,
+        BLOCK
+    }
+
+    /**
+     * Creates a ring that holds at least the given number of elements and overwrites the oldest
+     * unread element when full.
+     *
+     * @param capacity     the minimum capacity, rounded up to a power of two
+     * @param waitStrategy how the consumer waits while the ring is empty
+     */
+    public MpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        this(capacity, waitStrategy, OverflowPolicy.OVERWRITE);
+    }
+
+    /**
+     * Creates a ring that holds at least the given number of elements.
+     *
+     * @param capacity       the minimum capacity, rounded up to a power of two
+     * @param waitStrategy   how the consumer waits while the ring is empty
+     * @param overflowPolicy whether producers overwrite or wait when the ring is full
+     */
+    public MpscRingBuffer(int capacity, WaitStrategy waitStrategy, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Buffer size must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.waitStrategy = Objects.requireNonNull(waitStrategy);
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.stamps = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            // As if written by the lap before the first, so the first producer of each slot can go ahead.
+            stamps.set(i, 2L * (i - size));
+        }
+    }
+
+    /**
+     * Adds an element. If the ring is full, the oldest unread element is overwritten, or with the
+     * BLOCK policy the call waits until the consumer has read it. Safe to call from any number of threads.
+     *
+     * @param element the element to add
+     */
+    public void write(T element) {
+        Objects.requireNonNull(element);
+        long ticket = counters.getAndIncrement(TAIL);
+        int index = (int) (ticket & mask);
+        long previous = 2 * (ticket - capacity);
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            // The slot is free once the consumer has read the element a full lap before this one.
+            for (int spins = 0; counters.get(HEAD) <= ticket - capacity; spins++) {
+                if (spins < SPINS) {
+                    Thread.onSpinWait();
+                } else if (spins < 2 * SPINS) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(50_000);
+                }
+            }
+        }
+        // Only waits when another producer claimed this slot a full lap earlier and has not finished.
+        for (int spins = 0; stamps.get(index) != previous; spins++) {
+            if (spins < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        // Release stores keep the three writes in order; the consumer re-checks the stamp after reading.
+        stamps.setPlain(index, 2 * ticket + 1);
+        slots.setRelease(index, element);
+        stamps.setRelease(index, 2 * ticket);
+        // Pairs with the consumer announcing itself before its last check, so a wake-up is never missed.
+        VarHandle.fullFence();
+        // Only the first producer to see a parked consumer pays for waking it.
+        if (waitingConsumer.get() != null) {
+            Thread consumer = waitingConsumer.getAndSet(null);
+            if (consumer != null) {
+                LockSupport.unpark(consumer);
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest unread element. Must only be called from the consumer thread.
+     *
+     * @return the element, or null if the ring is empty
+     */
+    public T read() {
+        long head = counters.get(HEAD);
+        while (true) {
+            int index = (int) (head & mask);
+            long stamp = stamps.get(index);
+            if (stamp == 2 * head) {
+                T element = slots.get(index);
+                if (stamps.get(index) == stamp) {
+                    // Fails harmlessly if a producer of the next lap has already replaced the element.
+                    slots.compareAndSet(index, element, null);
+                    counters.lazySet(HEAD, head + 1);
+                    return element;
+                }
+                stamp = stamps.get(index);
+            }
+            if (stamp <= 2 * head + 1) {
+                if (head != counters.get(HEAD)) {
+                    counters.lazySet(HEAD, head);
+                }
+                return null;
+            }
+            // The slot was written by a later lap, so everything before the oldest element still in the ring is gone.
+            long oldest = Math.max(head + 1, counters.get(TAIL) - capacity);
+            overwritten += oldest - head;
+            head = oldest;
+        }
+    }
+
+    /**
+     * Removes the oldest unread element, waiting for one according to the wait strategy. Must only be
+     * called from the consumer thread.
+     *
+     * @return the element
+     * @throws InterruptedException If the consumer is interrupted while waiting
+     */
+    public T readAndBlock() throws InterruptedException {
+        return await(false, 0);
+    }
+
+    /**
+     * Removes the oldest unread element, waiting at most the given time for one according to the wait
+     * strategy. Must only be called from the consumer thread.
+     *
+     * @param timeout the longest time to wait
+     * @param unit    the unit of the timeout
+     * @return the element, or null if none arrived in time
+     * @throws InterruptedException If the consumer is interrupted while waiting
+     */
+    public T readAndBlock(long timeout, TimeUnit unit) throws InterruptedException {
+        return await(true, System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    private T await(boolean timed, long deadline) throws InterruptedException {
+        T element;
+        int idle = 0;
+        while ((element = read()) == null) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long remaining = timed ? deadline - System.nanoTime() : Long.MAX_VALUE;
+            if (remaining <= 0) {
+                return null;
+            }
+            switch (waitStrategy) {
+                case SPIN -> Thread.onSpinWait();
+                case YIELD -> Thread.yield();
+                case PARK -> {
+                    if (idle++ < SPINS) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    waitingConsumer.set(Thread.currentThread());
+                    // Checked again after announcing the wait, so an element written in between is not missed.
+                    element = read();
+                    if (element == null) {
+                        if (timed) {
+                            LockSupport.parkNanos(this, remaining);
+                        } else {
+                            LockSupport.park(this);
+                        }
+                    }
+                    waitingConsumer.set(null);
+                    if (element != null) {
+                        return element;
+                    }
+                }
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Retrieves the number of unread elements.
+     *
+     * @return the number of elements, at most the capacity
+     */
+    public int size() {
+        long size = counters.get(TAIL) - counters.get(HEAD);
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    /**
+     * Retrieves how many elements have been written, including any that were later overwritten.
+     *
+     * @return the number of writes
+     */
+    public long getWritten() {
+        return counters.get(TAIL);
+    }
+
+    /**
+     * Retrieves how many elements were overwritten before the consumer read them.
+     *
+     * @return the number of lost elements
+     */
+    public long getOverwritten() {
+        return overwritten;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
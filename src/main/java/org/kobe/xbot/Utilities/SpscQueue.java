@@ -0,0 +1,149 @@
+package org.kobe.xbot.Utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SpscQueue - A bounded, lock-free queue between exactly one producer thread and one consumer thread.
+ * <p>
+ * Unlike {@link CircularBuffer}, nothing is ever overwritten: a full queue makes the producer wait,
+ * which lets back pressure reach the socket instead of dropping writes. The producer and consumer
+ * each own one sequence counter, so a hand-off is two plain stores and no lock. A consumer that finds
+ * the queue empty spins and yields briefly, then parks until the producer wakes it.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.Utilities
+ * <p>
+ * This is part of the XTABLES project and hands messages between server pipeline stages.
+ *
+ * @param <T> the element type
+ */
+public class SpscQueue<T> {
+    private static final int SPINS = 128;
+    private final Object[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Creates a queue that holds at least the given number of elements.
+     *
+     * @param capacity the minimum capacity, rounded up to a power of two
+     */
+    public SpscQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Queue capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an element if there is room. Must only be called from the producer thread.
+     *
+     * @param element the element to add
+     * @return true if it was added, false if the queue is full
+     */
+    public boolean offer(T element) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            return false;
+        }
+        buffer[(int) (t & mask)] = element;
+        // A full store, so that the check of waitingConsumer below cannot be ordered before it.
+        tail.set(t + 1);
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * Adds an element, waiting for room if the queue is full. Must only be called from the producer thread.
+     *
+     * @param element the element to add
+     * @throws InterruptedException If the producer is interrupted while waiting
+     */
+    public void put(T element) throws InterruptedException {
+        int attempts = 0;
+        while (!offer(element)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (++attempts < SPINS / 2) {
+                Thread.onSpinWait();
+            } else if (attempts < SPINS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element. Must only be called from the consumer thread.
+     *
+     * @return the element, or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return null;
+        }
+        int index = (int) (h & mask);
+        T element = (T) buffer[index];
+        buffer[index] = null;
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * Removes the oldest element, waiting for one if the queue is empty. Must only be called from the
+     * consumer thread.
+     *
+     * @return the element
+     * @throws InterruptedException If the consumer is interrupted while waiting
+     */
+    public T take() throws InterruptedException {
+        T element = poll();
+        for (int spins = 0; element == null && spins < SPINS; spins++) {
+            if (spins < SPINS / 2) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            element = poll();
+        }
+        while (element == null) {
+            waitingConsumer = Thread.currentThread();
+            // Checked again after announcing the wait, so an element added in between is not missed.
+            element = poll();
+            if (element == null) {
+                LockSupport.park(this);
+                element = poll();
+            }
+            waitingConsumer = null;
+            if (element == null && Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Retrieves the number of elements waiting in the queue.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+}
@@ -0,0 +1,172 @@
+package org.kobe.xbot.Utilities;
+
+import com.google.protobuf.ByteString;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SubscriptionTrie - The set of topic prefixes that subscribers are listening to, stored as a byte trie.
+ * <p>
+ * ZMQ delivers a message to a subscriber when one of its subscriptions is a prefix of the message's
+ * topic. This trie answers the same question for all subscribers at once by walking the topic bytes
+ * and stopping at the first subscribed prefix, so the server can tell whether anyone would receive an
+ * update before it spends time building it.
+ * <p>
+ * Subscriptions change rarely compared to how often they are checked. They are changed by a single
+ * thread, which rebuilds the trie and publishes it through a volatile field, so any number of threads
+ * can check topics without locking and never see a trie that is half updated.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.Utilities
+ * <p>
+ * This is part of the XTABLES project and lets the server skip updates that nobody subscribed to.
+ */
+public class SubscriptionTrie {
+    private static final byte[] NO_LABELS = new byte[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private final Map<ByteString, Integer> prefixes = new HashMap<>();
+    private volatile Node root = new Node();
+
+    /**
+     * Adds a subscription to a topic prefix. Must only be called from the thread that owns the subscriptions.
+     *
+     * @param prefix the subscribed topic prefix
+     */
+    public void add(byte[] prefix) {
+        if (prefixes.merge(ByteString.copyFrom(prefix), 1, Integer::sum) == 1) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Removes a subscription to a topic prefix. Must only be called from the thread that owns the subscriptions.
+     *
+     * @param prefix the unsubscribed topic prefix
+     */
+    public void remove(byte[] prefix) {
+        ByteString key = ByteString.copyFrom(prefix);
+        Integer count = prefixes.get(key);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            prefixes.put(key, count - 1);
+        } else {
+            prefixes.remove(key);
+            rebuild();
+        }
+    }
+
+    /**
+     * Checks whether any subscription is a prefix of the topic. Safe to call from any thread.
+     *
+     * @param topic the topic bytes
+     * @return true if at least one subscriber would receive a message with this topic
+     */
+    public boolean matches(byte[] topic) {
+        Node node = root;
+        if (node.subscribed) {
+            return true;
+        }
+        for (byte b : topic) {
+            node = node.child(b);
+            if (node == null) {
+                return false;
+            }
+            if (node.subscribed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether any subscriber would receive updates for a key, see {@link XTablesTopics#forKey(String)}.
+     * Safe to call from any thread, and does not allocate for ASCII keys.
+     *
+     * @param key the key
+     * @return true if at least one subscriber would receive updates for the key
+     */
+    public boolean matchesKey(String key) {
+        Node node = root;
+        if (node.subscribed) {
+            return true;
+        }
+        int length = key.length();
+        for (int i = 0; i <= length; i++) {
+            byte b;
+            if (i == length) {
+                b = XTablesTopics.KEY_END;
+            } else {
+                char c = key.charAt(i);
+                if (c >= 0x80) {
+                    // Only ASCII maps one char to one byte, anything else is walked in its encoded form.
+                    return matches(XTablesTopics.forKey(key));
+                }
+                b = (byte) c;
+            }
+            node = node.child(b);
+            if (node == null) {
+                return false;
+            }
+            if (node.subscribed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the number of distinct subscribed prefixes. Must only be called from the thread that
+     * owns the subscriptions.
+     *
+     * @return the number of prefixes
+     */
+    public int size() {
+        return prefixes.size();
+    }
+
+    private void rebuild() {
+        Node fresh = new Node();
+        for (ByteString prefix : prefixes.keySet()) {
+            Node node = fresh;
+            for (int i = 0; i < prefix.size(); i++) {
+                node = node.childOrAdd(prefix.byteAt(i));
+            }
+            node.subscribed = true;
+        }
+        // Nodes are never changed once this write makes them visible to other threads.
+        root = fresh;
+    }
+
+    private static final class Node {
+        private boolean subscribed;
+        private byte[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+
+        private Node child(byte label) {
+            byte[] labels = this.labels;
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node childOrAdd(byte label) {
+            Node child = child(label);
+            if (child == null) {
+                child = new Node();
+                labels = Arrays.copyOf(labels, labels.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                labels[labels.length - 1] = label;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
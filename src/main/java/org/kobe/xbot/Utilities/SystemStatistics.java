@@ -37,6 +37,17 @@ public class SystemStatistics {
     private String version;
     private final String type = "JAVA";
     private long nextClientRegistryUpdate;
+    private long totalKeys;
+    private long totalValueBytes;
+    private List<XTablesData.QuotaUsage> quotas;
+    private long publishEnqueued;
+    private long publishOverwritten;
+    private long publishConflated;
+    private long publishDropped;
+    private long publishSendFailures;
+    private long replySendFailures;
+    private long totalLostMessages;
+    private double lostPs;
 
     private static final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
     private static final OperatingSystemMXBean osMXBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
@@ -85,13 +96,70 @@ public class SystemStatistics {
             this.nextClientRegistryUpdate = -1;
         }
         this.maxIterationsPerSecond = instance.getIterationSpeed();
+        this.totalKeys = XTablesServer.table.size();
+        this.totalValueBytes = XTablesServer.table.sizeInBytes();
+        this.quotas = XTablesServer.table.getQuotaUsage();
+        if (instance.publishQueue != null) {
+            this.publishEnqueued = instance.publishQueue.getEnqueued();
+            this.publishOverwritten = instance.publishQueue.getOverwritten();
+            this.publishConflated = instance.publishQueue.getConflated();
+            this.publishDropped = instance.publishQueue.getDropped();
+            this.publishSendFailures = instance.publishQueue.getSendFailures();
+        }
+        this.replySendFailures = instance.getReplySendFailures();
+        this.totalLostMessages = instance.getLostMessages();
         if(instance.getRate() != null) {
             this.publishPs = instance.getRate().getPublishMessagesPerSecond();
             this.pullPs = instance.getRate().getPullMessagesPerSecond();
             this.replyPs = instance.getRate().getReplyMessagesPerSecond();
+            this.lostPs = instance.getRate().getLostMessagesPerSecond();
         }
     }
 
+    public long getTotalKeys() {
+        return totalKeys;
+    }
+
+    public long getTotalValueBytes() {
+        return totalValueBytes;
+    }
+
+    public List<XTablesData.QuotaUsage> getQuotas() {
+        return quotas;
+    }
+
+    public long getPublishEnqueued() {
+        return publishEnqueued;
+    }
+
+    public long getPublishOverwritten() {
+        return publishOverwritten;
+    }
+
+    public long getPublishConflated() {
+        return publishConflated;
+    }
+
+    public long getPublishDropped() {
+        return publishDropped;
+    }
+
+    public long getPublishSendFailures() {
+        return publishSendFailures;
+    }
+
+    public long getReplySendFailures() {
+        return replySendFailures;
+    }
+
+    public long getTotalLostMessages() {
+        return totalLostMessages;
+    }
+
+    public double getLostPs() {
+        return lostPs;
+    }
+
     public int getMaxIterationsPerSecond() {
         return maxIterationsPerSecond;
     }
@@ -1,49 +1,131 @@
 package org.kobe.xbot.Utilities;
 
-import com.google.gson.*;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnknownFieldSet;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.protobuf.WireFormat;
 import org.kobe.xbot.Utilities.Entities.XTableProto;
 import org.kobe.xbot.Utilities.Entities.XTableValues;
 import org.kobe.xbot.Utilities.Logger.XTablesLogger;
-
-import java.lang.reflect.Type;
+import org.kobe.xbot.Utilities.Memory.XTablesArena;
+import org.kobe.xbot.Utilities.Memory.XTablesSlice;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 public class XTablesData {
     private static final XTablesLogger logger = XTablesLogger.getLogger();
-    private static final Gson gson;
-
-    static {
-        // Register custom serializer for XTablesData class
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.registerTypeAdapter(XTablesData.class, new XTablesDataSerializer());
-        gson = gsonBuilder.create();
-    }
 
-    private Map<String, XTablesData> data;
-    private byte[] value;
-    private XTableProto.XTableMessage.Type type;
-    private long timestamp;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<XTablesData, ConcurrentHashMap> DATA_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(XTablesData.class, ConcurrentHashMap.class, "data");
+    private static final AtomicReferenceFieldUpdater<XTablesData, XTableValue> ENTRY_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(XTablesData.class, XTableValue.class, "entry");
+    private static final AtomicLongFieldUpdater<XTablesData> KEYS_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(XTablesData.class, "keyCount");
+    private static final AtomicLongFieldUpdater<XTablesData> BYTES_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(XTablesData.class, "valueBytes");
+    // Written into the counts of a removed subtree root, so that writes racing with the removal stop
+    // counting at it instead of reaching ancestors that have already given up the subtree's counts.
+    private static final long REMOVED = Long.MIN_VALUE;
+    private static final int EVICTION_TARGET_PERCENT = 90;
+    private static final int KEY_LOCK_STRIPES = 64;
+    // The field of a checkpoint node holding the wall-clock time its value expires at.
+    private static final int EXPIRES_AT_FIELD = 5;
+    private static final HistoryRule[] NO_HISTORY_RULES = new HistoryRule[0];
+    private static final DeadbandRule[] NO_DEADBAND_RULES = new DeadbandRule[0];
+    private static final QuotaRule[] NO_QUOTA_RULES = new QuotaRule[0];
+    // Shared by every node below a table root, none of which keeps table-wide state of its own.
+    private static final Table BELOW_ROOT = new Table(false);
+
+    // Children are kept in a ConcurrentHashMap so that readers never need a lock, and the leaf
+    // state is replaced as a single immutable XTableValue so that value, type and timestamp are
+    // always observed together.
+    private volatile ConcurrentHashMap<String, XTablesData> data;
+    private volatile XTableValue entry;
+    // Set once this node has been removed from the tree so that stale index hits can be detected.
+    private volatile boolean detached;
+    // The table-wide state, held by the node the table is used through.
+    private final Table table;
+    // The history ring and deadband this leaf gets from the table's rules, or null if none apply.
+    private volatile LeafRules rules;
+    // Serialized forms of this subtree, reused until something under it changes. A write clears them
+    // on its way up to the root and stops at the first ancestor that is already dirty. A rebuild
+    // clears the flag before reading the node, so a write that lands mid-rebuild leaves it dirty.
+    // JSON text is only kept by the table for itself and its top-level subtrees, the flag is kept by
+    // every node.
+    private volatile transient XTablesData parent;
+    private volatile transient ByteString protoCache;
+    private volatile transient boolean protoDirty;
+    private volatile transient boolean jsonDirty;
+    // Number of values and bytes of value held by this node and everything under it, kept up to date
+    // by every write and removal on its way up to the root.
+    private volatile transient long keyCount;
+    private volatile transient long valueBytes;
 
     public XTablesData() {
         // Initialize the data map lazily
+        this.table = new Table(true);
+    }
+
+    private XTablesData(boolean indexed) {
+        this.table = indexed ? new Table(true) : BELOW_ROOT;
+    }
+
+    private static ReentrantLock[] newKeyLocks() {
+        ReentrantLock[] locks = new ReentrantLock[KEY_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private XTablesData(XTablesData parent) {
+        this(false);
+        this.parent = parent;
     }
 
     public XTableProto.XTableMessage.XTablesData toProto() {
         XTableProto.XTableMessage.XTablesData.Builder builder = XTableProto.XTableMessage.XTablesData.newBuilder();
 
-        if (data != null) {
-            for (Map.Entry<String, XTablesData> entry : data.entrySet()) {
+        Map<String, XTablesData> children = data;
+        if (children != null) {
+            for (Map.Entry<String, XTablesData> entry : children.entrySet()) {
                 builder.putData(entry.getKey(), entry.getValue().toProto());
             }
         }
-        if (value != null) {
-            builder.setValue(ByteString.copyFrom(value));
+        XTableValue current = this.entry;
+        byte[] bytes = current != null ? current.value() : null;
+        if (bytes != null) {
+            builder.setValue(UnsafeByteOperations.unsafeWrap(current.slice() != null ? bytes : bytes.clone()))
+                    .setTimestamp(current.timestamp());
         }
-        if (type != null) {
-            builder.setType(type);
+        if (current != null && current.type() != null) {
+            builder.setType(current.type());
         }
 
         return builder.build();
@@ -53,110 +135,945 @@ public class XTablesData {
         if (proto == null) {
             return;
         }
-        // Clear existing data if necessary
-        if (this.data != null) {
-            this.data.clear();
-        } else {
-            this.data = new HashMap<>();
-        }
-
+        ConcurrentHashMap<String, XTablesData> children = new ConcurrentHashMap<>();
 
         // Populate the data map from the proto
         if (!proto.getDataMap().isEmpty()) {
             for (Map.Entry<String, XTableProto.XTableMessage.XTablesData> entry : proto.getDataMap().entrySet()) {
-                XTablesData childData = new XTablesData();
+                XTablesData childData = new XTablesData(false);
                 childData.fromProto(entry.getValue()); // Recursively populate child data
-                this.data.put(entry.getKey(), childData);
+                children.put(entry.getKey(), childData);
             }
         }
+        replaceChildren(children);
+
+        // Set the value and type from the proto, clearing the value if the proto has an empty value
+        byte[] value = proto.getValue().isEmpty() ? null : proto.getValue().toByteArray();
+        XTableValue previous = this.entry;
+        this.entry = XTableValue.of(value, proto.getTimestamp(), proto.getType());
+        account(this, previous, this.entry);
+        invalidate(this);
+    }
 
-        // Set the value from the proto
-        if (!proto.getValue().isEmpty()) {
-            this.value = proto.getValue().toByteArray();
-        } else {
-            this.value = null; // Clear the value if the proto has an empty value
+    /**
+     * Swaps in a freshly built set of children, detaching the old ones and rebuilding the index.
+     *
+     * @param children The new children, or null to clear this node.
+     */
+    private void replaceChildren(ConcurrentHashMap<String, XTablesData> children) {
+        lockStructure();
+        try {
+            if (children != null) {
+                children.values().forEach(child -> child.parent = this);
+            }
+            Map<String, XTablesData> previous = this.data;
+            this.data = children;
+            if (previous != null) {
+                previous.forEach((name, child) -> {
+                    detachSubtree(name, child);
+                    removeCounts(this, child);
+                });
+            }
+            if (children != null) {
+                for (XTablesData child : children.values()) {
+                    addCounts(this, child.keyCount, child.valueBytes);
+                }
+            }
+            rebuildIndex();
+            invalidate(this);
+        } finally {
+            unlockStructure();
         }
+    }
+
+    private void lockStructure() {
+        if (table.structureLock != null) table.structureLock.readLock().lock();
+    }
+
+    private void unlockStructure() {
+        if (table.structureLock != null) table.structureLock.readLock().unlock();
+    }
 
-        // Set the type from the proto
-        this.type = proto.getType();
+    private ReentrantLock lockKey(String key) {
+        int hash = key.hashCode();
+        ReentrantLock lock = table.keyLocks[(hash ^ (hash >>> 16)) & (table.keyLocks.length - 1)];
+        lock.lock();
+        return lock;
+    }
+
+    private void lockAllKeys() {
+        for (ReentrantLock lock : table.keyLocks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAllKeys() {
+        for (int i = table.keyLocks.length - 1; i >= 0; i--) {
+            table.keyLocks[i].unlock();
+        }
+    }
+
+    /**
+     * Sets the callback told about every write and every key deleted, in the order they were applied.
+     * It is called before the change lets go of its lock, so no other write to the same key, and no
+     * delete anywhere, is applied until it returns. A write-ahead log, publisher or expiry fed from it
+     * therefore sees the changes in the same order as the table does. Writes only take these locks
+     * while a listener is set, so it should be set before writes start.
+     *
+     * @param writeListener The listener, or null for none.
+     */
+    public void setWriteListener(WriteListener writeListener) {
+        requireRoot("Write listeners");
+        table.writeListener = writeListener;
+    }
+
+    private void requireRoot(String what) {
+        if (!table.isRoot()) {
+            throw new IllegalStateException(what + " can only be set on the table root.");
+        }
     }
 
     public boolean putWithTimestamp(String key, byte[] value, XTableProto.XTableMessage.Type type, long timestamp) {
+        return putEntry(key, XTableValue.of(value, timestamp, type), 0);
+    }
+
+    private boolean putEntry(String key, XTableValue entry, long expiresAt) {
+        boolean limited = table.quotaRules.length > 0;
+        WriteListener listener = table.writeListener;
+        ReentrantLock lock = listener != null ? lockKey(key) : null;
+        boolean stored;
+        try {
+            if (limited) {
+                Utilities.validateKey(key, true);
+                if (!admit(key, entry)) {
+                    entry.release();
+                    return false;
+                }
+                stored = store(key, entry);
+            } else {
+                stored = putIndexed(key, entry);
+            }
+            // Nothing else can replace the entry while the key's lock is held.
+            if (listener != null && stored) {
+                listener.stored(key, entry, expiresAt);
+            } else if (listener != null) {
+                listener.refreshed(key, entry.timestamp(), expiresAt);
+            }
+        } finally {
+            if (lock != null) lock.unlock();
+        }
+        // Outside the key's lock, since evicting deletes keys and a delete takes every lock.
+        if (limited && stored) {
+            enforceQuotas(key);
+        }
+        return stored;
+    }
+
+    private boolean putIndexed(String key, XTableValue entry) {
+        // Fast path: a key that has been written before is a single hash probe away.
+        XTablesData current = table.index != null ? table.index.get(key) : null;
+        if (current != null && !current.detached) {
+            if (!setEntry(current, entry)) return false;
+            if (!current.detached) return true;
+            if (!reclaim(current, entry)) return false;
+        }
         Utilities.validateKey(key, true);
-        XTablesData current = this;
-        int start = 0;
-        int length = key.length();
-        for (int i = 0; i < length; i++) {
-            if (key.charAt(i) == '.') {
-                if (i > start) {
-                    String k = key.substring(start, i);
+        return store(key, entry);
+    }
+
+    /**
+     * Stores a value straight from a received message. Values large enough for the off-heap arena
+     * are copied into it directly, so they never get a heap copy of their own.
+     *
+     * @param key       The dotted key.
+     * @param value     The value as received.
+     * @param type      The type of the value.
+     * @param timestamp The server timestamp of the write.
+     * @return true if the value was stored, or false if it was unchanged and only its timestamp was.
+     */
+    public boolean putWithTimestamp(String key, ByteString value, XTableProto.XTableMessage.Type type, long timestamp) {
+        return putWithTimestamp(key, value, type, timestamp, 0);
+    }
+
+    /**
+     * Stores a value straight from a received message, handing the write listener the time the
+     * writer asked the key to expire at. The table does not expire keys itself; the time is passed on
+     * so that the listener can update the key's expiry while no other write to the key can land.
+     *
+     * @param key       The dotted key.
+     * @param value     The value as received.
+     * @param type      The type of the value.
+     * @param timestamp The server timestamp of the write.
+     * @param expiresAt The wall-clock time in milliseconds the key should expire at, or 0 for never.
+     * @return true if the value was stored, or false if it was unchanged and only its timestamp was,
+     * or if a quota rejected it.
+     */
+    public boolean putWithTimestamp(String key, ByteString value, XTableProto.XTableMessage.Type type, long timestamp, long expiresAt) {
+        XTableValue scalar = XTableValue.ofScalar(value, timestamp, type);
+        if (scalar != null) {
+            return putEntry(key, scalar, expiresAt);
+        }
+        XTablesArena allocator = table.arena;
+        if (allocator != null && allocator.accepts(value.size())) {
+            XTablesSlice slice = allocator.allocate(value);
+            if (slice != null) {
+                return putEntry(key, new XTableValue(null, timestamp, type, slice), expiresAt);
+            }
+        }
+        return putEntry(key, XTableValue.of(value.toByteArray(), timestamp, type), expiresAt);
+    }
+
+    public boolean put(String key, byte[] value, XTableProto.XTableMessage.Type type) {
+        Utilities.validateKey(key, true);
+        XTablesData current = lookup(key);
+        XTableValue previous = current != null ? current.entry : null;
+        XTableValue entry = XTableValue.of(value, previous == null ? 0 : previous.timestamp(), type);
+        return putEntry(key, entry, 0);
+    }
+
+    /**
+     * Stores a leaf value by walking the tree, then records the leaf in the flat index.
+     * If a concurrent delete detaches any part of the path while the value is being written,
+     * the write is retried against the live tree.
+     *
+     * @param key   The validated dotted key.
+     * @param entry The new leaf state.
+     * @return true if the value was stored, or false if it was unchanged and only its timestamp was,
+     * or if it was replaced by a later write before it could be moved off a detached node.
+     */
+    private boolean store(String key, XTableValue entry) {
+        while (true) {
+            XTablesData current = getOrCreateLevelxTablesData(key);
+            if (current == null) continue;
+            applyRules(key, current);
+            if (!setEntry(current, entry)) return false;
+            if (current.detached) {
+                if (!reclaim(current, entry)) return false;
+                continue;
+            }
+            if (table.index != null && current != this) {
+                table.index.put(key, current);
+                if (current.detached) table.index.remove(key, current);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Takes an entry back off a node that a concurrent delete detached after the entry was installed,
+     * so that it can be stored on the live tree without two nodes owning it. Both owners would
+     * release an off-heap value when replaced, freeing its memory while the other still uses it.
+     *
+     * @return false if a later write replaced, and so released, the entry on the detached node first.
+     * That write retries against the live tree itself, so this one is lost to it.
+     */
+    private static boolean reclaim(XTablesData node, XTableValue entry) {
+        return ENTRY_UPDATER.compareAndSet(node, entry, null);
+    }
+
+    private void applyRules(String key, XTablesData node) {
+        LeafRules current = node.rules;
+        XTablesHistory history = current != null ? current.history() : null;
+        double deadband = current != null ? current.deadband() : 0;
+        if (history == null && table.historyRules.length > 0) {
+            history = createHistory(key);
+        }
+        if (table.deadbandRules.length > 0) {
+            deadband = deadbandFor(key);
+        }
+        setRules(node, history, deadband);
+    }
+
+    /**
+     * Gives a leaf its history ring and deadband, only allocating rules for leaves that have either.
+     */
+    private static void setRules(XTablesData node, XTablesHistory history, double deadband) {
+        LeafRules current = node.rules;
+        if (current == null ? history == null && deadband == 0
+                : current.history() == history && current.deadband() == deadband) {
+            return;
+        }
+        node.rules = history != null || deadband != 0 ? new LeafRules(history, deadband) : null;
+    }
+
+    private static XTablesHistory historyOf(XTablesData node) {
+        LeafRules current = node != null ? node.rules : null;
+        return current != null ? current.history() : null;
+    }
+
+    /**
+     * Replaces the leaf state of a node, first preserving the state it replaces if a checkpoint
+     * is being written so that the checkpoint keeps seeing the table as it was when it started.
+     * A write that does not change the value, or moves a number by less than the node's deadband,
+     * only moves the stored value's timestamp forward, so that readers can still tell the writer is
+     * alive while the write is neither logged nor published.
+     *
+     * @param node  The node to update.
+     * @param entry The new leaf state.
+     * @return true if the state was replaced, or false if only the timestamp was.
+     */
+    private boolean setEntry(XTablesData node, XTableValue entry) {
+        while (true) {
+            XTableValue previous = node.entry;
+            LeafRules rules = node.rules;
+            boolean redundant = isRedundant(previous, entry, rules != null ? rules.deadband() : 0);
+            // The stored value is kept, so that a deadband keeps comparing against what was last published.
+            XTableValue stored = redundant ? previous.withTimestamp(entry.timestamp()) : entry;
+            if (stored == null) continue; // Replaced and released meanwhile.
+            Snapshot active = table.snapshot;
+            if (active != null) {
+                active.preserve(node);
+            }
+            if (ENTRY_UPDATER.compareAndSet(node, previous, stored)) {
+                replaced(node, previous, stored, !redundant);
+                if (redundant) entry.release();
+                return !redundant;
+            }
+            if (redundant) stored.release();
+        }
+    }
+
+    private void replaced(XTablesData node, XTableValue previous, XTableValue entry) {
+        replaced(node, previous, entry, true);
+    }
+
+    private void replaced(XTablesData node, XTableValue previous, XTableValue entry, boolean changed) {
+        account(node, previous, entry);
+        invalidate(node);
+        XTablesHistory samples = historyOf(node);
+        if (samples != null && changed) {
+            samples.record(entry);
+        }
+        // The table owns one reference to an off-heap value; give it up once the value is replaced.
+        if (previous != null && previous != entry) {
+            previous.release();
+        }
+    }
+
+    /**
+     * Atomically replaces the value of a key with one computed from the value it holds. Without a
+     * write listener, concurrent writers are not blocked; if another write lands while the function
+     * runs, the function is run again against the new value, so it must not have side effects. With
+     * one, the key's lock is held throughout, so the listener sees the stored value in order with every
+     * other write to the key. The result is always stored, regardless of change suppression and deadbands.
+     *
+     * @param key      The dotted key.
+     * @param function Receives the current value, or null if the key has none, and returns the value
+     *                 to store, or null to leave the key as it is. An off-heap value passed to it is
+     *                 only valid until it returns.
+     * @return The value that was stored, or null if the function left the key as it is.
+     */
+    public XTableValue compute(String key, UnaryOperator<XTableValue> function) {
+        return compute(key, function, 0);
+    }
+
+    /**
+     * Atomically replaces the value of a key with one computed from the value it holds, handing the
+     * write listener the time the key should expire at along with the stored value.
+     *
+     * @param key       The dotted key.
+     * @param function  See {@link #compute(String, UnaryOperator)}.
+     * @param expiresAt The wall-clock time in milliseconds the key should expire at if a value is
+     *                  stored, or 0 for never.
+     * @return The value that was stored, or null if the function left the key as it is.
+     */
+    public XTableValue compute(String key, UnaryOperator<XTableValue> function, long expiresAt) {
+        Utilities.validateKey(key, true);
+        WriteListener listener = table.writeListener;
+        ReentrantLock lock = listener != null ? lockKey(key) : null;
+        XTableValue result;
+        try {
+            result = computeEntry(key, function, listener, expiresAt);
+        } finally {
+            if (lock != null) lock.unlock();
+        }
+        // Outside the key's lock, since evicting deletes keys and a delete takes every lock.
+        if (result != null && table.quotaRules.length > 0) {
+            enforceQuotas(key);
+        }
+        return result;
+    }
+
+    private XTableValue computeEntry(String key, UnaryOperator<XTableValue> function, WriteListener listener, long expiresAt) {
+        while (true) {
+            XTablesData current = lookup(key);
+            XTableValue previous = current != null ? current.entry : null;
+            if (previous != null && !previous.retain()) continue; // Replaced and released meanwhile.
+            XTableValue result;
+            try {
+                result = function.apply(previous != null && previous.hasValue() ? previous : null);
+            } finally {
+                if (previous != null) previous.release();
+            }
+            if (result == null) return null;
+            if (table.quotaRules.length > 0 && !admit(key, result)) return null;
+            if (current == null) {
+                current = getOrCreateLevelxTablesData(key);
+                if (current == null || current.entry != null) continue; // Written by someone else meanwhile.
+                applyRules(key, current);
+            }
+            XTableValue entry = compact(result);
+            Snapshot active = table.snapshot;
+            if (active != null) {
+                active.preserve(current);
+            }
+            if (!ENTRY_UPDATER.compareAndSet(current, previous, entry)) {
+                if (entry != result) entry.release();
+                continue;
+            }
+            replaced(current, previous, entry);
+            if (current.detached) continue;
+            if (table.index != null && current != this) {
+                table.index.put(key, current);
+                if (current.detached) table.index.remove(key, current);
+            }
+            if (listener != null) {
+                listener.stored(key, entry, expiresAt);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Moves a computed value into the representation a PUT of it would have used.
+     */
+    private XTableValue compact(XTableValue entry) {
+        if (entry.isScalar() || entry.slice() != null) return entry;
+        byte[] value = entry.value();
+        XTableValue scalar = XTableValue.of(value, entry.timestamp(), entry.type());
+        if (scalar.isScalar()) return scalar;
+        XTablesArena allocator = table.arena;
+        if (allocator != null && value != null && allocator.accepts(value.length)) {
+            XTablesSlice slice = allocator.allocate(UnsafeByteOperations.unsafeWrap(value));
+            if (slice != null) {
+                return new XTableValue(null, entry.timestamp(), entry.type(), slice);
+            }
+        }
+        return entry;
+    }
+
+    private boolean isRedundant(XTableValue previous, XTableValue entry, double band) {
+        if (!table.suppressUnchanged || previous == null || previous == entry || previous.type() != entry.type()
+                || !previous.hasValue() || !entry.hasValue()) {
+            return false;
+        }
+        if (previous.isScalar() && entry.isScalar()) {
+            return previous.bits() == entry.bits()
+                    || (band > 0 && scalarWithinDeadband(entry.type(), previous.bits(), entry.bits(), band));
+        }
+        if (!previous.retain()) {
+            return false;
+        }
+        try {
+            ByteString before = previous.toByteString();
+            ByteString after = entry.toByteString();
+            if (before.equals(after)) return true;
+            return band > 0 && withinDeadband(entry.type(), before, after, band);
+        } finally {
+            previous.release();
+        }
+    }
+
+    private static boolean scalarWithinDeadband(XTableProto.XTableMessage.Type type, long before, long after, double band) {
+        return switch (type) {
+            case DOUBLE -> Math.abs(Double.longBitsToDouble(after) - Double.longBitsToDouble(before)) < band;
+            case INT32 -> Math.abs((long) (int) after - (int) before) < band;
+            default -> false;
+        };
+    }
 
-                    if (current.data == null) {
-                        current.data = new HashMap<>();
+    private static boolean withinDeadband(XTableProto.XTableMessage.Type type, ByteString before, ByteString after, double band) {
+        try {
+            switch (type) {
+                case DOUBLE -> {
+                    if (before.size() != Double.BYTES || after.size() != Double.BYTES) return false;
+                    return Math.abs(after.asReadOnlyByteBuffer().getDouble() - before.asReadOnlyByteBuffer().getDouble()) < band;
+                }
+                case INT32 -> {
+                    if (before.size() != Integer.BYTES || after.size() != Integer.BYTES) return false;
+                    return Math.abs((long) after.asReadOnlyByteBuffer().getInt() - before.asReadOnlyByteBuffer().getInt()) < band;
+                }
+                case DOUBLE_LIST -> {
+                    XTableValues.DoubleList first = XTableValues.DoubleList.parseFrom(before);
+                    XTableValues.DoubleList second = XTableValues.DoubleList.parseFrom(after);
+                    if (first.getVCount() != second.getVCount()) return false;
+                    for (int i = 0; i < first.getVCount(); i++) {
+                        if (!(Math.abs(second.getV(i) - first.getV(i)) < band)) return false;
                     }
-                    current.data.putIfAbsent(k, new XTablesData());
-                    current = current.data.get(k);
+                    return true;
+                }
+                default -> {
+                    return false;
                 }
-                start = i + 1;
             }
+        } catch (InvalidProtocolBufferException e) {
+            return false;
         }
-        if (start < length) {
-            String k = key.substring(start);
+    }
 
-            if (current.data == null) {
-                current.data = new HashMap<>();
+    /**
+     * Keeps writes whose value is byte-for-byte the same as the stored one from being logged or
+     * published, which is the default. They still update the stored timestamp. Turning this off also
+     * turns off the numeric deadbands.
+     *
+     * @param suppressUnchanged false to store and publish every write.
+     */
+    public void setSuppressUnchanged(boolean suppressUnchanged) {
+        requireRoot("Change suppression");
+        table.suppressUnchanged = suppressUnchanged;
+    }
+
+    /**
+     * Keeps writes of DOUBLE, INT32 and DOUBLE_LIST values under a prefix from changing the stored
+     * value when every number moves by less than the given amount from it; only the timestamp is
+     * updated. Since the stored value is what such a write is compared against, slow drift is still
+     * published once it adds up to the deadband.
+     * When several prefixes match a key, the longest one wins.
+     *
+     * @param prefix   The key prefix, or an empty string for every key.
+     * @param deadband The smallest change that is stored, or 0 to remove the deadband.
+     */
+    public synchronized void setDeadband(String prefix, double deadband) {
+        requireRoot("Deadbands");
+        Utilities.validateKey(prefix, true);
+        if (!(deadband >= 0)) {
+            throw new IllegalArgumentException("Deadband cannot be negative");
+        }
+        List<DeadbandRule> rules = new ArrayList<>(Arrays.asList(table.deadbandRules));
+        rules.removeIf(rule -> rule.prefix().equals(prefix));
+        if (deadband > 0) {
+            rules.add(new DeadbandRule(prefix, deadband));
+        }
+        table.deadbandRules = rules.toArray(NO_DEADBAND_RULES);
+        if (table.index != null) {
+            table.index.forEach((key, node) -> setRules(node, historyOf(node), deadbandFor(key)));
+        }
+    }
+
+    private double deadbandFor(String key) {
+        DeadbandRule match = null;
+        for (DeadbandRule rule : table.deadbandRules) {
+            if (covers(rule.prefix(), key) && (match == null || rule.prefix().length() > match.prefix().length())) {
+                match = rule;
+            }
+        }
+        return match != null ? match.deadband() : 0;
+    }
+
+    /**
+     * Limits how many values, and how many bytes of value, may be stored under a prefix. Once a limit
+     * is reached, a write that would add a key or grow the stored bytes is either rejected, or stored
+     * after the least recently written keys under the prefix are evicted down to
+     * {@value #EVICTION_TARGET_PERCENT}% of the limits, so that eviction runs once per batch of new
+     * keys rather than on every write. Only keys without children are evicted.
+     *
+     * @param prefix   The key prefix, or an empty string for the whole table.
+     * @param maxKeys  The maximum number of values, or 0 for no limit on them.
+     * @param maxBytes The maximum total size of the values in bytes, or 0 for no limit on them.
+     * @param evict    true to evict the oldest keys, or false to reject the write.
+     */
+    public synchronized void setQuota(String prefix, long maxKeys, long maxBytes, boolean evict) {
+        requireRoot("Quotas");
+        Utilities.validateKey(prefix, true);
+        if (maxKeys < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("Quota limits cannot be negative");
+        }
+        List<QuotaRule> rules = new ArrayList<>(Arrays.asList(table.quotaRules));
+        rules.removeIf(rule -> rule.prefix().equals(prefix));
+        if (maxKeys > 0 || maxBytes > 0) {
+            rules.add(new QuotaRule(prefix, maxKeys, maxBytes, evict, new AtomicLong(), new AtomicLong(), new AtomicBoolean()));
+        }
+        table.quotaRules = rules.toArray(NO_QUOTA_RULES);
+    }
+
+    /**
+     * Sets the callback told about every key a quota evicts, after it has been deleted.
+     *
+     * @param evictionListener The callback, or null for none.
+     */
+    public void setEvictionListener(Consumer<String> evictionListener) {
+        requireRoot("Eviction listeners");
+        table.evictionListener = evictionListener;
+    }
+
+    /**
+     * Retrieves the configured quotas with the current usage of their prefixes.
+     *
+     * @return one entry per quota
+     */
+    public List<QuotaUsage> getQuotaUsage() {
+        List<QuotaUsage> usage = new ArrayList<>();
+        for (QuotaRule rule : table.quotaRules) {
+            usage.add(new QuotaUsage(rule.prefix(), size(rule.prefix()), sizeInBytes(rule.prefix()),
+                    rule.maxKeys(), rule.maxBytes(), rule.evict(), rule.rejected().get(), rule.evicted().get()));
+        }
+        return usage;
+    }
+
+    /**
+     * Checks a write against the rejecting quotas that cover its key.
+     *
+     * @return false if the write would take a prefix past its limits.
+     */
+    private boolean admit(String key, XTableValue entry) {
+        XTablesData existing = null;
+        boolean looked = false;
+        for (QuotaRule rule : table.quotaRules) {
+            if (rule.evict() || !covers(rule.prefix(), key)) continue;
+            if (!looked) {
+                existing = lookup(key);
+                looked = true;
+            }
+            XTableValue previous = existing != null ? existing.entry : null;
+            long addedKeys = previous != null && previous.hasValue() ? 0 : 1;
+            long addedBytes = entry.length() - (previous != null ? previous.length() : 0);
+            if ((rule.maxKeys() > 0 && addedKeys > 0 && size(rule.prefix()) + addedKeys > rule.maxKeys())
+                    || (rule.maxBytes() > 0 && addedBytes > 0 && sizeInBytes(rule.prefix()) + addedBytes > rule.maxBytes())) {
+                rule.rejected().incrementAndGet();
+                return false;
             }
-            current.data.putIfAbsent(k, new XTablesData());
-            current = current.data.get(k);
         }
-        current.type = type;
-        current.value = value;
-        current.timestamp = timestamp;
         return true;
     }
 
-    public boolean put(String key, byte[] value, XTableProto.XTableMessage.Type type) {
-        Utilities.validateKey(key, true);
+    /**
+     * Evicts keys under every evicting quota that a write to the given key has taken past its limits.
+     * The key that was just written is never evicted for it.
+     */
+    private void enforceQuotas(String key) {
+        for (QuotaRule rule : table.quotaRules) {
+            if (!rule.evict() || !covers(rule.prefix(), key) || !rule.exceeded(this)) continue;
+            // One thread evicts at a time; writes arriving meanwhile are covered by its pass.
+            if (!rule.evicting().compareAndSet(false, true)) continue;
+            try {
+                evict(rule, key);
+            } finally {
+                rule.evicting().set(false);
+            }
+        }
+    }
+
+    private void evict(QuotaRule rule, String keep) {
+        XTablesData scope = rule.prefix().isEmpty() ? this : getLevelxTablesData(rule.prefix());
+        if (scope == null) return;
+        List<Map.Entry<String, Long>> candidates = new ArrayList<>();
+        collectEvictable(rule.prefix(), scope, candidates);
+        candidates.sort(Map.Entry.comparingByValue());
+        long targetKeys = rule.maxKeys() * EVICTION_TARGET_PERCENT / 100;
+        long targetBytes = rule.maxBytes() * EVICTION_TARGET_PERCENT / 100;
+        Consumer<String> listener = table.evictionListener;
+        for (Map.Entry<String, Long> candidate : candidates) {
+            boolean overKeys = rule.maxKeys() > 0 && size(rule.prefix()) > targetKeys;
+            boolean overBytes = rule.maxBytes() > 0 && sizeInBytes(rule.prefix()) > targetBytes;
+            if (!overKeys && !overBytes) break;
+            if (candidate.getKey().equals(keep) || !delete(candidate.getKey())) continue;
+            rule.evicted().incrementAndGet();
+            if (listener != null) {
+                listener.accept(candidate.getKey());
+            }
+        }
+    }
+
+    private static void collectEvictable(String path, XTablesData node, List<Map.Entry<String, Long>> candidates) {
+        Map<String, XTablesData> children = node.data;
+        if (children == null || children.isEmpty()) {
+            XTableValue value = node.entry;
+            if (value != null && value.hasValue() && !path.isEmpty()) {
+                candidates.add(Map.entry(path, value.timestamp()));
+            }
+            return;
+        }
+        for (Map.Entry<String, XTablesData> child : children.entrySet()) {
+            collectEvictable(path.isEmpty() ? child.getKey() : path + "." + child.getKey(), child.getValue(), candidates);
+        }
+    }
+
+    private static boolean covers(String prefix, String key) {
+        return prefix.isEmpty() || key.equals(prefix)
+                || (key.startsWith(prefix) && key.charAt(prefix.length()) == '.');
+    }
+
+    /**
+     * Uses an arena for values at or above its size threshold from now on. Values already stored
+     * stay where they are.
+     *
+     * @param arena The arena, or null to keep every new value on the heap.
+     */
+    public void setArena(XTablesArena arena) {
+        requireRoot("Arenas");
+        table.arena = arena;
+    }
+
+    public XTablesArena getArena() {
+        return table.arena;
+    }
+
+    /**
+     * Walks the dotted key from this node, creating any missing levels along the way.
+     * Missing levels are inserted atomically so that concurrent writers creating the same
+     * path always end up on the same node.
+     *
+     * @param key The validated dotted key.
+     * @return The node at the end of the key, or null if the path was detached by a concurrent delete.
+     */
+    private XTablesData getOrCreateLevelxTablesData(String key) {
         XTablesData current = this;
         int start = 0;
         int length = key.length();
-        for (int i = 0; i < length; i++) {
-            if (key.charAt(i) == '.') {
-                if (i > start) {
-                    String k = key.substring(start, i);
+        while (current != null && start < length) {
+            int end = key.indexOf('.', start);
+            if (end < 0) end = length;
+            current = current.getOrCreateChild(key.substring(start, end));
+            start = end + 1;
+        }
+        return current;
+    }
 
-                    if (current.data == null) {
-                        current.data = new HashMap<>();
-                    }
-                    current.data.putIfAbsent(k, new XTablesData());
-                    current = current.data.get(k);
+    private XTablesData getOrCreateChild(String name) {
+        ConcurrentHashMap<String, XTablesData> children;
+        while ((children = data) == null) {
+            DATA_UPDATER.compareAndSet(this, null, new ConcurrentHashMap<String, XTablesData>());
+        }
+        XTablesData child = children.get(name);
+        if (child == null) {
+            child = children.computeIfAbsent(name, ignored -> new XTablesData(this));
+        }
+        // A delete marks a node before visiting its children, so if this level was detached (or the
+        // whole map was dropped) after the insert, the child may have been missed and is marked here.
+        if (detached || data != children) {
+            child.detached = true;
+            return null;
+        }
+        return child;
+    }
+
+    /**
+     * Marks a removed subtree as detached and drops its leaves from the flat index.
+     *
+     * @param key  The full dotted key of the removed node.
+     * @param node The removed node.
+     */
+    private void detachSubtree(String key, XTablesData node) {
+        node.detached = true;
+        if (table.index != null) {
+            table.index.remove(key, node);
+        }
+        Map<String, XTablesData> children = node.data;
+        if (children != null) {
+            children.forEach((name, child) -> detachSubtree(key + "." + name, child));
+        }
+    }
+
+    /**
+     * Rebuilds the flat index from the tree after the tree has been replaced wholesale.
+     */
+    private void rebuildIndex() {
+        if (table.index == null) return;
+        table.index.clear();
+        Map<String, XTablesData> children = data;
+        if (children != null) {
+            children.forEach((name, child) -> indexSubtree(name, child));
+        }
+    }
+
+    private void indexSubtree(String key, XTablesData node) {
+        if (node.entry != null) {
+            table.index.put(key, node);
+            applyRules(key, node);
+        }
+        Map<String, XTablesData> children = node.data;
+        if (children != null) {
+            children.forEach((name, child) -> indexSubtree(key + "." + name, child));
+        }
+    }
+
+    /**
+     * Finds the node for a key, answering from the flat index when possible and
+     * falling back to a tree walk for keys that are not indexed.
+     *
+     * @param key The dotted key.
+     * @return The node, or null if the key does not exist.
+     */
+    private XTablesData lookup(String key) {
+        XTablesData current = table.index != null ? table.index.get(key) : null;
+        if (current != null && !current.detached) {
+            return current;
+        }
+        return getLevelxTablesData(key);
+    }
+
+    /**
+     * Keeps a ring of the most recent values for every key under a prefix. Keys that already exist
+     * start recording from their next write. When several prefixes match a key, the longest one wins.
+     *
+     * @param prefix   The key prefix, or an empty string for every key.
+     * @param capacity The number of samples kept per key.
+     */
+    public synchronized void enableHistory(String prefix, int capacity) {
+        requireRoot("History");
+        Utilities.validateKey(prefix, true);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be greater than 0");
+        }
+        List<HistoryRule> rules = new ArrayList<>(Arrays.asList(table.historyRules));
+        rules.removeIf(rule -> rule.prefix().equals(prefix));
+        rules.add(new HistoryRule(prefix, capacity));
+        table.historyRules = rules.toArray(NO_HISTORY_RULES);
+        if (table.index != null) {
+            table.index.forEach((key, node) -> {
+                XTablesHistory current = historyOf(node);
+                int wanted = historyCapacity(key);
+                if (current == null || current.capacity() != wanted) {
+                    LeafRules leaf = node.rules;
+                    setRules(node, wanted > 0 ? new XTablesHistory(wanted) : null, leaf != null ? leaf.deadband() : 0);
                 }
-                start = i + 1;
+            });
+        }
+    }
+
+    private XTablesHistory createHistory(String key) {
+        int capacity = historyCapacity(key);
+        return capacity > 0 ? new XTablesHistory(capacity) : null;
+    }
+
+    private int historyCapacity(String key) {
+        HistoryRule match = null;
+        for (HistoryRule rule : table.historyRules) {
+            if (covers(rule.prefix(), key) && (match == null || rule.prefix().length() > match.prefix().length())) {
+                match = rule;
             }
         }
-        if (start < length) {
-            String k = key.substring(start);
+        return match != null ? match.capacity() : 0;
+    }
+
+    /**
+     * Retrieves the most recent values written to a key.
+     *
+     * @param key   The key to read.
+     * @param limit The maximum number of samples, or 0 for every sample kept.
+     * @return The samples oldest first, or null if the key does not keep history.
+     */
+    public List<XTableValue> getHistory(String key, int limit) {
+        XTablesData current = lookup(key);
+        XTablesHistory samples = historyOf(current);
+        return samples != null ? samples.latest(limit) : null;
+    }
+
+    /**
+     * Retrieves the values written to a key within a time range.
+     *
+     * @param key   The key to read.
+     * @param start The earliest timestamp, inclusive.
+     * @param end   The latest timestamp, inclusive.
+     * @param limit The maximum number of samples, or 0 for every matching sample.
+     * @return The samples oldest first, or null if the key does not keep history.
+     */
+    public List<XTableValue> getHistoryRange(String key, long start, long end, int limit) {
+        XTablesData current = lookup(key);
+        XTablesHistory samples = historyOf(current);
+        return samples != null ? samples.range(start, end, limit) : null;
+    }
 
-            if (current.data == null) {
-                current.data = new HashMap<>();
+    /**
+     * Retrieves the number of values in this node and everything under it. The count is kept up
+     * to date by every write, so this does not walk the tree.
+     *
+     * @return the value count
+     */
+    public int size() {
+        return (int) Math.max(0, keyCount);
+    }
+
+    /**
+     * Retrieves the total size of the values in this node and everything under it.
+     *
+     * @return the value size in bytes
+     */
+    public long sizeInBytes() {
+        return Math.max(0, valueBytes);
+    }
+
+    /**
+     * Retrieves the number of values under a key without walking the tree.
+     *
+     * @param key The key, or an empty string for the whole table
+     * @return the value count, or 0 if the key does not exist
+     */
+    public int size(String key) {
+        XTablesData node = key.isEmpty() ? this : getLevelxTablesData(key);
+        return node != null ? node.size() : 0;
+    }
+
+    /**
+     * Retrieves the total size of the values under a key without walking the tree.
+     *
+     * @param key The key, or an empty string for the whole table
+     * @return the value size in bytes, or 0 if the key does not exist
+     */
+    public long sizeInBytes(String key) {
+        XTablesData node = key.isEmpty() ? this : getLevelxTablesData(key);
+        return node != null ? node.sizeInBytes() : 0;
+    }
+
+    private static void account(XTablesData node, XTableValue previous, XTableValue entry) {
+        long keys = (entry != null && entry.hasValue() ? 1 : 0) - (previous != null && previous.hasValue() ? 1 : 0);
+        long bytes = (entry != null ? entry.length() : 0) - (previous != null ? previous.length() : 0);
+        addCounts(node, keys, bytes);
+    }
+
+    /**
+     * Adds to the counts of a node and each of its ancestors. Each count is walked on its own, and
+     * the walk stops at the root of a removed subtree, whose counts its ancestors have already given up.
+     */
+    private static void addCounts(XTablesData node, long keys, long bytes) {
+        if (keys != 0) {
+            for (XTablesData current = node; current != null && addCount(KEYS_UPDATER, current, keys); current = current.parent) {
+            }
+        }
+        if (bytes != 0) {
+            for (XTablesData current = node; current != null && addCount(BYTES_UPDATER, current, bytes); current = current.parent) {
             }
-            current.data.putIfAbsent(k, new XTablesData());
-            current = current.data.get(k);
         }
-        current.type = type;
-        current.value = value;
+    }
+
+    private static boolean addCount(AtomicLongFieldUpdater<XTablesData> counter, XTablesData node, long delta) {
+        long value;
+        do {
+            value = counter.get(node);
+            if (value == REMOVED) return false;
+        } while (!counter.compareAndSet(node, value, value + delta));
         return true;
+    }
 
+    /**
+     * Takes the counts of a subtree that was just removed away from the node it was removed from.
+     * The subtree's counts are swapped for {@link #REMOVED} in the same step they are read, so a
+     * write that lands in the subtree is either included in what is taken away or never reaches
+     * the ancestors at all.
+     */
+    private static void removeCounts(XTablesData from, XTablesData removed) {
+        long keys = KEYS_UPDATER.getAndSet(removed, REMOVED);
+        long bytes = BYTES_UPDATER.getAndSet(removed, REMOVED);
+        addCounts(from, keys == REMOVED ? 0 : -keys, bytes == REMOVED ? 0 : -bytes);
     }
 
-    public int size() {
-        int count = (value != null) ? 1 : 0;
-        if (data != null) {
-            for (XTablesData child : data.values()) {
-                count += child.size();
+    /**
+     * Sets the counts of a node that is not yet part of the table from its own value and the
+     * counts of its children.
+     */
+    private static void recount(XTablesData node) {
+        XTableValue current = node.entry;
+        long keys = current != null && current.hasValue() ? 1 : 0;
+        long bytes = current != null ? current.length() : 0;
+        Map<String, XTablesData> children = node.data;
+        if (children != null) {
+            for (XTablesData child : children.values()) {
+                keys += child.keyCount;
+                bytes += child.valueBytes;
             }
         }
-        return count;
+        node.keyCount = keys;
+        node.valueBytes = bytes;
     }
 
     /**
@@ -166,30 +1083,90 @@ public class XTablesData {
      * @return A Map.Entry containing the value as a byte array and its type as XTableProto.XTableMessage.Type, or null if the key doesn't exist.
      */
     public Map.Entry<byte[], XTableProto.XTableMessage.Type> getWithType(String key) {
-        XTablesData current = getLevelxTablesData(key);
-        if (current != null && current.value != null && current.type != null) {
-            return new AbstractMap.SimpleEntry<>(current.value, current.type);
+        XTablesData current = lookup(key);
+        XTableValue value = current != null ? current.entry : null;
+        byte[] bytes = value != null && value.type() != null ? value.value() : null;
+        if (bytes != null) {
+            return new AbstractMap.SimpleEntry<>(bytes, value.type());
         }
         return null;
     }
 
     public XTableValue getWithTypeAndTimestamp(String key) {
-        XTablesData current = getLevelxTablesData(key);
-        if (current != null && current.value != null && current.type != null) {
-            return new XTableValue(current.value, current.timestamp, current.type);
+        XTablesData current = lookup(key);
+        XTableValue value = current != null ? current.entry : null;
+        if (value != null && value.hasValue() && value.type() != null) {
+            return value;
         }
         return null;
     }
 
+    /**
+     * Retrieves the stored record for a key and takes a reference to it, so that an off-heap value
+     * can be read without copying until {@link XTableValue#release()} is called.
+     *
+     * @param key The key to read.
+     * @return The retained record, or null if the key has no value.
+     */
+    public XTableValue acquire(String key) {
+        XTablesData current = lookup(key);
+        if (current == null) return null;
+        while (true) {
+            XTableValue value = current.entry;
+            if (value == null || !value.hasValue() || value.type() == null) {
+                return null;
+            }
+            // A failed retain means the value was replaced and released in between, so read again.
+            if (value.retain()) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Visits every value stored under a key, including the key's own value, with its full dotted key.
+     * The subtree is walked without locking, so values written during the walk may or may not be seen.
+     * Each value is retained before it is passed on and the visitor must release it once done with it.
+     *
+     * @param key     The key to start from, or an empty string for the whole table.
+     * @param visitor Receives the full key and the retained record of every value.
+     * @return false if the key does not exist.
+     */
+    public boolean forEachLeaf(String key, BiConsumer<String, XTableValue> visitor) {
+        XTablesData start = key.isEmpty() ? this : lookup(key);
+        if (start == null) return false;
+        visitLeaves(key, start, visitor);
+        return true;
+    }
+
+    private static void visitLeaves(String path, XTablesData node, BiConsumer<String, XTableValue> visitor) {
+        while (true) {
+            XTableValue value = node.entry;
+            if (value == null || !value.hasValue() || value.type() == null) break;
+            if (value.retain()) {
+                visitor.accept(path, value);
+                break;
+            }
+        }
+        Map<String, XTablesData> children = node.data;
+        if (children != null) {
+            for (Map.Entry<String, XTablesData> child : children.entrySet()) {
+                visitLeaves(path.isEmpty() ? child.getKey() : path + "." + child.getKey(), child.getValue(), visitor);
+            }
+        }
+    }
 
     public Map.Entry<byte[], Long> getWithTimestamp(String key) {
         XTablesData current = getLevelxTablesData(key);
-        return (current != null) ? new AbstractMap.SimpleEntry<>(current.value, current.timestamp) : null;
+        if (current == null) return null;
+        XTableValue value = current.entry;
+        return value != null ? new AbstractMap.SimpleEntry<>(value.value(), value.timestamp()) : new AbstractMap.SimpleEntry<>(null, 0L);
     }
 
     public byte[] get(String key) {
-        XTablesData current = getLevelxTablesData(key);
-        return (current != null) ? current.value : null;
+        XTablesData current = lookup(key);
+        XTableValue value = current != null ? current.entry : null;
+        return (value != null) ? value.value() : null;
     }
 
     public byte[] get(String key, byte[] defaultValue) {
@@ -200,15 +1177,21 @@ public class XTablesData {
 
     private XTablesData getLevelxTablesData(String key) {
         Utilities.validateKey(key, true);
-        String[] keys = key.split("\\."); // Split the key by '.'
         XTablesData current = this;
+        int start = 0;
+        int length = key.length();
 
-        // Traverse through the nested structure
-        for (String k : keys) {
-            if (current.data == null || !current.data.containsKey(k)) {
+        // Traverse through the nested structure one '.' separated part at a time
+        while (start < length) {
+            int end = key.indexOf('.', start);
+            if (end < 0) end = length;
+            Map<String, XTablesData> children = current.data;
+            XTablesData next = children != null ? children.get(key.substring(start, end)) : null;
+            if (next == null) {
                 return null; // Key not found
             }
-            current = current.data.get(k);
+            current = next;
+            start = end + 1;
         }
         return current;
     }
@@ -228,60 +1211,132 @@ public class XTablesData {
 
         String parentKey = oldKeys.length > 1 ? String.join(".", Arrays.copyOf(oldKeys, oldKeys.length - 1)) : "";
         XTablesData parentNode = parentKey.isEmpty() ? this : getLevelxTablesData(parentKey);
+        Map<String, XTablesData> siblings = parentNode != null ? parentNode.data : null;
 
-        if (parentNode == null || !parentNode.data.containsKey(oldKeys[oldKeys.length - 1])) {
+        if (siblings == null) {
             return false; // Old key does not exist
         }
 
-        XTablesData oldNode = parentNode.data.get(oldKeys[oldKeys.length - 1]);
+        XTablesData oldNode = siblings.get(oldKeys[oldKeys.length - 1]);
         if (oldNode == null) {
             return false;
         }
 
-        // Check if new key already exists in the same parent node
-        if (parentNode.data.containsKey(newKeyName)) {
+        // Rename by moving the node, failing if the new key already exists in the same parent node
+        if (siblings.putIfAbsent(newKeyName, oldNode) != null) {
             return false; // New key already exists
         }
-
-        // Rename by moving the node
-        parentNode.data.put(newKeyName, oldNode);
-        parentNode.data.remove(oldKeys[oldKeys.length - 1]);
+        siblings.remove(oldKeys[oldKeys.length - 1], oldNode);
+        invalidate(parentNode);
+        if (table.index != null) {
+            String newKey = parentKey.isEmpty() ? newKeyName : parentKey + "." + newKeyName;
+            reindexSubtree(oldKey, newKey, oldNode);
+        }
 
         return true; // Successfully renamed
     }
 
 
+    private void reindexSubtree(String oldKey, String newKey, XTablesData node) {
+        if (table.index.remove(oldKey, node) || node.entry != null) {
+            table.index.put(newKey, node);
+        }
+        Map<String, XTablesData> children = node.data;
+        if (children != null) {
+            children.forEach((name, child) -> reindexSubtree(oldKey + "." + name, newKey + "." + name, child));
+        }
+    }
+
     // Method to get all tables at a given level
     public Set<String> getTables(String key) {
         Utilities.validateKey(key, true);
         if (key.isEmpty()) {
-            return (data != null) ? data.keySet() : null;
+            Map<String, XTablesData> children = data;
+            return (children != null) ? children.keySet() : null;
         }
         XTablesData current = getLevelxTablesData(key);
-        return (current != null && current.data != null) ? current.data.keySet() : null;
+        Map<String, XTablesData> children = current != null ? current.data : null;
+        return (children != null) ? children.keySet() : null;
     }
 
     // Method to delete a value at a given level
     public boolean delete(String key) {
         Utilities.validateKey(key, true);
-        if (key.isEmpty()) {
-            this.data = null;
-            return true;
+        lockStructure();
+        // A delete can remove any key below it, so it waits for every write in progress.
+        WriteListener listener = table.writeListener;
+        if (listener != null) lockAllKeys();
+        try {
+            boolean removed = deleteLocked(key);
+            if (removed && listener != null) {
+                listener.deleted(key);
+            }
+            return removed;
+        } finally {
+            if (listener != null) unlockAllKeys();
+            unlockStructure();
         }
-        String[] keys = key.split("\\."); // Split the key by '.'
-        XTablesData current = this;
+    }
 
-        // Traverse through the nested structure until reaching the level to delete
-        for (int i = 0; i < keys.length - 1; i++) {
-            String k = keys[i];
-            if (current.data == null || !current.data.containsKey(k)) {
-                return false; // Key not found
+    /**
+     * Deletes a key whose time to live has run out, unless it has been rewritten since. A key with
+     * children keeps its value, since a delete would take the children with it.
+     *
+     * @param key       The dotted key.
+     * @param timestamp The timestamp of the write that set the time to live.
+     * @return true if the key was deleted.
+     */
+    public boolean expire(String key, long timestamp) {
+        Utilities.validateKey(key, true);
+        lockStructure();
+        WriteListener listener = table.writeListener;
+        if (listener != null) lockAllKeys();
+        try {
+            XTablesData current = key.isEmpty() ? null : getLevelxTablesData(key);
+            XTableValue entry = current != null ? current.entry : null;
+            Map<String, XTablesData> children = current != null ? current.data : null;
+            if (entry == null || entry.timestamp() != timestamp || (children != null && !children.isEmpty())
+                    || !deleteLocked(key)) {
+                return false;
             }
-            current = current.data.get(k);
+            if (listener != null) {
+                listener.deleted(key);
+            }
+            return true;
+        } finally {
+            if (listener != null) unlockAllKeys();
+            unlockStructure();
         }
+    }
 
+    private boolean deleteLocked(String key) {
+        if (key.isEmpty()) {
+            Map<String, XTablesData> previous = this.data;
+            this.data = null;
+            if (previous != null) {
+                previous.forEach((name, child) -> {
+                    detachSubtree(name, child);
+                    removeCounts(this, child);
+                });
+            }
+            invalidate(this);
+            return true;
+        }
+        int split = key.lastIndexOf('.');
+        XTablesData current = split < 0 ? this : getLevelxTablesData(key.substring(0, split));
+        if (current == null) {
+            return false; // Key not found
+        }
 
-        return current.data != null && current.data.remove(keys[keys.length - 1]) != null;
+        Map<String, XTablesData> children = current.data;
+        XTablesData removed = children != null ? children.remove(key.substring(split + 1)) : null;
+        if (removed == null) {
+            return false;
+        }
+        detachSubtree(key, removed);
+        removeCounts(current, removed);
+        invalidate(current);
+        return true;
     }
 
     /**
@@ -303,11 +1358,14 @@ public class XTablesData {
      * @param result The map to store key-value pairs.
      */
     private void collectKeyValuePairs(String prefix, XTablesData node, Map<String, byte[]> result) {
-        if (node.value != null) {
-            result.put(prefix, node.value);
+        XTableValue value = node.entry;
+        byte[] bytes = value != null ? value.value() : null;
+        if (bytes != null) {
+            result.put(prefix, bytes);
         }
-        if (node.data != null) {
-            for (Map.Entry<String, XTablesData> entry : node.data.entrySet()) {
+        Map<String, XTablesData> children = node.data;
+        if (children != null) {
+            for (Map.Entry<String, XTablesData> entry : children.entrySet()) {
                 String key = entry.getKey();
                 XTablesData childNode = entry.getValue();
                 String newPrefix = prefix.isEmpty() ? key : prefix + "." + key;
@@ -316,13 +1374,252 @@ public class XTablesData {
         }
     }
 
-    public String toJSON() {
-        if (this.data == null) return null;
-        return gson.toJson(new HashMap<>(this.data));
+    /**
+     * Serializes the table's children as a JSON object. The text of the whole table and of each of its
+     * top-level subtrees is kept until something under it changes, so an unchanged table returns the
+     * very same string and a change only re-serializes the top-level subtree it is in. Deeper subtrees
+     * are written straight into their top-level subtree's text and never kept on their own.
+     *
+     * @return The JSON text, or null if the table has no children.
+     */
+    public synchronized String toJSON() {
+        if (data == null) return null;
+        StringWriter json = new StringWriter();
+        if (!table.isRoot()) {
+            // A node below the root keeps no text, and leaves the flags its table's text relies on alone.
+            try {
+                writeJSON(json);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return json.toString();
+        }
+        String cached = table.json;
+        if (cached != null && !jsonDirty) return cached;
+        jsonDirty = false;
+        Map<String, XTablesData> children = data;
+        if (children == null) return null;
+        Map<XTablesData, String> kept = table.subtreeJson;
+        Map<XTablesData, String> texts = new IdentityHashMap<>(children.size());
+        try {
+            JsonWriter out = newJsonWriter(json);
+            out.beginObject();
+            for (Map.Entry<String, XTablesData> child : children.entrySet()) {
+                XTablesData node = child.getValue();
+                String text = kept.get(node);
+                if (text == null || node.jsonDirty) {
+                    text = subtreeJsonOf(node);
+                }
+                texts.put(node, text);
+                out.name(child.getKey()).jsonValue(text);
+            }
+            out.endObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        String result = json.toString();
+        // Only the subtrees the table still has are kept, so removed ones are let go of here.
+        table.subtreeJson = texts;
+        table.json = result;
+        return result;
+    }
+
+    /**
+     * Streams the same JSON text that {@link #toJSON()} returns to a writer in a single pass. Text that
+     * {@link #toJSON()} has kept and that is still current is copied as it is, and everything else is
+     * written straight to the writer without being kept, so the memory used does not grow with the
+     * size of the table.
+     *
+     * @param out The writer to stream to
+     * @throws IOException If writing fails
+     */
+    public synchronized void writeJSON(Writer out) throws IOException {
+        Map<String, XTablesData> children = data;
+        String cached = table.json;
+        if (children == null) {
+            out.write("null");
+        } else if (cached != null && !jsonDirty) {
+            out.write(cached);
+        } else {
+            Map<XTablesData, String> kept = table.subtreeJson;
+            JsonWriter writer = newJsonWriter(out);
+            writer.beginObject();
+            for (Map.Entry<String, XTablesData> child : children.entrySet()) {
+                XTablesData node = child.getValue();
+                String text = kept.get(node);
+                writer.name(child.getKey());
+                if (text != null && !node.jsonDirty) {
+                    writer.jsonValue(text);
+                } else {
+                    writeNodeJson(writer, node, false);
+                }
+            }
+            writer.endObject();
+            writer.flush();
+        }
+    }
+
+    /**
+     * Replaces the table's children with the ones described by JSON text in the format returned by
+     * {@link #toJSON()}. Values are given the current time as their timestamp, since the text does not
+     * carry one, and values whose type has no JSON form are restored without a value.
+     *
+     * @param json The JSON text, or null to clear the table
+     */
+    public void updateFromRawJSON(String json) {
+        ConcurrentHashMap<String, XTablesData> children = new ConcurrentHashMap<>();
+        if (json != null) {
+            try (JsonReader in = new JsonReader(new StringReader(json))) {
+                in.setLenient(true);
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                } else {
+                    XTablesDataJsonReader.readChildren(in, System.currentTimeMillis(), children);
+                }
+            } catch (IOException | IllegalStateException | NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed table JSON", e);
+            }
+        }
+        replaceChildren(children);
+    }
+
+    private static JsonWriter newJsonWriter(Writer out) {
+        JsonWriter writer = new JsonWriter(out);
+        // Matches Gson's default output, which lets NaN and infinite doubles through and leaves out
+        // values that cannot be shown as JSON.
+        writer.setLenient(true);
+        writer.setSerializeNulls(false);
+        return writer;
+    }
+
+    /**
+     * Serializes a top-level subtree for the table to keep.
+     */
+    private static String subtreeJsonOf(XTablesData node) throws IOException {
+        StringWriter json = new StringWriter();
+        writeNodeJson(newJsonWriter(json), node, true);
+        return json.toString();
+    }
+
+    /**
+     * Writes a node and everything under it as one JSON object.
+     *
+     * @param clean Whether the text is about to be kept. Each node's dirty flag is then cleared before
+     *              it is read, so a write that lands meanwhile leaves it and its ancestors dirty. Text
+     *              that is not kept must leave the flags alone, or a stale kept text would turn valid.
+     */
+    private static void writeNodeJson(JsonWriter out, XTablesData node, boolean clean) throws IOException {
+        if (clean) node.jsonDirty = false;
+        out.beginObject();
+        XTableValue value = node.entry;
+        if (value != null && value.retain()) {
+            try {
+                if (value.hasValue()) {
+                    out.name("value");
+                    XTablesDataJsonWriter.writeValue(out, value);
+                    if (value.type() != null) {
+                        out.name("type").value(value.type().name());
+                    }
+                }
+            } finally {
+                value.release();
+            }
+        }
+        Map<String, XTablesData> children = node.data;
+        if (children != null && !children.isEmpty()) {
+            out.name("data");
+            out.beginObject();
+            for (Map.Entry<String, XTablesData> child : children.entrySet()) {
+                out.name(child.getKey());
+                writeNodeJson(out, child.getValue(), clean);
+            }
+            out.endObject();
+        }
+        out.endObject();
+    }
+
+    /**
+     * Serializes the whole table as an XTableMessage.XTablesData message, the same message
+     * {@link #toProto()} builds. Subtrees that have not changed since the previous call are reused
+     * as they were serialized then, and are joined without copying them again.
+     *
+     * @return The serialized message.
+     */
+    public synchronized ByteString toProtoBytes() {
+        return protoOf(this);
+    }
+
+    private static ByteString protoOf(XTablesData node) {
+        ByteString cached = node.protoCache;
+        if (cached != null && !node.protoDirty) return cached;
+        node.protoDirty = false;
+        ByteString result = ByteString.EMPTY;
+        Map<String, XTablesData> children = node.data;
+        if (children != null) {
+            for (Map.Entry<String, XTablesData> child : children.entrySet()) {
+                ByteString body = protoOf(child.getValue());
+                // A map field is a repeated message of {key = 1, value = 2} entries.
+                int entrySize = CodedOutputStream.computeStringSize(1, child.getKey())
+                        + CodedOutputStream.computeTagSize(2) + CodedOutputStream.computeUInt32SizeNoTag(body.size());
+                ByteString.Output header = ByteString.newOutput(entrySize + 10);
+                try {
+                    CodedOutputStream coded = CodedOutputStream.newInstance(header);
+                    coded.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                    coded.writeUInt32NoTag(entrySize + body.size());
+                    coded.writeString(1, child.getKey());
+                    coded.writeTag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                    coded.writeUInt32NoTag(body.size());
+                    coded.flush();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                result = result.concat(header.toByteString()).concat(body);
+            }
+        }
+        XTableValue value = node.entry;
+        if (value != null && value.retain()) {
+            try {
+                ByteString.Output tail = ByteString.newOutput();
+                CodedOutputStream coded = CodedOutputStream.newInstance(tail);
+                if (value.hasValue()) {
+                    // Off-heap memory is reused once released, so those values are copied into the cache.
+                    ByteString bytes = value.toByteString();
+                    coded.writeBytes(2, value.slice() != null ? ByteString.copyFrom(bytes.asReadOnlyByteBuffer()) : bytes);
+                }
+                if (value.type() != null && value.type() != XTableProto.XTableMessage.Type.UNKNOWN) {
+                    coded.writeEnum(3, value.type().getNumber());
+                }
+                if (value.hasValue() && value.timestamp() != 0) {
+                    coded.writeInt64(4, value.timestamp());
+                }
+                coded.flush();
+                result = result.concat(tail.toByteString());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                value.release();
+            }
+        }
+        node.protoCache = result;
+        return result;
+    }
+
+    /**
+     * Clears the cached serialized forms of a node and its ancestors after it has changed.
+     */
+    private static void invalidate(XTablesData node) {
+        for (XTablesData current = node; current != null; current = current.parent) {
+            if (current.protoDirty && current.jsonDirty) return;
+            current.protoCache = null;
+            if (current.table.isRoot()) current.table.json = null;
+            current.protoDirty = true;
+            current.jsonDirty = true;
+        }
     }
 
     public XTableProto.XTableMessage.Type getType() {
-        return type;
+        XTableValue value = entry;
+        return value != null ? value.type() : null;
     }
 
     public Map<String, XTablesData> getTablesMap() {
@@ -330,153 +1627,430 @@ public class XTablesData {
     }
 
     public byte[] getValue() {
-        return value;
+        XTableValue value = entry;
+        return value != null ? value.value() : null;
     }
 
-    public void updateFromRawJSON(String json) {
+    /**
+     * Writes a point-in-time checkpoint of the table as a serialized XTableMessage.XTablesData message.
+     * <p>
+     * The message is streamed one top-level entry at a time, so only a single top-level subtree is
+     * ever materialized. Puts keep running while the checkpoint is written: a put that lands on a
+     * node first preserves the state it replaces, and the checkpoint reads preserved states in place
+     * of live ones. Deletes wait until the checkpoint is finished.
+     *
+     * @param output The stream to write the checkpoint to.
+     * @throws IOException If writing to the stream fails.
+     */
+    public void writeCheckpoint(OutputStream output) throws IOException {
+        writeCheckpoint(output, Collections.emptyMap());
+    }
 
-        Map<String, XTablesData> newData = gson.fromJson(json, new TypeToken<Map<String, XTablesData>>() {
-        }.getType());
+    /**
+     * Writes a point-in-time checkpoint of the table, see {@link #writeCheckpoint(OutputStream)}, that
+     * also keeps the time each value expires at. It is written as field {@value #EXPIRES_AT_FIELD} of
+     * the value's node, which no other XTablesData message uses and which other readers skip.
+     *
+     * @param output   The stream to write the checkpoint to.
+     * @param expiries The wall-clock time in milliseconds each key that expires expires at.
+     * @throws IOException If writing to the stream fails.
+     */
+    public void writeCheckpoint(OutputStream output, Map<String, Long> expiries) throws IOException {
+        if (table.structureLock == null) {
+            throw new IllegalStateException("Checkpoints can only be written from the table root.");
+        }
+        table.structureLock.writeLock().lock();
+        Snapshot active = new Snapshot();
+        table.snapshot = active;
+        try {
+            CodedOutputStream coded = CodedOutputStream.newInstance(output);
+            List<XTableValue> retained = new ArrayList<>();
+            Map<String, XTablesData> children = data;
+            if (children != null) {
+                for (Map.Entry<String, XTablesData> child : children.entrySet()) {
+                    XTableProto.XTableMessage.XTablesData proto = active.toProto(child.getKey(), child.getValue(), retained, expiries);
+                    if (proto != null) {
+                        // A map field is a repeated message of {key = 1, value = 2} entries.
+                        coded.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                        coded.writeUInt32NoTag(CodedOutputStream.computeStringSize(1, child.getKey())
+                                + CodedOutputStream.computeMessageSize(2, proto));
+                        coded.writeString(1, child.getKey());
+                        coded.writeMessage(2, proto);
+                    }
+                    retained.forEach(XTableValue::release);
+                    retained.clear();
+                }
+            }
+            coded.flush();
+        } finally {
+            table.snapshot = null;
+            active.close();
+            table.structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the table with a checkpoint written by {@link #writeCheckpoint(OutputStream)}.
+     * The checkpoint is parsed straight into table nodes without building intermediate messages.
+     *
+     * @param input The stream to read the checkpoint from.
+     * @return The number of values loaded.
+     * @throws IOException If the stream cannot be read or is not a valid checkpoint.
+     */
+    public int readCheckpoint(InputStream input) throws IOException {
+        return readCheckpoint(input, null);
+    }
 
+    /**
+     * Replaces the table with a checkpoint, see {@link #readCheckpoint(InputStream)}, and collects the
+     * time each value in it expires at.
+     *
+     * @param input    The stream to read the checkpoint from.
+     * @param expiries Receives the wall-clock time in milliseconds each key that expires expires at, or null.
+     * @return The number of values loaded.
+     * @throws IOException If the stream cannot be read or is not a valid checkpoint.
+     */
+    public int readCheckpoint(InputStream input, Map<String, Long> expiries) throws IOException {
+        CodedInputStream coded = CodedInputStream.newInstance(input);
+        coded.setSizeLimit(Integer.MAX_VALUE);
+        XTablesData root = new XTablesData(false);
+        int[] count = new int[1];
+        Map<XTablesData, Long> expiring = expiries != null ? new IdentityHashMap<>() : null;
+        readNode(coded, root, count, expiring);
+        if (expiring != null && !expiring.isEmpty()) {
+            collectExpiries("", root, expiring, expiries);
+        }
+        replaceChildren(root.data);
+        return count[0];
+    }
 
-        if (newData == null) {
-            newData = new HashMap<>();
+    private static void collectExpiries(String path, XTablesData node, Map<XTablesData, Long> expiring, Map<String, Long> expiries) {
+        Long expiresAt = expiring.get(node);
+        if (expiresAt != null) {
+            expiries.put(path, expiresAt);
+        }
+        Map<String, XTablesData> children = node.data;
+        if (children != null) {
+            for (Map.Entry<String, XTablesData> child : children.entrySet()) {
+                collectExpiries(path.isEmpty() ? child.getKey() : path + "." + child.getKey(), child.getValue(), expiring, expiries);
+            }
         }
+    }
 
-        this.data = newData; // Directly assign the new data
+    private static void readNode(CodedInputStream input, XTablesData node, int[] count, Map<XTablesData, Long> expiring) throws IOException {
+        byte[] value = null;
+        XTableProto.XTableMessage.Type type = XTableProto.XTableMessage.Type.UNKNOWN;
+        long timestamp = 0;
+        long expiresAt = 0;
+        while (true) {
+            int tag = input.readTag();
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 0 -> {
+                    if (value != null) {
+                        node.entry = XTableValue.of(value, timestamp, type);
+                        count[0]++;
+                        if (expiresAt > 0 && expiring != null) {
+                            expiring.put(node, expiresAt);
+                        }
+                    }
+                    recount(node);
+                    return;
+                }
+                case 1 -> readChild(input, node, count, expiring);
+                case 2 -> value = input.readByteArray();
+                case 3 -> {
+                    XTableProto.XTableMessage.Type parsed = XTableProto.XTableMessage.Type.forNumber(input.readEnum());
+                    type = parsed != null ? parsed : XTableProto.XTableMessage.Type.UNKNOWN;
+                }
+                case 4 -> timestamp = input.readInt64();
+                case EXPIRES_AT_FIELD -> expiresAt = input.readInt64();
+                default -> input.skipField(tag);
+            }
+        }
     }
 
-    private static class XTablesDataSerializer implements JsonSerializer<XTablesData> {
-        @Override
-        public JsonElement serialize(XTablesData src, Type typeOfSrc, JsonSerializationContext context) {
-            JsonObject jsonObject = new JsonObject();
-
-            // Serialize the `value` field if it exists at the root level
-            if (src.value != null) {
-                jsonObject.add("value", serializeValue(src));
-                if (src.type != null) {
-                    jsonObject.addProperty("type", src.type.name());
+    private static void readChild(CodedInputStream input, XTablesData parent, int[] count, Map<XTablesData, Long> expiring) throws IOException {
+        int entryLimit = input.pushLimit(input.readRawVarint32());
+        String name = "";
+        XTablesData child = new XTablesData(parent);
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> name = input.readStringRequireUtf8();
+                case 2 -> {
+                    int childLimit = input.pushLimit(input.readRawVarint32());
+                    readNode(input, child, count, expiring);
+                    input.popLimit(childLimit);
                 }
+                default -> input.skipField(tag);
+            }
+        }
+        input.popLimit(entryLimit);
+        if (parent.data == null) {
+            parent.data = new ConcurrentHashMap<>();
+        }
+        parent.data.put(name, child);
+    }
+
+    /**
+     * The state a checkpoint reads the table through. Nodes written after the checkpoint started
+     * have their earlier state recorded here, and that state is read in place of the live one.
+     */
+    private static final class Snapshot {
+        private final ConcurrentHashMap<XTablesData, Preserved> preserved = new ConcurrentHashMap<>();
+
+        private void preserve(XTablesData node) {
+            if (preserved.containsKey(node)) return;
+            XTableValue current;
+            do {
+                current = node.entry;
+            } while (current != null && !current.retain());
+            if (preserved.putIfAbsent(node, new Preserved(current)) != null && current != null) {
+                current.release();
             }
+        }
 
-            // Serialize the `data` map if it exists
-            if (src.data != null && !src.data.isEmpty()) {
-                JsonObject dataObject = new JsonObject();
-                for (Map.Entry<String, XTablesData> entry : src.data.entrySet()) {
-                    String key = entry.getKey();
-                    XTablesData childNode = entry.getValue();
+        private void close() {
+            preserved.values().forEach(earlier -> {
+                if (earlier.entry() != null) earlier.entry().release();
+            });
+        }
 
-                    // Recursively serialize each child node
-                    dataObject.add(key, serialize(childNode, typeOfSrc, context));
+        /**
+         * Reads the checkpoint view of a node, retaining live off-heap values into the given list.
+         */
+        private XTableValue valueOf(XTablesData node, List<XTableValue> retained) {
+            while (true) {
+                XTableValue live = node.entry;
+                Preserved earlier = preserved.get(node);
+                if (earlier != null) {
+                    return earlier.entry();
                 }
-                jsonObject.add("data", dataObject);
-            }
-
-            return jsonObject;
-        }
-
-
-        private JsonElement serializeValue(XTablesData node) {
-            if (node.value != null && node.type != null) {
-                return switch (node.type) {
-                    case STRING -> new JsonPrimitive(new String(node.value));
-                    case INT32 -> new JsonPrimitive(XTablesByteUtils.to_Primitive_Int(node.value));
-                    case INT64 -> new JsonPrimitive(bytesToLong(node.value));
-                    case BOOL -> new JsonPrimitive(node.value[0] == 0x01);
-                    case DOUBLE -> new JsonPrimitive(bytesToDouble(node.value));
-                    case FLOAT_LIST -> {
-                        JsonArray jsonArray = new JsonArray();
-                        try {
-                            XTableValues.FloatList floatList = XTableValues.FloatList.parseFrom(node.value);
-                            for (float f : floatList.getVList()) {
-                                jsonArray.add(new JsonPrimitive(f));
-                            }
-                            yield jsonArray;
-                        } catch (InvalidProtocolBufferException e) {
-                            throw new RuntimeException("Failed to parse FloatList", e);
-                        }
-                    }
-                    case DOUBLE_LIST -> {
-                        JsonArray jsonArray = new JsonArray();
-                        try {
-                            XTableValues.DoubleList doubleList = XTableValues.DoubleList.parseFrom(node.value);
-                            for (Double aDouble : doubleList.getVList()) {
-                                jsonArray.add(new JsonPrimitive(aDouble));
-                            }
-                            yield jsonArray;
-                        } catch (InvalidProtocolBufferException e) {
-                            throw new RuntimeException("Failed to parse DoubleList", e);
-                        }
-                    }
-                    case STRING_LIST -> {
-                        JsonArray jsonArray = new JsonArray();
-                        try {
-                            XTableValues.StringList stringList = XTableValues.StringList.parseFrom(node.value);
-                            for (String str : stringList.getVList()) {
-                                jsonArray.add(new JsonPrimitive(str));
-                            }
-                            yield jsonArray;
-                        } catch (InvalidProtocolBufferException e) {
-                            throw new RuntimeException("Failed to parse StringList", e);
-                        }
-                    }
-                    case INTEGER_LIST -> {
-                        JsonArray jsonArray = new JsonArray();
-                        try {
-                            XTableValues.IntegerList intList = XTableValues.IntegerList.parseFrom(node.value);
-                            for (int i : intList.getVList()) {
-                                jsonArray.add(new JsonPrimitive(i));
-                            }
-                            yield jsonArray;
-                        } catch (InvalidProtocolBufferException e) {
-                            throw new RuntimeException("Failed to parse IntegerList", e);
-                        }
-                    }
-                    case LONG_LIST -> {
-                        JsonArray jsonArray = new JsonArray();
-                        try {
-                            XTableValues.LongList longList = XTableValues.LongList.parseFrom(node.value);
-                            for (long l : longList.getVList()) {
-                                jsonArray.add(new JsonPrimitive(l));
-                            }
-                            yield jsonArray;
-                        } catch (InvalidProtocolBufferException e) {
-                            throw new RuntimeException("Failed to parse LongList", e);
-                        }
-                    }
-                    case BYTES_LIST -> {
-                        JsonArray byteArray = new JsonArray();
-                        for (byte b : node.value) {
-                            byteArray.add(b);
-                        }
-                        yield byteArray;
-                    }
-                    case BOOLEAN_LIST -> {
-                        JsonArray jsonArray = new JsonArray();
-                        try {
-                            XTableValues.BoolList boolList = XTableValues.BoolList.parseFrom(node.value);
-                            for (boolean bool : boolList.getVList()) {
-                                jsonArray.add(new JsonPrimitive(bool));
-                            }
-                            yield jsonArray;
-                        } catch (InvalidProtocolBufferException e) {
-                            throw new RuntimeException("Failed to parse BoolList", e);
-                        }
+                if (live == null || live.retain()) {
+                    if (live != null && live.slice() != null) retained.add(live);
+                    return live;
+                }
+            }
+        }
+
+        /**
+         * Builds the checkpoint view of a subtree, leaving out nodes that hold nothing.
+         *
+         * @return The subtree as a message, or null if it holds no values.
+         */
+        private XTableProto.XTableMessage.XTablesData toProto(String path, XTablesData node, List<XTableValue> retained,
+                                                              Map<String, Long> expiries) {
+            XTableProto.XTableMessage.XTablesData.Builder builder = null;
+            Map<String, XTablesData> children = node.data;
+            if (children != null) {
+                for (Map.Entry<String, XTablesData> child : children.entrySet()) {
+                    // Paths are only built when there are expiries to look up.
+                    String childPath = expiries.isEmpty() ? null : path + "." + child.getKey();
+                    XTableProto.XTableMessage.XTablesData proto = toProto(childPath, child.getValue(), retained, expiries);
+                    if (proto == null) continue;
+                    if (builder == null) builder = XTableProto.XTableMessage.XTablesData.newBuilder();
+                    builder.putData(child.getKey(), proto);
+                }
+            }
+            XTableValue value = valueOf(node, retained);
+            if (value != null && value.hasValue()) {
+                if (builder == null) builder = XTableProto.XTableMessage.XTablesData.newBuilder();
+                builder.setValue(value.toByteString())
+                        .setTimestamp(value.timestamp());
+                if (value.type() != null) {
+                    builder.setType(value.type());
+                }
+                Long expiresAt = path != null ? expiries.get(path) : null;
+                if (expiresAt != null) {
+                    builder.setUnknownFields(UnknownFieldSet.newBuilder()
+                            .addField(EXPIRES_AT_FIELD, UnknownFieldSet.Field.newBuilder().addVarint(expiresAt).build())
+                            .build());
+                }
+            }
+            return builder != null ? builder.build() : null;
+        }
+    }
+
+    private record Preserved(XTableValue entry) {
+    }
+
+    /**
+     * Receives the changes made to a table, in the order they were applied. See
+     * {@link #setWriteListener(WriteListener)}.
+     */
+    public interface WriteListener {
+        /**
+         * Called after a write stored a value.
+         *
+         * @param key       The written key.
+         * @param value     The stored value, only valid until the call returns.
+         * @param expiresAt The wall-clock time in milliseconds the writer asked the key to expire at, or 0 for never.
+         */
+        void stored(String key, XTableValue value, long expiresAt);
+
+        /**
+         * Called after a write left the stored value as it was and only moved its timestamp forward.
+         *
+         * @param key       The written key.
+         * @param timestamp The timestamp the stored value now has.
+         * @param expiresAt The wall-clock time in milliseconds the writer asked the key to expire at, or 0 for never.
+         */
+        void refreshed(String key, long timestamp, long expiresAt);
+
+        /**
+         * Called after a key and everything under it was deleted.
+         *
+         * @param key The deleted key, or an empty string if the whole table was cleared.
+         */
+        void deleted(String key);
+    }
+
+    /**
+     * The state of a table as a whole, held once by its root instead of by every node. The nodes below
+     * a root share one that has no index or locks and is never configured.
+     */
+    private static final class Table {
+        // Flat index from full dotted key to leaf node.
+        private final ConcurrentHashMap<String, XTablesData> index;
+        // Removals take the read side of the lock and a checkpoint takes the write side, so subtrees
+        // cannot vanish mid-checkpoint while puts never touch the lock at all.
+        private final ReentrantReadWriteLock structureLock;
+        private volatile Snapshot snapshot;
+        // Orders the changes the write listener is told about: a write holds the stripe of its key and
+        // a delete holds every stripe. Only taken while a listener is set.
+        private final ReentrantLock[] keyLocks;
+        private volatile WriteListener writeListener;
+        private volatile HistoryRule[] historyRules = NO_HISTORY_RULES;
+        private volatile DeadbandRule[] deadbandRules = NO_DEADBAND_RULES;
+        private volatile QuotaRule[] quotaRules = NO_QUOTA_RULES;
+        private volatile boolean suppressUnchanged = true;
+        private volatile Consumer<String> evictionListener;
+        // Allocator for values large enough to be kept off-heap, or null to keep everything on the heap.
+        private volatile XTablesArena arena;
+        // JSON text of the whole table and of each of its top-level subtrees, only current while the
+        // node it belongs to is not dirty. They are kept under the root's monitor, and a write only
+        // drops the table's text so that it is not held on to until the next call.
+        private volatile String json;
+        private volatile Map<XTablesData, String> subtreeJson = Collections.emptyMap();
+
+        private Table(boolean root) {
+            this.index = root ? new ConcurrentHashMap<>() : null;
+            this.structureLock = root ? new ReentrantReadWriteLock() : null;
+            this.keyLocks = root ? newKeyLocks() : null;
+        }
+
+        private boolean isRoot() {
+            return index != null;
+        }
+    }
+
+    /**
+     * The history ring and deadband a leaf gets from the table's rules, replaced as a whole when the
+     * rules change.
+     */
+    private record LeafRules(XTablesHistory history, double deadband) {
+    }
+
+    private record HistoryRule(String prefix, int capacity) {
+    }
+
+    private record DeadbandRule(String prefix, double deadband) {
+    }
+
+    private record QuotaRule(String prefix, long maxKeys, long maxBytes, boolean evict,
+                             AtomicLong rejected, AtomicLong evicted, AtomicBoolean evicting) {
+        private boolean exceeded(XTablesData table) {
+            return (maxKeys > 0 && table.size(prefix) > maxKeys)
+                    || (maxBytes > 0 && table.sizeInBytes(prefix) > maxBytes);
+        }
+    }
+
+    /**
+     * A quota and how much of it is in use.
+     *
+     * @param prefix   The key prefix the quota covers.
+     * @param keys     The number of values under the prefix.
+     * @param bytes    The total size of the values under the prefix.
+     * @param maxKeys  The value limit, or 0 for none.
+     * @param maxBytes The size limit, or 0 for none.
+     * @param evict    Whether the quota evicts old keys instead of rejecting writes.
+     * @param rejected The number of writes rejected so far.
+     * @param evicted  The number of keys evicted so far.
+     */
+    public record QuotaUsage(String prefix, long keys, long bytes, long maxKeys, long maxBytes, boolean evict,
+                             long rejected, long evicted) {
+    }
+
+    /**
+     * Writes leaf values as JSON. List values are decoded straight from their protobuf encoding
+     * into the writer, so no message or boxed list is created for them.
+     */
+    private static final class XTablesDataJsonWriter {
+        private static void writeValue(JsonWriter out, XTableValue entry) throws IOException {
+            if (entry.type() == null) {
+                out.nullValue();
+                return;
+            }
+            switch (entry.type()) {
+                case STRING -> out.value(new String(entry.value()));
+                case INT32 -> out.value(entry.isScalar() ? (int) entry.bits() : XTablesByteUtils.to_Primitive_Int(entry.value()));
+                case INT64 -> out.value(entry.isScalar() ? entry.bits() : bytesToLong(entry.value()));
+                case BOOL -> out.value(entry.isScalar() ? entry.bits() == 0x01 : entry.value()[0] == 0x01);
+                case DOUBLE -> out.value(entry.isScalar() ? Double.longBitsToDouble(entry.bits()) : bytesToDouble(entry.value()));
+                case FLOAT_LIST, DOUBLE_LIST, STRING_LIST, INTEGER_LIST, LONG_LIST, BOOLEAN_LIST ->
+                        writeList(out, entry.type(), entry.toByteString());
+                case BYTES, BYTES_LIST, UNKNOWN, COORDINATES, BEZIER_CURVES -> {
+                    out.beginArray();
+                    for (byte b : entry.value()) {
+                        out.value(b);
                     }
-                    case BYTES, UNKNOWN, COORDINATES, BEZIER_CURVES -> {
-                        JsonArray byteArray = new JsonArray();
-                        for (byte b : node.value) {
-                            byteArray.add(b);
+                    out.endArray();
+                }
+                default -> out.nullValue();
+            }
+        }
+
+        /**
+         * Writes the elements of field 1 of a list message, whether they are packed or not.
+         */
+        private static void writeList(JsonWriter out, XTableProto.XTableMessage.Type type, ByteString value) throws IOException {
+            CodedInputStream input = value.newCodedInput();
+            out.beginArray();
+            try {
+                int tag;
+                while ((tag = input.readTag()) != 0) {
+                    if (WireFormat.getTagFieldNumber(tag) != 1) {
+                        input.skipField(tag);
+                    } else if (type != XTableProto.XTableMessage.Type.STRING_LIST
+                            && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                        int limit = input.pushLimit(input.readRawVarint32());
+                        while (input.getBytesUntilLimit() > 0) {
+                            writeElement(out, type, input);
                         }
-                        yield byteArray;
+                        input.popLimit(limit);
+                    } else {
+                        writeElement(out, type, input);
                     }
-                    default -> JsonNull.INSTANCE;
-                };
+                }
+            } catch (InvalidProtocolBufferException e) {
+                throw new RuntimeException("Failed to parse " + type, e);
             }
-            return JsonNull.INSTANCE;
+            out.endArray();
         }
 
-        private long bytesToLong(byte[] bytes) {
+        private static void writeElement(JsonWriter out, XTableProto.XTableMessage.Type type, CodedInputStream input) throws IOException {
+            switch (type) {
+                case FLOAT_LIST -> out.value((Number) input.readFloat());
+                case DOUBLE_LIST -> out.value(input.readDouble());
+                case STRING_LIST -> out.value(input.readStringRequireUtf8());
+                case INTEGER_LIST -> out.value(input.readInt32());
+                case LONG_LIST -> out.value(input.readInt64());
+                case BOOLEAN_LIST -> out.value(input.readBool());
+                default -> throw new IllegalArgumentException("Not a list type: " + type);
+            }
+        }
+
+        private static long bytesToLong(byte[] bytes) {
             if (bytes.length > 8) {
                 throw new IllegalArgumentException("Byte array is too large to fit in a long");
             }
@@ -489,7 +2063,7 @@ public class XTablesData {
         }
 
 
-        private double bytesToDouble(byte[] bytes) {
+        private static double bytesToDouble(byte[] bytes) {
             if (bytes.length >= 8) {
                 long longBits = ((long) bytes[0] << 56) |
                         ((long) (bytes[1] & 0xFF) << 48) |
@@ -504,7 +2078,229 @@ public class XTablesData {
             return 0.0;
         }
     }
-    public record XTableValue(byte[] value, long timestamp,XTableProto.XTableMessage.Type type){
+    /**
+     * Reads the JSON written by {@link XTablesDataJsonWriter} back into nodes. List values are encoded
+     * straight into their protobuf form, so no message or boxed list is created for them.
+     */
+    private static final class XTablesDataJsonReader {
+        private static void readChildren(JsonReader in, long timestamp, Map<String, XTablesData> children) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                children.put(in.nextName(), readNode(in, timestamp));
+            }
+            in.endObject();
+        }
+
+        private static XTablesData readNode(JsonReader in, long timestamp) throws IOException {
+            XTablesData node = new XTablesData(false);
+            ConcurrentHashMap<String, XTablesData> children = new ConcurrentHashMap<>();
+            JsonElement value = null;
+            XTableProto.XTableMessage.Type type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "value" -> value = JsonParser.parseReader(in);
+                    case "type" -> type = XTableProto.XTableMessage.Type.valueOf(in.nextString());
+                    case "data" -> readChildren(in, timestamp, children);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            node.replaceChildren(children);
+            if (value != null || type != null) {
+                node.entry = XTableValue.of(readValue(value, type), timestamp, type);
+                account(node, null, node.entry);
+            }
+            return node;
+        }
+
+        private static byte[] readValue(JsonElement value, XTableProto.XTableMessage.Type type) throws IOException {
+            if (value == null || value.isJsonNull() || type == null) return null;
+            return switch (type) {
+                case STRING -> value.getAsString().getBytes();
+                case INT32 -> XTablesByteUtils.fromInteger(value.getAsInt());
+                case INT64 -> XTablesByteUtils.fromLong(value.getAsLong());
+                case BOOL -> XTablesByteUtils.fromBoolean(value.getAsBoolean());
+                case DOUBLE -> XTablesByteUtils.fromDouble(value.getAsDouble());
+                case FLOAT_LIST, DOUBLE_LIST, STRING_LIST, INTEGER_LIST, LONG_LIST, BOOLEAN_LIST ->
+                        readList(value.getAsJsonArray(), type);
+                case BYTES, BYTES_LIST, UNKNOWN, COORDINATES, BEZIER_CURVES -> {
+                    JsonArray array = value.getAsJsonArray();
+                    byte[] bytes = new byte[array.size()];
+                    for (int i = 0; i < bytes.length; i++) {
+                        bytes[i] = array.get(i).getAsByte();
+                    }
+                    yield bytes;
+                }
+                default -> null;
+            };
+        }
+
+        /**
+         * Encodes the elements as field 1 of a list message, packed unless they are strings.
+         */
+        private static byte[] readList(JsonArray array, XTableProto.XTableMessage.Type type) throws IOException {
+            ByteString.Output bytes = ByteString.newOutput();
+            CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+            if (type == XTableProto.XTableMessage.Type.STRING_LIST) {
+                for (JsonElement element : array) {
+                    out.writeString(1, element.getAsString());
+                }
+            } else if (!array.isEmpty()) {
+                ByteString.Output packed = ByteString.newOutput();
+                CodedOutputStream elements = CodedOutputStream.newInstance(packed);
+                for (JsonElement element : array) {
+                    switch (type) {
+                        case FLOAT_LIST -> elements.writeFloatNoTag(element.getAsFloat());
+                        case DOUBLE_LIST -> elements.writeDoubleNoTag(element.getAsDouble());
+                        case INTEGER_LIST -> elements.writeInt32NoTag(element.getAsInt());
+                        case LONG_LIST -> elements.writeInt64NoTag(element.getAsLong());
+                        case BOOLEAN_LIST -> elements.writeBoolNoTag(element.getAsBoolean());
+                        default -> throw new IllegalArgumentException("Not a list type: " + type);
+                    }
+                }
+                elements.flush();
+                out.writeBytes(1, packed.toByteString());
+            }
+            out.flush();
+            return bytes.toByteString().toByteArray();
+        }
+    }
+
+    /**
+     * The state of a leaf. Small values are held in {@code value} on the heap; values kept in the
+     * off-heap arena are held in {@code slice} instead, with {@code value} left null. INT32, INT64,
+     * DOUBLE and BOOL values are held as their bytes packed into {@code bits}, with {@code value}
+     * set to a shared marker, and are only turned back into bytes when they are read.
+     */
+    public record XTableValue(byte[] value, long timestamp, XTableProto.XTableMessage.Type type, XTablesSlice slice, long bits) {
+        private static final byte[] SCALAR = new byte[0];
+
+        public XTableValue(byte[] value, long timestamp, XTableProto.XTableMessage.Type type) {
+            this(value, timestamp, type, null, 0);
+        }
+
+        public XTableValue(byte[] value, long timestamp, XTableProto.XTableMessage.Type type, XTablesSlice slice) {
+            this(value, timestamp, type, slice, 0);
+        }
+
+        /**
+         * Creates a value, holding it as a primitive if it is a scalar of its type's size.
+         *
+         * @return the value
+         */
+        public static XTableValue of(byte[] value, long timestamp, XTableProto.XTableMessage.Type type) {
+            if (value != null && value.length == scalarSize(type)) {
+                long bits = 0;
+                for (byte b : value) {
+                    bits = (bits << 8) | (b & 0xFF);
+                }
+                return new XTableValue(SCALAR, timestamp, type, null, bits);
+            }
+            return new XTableValue(value, timestamp, type);
+        }
+
+        /**
+         * Creates a primitive value straight from received bytes, without copying them first.
+         *
+         * @return the value, or null if it is not a scalar of its type's size
+         */
+        public static XTableValue ofScalar(ByteString value, long timestamp, XTableProto.XTableMessage.Type type) {
+            int size = value.size();
+            if (size != scalarSize(type)) return null;
+            long bits = 0;
+            for (int i = 0; i < size; i++) {
+                bits = (bits << 8) | (value.byteAt(i) & 0xFF);
+            }
+            return new XTableValue(SCALAR, timestamp, type, null, bits);
+        }
+
+        /**
+         * Creates a primitive value from bits previously read from {@link #bits()}.
+         *
+         * @return the value
+         */
+        public static XTableValue ofBits(long bits, long timestamp, XTableProto.XTableMessage.Type type) {
+            if (scalarSize(type) < 0) {
+                throw new IllegalArgumentException("Not a scalar type: " + type);
+            }
+            return new XTableValue(SCALAR, timestamp, type, null, bits);
+        }
+
+        private static int scalarSize(XTableProto.XTableMessage.Type type) {
+            if (type == null) return -1;
+            return switch (type) {
+                case INT32 -> Integer.BYTES;
+                case INT64, DOUBLE -> Long.BYTES;
+                case BOOL -> 1;
+                default -> -1;
+            };
+        }
+
+        /**
+         * Checks whether the value is held as a primitive in {@link #bits()}.
+         *
+         * @return true for a primitive value
+         */
+        public boolean isScalar() {
+            return value == SCALAR;
+        }
+
+        /**
+         * Retrieves the value bytes, copying them onto the heap if the value is kept off-heap or
+         * encoding them if it is held as a primitive.
+         *
+         * @return the value, or null if there is none or it has been released
+         */
+        @Override
+        public byte[] value() {
+            if (slice != null) return slice.toByteArray();
+            if (value != SCALAR) return value;
+            byte[] bytes = new byte[scalarSize(type)];
+            for (int i = bytes.length - 1, shift = 0; i >= 0; i--, shift += 8) {
+                bytes[i] = (byte) (bits >>> shift);
+            }
+            return bytes;
+        }
+
+        public boolean hasValue() {
+            return value != null || slice != null;
+        }
+
+        public int length() {
+            if (value == SCALAR) return scalarSize(type);
+            return slice != null ? slice.length() : value != null ? value.length : 0;
+        }
+
+        /**
+         * Wraps the value in a ByteString without copying. An off-heap value must be retained for as
+         * long as the ByteString is in use.
+         *
+         * @return the value as a ByteString
+         */
+        public ByteString toByteString() {
+            if (slice != null) return slice.toByteString();
+            return UnsafeByteOperations.unsafeWrap(value == SCALAR ? value() : value);
+        }
+
+        /**
+         * Creates a record of the same value written at another time. An off-heap value is shared
+         * with this record and the new record holds a reference of its own.
+         *
+         * @return the record, or null if the value has already been released
+         */
+        public XTableValue withTimestamp(long timestamp) {
+            if (!retain()) return null;
+            return new XTableValue(value, timestamp, type, slice, bits);
+        }
+
+        public boolean retain() {
+            return slice == null || slice.retain();
+        }
+
+        public void release() {
+            if (slice != null) slice.release();
+        }
     }
 
 }
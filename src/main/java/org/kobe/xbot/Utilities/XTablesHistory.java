@@ -0,0 +1,132 @@
+package org.kobe.xbot.Utilities;
+
+import org.kobe.xbot.Utilities.Entities.XTableProto;
+import org.kobe.xbot.Utilities.Memory.XTablesSlice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * XTablesHistory - A fixed-size ring of the most recent values written to a single key.
+ * <p>
+ * The ring is backed by parallel arrays that are allocated once when history is enabled for the key,
+ * so recording a sample only stores references and a timestamp and never allocates. When the ring is
+ * full the oldest sample is overwritten. Off-heap values are retained while they are in the ring and
+ * are copied onto the heap when read back, and scalar values are kept as their primitive bits.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.Utilities
+ * <p>
+ * This is part of the XTABLES project and backs the GET_HISTORY and GET_RANGE commands.
+ */
+public class XTablesHistory {
+    private final byte[][] values;
+    private final XTablesSlice[] slices;
+    private final XTableProto.XTableMessage.Type[] types;
+    private final long[] timestamps;
+    private final long[] bits;
+    private long written;
+
+    /**
+     * Creates an empty ring.
+     *
+     * @param capacity The number of samples kept
+     */
+    public XTablesHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be greater than 0");
+        }
+        this.values = new byte[capacity][];
+        this.slices = new XTablesSlice[capacity];
+        this.types = new XTableProto.XTableMessage.Type[capacity];
+        this.timestamps = new long[capacity];
+        this.bits = new long[capacity];
+    }
+
+    /**
+     * Records a sample, overwriting the oldest one if the ring is full.
+     *
+     * @param entry The value that was written
+     */
+    public synchronized void record(XTablesData.XTableValue entry) {
+        if (!entry.hasValue() || !entry.retain()) return;
+        int slot = (int) (written % values.length);
+        if (slices[slot] != null) {
+            slices[slot].release();
+        }
+        slices[slot] = entry.slice();
+        values[slot] = entry.slice() == null && !entry.isScalar() ? entry.value() : null;
+        bits[slot] = entry.bits();
+        types[slot] = entry.type();
+        timestamps[slot] = entry.timestamp();
+        written++;
+    }
+
+    /**
+     * Retrieves the most recent samples.
+     *
+     * @param limit The maximum number of samples to return, or 0 for all of them
+     * @return The samples, oldest first
+     */
+    public synchronized List<XTablesData.XTableValue> latest(int limit) {
+        int size = size();
+        int count = limit <= 0 ? size : Math.min(limit, size);
+        List<XTablesData.XTableValue> samples = new ArrayList<>(count);
+        for (long i = written - count; i < written; i++) {
+            samples.add(sample((int) (i % values.length)));
+        }
+        return samples;
+    }
+
+    /**
+     * Retrieves the samples whose timestamps fall within a range.
+     *
+     * @param start The earliest timestamp, inclusive
+     * @param end   The latest timestamp, inclusive
+     * @param limit The maximum number of samples to return, or 0 for all of them. When the range
+     *              holds more samples than this, the most recent ones are returned.
+     * @return The samples, oldest first
+     */
+    public synchronized List<XTablesData.XTableValue> range(long start, long end, int limit) {
+        List<XTablesData.XTableValue> samples = new ArrayList<>();
+        long oldest = written - size();
+        for (long i = written - 1; i >= oldest; i--) {
+            int slot = (int) (i % values.length);
+            long timestamp = timestamps[slot];
+            if (timestamp >= start && timestamp <= end) {
+                samples.add(sample(slot));
+                if (limit > 0 && samples.size() == limit) break;
+            }
+        }
+        Collections.reverse(samples);
+        return samples;
+    }
+
+    private XTablesData.XTableValue sample(int slot) {
+        if (slices[slot] == null && values[slot] == null) {
+            return XTablesData.XTableValue.ofBits(bits[slot], timestamps[slot], types[slot]);
+        }
+        byte[] value = slices[slot] != null ? slices[slot].toByteArray() : values[slot];
+        return new XTablesData.XTableValue(value, timestamps[slot], types[slot]);
+    }
+
+    /**
+     * Retrieves the number of samples currently held.
+     *
+     * @return the sample count
+     */
+    public synchronized int size() {
+        return (int) Math.min(written, values.length);
+    }
+
+    /**
+     * Retrieves the number of samples the ring can hold.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return values.length;
+    }
+}
@@ -0,0 +1,133 @@
+package org.kobe.xbot.Utilities;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import org.kobe.xbot.Utilities.Entities.XTableProto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * XTablesTopics - The topic frames that published updates are sent under.
+ * <p>
+ * Every message on the PUB socket is two frames: a topic followed by the serialized XTableUpdate.
+ * ZMQ matches subscriptions against the topic frame only, so the topic decides who receives a message.
+ * <ul>
+ *     <li>An update for a key is published under the key followed by a zero byte, so subscribing to
+ *     {@link #forKey(String)} matches that key exactly.</li>
+ *     <li>Subscribing to {@link #forTree(String)}, the prefix followed by a dot, matches every key below
+ *     it. Together with {@link #forKey(String)} of the prefix itself this covers the whole subtree.</li>
+ *     <li>Messages without a key, such as REGISTRY, LOG or BATCH, are published under a topic that starts
+ *     with a one byte, which cannot be confused with a key.</li>
+ * </ul>
+ * Subscribing to an empty topic still receives everything.
+ * <p>
+ * Author: Kobe Lei
+ * Version: 1.0
+ * Package: org.kobe.xbot.Utilities
+ * <p>
+ * This is part of the XTABLES project and lets subscribers filter updates by key inside ZMQ.
+ */
+public final class XTablesTopics {
+    static final byte KEY_END = 0;
+    private static final byte CATEGORY_START = 1;
+
+    private XTablesTopics() {
+    }
+
+    /**
+     * Retrieves the topic that updates for a key are published under.
+     *
+     * @param key The key
+     * @return the topic bytes
+     */
+    public static byte[] forKey(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] topic = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, topic, 0, bytes.length);
+        topic[bytes.length] = KEY_END;
+        return topic;
+    }
+
+    /**
+     * Retrieves the topic prefix that matches every key below a prefix, but not the prefix itself.
+     *
+     * @param prefix The prefix, with or without a trailing dot
+     * @return the topic bytes, or an empty topic for an empty prefix
+     */
+    public static byte[] forTree(String prefix) {
+        String normalized = normalizeTree(prefix);
+        return normalized.isEmpty() ? new byte[0] : (normalized + ".").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieves the topic that messages of a category without a key are published under.
+     *
+     * @param category The category
+     * @return the topic bytes
+     */
+    public static byte[] forCategory(XTableProto.XTableMessage.XTableUpdate.Category category) {
+        byte[] name = category.name().getBytes(StandardCharsets.UTF_8);
+        byte[] topic = new byte[name.length + 1];
+        topic[0] = CATEGORY_START;
+        System.arraycopy(name, 0, topic, 1, name.length);
+        return topic;
+    }
+
+    /**
+     * Works out the topic of a serialized XTableUpdate by reading only its key and category.
+     *
+     * @param update The serialized update
+     * @return the topic bytes
+     * @throws IOException If the bytes are not a valid XTableUpdate
+     */
+    public static byte[] forUpdate(byte[] update) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(update);
+        String key = "";
+        int category = 0;
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case XTableProto.XTableMessage.XTableUpdate.KEY_FIELD_NUMBER -> key = input.readStringRequireUtf8();
+                case XTableProto.XTableMessage.XTableUpdate.CATEGORY_FIELD_NUMBER -> category = input.readEnum();
+                default -> input.skipField(tag);
+            }
+        }
+        return switch (category) {
+            case XTableProto.XTableMessage.XTableUpdate.Category.UPDATE_VALUE,
+                 XTableProto.XTableMessage.XTableUpdate.Category.DELETE_VALUE,
+                 XTableProto.XTableMessage.XTableUpdate.Category.PUBLISH_VALUE -> forKey(key);
+            default -> {
+                XTableProto.XTableMessage.XTableUpdate.Category value = XTableProto.XTableMessage.XTableUpdate.Category.forNumber(category);
+                yield forCategory(value != null ? value : XTableProto.XTableMessage.XTableUpdate.Category.UNKNOWN);
+            }
+        };
+    }
+
+    /**
+     * Checks whether a key is a prefix itself or lies below it.
+     *
+     * @param key    The key to check
+     * @param prefix The prefix, with or without a trailing dot
+     * @return true if the key is in the prefix's subtree
+     */
+    public static boolean isInTree(String key, String prefix) {
+        String normalized = normalizeTree(prefix);
+        return normalized.isEmpty()
+                || (key.startsWith(normalized) && (key.length() == normalized.length() || key.charAt(normalized.length()) == '.'));
+    }
+
+    /**
+     * Removes trailing dots from a subtree prefix, so "SmartDashboard." and "SmartDashboard" mean the same tree.
+     *
+     * @param prefix The prefix
+     * @return the prefix without trailing dots
+     */
+    public static String normalizeTree(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == '.') {
+            end--;
+        }
+        return prefix.substring(0, end);
+    }
+}
@@ -16,6 +16,8 @@ class CircularBuffer(Generic[T]):
         lock (threading.Lock): Lock for thread-safe operations.
         not_empty (threading.Condition): Condition variable for waiting when the buffer is empty.
         should_remove (Callable[[T, T], bool]): Function to determine which elements should be removed.
+        written (int): Total number of writes, including those that were later overwritten.
+        overwritten (int): Number of unread elements that were overwritten because the buffer was full.
     """
 
     def __init__(self, capacity: int, should_remove: Callable[[T, T], bool]):
@@ -29,6 +31,8 @@ class CircularBuffer(Generic[T]):
         self.lock = threading.Lock()
         self.not_empty = threading.Condition(self.lock)
         self.should_remove = should_remove
+        self.written = 0
+        self.overwritten = 0
 
     def write(self, data: T):
         """
@@ -40,8 +44,11 @@ class CircularBuffer(Generic[T]):
         with self.lock:
             self.buffer[self.write_index] = data
             self.write_index = (self.write_index + 1) % self.capacity
+            self.written += 1
             if self.size < self.capacity:
                 self.size += 1
+            else:
+                self.overwritten += 1
             self.not_empty.notify_all()
 
     def read_and_block(self) -> T:
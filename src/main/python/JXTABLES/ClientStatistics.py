@@ -46,6 +46,11 @@ class ClientStatistics:
         self.uuid = None
         self.buffer_size = None
         self.max_buffer_size = None
+        self.push_enqueued = None
+        self.push_overwritten = None
+        self.push_send_failed = None
+        self.subscribe_received = None
+        self.subscribe_overwritten = None
 
     def set_version(self, version):
         self.version = version
@@ -63,6 +68,26 @@ class ClientStatistics:
         self.max_buffer_size = max_buffer_size
         return self
 
+    def set_push_enqueued(self, push_enqueued):
+        self.push_enqueued = push_enqueued
+        return self
+
+    def set_push_overwritten(self, push_overwritten):
+        self.push_overwritten = push_overwritten
+        return self
+
+    def set_push_send_failed(self, push_send_failed):
+        self.push_send_failed = push_send_failed
+        return self
+
+    def set_subscribe_received(self, subscribe_received):
+        self.subscribe_received = subscribe_received
+        return self
+
+    def set_subscribe_overwritten(self, subscribe_overwritten):
+        self.subscribe_overwritten = subscribe_overwritten
+        return self
+
     @staticmethod
     def get_local_ip_address():
         try:
@@ -113,6 +138,11 @@ class ClientStatistics:
         stats.uuid = self.uuid if self.uuid else ""
         stats.buffer_size = self.buffer_size if self.buffer_size else 0
         stats.max_buffer_size = self.max_buffer_size if self.max_buffer_size else 0
+        stats.push_enqueued = self.push_enqueued if self.push_enqueued else 0
+        stats.push_overwritten = self.push_overwritten if self.push_overwritten else 0
+        stats.push_send_failed = self.push_send_failed if self.push_send_failed else 0
+        stats.subscribe_received = self.subscribe_received if self.subscribe_received else 0
+        stats.subscribe_overwritten = self.subscribe_overwritten if self.subscribe_overwritten else 0
 
         return stats
 
@@ -141,5 +171,10 @@ class ClientStatistics:
         stats.uuid = stats_pb.uuid if stats_pb.uuid else None
         stats.buffer_size = stats_pb.buffer_size if stats_pb.buffer_size else None
         stats.max_buffer_size = stats_pb.max_buffer_size if stats_pb.max_buffer_size else None
+        stats.push_enqueued = stats_pb.push_enqueued if stats_pb.push_enqueued else None
+        stats.push_overwritten = stats_pb.push_overwritten if stats_pb.push_overwritten else None
+        stats.push_send_failed = stats_pb.push_send_failed if stats_pb.push_send_failed else None
+        stats.subscribe_received = stats_pb.subscribe_received if stats_pb.subscribe_received else None
+        stats.subscribe_overwritten = stats_pb.subscribe_overwritten if stats_pb.subscribe_overwritten else None
 
         return stats
@@ -1,4 +1,5 @@
 import threading
+from collections import deque
 from typing import Callable, List, Dict, Any
 import zmq
 import traceback
@@ -9,26 +10,34 @@ try:
     from .BaseHandler import BaseHandler
     from .ClientStatistics import ClientStatistics
     from .CircularBuffer import CircularBuffer
+    from .XTablesTopics import XTablesTopics
     from . import XTableProto_pb2 as XTableProto
 except ImportError:
     # Standalone script imports
     from BaseHandler import BaseHandler
     from ClientStatistics import ClientStatistics
     from CircularBuffer import CircularBuffer
+    from XTablesTopics import XTablesTopics
     import XTableProto_pb2 as XTableProto
 
 
 class SubscribeHandler(BaseHandler):
     """
     A handler for processing incoming subscription messages using ZeroMQ.
+    Current values read when subscribing are handed to their consumer on the same consumer thread,
+    so no consumer is called from two threads at once.
     """
+    # Written to the buffer to wake the consumer thread when current values are waiting to be handed out.
+    WAKE_UP = XTableProto.XTableMessage.XTableUpdate()
 
     def __init__(self, socket: zmq.Socket, instance: Any):
         super().__init__("XTABLES-SUBSCRIBE-HANDLER-DAEMON", True, socket)
         self._stop = False
         self.BUFFER_SIZE = instance.BUFFER_SIZE
         self.instance = instance
-        self.buffer = CircularBuffer(self.BUFFER_SIZE, lambda latest, current: latest.key == current.key)
+        self.buffer = CircularBuffer(self.BUFFER_SIZE, lambda latest, current:
+                                     (latest is self.WAKE_UP) == (current is self.WAKE_UP) and latest.key == current.key)
+        self.snapshots = deque()
         self.consumer_handling_thread = self.ConsumerHandlingThread(self)
         self.consumer_handling_thread.start()
 
@@ -39,7 +48,8 @@ class SubscribeHandler(BaseHandler):
         try:
             while not self._stop:
                 try:
-                    bytes_message = self.socket.recv()
+                    # Updates arrive as a topic frame followed by the update itself.
+                    bytes_message = self.socket.recv_multipart()[-1]
                     message = XTableProto.XTableMessage.XTableUpdate.FromString(bytes_message)
 
                     if message.category in {XTableProto.XTableMessage.XTableUpdate.Category.INFORMATION,
@@ -50,6 +60,11 @@ class SubscribeHandler(BaseHandler):
                             stats.set_uuid(self.instance.uuid)
                             stats.set_version(self.instance.get_version())
                             stats.set_max_buffer_size(self.BUFFER_SIZE)
+                            stats.set_subscribe_received(self.buffer.written)
+                            stats.set_subscribe_overwritten(self.buffer.overwritten)
+                            # Pushes are sent straight from the calling thread, so nothing is ever overwritten.
+                            stats.set_push_enqueued(self.instance.push_enqueued)
+                            stats.set_push_send_failed(self.instance.push_send_failed)
                             info_bytes = stats.to_protobuf()
                             response = XTableProto.XTableMessage(
                                 id=message.value,
@@ -59,6 +74,9 @@ class SubscribeHandler(BaseHandler):
                                 else XTableProto.XTableMessage.Command.REGISTRY,
                             )
                             self.instance.registry_socket.send(response.SerializeToString(), zmq.DONTWAIT)
+                    elif message.category == XTableProto.XTableMessage.XTableUpdate.Category.BATCH:
+                        for update in message.batch:
+                            self.buffer.write(update)
                     else:
                         self.buffer.write(message)
 
@@ -74,6 +92,16 @@ class SubscribeHandler(BaseHandler):
                 traceback.print_exc()
             self.handle_exception(e)
 
+    def deliver(self, consumer: Callable, updates: List):
+        """
+        Hands current values to a single consumer on the consumer thread, ahead of the next update it
+        handles. Unlike updates from the server, they are never overwritten while waiting.
+        """
+        if not updates:
+            return
+        self.snapshots.append((consumer, updates))
+        self.buffer.write(self.WAKE_UP)
+
     def interrupt(self):
         """
         Handles cleanup and interrupts the consumer handling thread.
@@ -98,6 +126,13 @@ class SubscribeHandler(BaseHandler):
                 while not self.parent_handler._stop:
                     try:
                         update = self.parent_handler.buffer.read_latest_and_clear_on_function()
+                        snapshots = self.parent_handler.snapshots
+                        while snapshots:
+                            consumer, values = snapshots.popleft()
+                            for value in values:
+                                consumer(value)
+                        if update is SubscribeHandler.WAKE_UP:
+                            continue
 
                         if update.category in {XTableProto.XTableMessage.XTableUpdate.Category.UPDATE,
                                                XTableProto.XTableMessage.XTableUpdate.Category.PUBLISH}:
@@ -128,6 +163,11 @@ class SubscribeHandler(BaseHandler):
                 for consumer in general_consumers:
                     consumer(update)
 
+            for prefix, consumers in list(self.parent_handler.instance.tree_subscription_consumers.items()):
+                if XTablesTopics.is_in_tree(update.key, prefix):
+                    for consumer in consumers:
+                        consumer(update)
+
         def _process_log_consumers(self, update):
             """
             Process log consumers for LOG category.
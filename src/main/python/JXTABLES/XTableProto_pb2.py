@@ -14,7 +14,7 @@ _sym_db = _symbol_database.Default()
 
 
 
-DESCRIPTOR = _descriptor_pool.Default().AddSerializedFile(b'\n\x18protos/XTableProto.proto\x12 org.kobe.xbot.Utilities.Entities\"\x94\x10\n\rXTableMessage\x12H\n\x07\x63ommand\x18\x01 \x01(\x0e\x32\x37.org.kobe.xbot.Utilities.Entities.XTableMessage.Command\x12\x10\n\x03key\x18\x02 \x01(\tH\x00\x88\x01\x01\x12\x12\n\x05value\x18\x03 \x01(\x0cH\x01\x88\x01\x01\x12G\n\x04type\x18\x04 \x01(\x0e\x32\x34.org.kobe.xbot.Utilities.Entities.XTableMessage.TypeH\x02\x88\x01\x01\x12\x0f\n\x02id\x18\x05 \x01(\x0cH\x03\x88\x01\x01\x12>\n\x05\x62\x61tch\x18\x06 \x03(\x0b\x32/.org.kobe.xbot.Utilities.Entities.XTableMessage\x12\x16\n\ttimestamp\x18\x07 \x01(\x04H\x04\x88\x01\x01\x1a\x9f\x02\n\x0bXTablesData\x12S\n\x04\x64\x61ta\x18\x01 \x03(\x0b\x32\x45.org.kobe.xbot.Utilities.Entities.XTableMessage.XTablesData.DataEntry\x12\r\n\x05value\x18\x02 \x01(\x0c\x12\x42\n\x04type\x18\x03 \x01(\x0e\x32\x34.org.kobe.xbot.Utilities.Entities.XTableMessage.Type\x1ah\n\tDataEntry\x12\x0b\n\x03key\x18\x01 \x01(\t\x12J\n\x05value\x18\x02 \x01(\x0b\x32;.org.kobe.xbot.Utilities.Entities.XTableMessage.XTablesData:\x02\x38\x01\x1a\xb0\x01\n\tXTableLog\x12N\n\x05level\x18\x01 \x01(\x0e\x32?.org.kobe.xbot.Utilities.Entities.XTableMessage.XTableLog.Level\x12\x0f\n\x07message\x18\x02 \x01(\t\"B\n\x05Level\x12\x0b\n\x07UNKNOWN\x10\x00\x12\x08\n\x04INFO\x10\x01\x12\x0b\n\x07WARNING\x10\x02\x12\n\n\x06SEVERE\x10\x03\x12\t\n\x05\x46\x41TAL\x10\x04\x1a\xd3\x02\n\x0cXTableUpdate\x12\x0b\n\x03key\x18\x01 \x01(\t\x12W\n\x08\x63\x61tegory\x18\x02 \x01(\x0e\x32\x45.org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate.Category\x12\r\n\x05value\x18\x03 \x01(\x0c\x12\x42\n\x04type\x18\x04 \x01(\x0e\x32\x34.org.kobe.xbot.Utilities.Entities.XTableMessage.Type\x12\x16\n\ttimestamp\x18\x05 \x01(\x04H\x00\x88\x01\x01\"d\n\x08\x43\x61tegory\x12\x0b\n\x07UNKNOWN\x10\x00\x12\n\n\x06UPDATE\x10\x01\x12\n\n\x06\x44\x45LETE\x10\x02\x12\x0b\n\x07PUBLISH\x10\x03\x12\x0c\n\x08REGISTRY\x10\x04\x12\x0f\n\x0bINFORMATION\x10\x05\x12\x07\n\x03LOG\x10\x06\x42\x0c\n\n_timestamp\x1a\x92\x01\n\nClientInfo\x12\x12\n\nip_address\x18\x01 \x01(\t\x12\x10\n\x08hostname\x18\x02 \x01(\t\x12\x18\n\x10operating_system\x18\x03 \x01(\t\x12\x0c\n\x04port\x18\x04 \x01(\x05\x12\x11\n\tis_active\x18\x05 \x01(\x08\x12\x0f\n\x07version\x18\x06 \x01(\t\x12\x12\n\nuser_agent\x18\x07 \x01(\t\"\x92\x03\n\x04Type\x12\x0b\n\x07UNKNOWN\x10\x00\x12\n\n\x06STRING\x10\x01\x12\n\n\x06\x44OUBLE\x10\x02\x12\t\n\x05INT32\x10\x03\x12\t\n\x05INT64\x10\x05\x12\x08\n\x04\x42OOL\x10\x06\x12\t\n\x05\x42YTES\x10\x07\x12\x08\n\x04\x45NUM\x10\x08\x12\x0b\n\x07MESSAGE\x10\t\x12\x0f\n\x0b\x44OUBLE_LIST\x10\n\x12\x0f\n\x0bSTRING_LIST\x10\x0b\x12\x0e\n\nFLOAT_LIST\x10\x0c\x12\x10\n\x0cINTEGER_LIST\x10\r\x12\r\n\tLONG_LIST\x10\x0e\x12\x10\n\x0c\x42OOLEAN_LIST\x10\x0f\x12\x0e\n\nBYTES_LIST\x10\x10\x12\n\n\x06OBJECT\x10\x11\x12\n\n\x06POSE2D\x10\x12\x12\n\n\x06POSE3D\x10\x13\x12\x0f\n\x0b\x43OORDINATES\x10\x14\x12\x11\n\rBEZIER_CURVES\x10\x15\x12\x10\n\x0c\x42\x45ZIER_CURVE\x10\x16\x12\x16\n\x12\x42\x45ZIER_CURVES_LIST\x10\x17\x12#\n\x1f\x41LIGN_TO_REEF_APRIL_TAG_OPTIONS\x10\x18\x12\x17\n\x13PROBABILITY_MAPPING\x10\x19\"\xdb\x02\n\x07\x43ommand\x12\x13\n\x0fUNKNOWN_COMMAND\x10\x00\x12\x07\n\x03PUT\x10\x01\x12\x07\n\x03GET\x10\x02\x12\t\n\x05\x44\x45\x42UG\x10\x03\x12\x0e\n\nGET_TABLES\x10\x04\x12\x0e\n\nRUN_SCRIPT\x10\x05\x12\x0e\n\nUPDATE_KEY\x10\x06\x12\n\n\x06\x44\x45LETE\x10\x07\x12\x0b\n\x07PUBLISH\x10\x08\x12\x14\n\x10SUBSCRIBE_DELETE\x10\t\x12\x16\n\x12UNSUBSCRIBE_DELETE\x10\n\x12\x16\n\x12UNSUBSCRIBE_UPDATE\x10\x0b\x12\x08\n\x04PING\x10\x0c\x12\x10\n\x0cGET_RAW_JSON\x10\r\x12\x10\n\x0c\x44\x45LETE_EVENT\x10\x0e\x12\x10\n\x0cUPDATE_EVENT\x10\x0f\x12\x0f\n\x0bINFORMATION\x10\x10\x12\x11\n\rREBOOT_SERVER\x10\x11\x12\x0c\n\x08REGISTRY\x10\x12\x12\t\n\x05\x42\x41TCH\x10\x13\x12\x12\n\x0eGET_PROTO_DATA\x10\x14\x42\x06\n\x04_keyB\x08\n\x06_valueB\x07\n\x05_typeB\x05\n\x03_idB\x0c\n\n_timestampb\x06proto3')
+DESCRIPTOR = _descriptor_pool.Default().AddSerializedFile(b'\n\x18protos/XTableProto.proto\x12 org.kobe.xbot.Utilities.Entities\"\x9f\x13\n\rXTableMessage\x12H\n\x07\x63ommand\x18\x01 \x01(\x0e\x32\x37.org.kobe.xbot.Utilities.Entities.XTableMessage.Command\x12\x10\n\x03key\x18\x02 \x01(\tH\x00\x88\x01\x01\x12\x12\n\x05value\x18\x03 \x01(\x0cH\x01\x88\x01\x01\x12G\n\x04type\x18\x04 \x01(\x0e\x32\x34.org.kobe.xbot.Utilities.Entities.XTableMessage.TypeH\x02\x88\x01\x01\x12\x0f\n\x02id\x18\x05 \x01(\x0cH\x03\x88\x01\x01\x12>\n\x05\x62\x61tch\x18\x06 \x03(\x0b\x32/.org.kobe.xbot.Utilities.Entities.XTableMessage\x12\x16\n\ttimestamp\x18\x07 \x01(\x04H\x04\x88\x01\x01\x12\x12\n\x05limit\x18\x08 \x01(\rH\x05\x88\x01\x01\x12\x1c\n\x0fstart_timestamp\x18\t \x01(\x04H\x06\x88\x01\x01\x12\x1a\n\rend_timestamp\x18\n \x01(\x04H\x07\x88\x01\x01\x12\x10\n\x03ttl\x18\x0b \x01(\x04H\x08\x88\x01\x01\x12\x15\n\x08\x65xpected\x18\x0c \x01(\x0cH\t\x88\x01\x01\x1a\xb2\x02\n\x0bXTablesData\x12S\n\x04\x64\x61ta\x18\x01 \x03(\x0b\x32\x45.org.kobe.xbot.Utilities.Entities.XTableMessage.XTablesData.DataEntry\x12\r\n\x05value\x18\x02 \x01(\x0c\x12\x42\n\x04type\x18\x03 \x01(\x0e\x32\x34.org.kobe.xbot.Utilities.Entities.XTableMessage.Type\x12\x11\n\ttimestamp\x18\x04 \x01(\x03\x1ah\n\tDataEntry\x12\x0b\n\x03key\x18\x01 \x01(\t\x12J\n\x05value\x18\x02 \x01(\x0b\x32;.org.kobe.xbot.Utilities.Entities.XTableMessage.XTablesData:\x02\x38\x01\x1a\xb0\x01\n\tXTableLog\x12N\n\x05level\x18\x01 \x01(\x0e\x32?.org.kobe.xbot.Utilities.Entities.XTableMessage.XTableLog.Level\x12\x0f\n\x07message\x18\x02 \x01(\t\"B\n\x05Level\x12\x0b\n\x07UNKNOWN\x10\x00\x12\x08\n\x04INFO\x10\x01\x12\x0b\n\x07WARNING\x10\x02\x12\n\n\x06SEVERE\x10\x03\x12\t\n\x05\x46\x41TAL\x10\x04\x1a\xab\x03\n\x0cXTableUpdate\x12\x0b\n\x03key\x18\x01 \x01(\t\x12W\n\x08\x63\x61tegory\x18\x02 \x01(\x0e\x32\x45.org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate.Category\x12\r\n\x05value\x18\x03 \x01(\x0c\x12\x42\n\x04type\x18\x04 \x01(\x0e\x32\x34.org.kobe.xbot.Utilities.Entities.XTableMessage.Type\x12\x16\n\ttimestamp\x18\x05 \x01(\x04H\x00\x88\x01\x01\x12K\n\x05\x62\x61tch\x18\x06 \x03(\x0b\x32<.org.kobe.xbot.Utilities.Entities.XTableMessage.XTableUpdate\"o\n\x08\x43\x61tegory\x12\x0b\n\x07UNKNOWN\x10\x00\x12\n\n\x06UPDATE\x10\x01\x12\n\n\x06\x44\x45LETE\x10\x02\x12\x0b\n\x07PUBLISH\x10\x03\x12\x0c\n\x08REGISTRY\x10\x04\x12\x0f\n\x0bINFORMATION\x10\x05\x12\x07\n\x03LOG\x10\x06\x12\t\n\x05\x42\x41TCH\x10\x07\x42\x0c\n\n_timestamp\x1a\x92\x01\n\nClientInfo\x12\x12\n\nip_address\x18\x01 \x01(\t\x12\x10\n\x08hostname\x18\x02 \x01(\t\x12\x18\n\x10operating_system\x18\x03 \x01(\t\x12\x0c\n\x04port\x18\x04 \x01(\x05\x12\x11\n\tis_active\x18\x05 \x01(\x08\x12\x0f\n\x07version\x18\x06 \x01(\t\x12\x12\n\nuser_agent\x18\x07 \x01(\t\"\x92\x03\n\x04Type\x12\x0b\n\x07UNKNOWN\x10\x00\x12\n\n\x06STRING\x10\x01\x12\n\n\x06\x44OUBLE\x10\x02\x12\t\n\x05INT32\x10\x03\x12\t\n\x05INT64\x10\x05\x12\x08\n\x04\x42OOL\x10\x06\x12\t\n\x05\x42YTES\x10\x07\x12\x08\n\x04\x45NUM\x10\x08\x12\x0b\n\x07MESSAGE\x10\t\x12\x0f\n\x0b\x44OUBLE_LIST\x10\n\x12\x0f\n\x0bSTRING_LIST\x10\x0b\x12\x0e\n\nFLOAT_LIST\x10\x0c\x12\x10\n\x0cINTEGER_LIST\x10\r\x12\r\n\tLONG_LIST\x10\x0e\x12\x10\n\x0c\x42OOLEAN_LIST\x10\x0f\x12\x0e\n\nBYTES_LIST\x10\x10\x12\n\n\x06OBJECT\x10\x11\x12\n\n\x06POSE2D\x10\x12\x12\n\n\x06POSE3D\x10\x13\x12\x0f\n\x0b\x43OORDINATES\x10\x14\x12\x11\n\rBEZIER_CURVES\x10\x15\x12\x10\n\x0c\x42\x45ZIER_CURVE\x10\x16\x12\x16\n\x12\x42\x45ZIER_CURVES_LIST\x10\x17\x12#\n\x1f\x41LIGN_TO_REEF_APRIL_TAG_OPTIONS\x10\x18\x12\x17\n\x13PROBABILITY_MAPPING\x10\x19\"\xbf\x03\n\x07\x43ommand\x12\x13\n\x0fUNKNOWN_COMMAND\x10\x00\x12\x07\n\x03PUT\x10\x01\x12\x07\n\x03GET\x10\x02\x12\t\n\x05\x44\x45\x42UG\x10\x03\x12\x0e\n\nGET_TABLES\x10\x04\x12\x0e\n\nRUN_SCRIPT\x10\x05\x12\x0e\n\nUPDATE_KEY\x10\x06\x12\n\n\x06\x44\x45LETE\x10\x07\x12\x0b\n\x07PUBLISH\x10\x08\x12\x14\n\x10SUBSCRIBE_DELETE\x10\t\x12\x16\n\x12UNSUBSCRIBE_DELETE\x10\n\x12\x16\n\x12UNSUBSCRIBE_UPDATE\x10\x0b\x12\x08\n\x04PING\x10\x0c\x12\x10\n\x0cGET_RAW_JSON\x10\r\x12\x10\n\x0c\x44\x45LETE_EVENT\x10\x0e\x12\x10\n\x0cUPDATE_EVENT\x10\x0f\x12\x0f\n\x0bINFORMATION\x10\x10\x12\x11\n\rREBOOT_SERVER\x10\x11\x12\x0c\n\x08REGISTRY\x10\x12\x12\t\n\x05\x42\x41TCH\x10\x13\x12\x12\n\x0eGET_PROTO_DATA\x10\x14\x12\x0f\n\x0bGET_HISTORY\x10\x15\x12\r\n\tGET_RANGE\x10\x16\x12\x0f\n\x0bGET_SUBTREE\x10\x17\x12\r\n\tMULTI_GET\x10\x18\x12\x07\n\x03\x43\x41S\x10\x19\x12\r\n\tINCREMENT\x10\x1a\x12\n\n\x06\x41PPEND\x10\x1b\x42\x06\n\x04_keyB\x08\n\x06_valueB\x07\n\x05_typeB\x05\n\x03_idB\x0c\n\n_timestampB\x08\n\x06_limitB\x12\n\x10_start_timestampB\x10\n\x0e_end_timestampB\x06\n\x04_ttlB\x0b\n\t_expectedb\x06proto3')
 
 _globals = globals()
 _builder.BuildMessageAndEnumDescriptors(DESCRIPTOR, _globals)
@@ -24,23 +24,23 @@ if _descriptor._USE_C_DESCRIPTORS == False:
   _globals['_XTABLEMESSAGE_XTABLESDATA_DATAENTRY']._options = None
   _globals['_XTABLEMESSAGE_XTABLESDATA_DATAENTRY']._serialized_options = b'8\001'
   _globals['_XTABLEMESSAGE']._serialized_start=63
-  _globals['_XTABLEMESSAGE']._serialized_end=2131
-  _globals['_XTABLEMESSAGE_XTABLESDATA']._serialized_start=371
-  _globals['_XTABLEMESSAGE_XTABLESDATA']._serialized_end=658
-  _globals['_XTABLEMESSAGE_XTABLESDATA_DATAENTRY']._serialized_start=554
-  _globals['_XTABLEMESSAGE_XTABLESDATA_DATAENTRY']._serialized_end=658
-  _globals['_XTABLEMESSAGE_XTABLELOG']._serialized_start=661
-  _globals['_XTABLEMESSAGE_XTABLELOG']._serialized_end=837
-  _globals['_XTABLEMESSAGE_XTABLELOG_LEVEL']._serialized_start=771
-  _globals['_XTABLEMESSAGE_XTABLELOG_LEVEL']._serialized_end=837
-  _globals['_XTABLEMESSAGE_XTABLEUPDATE']._serialized_start=840
-  _globals['_XTABLEMESSAGE_XTABLEUPDATE']._serialized_end=1179
-  _globals['_XTABLEMESSAGE_XTABLEUPDATE_CATEGORY']._serialized_start=1065
-  _globals['_XTABLEMESSAGE_XTABLEUPDATE_CATEGORY']._serialized_end=1165
-  _globals['_XTABLEMESSAGE_CLIENTINFO']._serialized_start=1182
-  _globals['_XTABLEMESSAGE_CLIENTINFO']._serialized_end=1328
-  _globals['_XTABLEMESSAGE_TYPE']._serialized_start=1331
-  _globals['_XTABLEMESSAGE_TYPE']._serialized_end=1733
-  _globals['_XTABLEMESSAGE_COMMAND']._serialized_start=1736
-  _globals['_XTABLEMESSAGE_COMMAND']._serialized_end=2083
+  _globals['_XTABLEMESSAGE']._serialized_end=2526
+  _globals['_XTABLEMESSAGE_XTABLESDATA']._serialized_start=490
+  _globals['_XTABLEMESSAGE_XTABLESDATA']._serialized_end=796
+  _globals['_XTABLEMESSAGE_XTABLESDATA_DATAENTRY']._serialized_start=692
+  _globals['_XTABLEMESSAGE_XTABLESDATA_DATAENTRY']._serialized_end=796
+  _globals['_XTABLEMESSAGE_XTABLELOG']._serialized_start=799
+  _globals['_XTABLEMESSAGE_XTABLELOG']._serialized_end=975
+  _globals['_XTABLEMESSAGE_XTABLELOG_LEVEL']._serialized_start=909
+  _globals['_XTABLEMESSAGE_XTABLELOG_LEVEL']._serialized_end=975
+  _globals['_XTABLEMESSAGE_XTABLEUPDATE']._serialized_start=978
+  _globals['_XTABLEMESSAGE_XTABLEUPDATE']._serialized_end=1405
+  _globals['_XTABLEMESSAGE_XTABLEUPDATE_CATEGORY']._serialized_start=1280
+  _globals['_XTABLEMESSAGE_XTABLEUPDATE_CATEGORY']._serialized_end=1391
+  _globals['_XTABLEMESSAGE_CLIENTINFO']._serialized_start=1408
+  _globals['_XTABLEMESSAGE_CLIENTINFO']._serialized_end=1554
+  _globals['_XTABLEMESSAGE_TYPE']._serialized_start=1557
+  _globals['_XTABLEMESSAGE_TYPE']._serialized_end=1959
+  _globals['_XTABLEMESSAGE_COMMAND']._serialized_start=1962
+  _globals['_XTABLEMESSAGE_COMMAND']._serialized_end=2409
 # @@protoc_insertion_point(module_scope)
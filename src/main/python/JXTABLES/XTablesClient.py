@@ -18,6 +18,7 @@ try:
     from .XTablesByteUtils import XTablesByteUtils
     from . import TempConnectionManager as tcm
     from .XTablesSocketMonitor import XTablesSocketMonitor
+    from .XTablesTopics import XTablesTopics
 except ImportError:
     # Standalone script imports
     import XTableProto_pb2 as XTableProto
@@ -27,6 +28,7 @@ except ImportError:
     from PingResponse import PingResponse
     from XTablesByteUtils import XTablesByteUtils
     from XTablesSocketMonitor import XTablesSocketMonitor
+    from XTablesTopics import XTablesTopics
 
 
 class XTablesClient:
@@ -61,7 +63,11 @@ class XTablesClient:
         self.sub_socket.setsockopt(zmq.RECONNECT_IVL_MAX, 1000)
         self.sub_socket.set_hwm(500)
         self.subscribe_messages_count = 0
+        # Messages handed to the PUSH socket, and those it refused because its HWM was reached
+        self.push_enqueued = 0
+        self.push_send_failed = 0
         self.subscription_consumers = {}
+        self.tree_subscription_consumers = {}
         self.uuid = str(uuid.uuid4())
         self.ip = ip
         self.logger = logging.getLogger(__name__)
@@ -96,13 +102,10 @@ class XTablesClient:
             self.registry_socket.connect(f"tcp://{self.ip}:{self.push_port}")
         self.req_socket.connect(f"tcp://{self.ip}:{self.req_port}")
         self.sub_socket.connect(f"tcp://{self.ip}:{self.sub_port}")
-        message = XTableProto.XTableMessage.XTableUpdate()
-        message.category = XTableProto.XTableMessage.XTableUpdate.Category.REGISTRY
-        bytes_registry = message.SerializeToString()
-        self.sub_socket.setsockopt(zmq.SUBSCRIBE, bytes_registry)
-        message.category = XTableProto.XTableMessage.XTableUpdate.Category.INFORMATION
-        bytes_information = message.SerializeToString()
-        self.sub_socket.setsockopt(zmq.SUBSCRIBE, bytes_information)
+        self.sub_socket.setsockopt(zmq.SUBSCRIBE, XTablesTopics.for_category(XTableProto.XTableMessage.XTableUpdate.Category.REGISTRY))
+        self.sub_socket.setsockopt(zmq.SUBSCRIBE, XTablesTopics.for_category(XTableProto.XTableMessage.XTableUpdate.Category.INFORMATION))
+        # Batched updates are filtered by key on this side, since a frame holds updates for many keys.
+        self.sub_socket.setsockopt(zmq.SUBSCRIBE, XTablesTopics.for_category(XTableProto.XTableMessage.XTableUpdate.Category.BATCH))
         self.subscribe_handler = SubscribeHandler(self.sub_socket, self)
         self.subscribe_handler.start()
 
@@ -155,13 +158,10 @@ class XTablesClient:
             self.sub_socket.connect(f"tcp://{self.ip}:{self.sub_port}")
 
             # Re-initialize subscription
-            message = XTableProto.XTableMessage.XTableUpdate()
-            message.category = XTableProto.XTableMessage.XTableUpdate.Category.REGISTRY
-            bytes_registry = message.SerializeToString()
-            self.sub_socket.setsockopt(zmq.SUBSCRIBE, bytes_registry)
-            message.category = XTableProto.XTableMessage.XTableUpdate.Category.INFORMATION
-            bytes_information = message.SerializeToString()
-            self.sub_socket.setsockopt(zmq.SUBSCRIBE, bytes_information)
+            self.sub_socket.setsockopt(zmq.SUBSCRIBE, XTablesTopics.for_category(XTableProto.XTableMessage.XTableUpdate.Category.REGISTRY))
+            self.sub_socket.setsockopt(zmq.SUBSCRIBE, XTablesTopics.for_category(XTableProto.XTableMessage.XTableUpdate.Category.INFORMATION))
+            # Batched updates are filtered by key on this side, since a frame holds updates for many keys.
+            self.sub_socket.setsockopt(zmq.SUBSCRIBE, XTablesTopics.for_category(XTableProto.XTableMessage.XTableUpdate.Category.BATCH))
             if self.subscribe_handler:
                 self.subscribe_handler.interrupt()
             self.subscribe_handler = SubscribeHandler(self.sub_socket, self)
@@ -226,16 +226,20 @@ class XTablesClient:
 
         return None
 
-    def send_push_message(self, command, key, value, msg_type):
+    def send_push_message(self, command, key, value, msg_type, ttl=None):
         message = XTableProto.XTableMessage()
         message.key = key
         message.command = command
         message.value = value
         message.type = msg_type
+        if ttl is not None:
+            message.ttl = ttl
+        self.push_enqueued += 1
         try:
             self.push_socket.send(message.SerializeToString(), zmq.constants.DONTWAIT)
             return True
         except zmq.ZMQError and zmq.error.Again:
+            self.push_send_failed += 1
             if self.debug:
                 traceback.print_exc()
             return False
@@ -245,27 +249,32 @@ class XTablesClient:
         message.key = key
         message.command = XTableProto.XTableMessage.Command.PUBLISH
         message.value = value
+        self.push_enqueued += 1
         try:
             self.push_socket.send(message.SerializeToString(), zmq.constants.DONTWAIT)
             return True
         except zmq.ZMQError and zmq.error.Again:
+            self.push_send_failed += 1
             if self.debug:
                 traceback.print_exc()
             return False
 
-    def subscribe(self, key: str, consumer: Callable):
+    def subscribe(self, key: str, consumer: Callable, current_value=False):
         """
         Subscribes to a specific key and associates a consumer to process updates for that key.
+        With current_value, the key's current value is read with a MULTI_GET after subscribing and handed
+        only to this consumer as an UPDATE, on the consumer thread like every other update. An update that
+        arrives in between may be seen before it, or again after it.
 
         :param key: The key to subscribe to.
         :param consumer: The consumer function that processes updates for the specified key.
+        :param current_value: True to pass the key's current value to the consumer right away.
         :return: True if the subscription and consumer addition were successful, False otherwise.
         """
-        message = XTableProto.XTableMessage.XTableUpdate()
-        message.key = key
-        bytes_key = message.SerializeToString()
+        if current_value:
+            return self.subscribe_keys([key], consumer, True)
         try:
-            self.sub_socket.setsockopt(zmq.SUBSCRIBE, bytes_key)
+            self.sub_socket.setsockopt(zmq.SUBSCRIBE, XTablesTopics.for_key(key))
             if key not in self.subscription_consumers:
                 self.subscription_consumers[key] = []
             self.subscription_consumers[key].append(consumer)
@@ -276,6 +285,27 @@ class XTablesClient:
             print(f"Error subscribing to key {key}: {e}")
             return False
 
+    def subscribe_keys(self, keys, consumer: Callable, current_values=False):
+        """
+        Subscribes one consumer to several keys. With current_values, their current values are read with a
+        single MULTI_GET after subscribing, rather than one request per key, and handed to this consumer as
+        with subscribe(). Keys without a value are skipped.
+
+        :param keys: The keys to subscribe to.
+        :param consumer: The consumer function that processes updates for the specified keys.
+        :param current_values: True to pass the keys' current values to the consumer right away.
+        :return: True if every subscription and consumer addition was successful, False otherwise.
+        """
+        keys = list(keys)
+        for key in keys:
+            if not self.subscribe(key, consumer):
+                return False
+        if current_values and keys:
+            values = self.getMultiple(keys)
+            self.subscribe_handler.deliver(consumer, [self._to_update(entry) for entry in values.values()
+                                                      if entry is not None])
+        return True
+
     def subscribe_all(self, consumer: Callable):
         """
         Subscribes to updates for all keys and associates a consumer to process updates for all keys.
@@ -312,10 +342,7 @@ class XTablesClient:
                     if not consumers:
                         # If no consumers are left for this key, unsubscribe
                         del self.subscription_consumers[key]
-                        message = XTableProto.XTableMessage.XTableUpdate()
-                        message.key = key
-                        bytes_key = message.SerializeToString()
-                        self.sub_socket.setsockopt(zmq.UNSUBSCRIBE, bytes_key)
+                        self.sub_socket.setsockopt(zmq.UNSUBSCRIBE, XTablesTopics.for_key(key))
                     return True
             return False
         except zmq.ZMQError as e:
@@ -349,6 +376,74 @@ class XTablesClient:
             print(f"Error subscribing to all keys: {e}")
             return False
 
+    def subscribe_tree(self, prefix: str, consumer: Callable, current_values=False):
+        """
+        Subscribes to a key and everything below it, and associates a consumer to process their updates.
+        The filtering happens inside ZMQ, so updates outside the subtree are never received or parsed.
+        Subscribing to "SmartDashboard" (or "SmartDashboard.") receives "SmartDashboard" and
+        "SmartDashboard.Speed", but not "SmartDashboardOld". With current_values, the subtree's current
+        values are read with a single GET_SUBTREE and handed to this consumer as with subscribe().
+
+        :param prefix: The key at the root of the subtree.
+        :param consumer: The consumer function that processes updates for keys in the subtree.
+        :param current_values: True to pass the subtree's current values to the consumer right away.
+        :return: True if the subscription and consumer addition were successful, False otherwise.
+        """
+        root = XTablesTopics.normalize_tree(prefix)
+        try:
+            self.sub_socket.setsockopt(zmq.SUBSCRIBE, XTablesTopics.for_tree(root))
+            if root:
+                self.sub_socket.setsockopt(zmq.SUBSCRIBE, XTablesTopics.for_key(root))
+            # Replaced rather than appended to, so the consumer thread never sees a list change under it.
+            self.tree_subscription_consumers[root] = self.tree_subscription_consumers.get(root, []) + [consumer]
+        except zmq.ZMQError as e:
+            if self.debug:
+                traceback.print_exc()
+            print(f"Error subscribing to tree {prefix}: {e}")
+            return False
+        if current_values:
+            self.subscribe_handler.deliver(consumer, [self._to_update(entry) for entry in self.getSubtree(root)])
+        return True
+
+    @staticmethod
+    def _to_update(entry):
+        return XTableProto.XTableMessage.XTableUpdate(
+            category=XTableProto.XTableMessage.XTableUpdate.Category.UPDATE,
+            key=entry.key,
+            value=entry.value,
+            type=entry.type,
+            timestamp=entry.timestamp,
+        )
+
+    def unsubscribe_tree(self, prefix: str, consumer: Callable):
+        """
+        Unsubscribes a specific consumer from a subtree. If no consumers remain for the subtree,
+        it unsubscribes the subtree from the subscription socket.
+
+        :param prefix: The key at the root of the subtree.
+        :param consumer: The consumer function to remove from the subtree's subscription.
+        :return: True if the consumer was successfully removed, False otherwise.
+        """
+        root = XTablesTopics.normalize_tree(prefix)
+        try:
+            consumers = self.tree_subscription_consumers.get(root, [])
+            if consumer not in consumers:
+                return False
+            remaining = [c for c in consumers if c is not consumer]
+            if remaining:
+                self.tree_subscription_consumers[root] = remaining
+            else:
+                del self.tree_subscription_consumers[root]
+                self.sub_socket.setsockopt(zmq.UNSUBSCRIBE, XTablesTopics.for_tree(root))
+                if root:
+                    self.sub_socket.setsockopt(zmq.UNSUBSCRIBE, XTablesTopics.for_key(root))
+            return True
+        except zmq.ZMQError as e:
+            if self.debug:
+                traceback.print_exc()
+            print(f"Error unsubscribing from tree {prefix}: {e}")
+            return False
+
     # ====================
     # PUT Methods
     # ====================
@@ -356,6 +451,12 @@ class XTablesClient:
         return self.send_push_message(XTableProto.XTableMessage.Command.PUT, key, value,
                                       XTableProto.XTableMessage.Type.BYTES)
 
+    def putBytesWithTTL(self, key, value, msg_type, ttl):
+        """Puts a value that the server deletes after ttl milliseconds unless it is written again."""
+        if ttl <= 0:
+            raise ValueError("ttl must be greater than 0")
+        return self.send_push_message(XTableProto.XTableMessage.Command.PUT, key, value, msg_type, ttl)
+
     def putUnknownBytes(self, key, value):
         return self.send_push_message(XTableProto.XTableMessage.Command.PUT, key, value,
                                       XTableProto.XTableMessage.Type.UNKNOWN)
@@ -831,6 +932,175 @@ class XTablesClient:
                 traceback.print_exc()
             return []
 
+    def getHistory(self, key, limit=0):
+        message = XTableProto.XTableMessage()
+        message.command = XTableProto.XTableMessage.Command.GET_HISTORY
+        message.key = key
+        message.limit = limit
+        return self._get_history_samples(message)
+
+    def getHistoryRange(self, key, start, end, limit=0):
+        message = XTableProto.XTableMessage()
+        message.command = XTableProto.XTableMessage.Command.GET_RANGE
+        message.key = key
+        message.start_timestamp = start
+        message.end_timestamp = end
+        message.limit = limit
+        return self._get_history_samples(message)
+
+    def _get_history_samples(self, message):
+        try:
+            self.req_socket.send(message.SerializeToString(), zmq.constants.DONTWAIT)
+
+            response_bytes = self.req_socket.recv()
+            if not response_bytes:
+                return []
+
+            return list(XTableProto.XTableMessage.FromString(response_bytes).batch)
+        except zmq.error.ZMQError:
+            if self.debug:
+                traceback.print_exc()
+            print("Exception on REQ socket. Reconnecting to clear states.")
+            self._reconnect_req()
+            return []
+        except Exception:
+            if self.debug:
+                traceback.print_exc()
+            return []
+
+    def getMultiple(self, keys):
+        """Returns a dict from each key to its XTableMessage (value, type and timestamp), or None if it has no value."""
+        try:
+            message = XTableProto.XTableMessage()
+            message.command = XTableProto.XTableMessage.Command.MULTI_GET
+            for key in keys:
+                message.batch.add().key = key
+            self.req_socket.send(message.SerializeToString(), zmq.constants.DONTWAIT)
+
+            response_bytes = self.req_socket.recv()
+            if not response_bytes:
+                return {}
+
+            response_message = XTableProto.XTableMessage.FromString(response_bytes)
+            return {entry.key: (entry if entry.HasField("value") else None) for entry in response_message.batch}
+        except zmq.error.ZMQError:
+            if self.debug:
+                traceback.print_exc()
+            print("Exception on REQ socket. Reconnecting to clear states.")
+            self._reconnect_req()
+            return {}
+        except Exception:
+            if self.debug:
+                traceback.print_exc()
+            return {}
+
+    def compareAndSet(self, key, expected, value, msg_type):
+        """Stores value only if key holds exactly the expected bytes (or has no value when expected is None).
+        Returns True if the value was stored."""
+        message = XTableProto.XTableMessage()
+        message.command = XTableProto.XTableMessage.Command.CAS
+        message.key = key
+        message.value = value
+        message.type = msg_type
+        if expected is not None:
+            message.expected = expected
+        return self._send_atomic(message) is not None
+
+    def compareAndSetString(self, key, expected, value):
+        return self.compareAndSet(key, None if expected is None else expected.encode('utf-8'), value.encode('utf-8'),
+                                  XTableProto.XTableMessage.Type.STRING)
+
+    def incrementInteger(self, key, delta):
+        """Adds delta to an INT32 key on the server and returns the new value, or None if it failed."""
+        result = self._send_atomic(self._atomic_request(XTableProto.XTableMessage.Command.INCREMENT, key,
+                                                        struct.pack('!i', delta), XTableProto.XTableMessage.Type.INT32))
+        return struct.unpack('!i', result.value)[0] if result is not None else None
+
+    def incrementLong(self, key, delta):
+        result = self._send_atomic(self._atomic_request(XTableProto.XTableMessage.Command.INCREMENT, key,
+                                                        struct.pack('!q', delta), XTableProto.XTableMessage.Type.INT64))
+        return struct.unpack('!q', result.value)[0] if result is not None else None
+
+    def incrementDouble(self, key, delta):
+        result = self._send_atomic(self._atomic_request(XTableProto.XTableMessage.Command.INCREMENT, key,
+                                                        struct.pack('!d', delta), XTableProto.XTableMessage.Type.DOUBLE))
+        return struct.unpack('!d', result.value)[0] if result is not None else None
+
+    def appendDoubleList(self, key, value):
+        """Appends the values to a DOUBLE_LIST key on the server. Returns True if they were appended."""
+        return self._send_atomic(self._atomic_request(XTableProto.XTableMessage.Command.APPEND, key,
+                                                      XTableValues.DoubleList(v=value).SerializeToString(),
+                                                      XTableProto.XTableMessage.Type.DOUBLE_LIST)) is not None
+
+    def appendStringList(self, key, value):
+        return self._send_atomic(self._atomic_request(XTableProto.XTableMessage.Command.APPEND, key,
+                                                      XTableValues.StringList(v=value).SerializeToString(),
+                                                      XTableProto.XTableMessage.Type.STRING_LIST)) is not None
+
+    def appendIntegerList(self, key, value):
+        return self._send_atomic(self._atomic_request(XTableProto.XTableMessage.Command.APPEND, key,
+                                                      XTableValues.IntegerList(v=value).SerializeToString(),
+                                                      XTableProto.XTableMessage.Type.INTEGER_LIST)) is not None
+
+    def appendLongList(self, key, value):
+        return self._send_atomic(self._atomic_request(XTableProto.XTableMessage.Command.APPEND, key,
+                                                      XTableValues.LongList(v=value).SerializeToString(),
+                                                      XTableProto.XTableMessage.Type.LONG_LIST)) is not None
+
+    @staticmethod
+    def _atomic_request(command, key, value, msg_type):
+        message = XTableProto.XTableMessage()
+        message.command = command
+        message.key = key
+        message.value = value
+        message.type = msg_type
+        return message
+
+    def _send_atomic(self, message):
+        """Sends a CAS, INCREMENT or APPEND request and returns the value the key was left with, or None if it was not applied."""
+        try:
+            self.req_socket.send(message.SerializeToString(), zmq.constants.DONTWAIT)
+            response_bytes = self.req_socket.recv()
+            if not response_bytes:
+                return None
+            response_message = XTableProto.XTableMessage.FromString(response_bytes)
+            if response_message.value != self.SUCCESS_BYTE or not response_message.batch:
+                return None
+            return response_message.batch[0]
+        except zmq.error.ZMQError:
+            if self.debug:
+                traceback.print_exc()
+            print("Exception on REQ socket. Reconnecting to clear states.")
+            self._reconnect_req()
+            return None
+        except Exception:
+            if self.debug:
+                traceback.print_exc()
+            return None
+
+    def getSubtree(self, key=""):
+        """Returns every value under key as XTableMessages with their full key, type and timestamp."""
+        try:
+            message = XTableProto.XTableMessage()
+            message.command = XTableProto.XTableMessage.Command.GET_SUBTREE
+            message.key = key
+            self.req_socket.send(message.SerializeToString(), zmq.constants.DONTWAIT)
+
+            values = []
+            for frame in self.req_socket.recv_multipart():
+                values.extend(XTableProto.XTableMessage.FromString(frame).batch)
+            return values
+        except zmq.error.ZMQError:
+            if self.debug:
+                traceback.print_exc()
+            print("Exception on REQ socket. Reconnecting to clear states.")
+            self._reconnect_req()
+            return []
+        except Exception:
+            if self.debug:
+                traceback.print_exc()
+            return []
+
     # ====================
     # Version and Properties Methods
     # ====================
@@ -0,0 +1,60 @@
+try:
+    # Package-level imports
+    from . import XTableProto_pb2 as XTableProto
+except ImportError:
+    # Standalone script imports
+    import XTableProto_pb2 as XTableProto
+
+
+class XTablesTopics:
+    """
+    The topic frames that the server publishes updates under.
+
+    Every published message is a topic frame followed by the serialized XTableUpdate, and ZMQ matches
+    subscriptions against the topic frame only. An update for a key is published under the key followed
+    by a zero byte, the key's subtree is matched by the key followed by a dot, and messages without a key
+    are published under a topic that starts with a one byte. An empty topic still matches everything.
+    """
+    KEY_END = b"\x00"
+    CATEGORY_START = b"\x01"
+
+    @staticmethod
+    def for_key(key: str) -> bytes:
+        """
+        :param key: The key.
+        :return: The topic that updates for exactly this key are published under.
+        """
+        return key.encode("utf-8") + XTablesTopics.KEY_END
+
+    @staticmethod
+    def for_tree(prefix: str) -> bytes:
+        """
+        :param prefix: The subtree prefix, with or without a trailing dot.
+        :return: The topic prefix that matches every key below the prefix, or an empty topic for an empty prefix.
+        """
+        root = XTablesTopics.normalize_tree(prefix)
+        return (root + ".").encode("utf-8") if root else b""
+
+    @staticmethod
+    def for_category(category) -> bytes:
+        """
+        :param category: An XTableUpdate category.
+        :return: The topic that messages of the category without a key are published under.
+        """
+        name = XTableProto.XTableMessage.XTableUpdate.Category.Name(category)
+        return XTablesTopics.CATEGORY_START + name.encode("utf-8")
+
+    @staticmethod
+    def is_in_tree(key: str, prefix: str) -> bool:
+        """
+        :return: True if the key is the prefix itself or lies below it.
+        """
+        root = XTablesTopics.normalize_tree(prefix)
+        return not root or key == root or key.startswith(root + ".")
+
+    @staticmethod
+    def normalize_tree(prefix: str) -> str:
+        """
+        :return: The prefix without trailing dots, so "SmartDashboard." and "SmartDashboard" mean the same tree.
+        """
+        return prefix.rstrip(".")